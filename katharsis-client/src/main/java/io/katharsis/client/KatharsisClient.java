@@ -162,7 +162,7 @@ public class KatharsisClient {
 
 		@Override
 		protected synchronized RegistryEntry getEntry(Class<?> clazz, boolean allowNull) {
-			RegistryEntry entry = resources.get(clazz);
+			RegistryEntry entry = getEntryForClass(clazz);
 			if (entry == null) {
 				ResourceInformationBuilder informationBuilder = moduleRegistry.getResourceInformationBuilder();
 				if (!informationBuilder.accept(clazz)) {
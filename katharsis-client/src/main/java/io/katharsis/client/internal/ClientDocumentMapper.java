@@ -13,7 +13,6 @@ import io.katharsis.core.internal.boot.PropertiesProvider;
 import io.katharsis.core.internal.resource.DocumentMapper;
 import io.katharsis.core.internal.resource.DocumentMapperUtil;
 import io.katharsis.core.internal.resource.ResourceMapper;
-import io.katharsis.core.internal.utils.PropertyUtils;
 import io.katharsis.module.ModuleRegistry;
 import io.katharsis.repository.request.QueryAdapter;
 import io.katharsis.resource.Document;
@@ -52,7 +51,7 @@ public class ClientDocumentMapper extends DocumentMapper {
 				// we also include relationship data if it is not null and not a
 				// unloaded proxy
 				boolean includeRelation = true;
-				Object relationshipValue = PropertyUtils.getProperty(entity, field.getUnderlyingName());
+				Object relationshipValue = field.getAccessor().getValue(entity);
 				if (relationshipValue instanceof ObjectProxy) {
 					includeRelation = ((ObjectProxy) relationshipValue).isLoaded();
 				} else {
@@ -116,7 +116,7 @@ class ClientResourceUpsert extends ResourceUpsert {
 			ObjectReader linksMapper = objectMapper.readerFor(linksClass);
 			try {
 				Object links = linksMapper.readValue(linksNode);
-				PropertyUtils.setProperty(instance, linksField.getUnderlyingName(), links);
+				linksField.getAccessor().setValue(instance, links);
 			} catch (IOException e) {
 				throw new ResponseBodyException("failed to parse links information", e);
 			}
@@ -133,7 +133,7 @@ class ClientResourceUpsert extends ResourceUpsert {
 			ObjectReader metaMapper = objectMapper.readerFor(metaClass);
 			try {
 				Object meta = metaMapper.readValue(metaNode);
-				PropertyUtils.setProperty(instance, metaField.getUnderlyingName(), meta);
+				metaField.getAccessor().setValue(instance, meta);
 			} catch (IOException e) {
 				throw new ResponseBodyException("failed to parse links information", e);
 			}
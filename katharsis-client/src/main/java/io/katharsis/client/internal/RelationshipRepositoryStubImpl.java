@@ -9,7 +9,6 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import io.katharsis.client.KatharsisClient;
 import io.katharsis.client.RelationshipRepositoryStub;
 import io.katharsis.core.internal.utils.JsonApiUrlBuilder;
-import io.katharsis.core.internal.utils.PropertyUtils;
 import io.katharsis.legacy.queryParams.QueryParams;
 import io.katharsis.queryspec.QuerySpec;
 import io.katharsis.repository.RelationshipRepositoryV2;
@@ -70,7 +69,7 @@ public class RelationshipRepositoryStubImpl<T, I extends Serializable, D, J exte
 
 	private Serializable getSourceId(T source) {
 		ResourceField idField = sourceResourceInformation.getIdField();
-		return (Serializable) PropertyUtils.getProperty(source, idField.getUnderlyingName());
+		return (Serializable) idField.getAccessor().getValue(source);
 	}
 
 	@SuppressWarnings("unchecked")
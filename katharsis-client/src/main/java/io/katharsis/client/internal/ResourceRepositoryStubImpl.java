@@ -9,7 +9,6 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import io.katharsis.client.KatharsisClient;
 import io.katharsis.client.ResourceRepositoryStub;
 import io.katharsis.core.internal.utils.JsonApiUrlBuilder;
-import io.katharsis.core.internal.utils.PropertyUtils;
 import io.katharsis.legacy.queryParams.QueryParams;
 import io.katharsis.queryspec.QuerySpec;
 import io.katharsis.repository.ResourceRepositoryV2;
@@ -95,7 +94,7 @@ public class ResourceRepositoryStubImpl<T, I extends Serializable> extends Abstr
 			return null;
 		} else {
 			ResourceField idField = resourceInformation.getIdField();
-			return PropertyUtils.getProperty(entity, idField.getUnderlyingName());
+			return idField.getAccessor().getValue(entity);
 		}
 	}
 
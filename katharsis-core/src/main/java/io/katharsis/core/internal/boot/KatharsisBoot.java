@@ -1,6 +1,7 @@
 package io.katharsis.core.internal.boot;
 
 import java.util.List;
+import java.util.concurrent.Executor;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
@@ -87,6 +88,10 @@ public class KatharsisBoot {
 
 	private DocumentMapper documentMapper;
 
+	private Executor includeExecutor;
+
+	private Executor dispatchExecutor;
+
 	public void setObjectMapper(ObjectMapper objectMapper) {
 		PreconditionUtil.assertNull("ObjectMapper already set", this.objectMapper);
 		this.objectMapper = objectMapper;
@@ -159,6 +164,36 @@ public class KatharsisBoot {
 		this.serviceUrlProvider = serviceUrlProvider;
 	}
 
+	/**
+	 * Sets the executor used to look up relationships of an inclusion level
+	 * concurrently, see {@link KatharsisProperties#INCLUDE_PARALLELISM}.
+	 * Defaults to a bounded pool dedicated to inclusions, see
+	 * {@link io.katharsis.core.internal.resource.IncludeLookupScheduler#getExecutor()}.
+	 * Repositories relying on thread-bound state like transactions should use
+	 * an executor propagating that state or keep the default sequential
+	 * lookup.
+	 *
+	 * @param includeExecutor to use
+	 */
+	public void setIncludeExecutor(Executor includeExecutor) {
+		checkNotConfiguredYet();
+		this.includeExecutor = includeExecutor;
+	}
+
+	/**
+	 * Sets the executor requests are dispatched with if
+	 * {@link KatharsisProperties#DISPATCH_ASYNC} is enabled. Defaults to a
+	 * bounded pool dedicated to dispatching, see
+	 * {@link RequestDispatcher#getAsyncExecutor()}. Should be sized for the
+	 * expected number of concurrent requests blocking on I/O.
+	 *
+	 * @param dispatchExecutor to use
+	 */
+	public void setDispatchExecutor(Executor dispatchExecutor) {
+		checkNotConfiguredYet();
+		this.dispatchExecutor = dispatchExecutor;
+	}
+
 	private void checkNotConfiguredYet() {
 		if (configured) {
 			throw new IllegalStateException("cannot further modify KatharsisFeature once configured/initialized by JAX-RS");
@@ -218,6 +253,9 @@ public class KatharsisBoot {
 		ControllerRegistryBuilder controllerRegistryBuilder = new ControllerRegistryBuilder(resourceRegistry, moduleRegistry.getTypeParser(), objectMapper, propertiesProvider);
 		ControllerRegistry controllerRegistry = controllerRegistryBuilder.build();
 		this.documentMapper = controllerRegistryBuilder.getDocumentMapper();
+		if (includeExecutor != null) {
+			documentMapper.setIncludeExecutor(includeExecutor);
+		}
 
 		QueryAdapterBuilder queryAdapterBuilder;
 		if (queryParamsBuilder != null) {
@@ -226,7 +264,12 @@ public class KatharsisBoot {
 			queryAdapterBuilder = new QuerySpecAdapterBuilder(querySpecDeserializer, moduleRegistry);
 		}
 
-		return new RequestDispatcher(moduleRegistry, controllerRegistry, exceptionMapperRegistry, queryAdapterBuilder);
+		RequestDispatcher dispatcher = new RequestDispatcher(moduleRegistry, controllerRegistry, exceptionMapperRegistry, queryAdapterBuilder);
+		dispatcher.setAsyncThreads(RequestDispatcher.getAsyncThreads(propertiesProvider));
+		if (dispatchExecutor != null) {
+			dispatcher.setAsyncExecutor(dispatchExecutor);
+		}
+		return dispatcher;
 	}
 	
 	public DocumentMapper getDocumentMapper(){
@@ -351,6 +394,10 @@ public class KatharsisBoot {
 		this.propertiesProvider = propertiesProvider;
 	}
 
+	public PropertiesProvider getPropertiesProvider() {
+		return propertiesProvider;
+	}
+
 	public void setResourceFieldNameTransformer(ResourceFieldNameTransformer resourceFieldNameTransformer) {
 		this.resourceFieldNameTransformer = resourceFieldNameTransformer;
 	}
@@ -0,0 +1,43 @@
+package io.katharsis.core.internal.dispatcher;
+
+import java.util.concurrent.CompletionStage;
+
+import io.katharsis.core.internal.utils.CompletionStageUtils;
+import io.katharsis.repository.response.Response;
+import io.katharsis.resource.Document;
+
+/**
+ * Response of a controller that depends on a repository result which is not available yet, see
+ * {@link io.katharsis.core.internal.repository.adapter.PendingJsonApiResponse}. Asynchronously dispatched requests
+ * complete once {@link #getStage()} completes, any other access to the response waits for the stage to complete.
+ */
+public class PendingResponse extends Response {
+
+	private final CompletionStage<Response> stage;
+
+	public PendingResponse(CompletionStage<Response> stage) {
+		super(null, null);
+		this.stage = stage;
+	}
+
+	public CompletionStage<Response> getStage() {
+		return stage;
+	}
+
+	/**
+	 * @return the response once available
+	 */
+	public Response await() {
+		return CompletionStageUtils.await(stage);
+	}
+
+	@Override
+	public Integer getHttpStatus() {
+		return await().getHttpStatus();
+	}
+
+	@Override
+	public Document getDocument() {
+		return await().getDocument();
+	}
+}
@@ -4,14 +4,28 @@ import java.lang.reflect.ParameterizedType;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import io.katharsis.core.internal.boot.PropertiesProvider;
 import io.katharsis.core.internal.dispatcher.controller.BaseController;
 import io.katharsis.core.internal.dispatcher.path.JsonPath;
 import io.katharsis.core.internal.exception.ExceptionMapperRegistry;
 import io.katharsis.core.internal.query.QueryAdapterBuilder;
+import io.katharsis.core.internal.utils.CompletionStageUtils;
+import io.katharsis.core.internal.utils.PreconditionUtil;
+import io.katharsis.core.properties.KatharsisProperties;
 import io.katharsis.errorhandling.exception.RepositoryNotFoundException;
 import io.katharsis.errorhandling.exception.ResourceFieldNotFoundException;
 import io.katharsis.errorhandling.mapper.JsonApiExceptionMapper;
@@ -37,6 +51,16 @@ import io.katharsis.utils.Optional;
  */
 public class RequestDispatcher {
 
+	/**
+	 * Maximum number of threads of the default dispatch executor.
+	 */
+	public static final int DEFAULT_ASYNC_THREADS = 32;
+
+	/**
+	 * Maximum number of requests waiting for a thread of the default dispatch executor.
+	 */
+	public static final int DEFAULT_ASYNC_QUEUE_SIZE = 1000;
+
 	private Logger logger = LoggerFactory.getLogger(getClass());
 
 	private final ControllerRegistry controllerRegistry;
@@ -47,6 +71,10 @@ public class RequestDispatcher {
 
 	private QueryAdapterBuilder queryAdapterBuilder;
 
+	private Executor asyncExecutor;
+
+	private int asyncThreads = DEFAULT_ASYNC_THREADS;
+
 	public RequestDispatcher(ModuleRegistry moduleRegistry, ControllerRegistry controllerRegistry,
 			ExceptionMapperRegistry exceptionMapperRegistry, QueryAdapterBuilder queryAdapterBuilder) {
 		this.controllerRegistry = controllerRegistry;
@@ -55,6 +83,159 @@ public class RequestDispatcher {
 		this.queryAdapterBuilder = queryAdapterBuilder;
 	}
 
+	/**
+	 * @return true if {@link KatharsisProperties#DISPATCH_ASYNC} is enabled
+	 */
+	public static boolean isAsync(PropertiesProvider propertiesProvider) {
+		return propertiesProvider != null && Boolean.parseBoolean(propertiesProvider.getProperty(KatharsisProperties.DISPATCH_ASYNC));
+	}
+
+	/**
+	 * @return timeout in milliseconds as configured by {@link KatharsisProperties#DISPATCH_TIMEOUT} or null if not set
+	 */
+	public static Long getAsyncTimeout(PropertiesProvider propertiesProvider) {
+		String property = propertiesProvider != null ? propertiesProvider.getProperty(KatharsisProperties.DISPATCH_TIMEOUT) : null;
+		if (property == null || property.isEmpty()) {
+			return null;
+		}
+		return Long.parseLong(property.trim());
+	}
+
+	/**
+	 * @return number of threads as configured by {@link KatharsisProperties#DISPATCH_THREADS} or
+	 *         {@link #DEFAULT_ASYNC_THREADS} if not set
+	 */
+	public static int getAsyncThreads(PropertiesProvider propertiesProvider) {
+		String property = propertiesProvider != null ? propertiesProvider.getProperty(KatharsisProperties.DISPATCH_THREADS) : null;
+		if (property == null || property.isEmpty()) {
+			return DEFAULT_ASYNC_THREADS;
+		}
+		return Integer.parseInt(property.trim());
+	}
+
+	/**
+	 * @return executor requests are dispatched with by
+	 *         {@link #dispatchRequestAsync(JsonPath, String, Map, RepositoryMethodParameterProvider, Document)}. If none
+	 *         has been set, a dedicated pool of at most {@link #setAsyncThreads(int)} daemon threads and
+	 *         {@link #DEFAULT_ASYNC_QUEUE_SIZE} waiting requests is created. Repositories may block its threads, unlike
+	 *         the threads of the common ForkJoinPool.
+	 */
+	public synchronized Executor getAsyncExecutor() {
+		if (asyncExecutor == null) {
+			asyncExecutor = createDefaultAsyncExecutor(asyncThreads);
+		}
+		return asyncExecutor;
+	}
+
+	/**
+	 * @param asyncThreads maximum number of threads of the default dispatch executor, {@link #DEFAULT_ASYNC_THREADS}
+	 *            by default
+	 */
+	public synchronized void setAsyncThreads(int asyncThreads) {
+		PreconditionUtil.assertTrue("number of dispatch threads must be positive", asyncThreads > 0);
+		this.asyncThreads = asyncThreads;
+	}
+
+	private static Executor createDefaultAsyncExecutor(int threads) {
+		final AtomicInteger threadCount = new AtomicInteger();
+		ThreadFactory threadFactory = new ThreadFactory() {
+
+			@Override
+			public Thread newThread(Runnable runnable) {
+				Thread thread = new Thread(runnable, "katharsis-dispatch-" + threadCount.incrementAndGet());
+				thread.setDaemon(true);
+				return thread;
+			}
+		};
+		ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS,
+				new ArrayBlockingQueue<Runnable>(DEFAULT_ASYNC_QUEUE_SIZE), threadFactory);
+		executor.allowCoreThreadTimeOut(true);
+		return executor;
+	}
+
+	public synchronized void setAsyncExecutor(Executor asyncExecutor) {
+		this.asyncExecutor = asyncExecutor;
+	}
+
+	/**
+	 * Dispatches the request with the executor returned by {@link #getAsyncExecutor()}, see
+	 * {@link #dispatchRequestAsync(JsonPath, String, Map, RepositoryMethodParameterProvider, Document, Executor)}.
+	 */
+	public CompletionStage<Response> dispatchRequestAsync(JsonPath jsonPath, String method, Map<String, Set<String>> parameters,
+			RepositoryMethodParameterProvider parameterProvider, Document requestBody) {
+		return dispatchRequestAsync(jsonPath, method, parameters, parameterProvider, requestBody, getAsyncExecutor());
+	}
+
+	/**
+	 * Dispatches the request like
+	 * {@link #dispatchRequest(JsonPath, String, Map, RepositoryMethodParameterProvider, Document)}, but on a thread of
+	 * the given executor. The calling thread, typically a thread of the web container, returns immediately and is no
+	 * longer held while repositories are invoked and inclusions are resolved. If a repository returns a
+	 * {@link CompletionStage} that has not completed yet, the dispatching thread is released as well: the remaining
+	 * processing of the request, like mapping the result and resolving inclusions, is composed with the stage and runs
+	 * on the thread completing it. {@link DocumentFilter}s then see a {@link PendingResponse}.
+	 * <p>
+	 * Thread-bound state like the current request or transactions is not available to the dispatching thread unless
+	 * the executor takes care of it.
+	 * </p>
+	 *
+	 * @param executor to dispatch the request with
+	 * @return stage completed with the response or exceptionally with exceptions no mapper has been found for, with a
+	 *         {@link RejectedExecutionException} if the executor does not accept the request
+	 */
+	public CompletionStage<Response> dispatchRequestAsync(final JsonPath jsonPath, final String method,
+			final Map<String, Set<String>> parameters, final RepositoryMethodParameterProvider parameterProvider,
+			final Document requestBody, Executor executor) {
+		final CompletableFuture<Response> future = new CompletableFuture<>();
+		try {
+			executor.execute(new Runnable() {
+
+				@Override
+				public void run() {
+					try {
+						Response response = dispatchRequest(jsonPath, method, parameters, parameterProvider, requestBody, true);
+						if (response instanceof PendingResponse) {
+							((PendingResponse) response).getStage().whenComplete(new BiConsumer<Response, Throwable>() {
+
+								@Override
+								public void accept(Response completedResponse, Throwable e) {
+									if (e == null) {
+										future.complete(completedResponse);
+									} else {
+										completeExceptionally(future, e);
+									}
+								}
+							});
+						} else {
+							future.complete(response);
+						}
+					} catch (RuntimeException | Error e) { // NOSONAR propagated to the caller
+						future.completeExceptionally(e);
+					}
+				}
+			});
+		} catch (RejectedExecutionException e) {
+			future.completeExceptionally(e);
+		}
+		return future;
+	}
+
+	private void completeExceptionally(CompletableFuture<Response> future, Throwable e) {
+		try {
+			RuntimeException cause = CompletionStageUtils.unwrap(e);
+			Optional<JsonApiExceptionMapper> exceptionMapper = exceptionMapperRegistry.findMapperFor(cause.getClass());
+			if (exceptionMapper.isPresent()) {
+				//noinspection unchecked
+				future.complete(exceptionMapper.get().toErrorResponse(cause).toResponse());
+			} else {
+				logger.error("failed to process request", cause);
+				future.completeExceptionally(cause);
+			}
+		} catch (RuntimeException | Error error) { // NOSONAR propagated to the caller
+			future.completeExceptionally(error);
+		}
+	}
+
 	/**
 	 * Dispatch the request from a client
 	 *
@@ -67,6 +248,15 @@ public class RequestDispatcher {
 	public Response dispatchRequest(JsonPath jsonPath, String method, Map<String, Set<String>> parameters,
 			RepositoryMethodParameterProvider parameterProvider,
 			Document requestBody) {
+		return dispatchRequest(jsonPath, method, parameters, parameterProvider, requestBody, false);
+	}
+
+	/**
+	 * @param async whether a {@link PendingResponse} may be returned, otherwise pending responses are awaited before
+	 *            they are passed to the {@link DocumentFilter}s
+	 */
+	private Response dispatchRequest(JsonPath jsonPath, String method, Map<String, Set<String>> parameters,
+			RepositoryMethodParameterProvider parameterProvider, Document requestBody, boolean async) {
 
 		try {
 			BaseController controller = controllerRegistry.getController(jsonPath, method);
@@ -76,7 +266,7 @@ public class RequestDispatcher {
 
 			DefaultFilterRequestContext context = new DefaultFilterRequestContext(jsonPath, queryAdapter, parameterProvider,
 					requestBody, method);
-			DefaultFilterChain chain = new DefaultFilterChain(controller);
+			DefaultFilterChain chain = new DefaultFilterChain(controller, async);
 			return chain.doFilter(context);
 		} catch (Exception e) {
 			Optional<JsonApiExceptionMapper> exceptionMapper = exceptionMapperRegistry.findMapperFor(e.getClass());
@@ -115,15 +305,22 @@ public class RequestDispatcher {
 
 		protected BaseController controller;
 
-		public DefaultFilterChain(BaseController controller) {
+		private boolean async;
+
+		public DefaultFilterChain(BaseController controller, boolean async) {
 			this.controller = controller;
+			this.async = async;
 		}
 
 		@Override
 		public Response doFilter(DocumentFilterContext context) {
 			List<DocumentFilter> filters = moduleRegistry.getFilters();
 			if (filterIndex == filters.size()) {
-				return controller.handle(context.getJsonPath(), context.getQueryAdapter(), context.getParameterProvider(), context.getRequestBody());
+				Response response = controller.handle(context.getJsonPath(), context.getQueryAdapter(), context.getParameterProvider(), context.getRequestBody());
+				if (!async && response instanceof PendingResponse) {
+					return ((PendingResponse) response).await();
+				}
+				return response;
 			}
 			else {
 				DocumentFilter filter = filters.get(filterIndex);
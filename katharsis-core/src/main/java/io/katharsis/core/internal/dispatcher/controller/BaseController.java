@@ -1,6 +1,10 @@
 package io.katharsis.core.internal.dispatcher.controller;
 
+import java.util.function.Function;
+
+import io.katharsis.core.internal.dispatcher.PendingResponse;
 import io.katharsis.core.internal.dispatcher.path.JsonPath;
+import io.katharsis.core.internal.repository.adapter.PendingJsonApiResponse;
 import io.katharsis.errorhandling.exception.RequestBodyException;
 import io.katharsis.legacy.internal.RepositoryMethodParameterProvider;
 import io.katharsis.repository.request.HttpMethod;
@@ -52,6 +56,22 @@ public abstract class BaseController {
         }
     }
 
+    /**
+     * Maps the response of a repository to the response of the request. If the repository returned a
+     * {@link java.util.concurrent.CompletionStage} that has not completed yet, the mapping is composed with it rather
+     * than waiting for it.
+     *
+     * @param response of the repository
+     * @param mapper   creating the response of the request
+     * @return response of the request, a {@link PendingResponse} if the repository response is pending
+     */
+    protected static Response toResponse(JsonApiResponse response, final Function<JsonApiResponse, Response> mapper) {
+        if (response instanceof PendingJsonApiResponse) {
+            return new PendingResponse(((PendingJsonApiResponse) response).getStage().thenApply(mapper));
+        }
+        return mapper.apply(response);
+    }
+
     protected Object extractResource(Object responseOrResource) {
         if (responseOrResource instanceof JsonApiResponse) {
             return ((JsonApiResponse) responseOrResource).getEntity();
@@ -1,6 +1,7 @@
 package io.katharsis.core.internal.dispatcher.controller;
 
 import java.io.Serializable;
+import java.util.function.Function;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 
@@ -44,7 +45,6 @@ public class CollectionGet extends ResourceIncludeField {
         if (registryEntry == null) {
             throw new ResourceNotFoundException(resourceName);
         }
-        Document responseDocument;
         ResourceRepositoryAdapter resourceRepository = registryEntry.getResourceRepository(parameterProvider);
         JsonApiResponse entities;
 		if (jsonPath.getIds() == null || jsonPath.getIds().getIds().isEmpty()) {
@@ -56,8 +56,13 @@ public class CollectionGet extends ResourceIncludeField {
                 idType);
             entities = resourceRepository.findAll(parsedIds, queryAdapter);
         }
-        responseDocument = documentMapper.toDocument(entities, queryAdapter, parameterProvider);
-        
-        return new Response(responseDocument, 200);
+        return toResponse(entities, new Function<JsonApiResponse, Response>() {
+
+            @Override
+            public Response apply(JsonApiResponse response) {
+                Document responseDocument = documentMapper.toDocument(response, queryAdapter, parameterProvider);
+                return new Response(responseDocument, 200);
+            }
+        });
     }
 }
@@ -1,6 +1,7 @@
 package io.katharsis.core.internal.dispatcher.controller;
 
 import java.io.Serializable;
+import java.util.function.Function;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 
@@ -61,9 +62,14 @@ public class FieldResourceGet extends ResourceIncludeField {
         } else {
         	entities = relationshipRepositoryForClass.findOneTarget(castedResourceId, relationshipField, queryAdapter);
         }
-        Document responseDocument = documentMapper.toDocument(entities, queryAdapter, parameterProvider);
+        return toResponse(entities, new Function<JsonApiResponse, Response>() {
 
-        return new Response(responseDocument, 200);
+            @Override
+            public Response apply(JsonApiResponse response) {
+                Document responseDocument = documentMapper.toDocument(response, queryAdapter, parameterProvider);
+                return new Response(responseDocument, 200);
+            }
+        });
     }
 
     private Serializable getResourceId(PathIds resourceIds, RegistryEntry registryEntry) {
@@ -1,6 +1,7 @@
 package io.katharsis.core.internal.dispatcher.controller;
 
 import java.io.Serializable;
+import java.util.function.Function;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 
@@ -57,16 +58,22 @@ public class RelationshipsResourceGet extends ResourceIncludeField {
 		} else {
 			entities = relationshipRepositoryForClass.findOneTarget(castedResourceId, relationshipField, queryAdapter);
 		}
-		Document responseDocument = documentMapper.toDocument(entities, queryAdapter, parameterProvider);
+		return toResponse(entities, new Function<JsonApiResponse, Response>() {
 
-		// FIXME related vs self
+			@Override
+			public Response apply(JsonApiResponse response) {
+				Document responseDocument = documentMapper.toDocument(response, queryAdapter, parameterProvider);
 
-		// return explicit { data : null } if values found
-		if (!responseDocument.getData().isPresent()) {
-			responseDocument.setData(Nullable.nullValue());
-		}
+				// FIXME related vs self
+
+				// return explicit { data : null } if values found
+				if (!responseDocument.getData().isPresent()) {
+					responseDocument.setData(Nullable.nullValue());
+				}
 
-		return new Response(responseDocument, 200);
+				return new Response(responseDocument, 200);
+			}
+		});
 	}
 
 	private Serializable getResourceId(PathIds resourceIds, RegistryEntry registryEntry) {
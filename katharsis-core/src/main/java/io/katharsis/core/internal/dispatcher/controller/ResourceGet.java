@@ -1,6 +1,7 @@
 package io.katharsis.core.internal.dispatcher.controller;
 
 import java.io.Serializable;
+import java.util.function.Function;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 
@@ -59,14 +60,20 @@ public class ResourceGet extends ResourceIncludeField {
 		ResourceRepositoryAdapter resourceRepository = registryEntry.getResourceRepository(parameterProvider);
 		JsonApiResponse entities = resourceRepository.findOne(castedId, queryAdapter);
 		
-		Document responseDocument = documentMapper.toDocument(entities, queryAdapter);
-		
-		// return explicit { data : null } if values found
-		if(!responseDocument.getData().isPresent()){
-			responseDocument.setData(Nullable.nullValue());
-		}
+		return toResponse(entities, new Function<JsonApiResponse, Response>() {
+
+			@Override
+			public Response apply(JsonApiResponse response) {
+				Document responseDocument = documentMapper.toDocument(response, queryAdapter);
+
+				// return explicit { data : null } if values found
+				if (!responseDocument.getData().isPresent()) {
+					responseDocument.setData(Nullable.nullValue());
+				}
 
-		return new Response(responseDocument, 200);
+				return new Response(responseDocument, 200);
+			}
+		});
 	}
 
 }
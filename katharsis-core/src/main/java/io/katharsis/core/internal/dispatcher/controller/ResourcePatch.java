@@ -10,6 +10,7 @@ import java.util.Iterator;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.function.Function;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -128,12 +129,17 @@ public class ResourcePatch extends ResourceUpsert {
         setAttributes(resourceBody, resource, bodyRegistryEntry.getResourceInformation());
         setRelations(resource, bodyRegistryEntry, resourceBody, queryAdapter, parameterProvider);
         
-        Set<String> loadedRelationshipNames = getLoadedRelationshipNames(resourceBody);
+        final Set<String> loadedRelationshipNames = getLoadedRelationshipNames(resourceBody);
         
         JsonApiResponse updatedResource = resourceRepository.update(resource, queryAdapter);
-        Document responseDocument = documentMapper.toDocument(updatedResource, queryAdapter, parameterProvider, loadedRelationshipNames);
+        return toResponse(updatedResource, new Function<JsonApiResponse, Response>() {
 
-        return new Response(responseDocument, 200);
+            @Override
+            public Response apply(JsonApiResponse response) {
+                Document responseDocument = documentMapper.toDocument(response, queryAdapter, parameterProvider, loadedRelationshipNames);
+                return new Response(responseDocument, 200);
+            }
+        });
     }
 
 	private <K,V> Map<K,V> emptyIfNull(Map<K,V> value) {
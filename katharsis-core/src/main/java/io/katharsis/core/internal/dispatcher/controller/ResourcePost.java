@@ -2,6 +2,7 @@ package io.katharsis.core.internal.dispatcher.controller;
 
 import java.util.Collection;
 import java.util.Set;
+import java.util.function.Function;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 
@@ -72,12 +73,17 @@ public class ResourcePost extends ResourceUpsert {
         setRelations(newResource, bodyRegistryEntry, resourceBody, queryAdapter, parameterProvider);
         
         JsonApiResponse apiResponse = resourceRepository.create(newResource, queryAdapter);
-        if(apiResponse.getEntity() == null){
-        	throw new IllegalStateException("repository did not return the created resource");
-        }
-        Set<String> loadedRelationshipNames = getLoadedRelationshipNames(resourceBody);
-        Document responseDocument = documentMapper.toDocument(apiResponse, queryAdapter, parameterProvider, loadedRelationshipNames);
+        final Set<String> loadedRelationshipNames = getLoadedRelationshipNames(resourceBody);
+        return toResponse(apiResponse, new Function<JsonApiResponse, Response>() {
 
-        return new Response(responseDocument, HttpStatus.CREATED_201);
+            @Override
+            public Response apply(JsonApiResponse response) {
+                if (response.getEntity() == null) {
+                    throw new IllegalStateException("repository did not return the created resource");
+                }
+                Document responseDocument = documentMapper.toDocument(response, queryAdapter, parameterProvider, loadedRelationshipNames);
+                return new Response(responseDocument, HttpStatus.CREATED_201);
+            }
+        });
     }
 }
@@ -15,7 +15,6 @@ import io.katharsis.core.internal.repository.adapter.RelationshipRepositoryAdapt
 import io.katharsis.core.internal.resource.DocumentMapper;
 import io.katharsis.core.internal.resource.ResourceAttributesBridge;
 import io.katharsis.core.internal.utils.Generics;
-import io.katharsis.core.internal.utils.PropertyUtils;
 import io.katharsis.errorhandling.exception.ResourceException;
 import io.katharsis.errorhandling.exception.ResourceNotFoundException;
 import io.katharsis.legacy.internal.RepositoryMethodParameterProvider;
@@ -53,8 +52,7 @@ public abstract class ResourceUpsert extends BaseController {
             String id = dataBody.getId();
 
             Serializable castedId = resourceInformation.parseIdString(id);
-            PropertyUtils.setProperty(instance, resourceInformation.getIdField()
-                    .getUnderlyingName(), castedId);
+            resourceInformation.setId(instance, castedId);
         }
     }
 
@@ -257,7 +255,7 @@ public abstract class ResourceUpsert extends BaseController {
 	            
 	            relationships.add(relationObject);
 	        }
-	        PropertyUtils.setProperty(newResource, relationshipField.getUnderlyingName(), relationships);
+	        relationshipField.getAccessor().setValue(newResource, relationships);
     	}
     }
 
@@ -288,7 +286,7 @@ public abstract class ResourceUpsert extends BaseController {
 	        } else {
 	            relationObject = null;
 	        }
-	        PropertyUtils.setProperty(newResource, relationshipFieldByName.getUnderlyingName(), relationObject);
+	        relationshipFieldByName.getAccessor().setValue(newResource, relationObject);
     	}
     }
 
@@ -1,6 +1,6 @@
 package io.katharsis.core.internal.dispatcher.path;
 
-import java.util.Arrays;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
@@ -10,7 +10,7 @@ import io.katharsis.errorhandling.exception.RepositoryNotFoundException;
 import io.katharsis.errorhandling.exception.ResourceException;
 import io.katharsis.errorhandling.exception.ResourceFieldNotFoundException;
 import io.katharsis.resource.information.ResourceField;
-import io.katharsis.resource.information.ResourceInformation;
+import io.katharsis.resource.registry.PathRouteTable;
 import io.katharsis.resource.registry.RegistryEntry;
 import io.katharsis.resource.registry.ResourceRegistry;
 
@@ -20,6 +20,7 @@ import io.katharsis.resource.registry.ResourceRegistry;
 public class PathBuilder {
     public static final String SEPARATOR = "/";
     public static final String RELATIONSHIP_MARK = "relationships";
+    private static final String ENCODED_ID_SEPARATOR = "%2C";
 
     private final ResourceRegistry resourceRegistry;
 
@@ -52,6 +53,10 @@ public class PathBuilder {
      * @return doubly-linked list which represents path given at the input
      */
     public JsonPath build(String path) {
+        return build(path, resourceRegistry.getRouteTable());
+    }
+
+    private JsonPath build(String path, PathRouteTable routeTable) {
         String[] strings = splitPath(path);
         if (strings.length == 0 || (strings.length == 1 && "".equals(strings[0]))) {
         	throw new ResourceException("Path is empty");
@@ -80,18 +85,11 @@ public class PathBuilder {
                 elementName = strings[currentElementIdx];
                 
                 // support "/" in resource type to group repositories
-                StringBuilder potentialResourceType = new StringBuilder();
-                for(int i = 0; currentElementIdx + i < strings.length;i++){
-                	if(potentialResourceType.length() > 0){
-                		potentialResourceType.append("/");
-                	}
-                	potentialResourceType.append(strings[currentElementIdx + i]);
-                	entry = resourceRegistry.getEntry(potentialResourceType.toString());
-                	if(entry != null){
-                		currentElementIdx += i;
-                		elementName = potentialResourceType.toString();
-                		break;
-                	}
+                PathRouteTable.Route route = routeTable.match(strings, currentElementIdx);
+                if (route != null) {
+                	entry = route.getEntry();
+                	elementName = route.getResourceType();
+                	currentElementIdx += route.getLength() - 1;
                 }
                 
                 currentElementIdx++;
@@ -114,7 +112,7 @@ public class PathBuilder {
             }
             
             if (previousJsonPath != null) {
-                currentJsonPath = getNonResourcePath(previousJsonPath, elementName, relationshipMark);
+                currentJsonPath = getNonResourcePath(routeTable, previousJsonPath, elementName, relationshipMark);
                 if (pathIds != null) {
                     throw new ResourceException("RelationshipsPath and FieldPath cannot contain ids");
                 }
@@ -143,28 +141,47 @@ public class PathBuilder {
         return currentJsonPath;
     }
 
-    private JsonPath getNonResourcePath(JsonPath previousJsonPath, String elementName, boolean relationshipMark) {
+    private JsonPath getNonResourcePath(PathRouteTable routeTable, JsonPath previousJsonPath, String elementName, boolean relationshipMark) {
         String previousElementName = previousJsonPath.getElementName();
-        RegistryEntry previousEntry = resourceRegistry.getEntry(previousElementName);
-        
-        ResourceInformation resourceInformation = previousEntry.getResourceInformation();
-      
-        List<ResourceField> resourceFields = resourceInformation.getRelationshipFields();
-        for (ResourceField field : resourceFields) {
-            if (field.getJsonName().equals(elementName)) {
-                if (relationshipMark) {
-                    return new RelationshipsPath(elementName);
-                } else {
-                    return new FieldPath(elementName);
-                }
+        ResourceField field = routeTable.findRelationshipField(previousElementName, elementName);
+        if (field != null) {
+            if (relationshipMark) {
+                return new RelationshipsPath(elementName);
+            } else {
+                return new FieldPath(elementName);
             }
         }
         //TODO: Throw different exception? element name can be null..
         throw new ResourceFieldNotFoundException(elementName);
     }
 
+    /**
+     * Splits the ids at {@link PathIds#ID_SEPARATOR} and its URL encoded form, same as {@link PathIds#ID_SEPARATOR_PATTERN}
+     * but without compiling the pattern for every request.
+     */
     private static PathIds createPathIds(String idsString) {
-        List<String> pathIds = Arrays.asList(idsString.split(PathIds.ID_SEPARATOR_PATTERN));
+        List<String> pathIds = new ArrayList<>(1);
+        int start = 0;
+        int i = 0;
+        while (i < idsString.length()) {
+            if (idsString.charAt(i) == ',') {
+                pathIds.add(idsString.substring(start, i));
+                start = ++i;
+            } else if (idsString.startsWith(ENCODED_ID_SEPARATOR, i)) {
+                pathIds.add(idsString.substring(start, i));
+                i += ENCODED_ID_SEPARATOR.length();
+                start = i;
+            } else {
+                i++;
+            }
+        }
+        pathIds.add(idsString.substring(start));
+
+        // same as String.split, trailing empty ids are dropped if there was a separator
+        int size = pathIds.size();
+        while (start > 0 && size > 0 && pathIds.get(size - 1).isEmpty()) {
+            pathIds.remove(--size);
+        }
         return new PathIds(pathIds);
     }
 
@@ -0,0 +1,419 @@
+package io.katharsis.core.internal.http;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Locale;
+import java.util.function.BiConsumer;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import io.katharsis.core.internal.boot.PropertiesProvider;
+import io.katharsis.core.properties.KatharsisProperties;
+
+/**
+ * Encodes serialized response documents as negotiated with the client. Documents are written without indentation if
+ * {@link KatharsisProperties#SERIALIZATION_COMPACT} is enabled. With {@link KatharsisProperties#RESPONSE_COMPRESSION},
+ * bodies of at least {@link KatharsisProperties#RESPONSE_COMPRESSION_THRESHOLD} bytes are compressed with gzip or
+ * deflate according to the <tt>Accept-Encoding</tt> header of the request. With {@link KatharsisProperties#RESPONSE_ETAG},
+ * successful responses to <tt>GET</tt> requests carry an ETag computed over the bytes sent, i.e. after compression, so
+ * that each representation carries a distinct tag.
+ */
+public class ResponseEncoder {
+
+	public static final String HEADER_ACCEPT_ENCODING = "Accept-Encoding";
+
+	public static final String HEADER_CONTENT_ENCODING = "Content-Encoding";
+
+	public static final String HEADER_ETAG = "ETag";
+
+	public static final String HEADER_IF_NONE_MATCH = "If-None-Match";
+
+	public static final String HEADER_VARY = "Vary";
+
+	public static final String GZIP = "gzip";
+
+	public static final String DEFLATE = "deflate";
+
+	public static final long DEFAULT_COMPRESSION_THRESHOLD = 1024;
+
+	private static final String METHOD_GET = "GET";
+
+	private static final int STATUS_OK = 200;
+
+	private final boolean compact;
+
+	private final boolean compression;
+
+	private final long compressionThreshold;
+
+	private final boolean etag;
+
+	public ResponseEncoder(boolean compact, boolean compression, long compressionThreshold) {
+		this(compact, compression, compressionThreshold, false);
+	}
+
+	public ResponseEncoder(boolean compact, boolean compression, long compressionThreshold, boolean etag) {
+		this.compact = compact;
+		this.compression = compression;
+		this.compressionThreshold = compressionThreshold;
+		this.etag = etag;
+	}
+
+	/**
+	 * @return encoder as configured by the given properties
+	 */
+	public static ResponseEncoder create(PropertiesProvider propertiesProvider) {
+		return new ResponseEncoder(isEnabled(propertiesProvider, KatharsisProperties.SERIALIZATION_COMPACT),
+				isEnabled(propertiesProvider, KatharsisProperties.RESPONSE_COMPRESSION), getCompressionThreshold(propertiesProvider),
+				isEnabled(propertiesProvider, KatharsisProperties.RESPONSE_ETAG));
+	}
+
+	private static boolean isEnabled(PropertiesProvider propertiesProvider, String key) {
+		return propertiesProvider != null && Boolean.parseBoolean(propertiesProvider.getProperty(key));
+	}
+
+	/**
+	 * @return value of {@link KatharsisProperties#RESPONSE_COMPRESSION_THRESHOLD}, {@link #DEFAULT_COMPRESSION_THRESHOLD}
+	 *         by default
+	 */
+	public static long getCompressionThreshold(PropertiesProvider propertiesProvider) {
+		String property = propertiesProvider != null ? propertiesProvider.getProperty(KatharsisProperties.RESPONSE_COMPRESSION_THRESHOLD) : null;
+		if (property == null || property.isEmpty()) {
+			return DEFAULT_COMPRESSION_THRESHOLD;
+		}
+		return Long.parseLong(property.trim());
+	}
+
+	public boolean isCompact() {
+		return compact;
+	}
+
+	public boolean isCompression() {
+		return compression;
+	}
+
+	public long getCompressionThreshold() {
+		return compressionThreshold;
+	}
+
+	public boolean isETag() {
+		return etag;
+	}
+
+	/**
+	 * @param method of the request
+	 * @param status of the response
+	 * @return true if the response is to carry an ETag, i.e. if enabled for a successful <tt>GET</tt> request
+	 */
+	public boolean isETag(String method, int status) {
+		return etag && METHOD_GET.equalsIgnoreCase(method) && status == STATUS_OK;
+	}
+
+	/**
+	 * @param ifNoneMatch header of the request, may be null
+	 * @param etag of the response
+	 * @return true if the client holds the response already and is to be answered with <tt>304 Not Modified</tt>.
+	 *         Tags are compared weakly as demanded for <tt>If-None-Match</tt>.
+	 */
+	public static boolean isNotModified(String ifNoneMatch, String etag) {
+		if (ifNoneMatch == null || etag == null) {
+			return false;
+		}
+		String opaqueTag = stripWeakPrefix(etag);
+		for (String element : ifNoneMatch.split(",")) {
+			String candidate = element.trim();
+			if ("*".equals(candidate) || stripWeakPrefix(candidate).equals(opaqueTag)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static String stripWeakPrefix(String etag) {
+		return etag.startsWith("W/") ? etag.substring(2) : etag;
+	}
+
+	/**
+	 * @return writer producing compact output if enabled
+	 */
+	public ObjectWriter configure(ObjectWriter writer) {
+		return compact ? writer.without(SerializationFeature.INDENT_OUTPUT) : writer;
+	}
+
+	/**
+	 * @param acceptEncoding header of the request, may be null
+	 * @return {@link #GZIP}, {@link #DEFLATE} or null if the response is not to be compressed. Codings listed
+	 *         explicitly take precedence over <tt>*</tt>, e.g. <tt>gzip;q=0</tt> rules out gzip whatever the wildcard
+	 *         allows.
+	 */
+	public String negotiate(String acceptEncoding) {
+		if (!compression || acceptEncoding == null) {
+			return null;
+		}
+		Double gzipQuality = null;
+		Double deflateQuality = null;
+		Double wildcardQuality = null;
+		for (String element : acceptEncoding.split(",")) {
+			String[] parts = element.split(";");
+			String coding = parts[0].trim().toLowerCase(Locale.ROOT);
+			double quality = getQuality(parts);
+			if (GZIP.equals(coding) || "x-gzip".equals(coding)) {
+				gzipQuality = max(gzipQuality, quality);
+			} else if (DEFLATE.equals(coding)) {
+				deflateQuality = max(deflateQuality, quality);
+			} else if ("*".equals(coding)) {
+				wildcardQuality = max(wildcardQuality, quality);
+			}
+		}
+		double gzip = getQuality(gzipQuality, wildcardQuality);
+		double deflate = getQuality(deflateQuality, wildcardQuality);
+		if (gzip > 0 && gzip >= deflate) {
+			return GZIP;
+		}
+		return deflate > 0 ? DEFLATE : null;
+	}
+
+	private static Double max(Double current, double quality) {
+		return current != null ? Math.max(current, quality) : quality;
+	}
+
+	private static double getQuality(Double explicitQuality, Double wildcardQuality) {
+		if (explicitQuality != null) {
+			return explicitQuality;
+		}
+		return wildcardQuality != null ? wildcardQuality : 0;
+	}
+
+	private static double getQuality(String[] parts) {
+		for (int i = 1; i < parts.length; i++) {
+			String parameter = parts[i].trim();
+			if (parameter.startsWith("q=")) {
+				try {
+					return Double.parseDouble(parameter.substring(2).trim());
+				} catch (NumberFormatException e) { // NOSONAR malformed values are not acceptable
+					return 0;
+				}
+			}
+		}
+		return 1;
+	}
+
+	/**
+	 * @param target to write the encoded body to
+	 * @param contentEncoding as negotiated, null to leave the body unencoded
+	 * @param headers receives the <tt>Content-Encoding</tt> header once compression starts. Must still be settable at
+	 *        that point, i.e. the target must not have committed the response yet. Null if the header is set up-front.
+	 * @param force true to compress regardless of the threshold, e.g. if the header has been set already
+	 * @return stream encoding everything written to it until {@link EncodingOutputStream#finish()}
+	 */
+	public EncodingOutputStream newOutputStream(OutputStream target, String contentEncoding, BiConsumer<String, String> headers, boolean force) {
+		return new EncodingOutputStream(target, contentEncoding, headers, force ? 0 : compressionThreshold);
+	}
+
+	/**
+	 * Encodes an entirely serialized body.
+	 *
+	 * @param body serialized document
+	 * @param contentEncoding as negotiated, null to leave the body unencoded
+	 * @return body to send
+	 */
+	public EncodedBody encode(byte[] body, String contentEncoding) throws IOException {
+		final EncodedBody encodedBody = new EncodedBody();
+		ByteArrayOutputStream out = new ByteArrayOutputStream(body.length);
+		EncodingOutputStream encodedOut = newOutputStream(out, contentEncoding, new BiConsumer<String, String>() {
+
+			@Override
+			public void accept(String name, String value) {
+				encodedBody.contentEncoding = value;
+			}
+		}, false);
+		try {
+			encodedOut.write(body);
+			encodedOut.finish();
+		} finally {
+			encodedOut.release();
+		}
+		encodedBody.bytes = out.toByteArray();
+		encodedBody.etag = encodedOut.getETag();
+		return encodedBody;
+	}
+
+	public static class EncodedBody {
+
+		private byte[] bytes;
+
+		private String contentEncoding;
+
+		private String etag;
+
+		public byte[] getBytes() {
+			return bytes;
+		}
+
+		/**
+		 * @return applied encoding or null if the body is sent as is
+		 */
+		public String getContentEncoding() {
+			return contentEncoding;
+		}
+
+		public String getETag() {
+			return etag;
+		}
+	}
+
+	/**
+	 * Holds back the first bytes up to the compression threshold, smaller bodies are written as they are. Beyond the
+	 * threshold the <tt>Content-Encoding</tt> header is set and everything is compressed on the fly. Bytes passed to the
+	 * target are digested for the ETag.
+	 */
+	public static class EncodingOutputStream extends OutputStream {
+
+		private final String contentEncoding;
+
+		private final BiConsumer<String, String> headers;
+
+		private final long threshold;
+
+		private final MessageDigest digest;
+
+		private final DigestOutputStream digestOut;
+
+		private ByteArrayOutputStream pending = new ByteArrayOutputStream();
+
+		private DeflaterOutputStream compressor;
+
+		EncodingOutputStream(OutputStream target, String contentEncoding, BiConsumer<String, String> headers, long threshold) {
+			this.contentEncoding = contentEncoding;
+			this.headers = headers;
+			this.threshold = threshold;
+			try {
+				this.digest = MessageDigest.getInstance("MD5");
+			} catch (NoSuchAlgorithmException e) {
+				throw new IllegalStateException(e);
+			}
+			this.digestOut = new DigestOutputStream(target, digest);
+		}
+
+		@Override
+		public void write(int b) throws IOException {
+			write(new byte[] { (byte) b }, 0, 1);
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException {
+			if (compressor != null) {
+				compressor.write(b, off, len);
+			} else if (contentEncoding == null) {
+				digestOut.write(b, off, len);
+			} else {
+				pending.write(b, off, len);
+				if (pending.size() >= threshold) {
+					startCompression();
+				}
+			}
+		}
+
+		private void startCompression() throws IOException {
+			if (headers != null) {
+				headers.accept(HEADER_CONTENT_ENCODING, contentEncoding);
+			}
+			compressor = GZIP.equals(contentEncoding) ? new GzipCompressor(digestOut) : new DeflateCompressor(digestOut);
+			pending.writeTo(compressor);
+			pending = null;
+		}
+
+		/**
+		 * @return true if the body is compressed
+		 */
+		public boolean isEncoding() {
+			return compressor != null;
+		}
+
+		/**
+		 * Compressed data is only passed on to the target once the compressor has gathered enough input.
+		 */
+		@Override
+		public void flush() throws IOException {
+			if (compressor != null) {
+				compressor.flush();
+			} else {
+				digestOut.flush();
+			}
+		}
+
+		/**
+		 * Writes all remaining data to the target. Does not close the target.
+		 */
+		public void finish() throws IOException {
+			if (compressor == null && contentEncoding != null && pending.size() >= threshold) {
+				startCompression();
+			}
+			if (compressor != null) {
+				compressor.finish();
+				release();
+			} else if (pending != null) {
+				pending.writeTo(digestOut);
+				pending = null;
+			}
+		}
+
+		/**
+		 * Releases the native resources of the compressor, e.g. if the stream is abandoned because writing failed.
+		 * Can be called more than once.
+		 */
+		public void release() {
+			if (compressor != null) {
+				((Compressor) compressor).end();
+			}
+		}
+
+		/**
+		 * @return strong ETag of the bytes written to the target, available after {@link #finish()}
+		 */
+		public String getETag() {
+			return "\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(digest.digest()) + "\"";
+		}
+	}
+
+	/**
+	 * Compressors are finished rather than closed to keep the target open, their native resources are released
+	 * explicitly.
+	 */
+	private interface Compressor {
+
+		void end();
+	}
+
+	private static final class GzipCompressor extends GZIPOutputStream implements Compressor {
+
+		GzipCompressor(OutputStream out) throws IOException {
+			super(out, true);
+		}
+
+		@Override
+		public void end() {
+			def.end();
+		}
+	}
+
+	private static final class DeflateCompressor extends DeflaterOutputStream implements Compressor {
+
+		DeflateCompressor(OutputStream out) {
+			super(out, true);
+		}
+
+		@Override
+		public void end() {
+			def.end();
+		}
+	}
+}
@@ -0,0 +1,163 @@
+package io.katharsis.core.internal.jackson;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import io.katharsis.core.internal.boot.PropertiesProvider;
+import io.katharsis.core.properties.KatharsisProperties;
+import io.katharsis.errorhandling.exception.JsonDeserializationException;
+import io.katharsis.errorhandling.exception.RequestBodyTooLargeException;
+import io.katharsis.resource.Document;
+
+/**
+ * Parses request bodies straight from the request stream without copying them into a String first. Jackson takes care
+ * of the encoding detection and recycles its parser buffers per thread. Bodies exceeding the configured maximum size
+ * are rejected with a {@link RequestBodyTooLargeException}.
+ */
+public class RequestBodyReader {
+
+	public static final long UNLIMITED = -1;
+
+	private final ObjectMapper objectMapper;
+
+	private final ObjectReader documentReader;
+
+	private final long maxBodySize;
+
+	public RequestBodyReader(ObjectMapper objectMapper, long maxBodySize) {
+		this.objectMapper = objectMapper;
+		this.documentReader = objectMapper.readerFor(Document.class);
+		this.maxBodySize = maxBodySize;
+	}
+
+	/**
+	 * @return maximum body size as configured by {@link KatharsisProperties#MAX_REQUEST_BODY_SIZE}
+	 */
+	public static long getMaxBodySize(PropertiesProvider propertiesProvider) {
+		String property = propertiesProvider != null ? propertiesProvider.getProperty(KatharsisProperties.MAX_REQUEST_BODY_SIZE) : null;
+		if (property == null || property.isEmpty()) {
+			return UNLIMITED;
+		}
+		return Long.parseLong(property.trim());
+	}
+
+	public long getMaxBodySize() {
+		return maxBodySize;
+	}
+
+	public boolean isLimited() {
+		return maxBodySize >= 0;
+	}
+
+	/**
+	 * Fails fast if the announced body length exceeds the maximum body size.
+	 *
+	 * @param contentLength length of the body or -1 if not known
+	 */
+	public void checkContentLength(long contentLength) {
+		if (isLimited() && contentLength > maxBodySize) {
+			throw new RequestBodyTooLargeException(maxBodySize);
+		}
+	}
+
+	/**
+	 * @return document parsed from the given stream or null if there is none or it is empty. The stream is not closed.
+	 */
+	public Document read(InputStream is) {
+		if (is == null) {
+			return null;
+		}
+		// the wrapper also keeps the parser from closing the container stream
+		InputStream in = new LimitedInputStream(is, isLimited() ? maxBodySize : Long.MAX_VALUE);
+		try (JsonParser parser = objectMapper.getFactory().createParser(in)) {
+			if (parser.nextToken() == null) {
+				return null;
+			}
+			return documentReader.readValue(parser);
+		} catch (IOException e) {
+			RequestBodyTooLargeException tooLargeException = findTooLargeException(e);
+			if (tooLargeException != null) {
+				throw tooLargeException;
+			}
+			throw new JsonDeserializationException(e.getMessage());
+		}
+	}
+
+	/**
+	 * Jackson wraps exceptions thrown while deserializing a value, the overflow may thereby be the cause of a
+	 * {@link com.fasterxml.jackson.databind.JsonMappingException}.
+	 */
+	private static RequestBodyTooLargeException findTooLargeException(Throwable e) {
+		Throwable cause = e;
+		while (cause != null) {
+			if (cause instanceof RequestBodyTooLargeException) {
+				return (RequestBodyTooLargeException) cause;
+			}
+			cause = cause.getCause() != cause ? cause.getCause() : null;
+		}
+		return null;
+	}
+
+	/**
+	 * Fails as soon as more than the given number of bytes have been read. Closing has no effect, the underlying
+	 * stream belongs to the container.
+	 */
+	private static class LimitedInputStream extends FilterInputStream {
+
+		private final long limit;
+
+		private long count;
+
+		LimitedInputStream(InputStream in, long limit) {
+			super(in);
+			this.limit = limit;
+		}
+
+		@Override
+		public int read() throws IOException {
+			int b = super.read();
+			if (b != -1) {
+				count(1);
+			}
+			return b;
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			int n = super.read(b, off, len);
+			if (n > 0) {
+				count(n);
+			}
+			return n;
+		}
+
+		@Override
+		public long skip(long n) throws IOException {
+			long skipped = super.skip(n);
+			count(skipped);
+			return skipped;
+		}
+
+		@Override
+		public boolean markSupported() {
+			return false;
+		}
+
+		@Override
+		public void close() {
+			// nothing to do
+		}
+
+		private void count(long n) {
+			count += n;
+			if (count > limit) {
+				throw new RequestBodyTooLargeException(limit);
+			}
+		}
+	}
+}
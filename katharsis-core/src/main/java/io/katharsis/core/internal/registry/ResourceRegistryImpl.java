@@ -5,7 +5,9 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.WeakHashMap;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -14,13 +16,20 @@ import io.katharsis.errorhandling.exception.ResourceNotFoundInitializationExcept
 import io.katharsis.module.ModuleRegistry;
 import io.katharsis.resource.annotations.JsonApiResource;
 import io.katharsis.resource.information.ResourceInformation;
+import io.katharsis.resource.registry.PathRouteTable;
 import io.katharsis.resource.registry.RegistryEntry;
 import io.katharsis.resource.registry.ResourceRegistry;
 import io.katharsis.resource.registry.ServiceUrlProvider;
 import io.katharsis.utils.Optional;
 
 public class ResourceRegistryImpl implements ResourceRegistry {
-	protected final Map<Class, RegistryEntry> resources;
+
+	/**
+	 * Immutable lookup tables of all registered entries. Readers access it
+	 * without locking, {@link #addEntry(Class, RegistryEntry)} replaces it
+	 * with a new copy.
+	 */
+	private volatile RegistryIndex index = new RegistryIndex(Collections.<Class<?>, RegistryEntry> emptyMap());
 	private final ServiceUrlProvider serviceUrlProvider;
 	private final Logger logger = LoggerFactory.getLogger(ResourceRegistryImpl.class);
 	private ModuleRegistry moduleRegistry;
@@ -28,7 +37,6 @@ public class ResourceRegistryImpl implements ResourceRegistry {
 	public ResourceRegistryImpl(ModuleRegistry moduleRegistry, ServiceUrlProvider serviceUrlProvider) {
 		this.moduleRegistry = moduleRegistry;
 		this.serviceUrlProvider = serviceUrlProvider;
-		this.resources = new HashMap<>();
 		this.moduleRegistry.setResourceRegistry(this);
 	}
 
@@ -43,7 +51,11 @@ public class ResourceRegistryImpl implements ResourceRegistry {
 	 *            type of a resource
 	 */
 	public RegistryEntry addEntry(Class<?> resource, RegistryEntry registryEntry) {
-		resources.put(resource, registryEntry);
+		synchronized (this) {
+			Map<Class<?>, RegistryEntry> resources = new HashMap<>(index.resources);
+			resources.put(resource, registryEntry);
+			index = new RegistryIndex(resources);
+		}
 		registryEntry.initialize(moduleRegistry);
 		logger.debug("Added resource {} to ResourceRegistry", resource.getName());
 		return registryEntry;
@@ -58,16 +70,7 @@ public class ResourceRegistryImpl implements ResourceRegistry {
 	 * @return registry entry or <i>null</i>
 	 */
 	public RegistryEntry getEntry(String searchType) {
-		for (Map.Entry<Class, RegistryEntry> entry : resources.entrySet()) {
-			String type = getResourceType(entry.getKey());
-			if (type == null) {
-				return null;
-			}
-			if (type.equals(searchType)) {
-				return entry.getValue();
-			}
-		}
-		return null;
+		return index.types.get(searchType);
 	}
 
 	/**
@@ -118,7 +121,7 @@ public class ResourceRegistryImpl implements ResourceRegistry {
 			return null;
 		else if (!resourceClazz.isPresent())
 			throw new ResourceNotFoundInitializationException(clazz.getCanonicalName());
-		return resources.get(resourceClazz.get());
+		return index.resources.get(resourceClazz.get());
 	}
 
 	public <T> RegistryEntry getEntry(T targetDataObject) {
@@ -157,16 +160,20 @@ public class ResourceRegistryImpl implements ResourceRegistry {
 		return getResourceClass(resource.getClass());
 	}
 
+	@SuppressWarnings({ "unchecked", "rawtypes" })
 	public Optional<Class<?>> getResourceClass(Class<?> resourceClass) {
-		Class<?> currentClass = resourceClass;
-		while (currentClass != null && currentClass != Object.class) {
-			RegistryEntry entry = resources.get(currentClass);
-			if (entry != null) {
-				return (Optional) Optional.of(currentClass);
+		RegistryIndex currentIndex = index;
+		if (currentIndex.resources.containsKey(resourceClass)) {
+			return (Optional) Optional.of(resourceClass);
+		}
+		synchronized (currentIndex.resolvedClasses) {
+			Optional<Class<?>> result = currentIndex.resolvedClasses.get(resourceClass);
+			if (result == null) {
+				result = currentIndex.resolveResourceClass(resourceClass);
+				currentIndex.resolvedClasses.put(resourceClass, result);
 			}
-			currentClass = currentClass.getSuperclass();
+			return result;
 		}
-		return Optional.empty();
 	}
 
 	public String getResourceUrl(Class<?> clazz) {
@@ -187,11 +194,23 @@ public class ResourceRegistryImpl implements ResourceRegistry {
 	 * @return resources
 	 */
 	public Set<RegistryEntry> getResources() {
-		return Collections.unmodifiableSet(new HashSet<>(resources.values()));
+		return index.entries;
 	}
 
 	public RegistryEntry getEntryForClass(Class<?> resourceClass) {
-		return resources.get(resourceClass);
+		return index.resources.get(resourceClass);
+	}
+
+	/**
+	 * Replaces the former protected <code>resources</code> field. Entries are
+	 * to be registered with {@link #addEntry(Class, RegistryEntry)}.
+	 *
+	 * @return read-only view of the registered entries by resource class
+	 * @deprecated use {@link #getResources()} or {@link #getEntryForClass(Class)}
+	 */
+	@Deprecated
+	protected Map<Class<?>, RegistryEntry> getResourceMap() {
+		return index.resources;
 	}
 
 
@@ -204,10 +223,24 @@ public class ResourceRegistryImpl implements ResourceRegistry {
 		return url + resourceInformation.getResourceType();
 	}
 
-	private ConcurrentHashMap<String, ResourceInformation> baseTypeCache = new ConcurrentHashMap<>();
-	
+	/**
+	 * @return route table to resolve request paths against the registered
+	 *         resources, compiled upon first use after a registration.
+	 */
+	@Override
+	public PathRouteTable getRouteTable() {
+		RegistryIndex currentIndex = index;
+		PathRouteTable routeTable = currentIndex.routeTable;
+		if (routeTable == null) {
+			routeTable = new PathRouteTable(currentIndex.entries);
+			currentIndex.routeTable = routeTable;
+		}
+		return routeTable;
+	}
+
 	@Override
 	public ResourceInformation getBaseResourceInformation(String resourceType) {
+		ConcurrentMap<String, ResourceInformation> baseTypeCache = index.baseTypes;
 		ResourceInformation baseInformation = baseTypeCache.get(resourceType);
 		if(baseInformation != null){
 			return baseInformation;
@@ -223,4 +256,53 @@ public class ResourceRegistryImpl implements ResourceRegistry {
 		baseTypeCache.put(resourceType, baseInformation);
 		return baseInformation;
 	}
+
+	/**
+	 * Lookup tables by resource class and resource type. The resource type
+	 * doubles as resource path. Resolved subclasses and base types are cached
+	 * lazily and discarded together with the index upon a new registration,
+	 * as is the route table. Subclasses like proxies are referenced weakly to
+	 * not hold on to their class loaders, the resolved classes are registered
+	 * ones and thereby referenced by the index anyway.
+	 */
+	private static final class RegistryIndex {
+
+		private final Map<Class<?>, RegistryEntry> resources;
+
+		private final Map<String, RegistryEntry> types;
+
+		private final Set<RegistryEntry> entries;
+
+		private final Map<Class<?>, Optional<Class<?>>> resolvedClasses = new WeakHashMap<>();
+
+		private final ConcurrentMap<String, ResourceInformation> baseTypes = new ConcurrentHashMap<>();
+
+		private volatile PathRouteTable routeTable;
+
+		RegistryIndex(Map<Class<?>, RegistryEntry> resources) {
+			Map<String, RegistryEntry> types = new HashMap<>();
+			for (RegistryEntry entry : resources.values()) {
+				ResourceInformation resourceInformation = entry.getResourceInformation();
+				if (resourceInformation != null && resourceInformation.getResourceType() != null) {
+					types.put(resourceInformation.getResourceType(), entry);
+				}
+			}
+			this.resources = Collections.unmodifiableMap(resources);
+			this.types = Collections.unmodifiableMap(types);
+			this.entries = Collections.unmodifiableSet(new HashSet<>(resources.values()));
+		}
+
+		@SuppressWarnings({ "unchecked", "rawtypes" })
+		Optional<Class<?>> resolveResourceClass(Class<?> resourceClass) {
+			Class<?> currentClass = resourceClass;
+			while (currentClass != null && currentClass != Object.class) {
+				RegistryEntry entry = resources.get(currentClass);
+				if (entry != null) {
+					return (Optional) Optional.of(currentClass);
+				}
+				currentClass = currentClass.getSuperclass();
+			}
+			return Optional.empty();
+		}
+	}
 }
@@ -0,0 +1,49 @@
+package io.katharsis.core.internal.repository.adapter;
+
+import java.util.concurrent.CompletionStage;
+
+import io.katharsis.core.internal.utils.CompletionStageUtils;
+import io.katharsis.errorhandling.ErrorData;
+import io.katharsis.repository.response.JsonApiResponse;
+import io.katharsis.resource.links.LinksInformation;
+import io.katharsis.resource.meta.MetaInformation;
+
+/**
+ * Response of a repository that returned a {@link CompletionStage} which has not completed yet. Controllers compose
+ * {@link #getStage()} rather than waiting for it, any other access to the response waits for the stage to complete.
+ */
+public class PendingJsonApiResponse extends JsonApiResponse {
+
+	private final CompletionStage<JsonApiResponse> stage;
+
+	public PendingJsonApiResponse(CompletionStage<JsonApiResponse> stage) {
+		this.stage = stage;
+	}
+
+	/**
+	 * @return stage completed with the response once the repository and the repository filters are done
+	 */
+	public CompletionStage<JsonApiResponse> getStage() {
+		return stage;
+	}
+
+	@Override
+	public Object getEntity() {
+		return CompletionStageUtils.await(stage).getEntity();
+	}
+
+	@Override
+	public MetaInformation getMetaInformation() {
+		return CompletionStageUtils.await(stage).getMetaInformation();
+	}
+
+	@Override
+	public LinksInformation getLinksInformation() {
+		return CompletionStageUtils.await(stage).getLinksInformation();
+	}
+
+	@Override
+	public Iterable<ErrorData> getErrors() {
+		return CompletionStageUtils.await(stage).getErrors();
+	}
+}
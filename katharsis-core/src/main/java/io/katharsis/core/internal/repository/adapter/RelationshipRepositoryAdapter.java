@@ -1,6 +1,7 @@
 package io.katharsis.core.internal.repository.adapter;
 
 import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
@@ -13,7 +14,10 @@ import io.katharsis.legacy.repository.RelationshipRepository;
 import io.katharsis.module.ModuleRegistry;
 import io.katharsis.queryspec.QuerySpec;
 import io.katharsis.repository.BulkRelationshipRepositoryV2;
+import io.katharsis.repository.CacheableRelationshipRepositoryV2;
 import io.katharsis.repository.RelationshipRepositoryV2;
+import io.katharsis.repository.cache.RelationshipLookupCache;
+import io.katharsis.repository.cache.RelationshipLookupKey;
 import io.katharsis.repository.filter.RepositoryFilterContext;
 import io.katharsis.repository.request.HttpMethod;
 import io.katharsis.repository.request.QueryAdapter;
@@ -21,6 +25,7 @@ import io.katharsis.repository.request.RepositoryRequestSpec;
 import io.katharsis.repository.response.JsonApiResponse;
 import io.katharsis.resource.information.ResourceField;
 import io.katharsis.resource.information.ResourceInformation;
+import io.katharsis.utils.Nullable;
 
 /**
  * A repository adapter for relationship repository.
@@ -57,6 +62,7 @@ public class RelationshipRepositoryAdapter<T, I extends Serializable, D, J exten
 		        } else {
 		            ((RelationshipRepository) relationshipRepository).setRelation(source, targetId, field.getUnderlyingName());
 		        }
+		        invalidateRelationshipLookups(source, field);
 		        return new JsonApiResponse();
 			}
 		};
@@ -83,6 +89,7 @@ public class RelationshipRepositoryAdapter<T, I extends Serializable, D, J exten
 		        } else {
 		            ((RelationshipRepository) relationshipRepository).setRelations(source, targetIds, field.getUnderlyingName());
 		        }
+		        invalidateRelationshipLookups(source, field);
 		        return new JsonApiResponse();
 			}
 		};
@@ -109,6 +116,7 @@ public class RelationshipRepositoryAdapter<T, I extends Serializable, D, J exten
 		        } else {
 		            ((RelationshipRepository) relationshipRepository).addRelations(source, targetIds, field.getUnderlyingName());
 		        }
+		        invalidateRelationshipLookups(source, field);
 		        return new JsonApiResponse();
 			}
 		};
@@ -135,6 +143,7 @@ public class RelationshipRepositoryAdapter<T, I extends Serializable, D, J exten
 		        } else {
 		            ((RelationshipRepository) relationshipRepository).removeRelations(source, targetIds, field.getUnderlyingName());
 		        }
+		        invalidateRelationshipLookups(source, field);
 		        return new JsonApiResponse();
 			}
 		};
@@ -161,7 +170,7 @@ public class RelationshipRepositoryAdapter<T, I extends Serializable, D, J exten
 		        	RelationshipRepositoryV2 querySpecRepository = (RelationshipRepositoryV2) relationshipRepository;
 		        	Class<?> targetResourceClass = querySpecRepository.getTargetResourceClass();
 		        	ResourceInformation targetResourceInformation = moduleRegistry.getResourceRegistry().findEntry(targetResourceClass).getResourceInformation();
-		        	resource = querySpecRepository.findOneTarget(sourceId, field.getUnderlyingName(), request.getQuerySpec(targetResourceInformation));
+		        	resource = findTargets(querySpecRepository, sourceId, field, targetResourceInformation, request.getQuerySpec(targetResourceInformation), false);
 		        } else {
 		            resource = ((RelationshipRepository) relationshipRepository)
 		                .findOneTarget(sourceId, field.getUnderlyingName(), request.getQueryParams());
@@ -192,7 +201,7 @@ public class RelationshipRepositoryAdapter<T, I extends Serializable, D, J exten
 		        	RelationshipRepositoryV2 querySpecRepository = (RelationshipRepositoryV2) relationshipRepository;
 		        	Class<?> targetResourceClass = querySpecRepository.getTargetResourceClass();
 		        	ResourceInformation targetResourceInformation = moduleRegistry.getResourceRegistry().findEntry(targetResourceClass).getResourceInformation();
-		            	resources = querySpecRepository.findManyTargets(sourceId, field.getUnderlyingName(), request.getQuerySpec(targetResourceInformation));
+		            	resources = findTargets(querySpecRepository, sourceId, field, targetResourceInformation, request.getQuerySpec(targetResourceInformation), true);
 		        } else {
 		            resources = ((RelationshipRepository) relationshipRepository)
 		                .findManyTargets(sourceId, field.getUnderlyingName(), request.getQueryParams());
@@ -220,7 +229,7 @@ public class RelationshipRepositoryAdapter<T, I extends Serializable, D, J exten
 					Class<?> targetResourceClass = bulkRepository.getTargetResourceClass();
 					ResourceInformation targetResourceInformation = moduleRegistry.getResourceRegistry().findEntry(targetResourceClass).getResourceInformation();
 					QuerySpec querySpec = request.getQuerySpec(targetResourceInformation);
-					MultivaluedMap targetsMap = bulkRepository.findTargets(sourceIds, field.getUnderlyingName(), querySpec);
+					MultivaluedMap targetsMap = findBulkTargets(bulkRepository, sourceIds, field, targetResourceInformation, querySpec, true);
 					return toResponses(targetsMap, true, queryAdapter, field, HttpMethod.GET);
 				}
 			};
@@ -254,7 +263,7 @@ public class RelationshipRepositoryAdapter<T, I extends Serializable, D, J exten
 					BulkRelationshipRepositoryV2 bulkRepository = (BulkRelationshipRepositoryV2) relationshipRepository;
 					Class targetResourceClass = bulkRepository.getTargetResourceClass();
 					ResourceInformation targetResourceInformation = moduleRegistry.getResourceRegistry().findEntry(targetResourceClass).getResourceInformation();
-					MultivaluedMap<I, D> targetsMap = bulkRepository.findTargets(sourceIds, field.getUnderlyingName(), request.getQuerySpec(targetResourceInformation));
+					MultivaluedMap<I, D> targetsMap = findBulkTargets(bulkRepository, sourceIds, field, targetResourceInformation, request.getQuerySpec(targetResourceInformation), false);
 					return toResponses(targetsMap, false, queryAdapter, field, HttpMethod.GET);
 				}
 			};
@@ -272,6 +281,121 @@ public class RelationshipRepositoryAdapter<T, I extends Serializable, D, J exten
 	}
 	
 
+	/**
+	 * Looks up the targets of a single source, served from the
+	 * {@link RelationshipLookupCache} if the repository is cacheable. Only the
+	 * target entities are cached, every lookup gets a list of its own since
+	 * lists are enriched with links and meta information further on.
+	 */
+	@SuppressWarnings("rawtypes")
+	private Object findTargets(RelationshipRepositoryV2 repository, Serializable sourceId, ResourceField field, ResourceInformation targetResourceInformation, QuerySpec querySpec, boolean isMany) {
+		RelationshipLookupCache cache = getRelationshipLookupCache(repository);
+		RelationshipLookupKey key = null;
+		if (cache != null) {
+			key = newLookupKey(sourceId, field, targetResourceInformation, querySpec);
+			Nullable<Object> cachedTargets = cache.get(key);
+			if (cachedTargets.isPresent()) {
+				return copyTargets(cachedTargets.get());
+			}
+		}
+		Object targets;
+		if (isMany) {
+			targets = repository.findManyTargets(sourceId, field.getUnderlyingName(), querySpec);
+		} else {
+			targets = repository.findOneTarget(sourceId, field.getUnderlyingName(), querySpec);
+		}
+		if (cache != null) {
+			cache.put(key, copyTargets(targets));
+		}
+		return targets;
+	}
+
+	private static Object copyTargets(Object targets) {
+		if (targets instanceof Iterable) {
+			List<Object> list = new ArrayList<>();
+			for (Object target : (Iterable<?>) targets) {
+				list.add(target);
+			}
+			return list;
+		}
+		return targets;
+	}
+
+	/**
+	 * Looks up the targets of multiple sources. Sources cached by the
+	 * {@link RelationshipLookupCache} are served from there, the remaining
+	 * ones are fetched with a single bulk request.
+	 */
+	@SuppressWarnings({ "rawtypes" })
+	private MultivaluedMap findBulkTargets(BulkRelationshipRepositoryV2 repository, Iterable<?> sourceIds, ResourceField field, ResourceInformation targetResourceInformation, QuerySpec querySpec,
+			boolean isMany) {
+		RelationshipLookupCache cache = getRelationshipLookupCache(repository);
+		if (cache == null) {
+			return repository.findTargets(sourceIds, field.getUnderlyingName(), querySpec);
+		}
+
+		MultivaluedMap targetsMap = new MultivaluedMap();
+		List<Object> uncachedIds = new ArrayList<>();
+		for (Object sourceId : sourceIds) {
+			Nullable<Object> cachedTargets = cache.get(newLookupKey((Serializable) sourceId, field, targetResourceInformation, querySpec));
+			if (cachedTargets.isPresent()) {
+				putTargets(targetsMap, sourceId, cachedTargets.get());
+			} else {
+				uncachedIds.add(sourceId);
+			}
+		}
+
+		if (!uncachedIds.isEmpty()) {
+			MultivaluedMap loadedTargetsMap = repository.findTargets(uncachedIds, field.getUnderlyingName(), querySpec);
+			for (Object sourceId : uncachedIds) {
+				Object targets = null;
+				if (loadedTargetsMap.containsKey(sourceId)) {
+					targets = isMany ? new ArrayList<>(loadedTargetsMap.getList(sourceId)) : loadedTargetsMap.getUnique(sourceId);
+				}
+				cache.put(newLookupKey((Serializable) sourceId, field, targetResourceInformation, querySpec), targets);
+				putTargets(targetsMap, sourceId, targets);
+			}
+		}
+		return targetsMap;
+	}
+
+	/**
+	 * @return cache to serve the lookups of the given repository from, null
+	 *         unless the repository opted in
+	 */
+	private RelationshipLookupCache getRelationshipLookupCache(Object repository) {
+		return repository instanceof CacheableRelationshipRepositoryV2 ? getRelationshipLookupCache() : null;
+	}
+
+	@SuppressWarnings({ "rawtypes", "unchecked" })
+	private static void putTargets(MultivaluedMap targetsMap, Object sourceId, Object targets) {
+		if (targets instanceof Iterable) {
+			targetsMap.set(sourceId, (List) copyTargets(targets));
+		} else if (targets != null) {
+			targetsMap.add(sourceId, targets);
+		}
+	}
+
+	private RelationshipLookupKey newLookupKey(Serializable sourceId, ResourceField field, ResourceInformation targetResourceInformation, QuerySpec querySpec) {
+		String sourceType = field.getParentResourceInformation().getResourceType();
+		return new RelationshipLookupKey(sourceType, sourceId, field.getUnderlyingName(), targetResourceInformation.getResourceType(), querySpec);
+	}
+
+	/**
+	 * Modifications of a relationship affect the lookups of the source and,
+	 * due to potential opposite relationships, the ones of the target type.
+	 */
+	private void invalidateRelationshipLookups(Object source, ResourceField field) {
+		RelationshipLookupCache cache = getRelationshipLookupCache();
+		if (cache != null) {
+			ResourceInformation sourceInformation = field.getParentResourceInformation();
+			cache.invalidate(sourceInformation.getResourceType(), (Serializable) sourceInformation.getId(source));
+			if (field.getOppositeResourceType() != null) {
+				cache.invalidate(field.getOppositeResourceType());
+			}
+		}
+	}
+
 	private Map<I, JsonApiResponse> toResponses(MultivaluedMap<I, D> targetsMap, boolean isMany, QueryAdapter queryAdapter, ResourceField field, HttpMethod method) {
 		Map<I, JsonApiResponse> responseMap = new HashMap<>();
 		for(I sourceId : targetsMap.keySet()){
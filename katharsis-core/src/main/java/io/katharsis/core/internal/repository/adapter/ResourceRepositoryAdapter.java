@@ -7,6 +7,8 @@ import io.katharsis.legacy.repository.ResourceRepository;
 import io.katharsis.module.ModuleRegistry;
 import io.katharsis.queryspec.QuerySpec;
 import io.katharsis.repository.ResourceRepositoryV2;
+import io.katharsis.repository.StreamingResourceRepositoryV2;
+import io.katharsis.repository.cache.RelationshipLookupCache;
 import io.katharsis.repository.filter.RepositoryFilterContext;
 import io.katharsis.repository.ResourceRepositoryV2;
 import io.katharsis.repository.request.HttpMethod;
@@ -67,6 +69,9 @@ public class ResourceRepositoryAdapter<T, I extends Serializable> extends Respon
 				Object resources;
 				if (isAnnotated) {
 					resources = ((AnnotatedResourceRepositoryAdapter) resourceRepository).findAll(queryAdapter);
+				} else if (resourceRepository instanceof StreamingResourceRepositoryV2) {
+					QuerySpec querySpec = request.getQuerySpec(resourceInformation);
+					resources = new StreamedResources<>(((StreamingResourceRepositoryV2) resourceRepository).findAllStream(querySpec));
 				} else if (resourceRepository instanceof ResourceRepositoryV2) {
 					QuerySpec querySpec = request.getQuerySpec(resourceInformation);
 					resources = ((ResourceRepositoryV2) resourceRepository).findAll(querySpec);
@@ -137,6 +142,7 @@ public class ResourceRepositoryAdapter<T, I extends Serializable> extends Respon
 				} else {
 					resource = ((ResourceRepository) resourceRepository).save(entity);
 				}
+				invalidateRelationshipLookups();
 				return getResponse(resourceRepository, resource, request);
 			}
 
@@ -161,6 +167,7 @@ public class ResourceRepositoryAdapter<T, I extends Serializable> extends Respon
 				} else {
 					((ResourceRepository) resourceRepository).delete(id);
 				}
+				invalidateRelationshipLookups();
 				return new JsonApiResponse();
 			}
 		};
@@ -176,4 +183,15 @@ public class ResourceRepositoryAdapter<T, I extends Serializable> extends Respon
 	protected ResourceInformation getResourceInformation(Object repository) {
 		return resourceInformation;
 	}
+
+	/**
+	 * Any modification of a resource may change relationships of the resource
+	 * itself, relationships pointing to it as well as the cached resource.
+	 */
+	private void invalidateRelationshipLookups() {
+		RelationshipLookupCache cache = getRelationshipLookupCache();
+		if (cache != null && resourceInformation != null) {
+			cache.invalidate(resourceInformation.getResourceType());
+		}
+	}
 }
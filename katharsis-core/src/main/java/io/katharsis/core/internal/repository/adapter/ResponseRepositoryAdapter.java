@@ -4,16 +4,22 @@ import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Function;
 
 import io.katharsis.core.internal.query.QuerySpecAdapter;
+import io.katharsis.core.internal.utils.CompletionStageUtils;
 import io.katharsis.core.internal.utils.JsonApiUrlBuilder;
 import io.katharsis.core.internal.utils.PreconditionUtil;
 import io.katharsis.legacy.internal.AnnotatedRepositoryAdapter;
 import io.katharsis.legacy.repository.LinksRepository;
 import io.katharsis.legacy.repository.MetaRepository;
 import io.katharsis.module.ModuleRegistry;
+import io.katharsis.queryspec.QuerySpec;
 import io.katharsis.repository.LinksRepositoryV2;
 import io.katharsis.repository.MetaRepositoryV2;
+import io.katharsis.repository.cache.RelationshipLookupCache;
 import io.katharsis.repository.filter.RepositoryBulkRequestFilterChain;
 import io.katharsis.repository.filter.RepositoryFilter;
 import io.katharsis.repository.filter.RepositoryFilterContext;
@@ -32,8 +38,11 @@ import io.katharsis.resource.links.PagedLinksInformation;
 import io.katharsis.resource.list.DefaultResourceList;
 import io.katharsis.resource.list.PagedResultList;
 import io.katharsis.resource.list.ResourceList;
+import io.katharsis.resource.meta.CursorMetaInformation;
+import io.katharsis.resource.meta.HasMoreResourcesMetaInformation;
 import io.katharsis.resource.meta.MetaInformation;
 import io.katharsis.resource.meta.PagedMetaInformation;
+import io.katharsis.resource.registry.ResourceRegistry;
 
 /**
  * The adapter is used to create a common layer between controllers and
@@ -56,20 +65,43 @@ public abstract class ResponseRepositoryAdapter {
 		this.resourceInformation = resourceInformation;
 	}
 
+	/**
+	 * @return cache for relationship lookups or null if none is installed
+	 */
+	protected RelationshipLookupCache getRelationshipLookupCache() {
+		return moduleRegistry != null ? moduleRegistry.getRelationshipLookupCache() : null;
+	}
+
 	@SuppressWarnings({ "unchecked", "rawtypes" })
 	protected <T> Iterable<T> filterResult(Iterable<?> resources, RepositoryRequestSpec requestSpec) {
 		RepositoryResultFilterChainImpl<T> chain = new RepositoryResultFilterChainImpl<>((Iterable) resources);
 		return chain.doFilter(newRepositoryFilterContext(requestSpec));
 	}
 
-	protected JsonApiResponse getResponse(Object repository, Object result, RepositoryRequestSpec requestSpec) {
+	protected JsonApiResponse getResponse(final Object repository, Object result, final RepositoryRequestSpec requestSpec) {
+		if (result instanceof CompletionStage) {
+			CompletableFuture<?> future = ((CompletionStage<?>) result).toCompletableFuture();
+			if (future.isDone()) {
+				return getResponse(repository, CompletionStageUtils.await(future), requestSpec);
+			}
+			// compose rather than block the dispatching thread, see PendingResponse
+			return new PendingJsonApiResponse(future.thenApply(new Function<Object, JsonApiResponse>() {
+
+				@Override
+				public JsonApiResponse apply(Object completedResult) {
+					return getResponse(repository, completedResult, requestSpec);
+				}
+			}));
+		}
 		if (result instanceof JsonApiResponse) {
 			return (JsonApiResponse) result;
 		}
 
 		Iterable<?> resources;
 		boolean isCollection = result instanceof Iterable;
-		if (isCollection) {
+		if (result instanceof StreamedResources && !isStreamable(repository)) {
+			resources = ((StreamedResources<?>) result).toList();
+		} else if (isCollection) {
 			resources = (Iterable<?>) result;
 		} else {
 			resources = Collections.singletonList(result);
@@ -94,6 +126,14 @@ public abstract class ResponseRepositoryAdapter {
 		return new JsonApiResponse().setEntity(resultEntity).setLinksInformation(linksInformation).setMetaInformation(metaInformation);
 	}
 
+	/**
+	 * Streamed resources can be iterated only once. They are collected up-front
+	 * if repository filters, meta or links information may iterate them as well.
+	 */
+	private boolean isStreamable(Object repository) {
+		return moduleRegistry.getRepositoryFilters().isEmpty() && !(repository instanceof MetaRepositoryV2) && !(repository instanceof LinksRepositoryV2);
+	}
+
 	private MetaInformation getMetaInformation(Object repository, Iterable<?> resources, RepositoryRequestSpec requestSpec) {
 		RepositoryMetaFilterChainImpl chain = new RepositoryMetaFilterChainImpl(repository);
 		return chain.doFilter(newRepositoryFilterContext(requestSpec), resources);
@@ -273,17 +313,63 @@ public abstract class ResponseRepositoryAdapter {
 		// offset/limit need to be implemented
 		QueryAdapter queryAdapter = requestSpec.getQueryAdapter();
 		LinksInformation enrichedLinksInformation = linksInformation;
-		if (queryAdapter instanceof QuerySpecAdapter && (queryAdapter.getOffset() != 0 || queryAdapter.getLimit() != null)) {
+		CursorMetaInformation cursorMeta = getCursorMeta(resources);
+		if (queryAdapter instanceof QuerySpecAdapter && queryAdapter.getLimit() != null && cursorMeta != null) {
+			enrichedLinksInformation = enrichCursorLinksInformation(enrichedLinksInformation, cursorMeta, (QuerySpecAdapter) queryAdapter, requestSpec);
+		} else if (queryAdapter instanceof QuerySpecAdapter && (queryAdapter.getOffset() != 0 || queryAdapter.getLimit() != null)) {
 			enrichedLinksInformation = enrichPageLinksInformation(enrichedLinksInformation, resources, queryAdapter, requestSpec, true);
 		}
 		return enrichedLinksInformation;
 	}
 
+	private CursorMetaInformation getCursorMeta(Iterable<?> resources) {
+		MetaInformation meta = resources instanceof ResourceList ? ((ResourceList<?>) resources).getMeta() : null;
+		if (meta instanceof CursorMetaInformation) {
+			CursorMetaInformation cursorMeta = (CursorMetaInformation) meta;
+			if (cursorMeta.getNextCursor() != null || cursorMeta.getPrevCursor() != null) {
+				return cursorMeta;
+			}
+		}
+		return null;
+	}
+
+	private LinksInformation enrichCursorLinksInformation(LinksInformation linksInformation, CursorMetaInformation cursorMeta, QuerySpecAdapter queryAdapter, RepositoryRequestSpec requestSpec) {
+		if (linksInformation != null && !(linksInformation instanceof PagedLinksInformation)) {
+			return linksInformation;
+		}
+		PagedLinksInformation pagedLinksInformation = (PagedLinksInformation) linksInformation;
+		if (pagedLinksInformation == null) {
+			pagedLinksInformation = new DefaultPagedLinksInformation();
+		}
+		// only enrich if not already set, keyset pagination has no last page
+		if (!hasPageLinks(pagedLinksInformation)) {
+			ResourceRegistry resourceRegistry = moduleRegistry.getResourceRegistry();
+			QuerySpec pageSpec = queryAdapter.getQuerySpec().duplicate();
+			pageSpec.setOffset(0);
+			pageSpec.setPageAfter(null);
+			pageSpec.setPageBefore(null);
+			pagedLinksInformation.setFirst(toUrl(new QuerySpecAdapter(pageSpec, resourceRegistry), requestSpec));
+
+			if (cursorMeta.getPrevCursor() != null) {
+				QuerySpec prevSpec = pageSpec.duplicate();
+				prevSpec.setPageBefore(cursorMeta.getPrevCursor());
+				pagedLinksInformation.setPrev(toUrl(new QuerySpecAdapter(prevSpec, resourceRegistry), requestSpec));
+			}
+			if (cursorMeta.getNextCursor() != null) {
+				QuerySpec nextSpec = pageSpec.duplicate();
+				nextSpec.setPageAfter(cursorMeta.getNextCursor());
+				pagedLinksInformation.setNext(toUrl(new QuerySpecAdapter(nextSpec, resourceRegistry), requestSpec));
+			}
+		}
+		return pagedLinksInformation;
+	}
+
 	private LinksInformation enrichPageLinksInformation(LinksInformation linksInformation, Iterable<?> resources, QueryAdapter queryAdapter, RepositoryRequestSpec requestSpec, boolean createLinksInformation) {
 
 		if (linksInformation == null && createLinksInformation || linksInformation instanceof PagedLinksInformation) {
 			Long totalCount = getTotalCount(resources);
-			if (totalCount != null) {
+			Boolean hasMoreResources = totalCount == null ? getHasMoreResources(resources) : null;
+			if (totalCount != null || hasMoreResources != null) {
 				PagedLinksInformation pagedLinksInformation = (PagedLinksInformation) linksInformation;
 
 				if (pagedLinksInformation == null) {
@@ -294,7 +380,7 @@ public abstract class ResponseRepositoryAdapter {
 
 				// only enrich if not already set
 				if (!hasPageLinks(pagedLinksInformation)) {
-					doEnrichPageLinksInformation(pagedLinksInformation, totalCount, queryAdapter, requestSpec);
+					doEnrichPageLinksInformation(pagedLinksInformation, totalCount, hasMoreResources, queryAdapter, requestSpec);
 				}
 				return pagedLinksInformation;
 			}
@@ -315,11 +401,21 @@ public abstract class ResponseRepositoryAdapter {
 		return null;
 	}
 
+	private Boolean getHasMoreResources(Iterable<?> resources) {
+		if (resources instanceof ResourceList) {
+			MetaInformation meta = ((ResourceList<?>) resources).getMeta();
+			if (meta instanceof HasMoreResourcesMetaInformation) {
+				return ((HasMoreResourcesMetaInformation) meta).getHasMoreResources();
+			}
+		}
+		return null;
+	}
+
 	private boolean hasPageLinks(PagedLinksInformation pagedLinksInformation) {
 		return pagedLinksInformation.getFirst() != null || pagedLinksInformation.getLast() != null || pagedLinksInformation.getPrev() != null || pagedLinksInformation.getNext() != null;
 	}
 
-	private void doEnrichPageLinksInformation(PagedLinksInformation pagedLinksInformation, long total, QueryAdapter queryAdapter, RepositoryRequestSpec requestSpec) {
+	private void doEnrichPageLinksInformation(PagedLinksInformation pagedLinksInformation, Long total, Boolean hasMoreResources, QueryAdapter queryAdapter, RepositoryRequestSpec requestSpec) {
 		long pageSize = queryAdapter.getLimit().longValue();
 		long offset = queryAdapter.getOffset();
 
@@ -327,11 +423,25 @@ public abstract class ResponseRepositoryAdapter {
 		if (currentPage * pageSize != offset) {
 			throw new IllegalArgumentException("offset " + offset + " is not a multiple of limit " + pageSize);
 		}
-		long totalPages = (total + pageSize - 1) / pageSize;
-
 		QueryAdapter pageSpec = queryAdapter.duplicate();
 		pageSpec.setLimit(pageSize);
 
+		if (total == null) {
+			// total unknown, no last page
+			pageSpec.setOffset(0);
+			pagedLinksInformation.setFirst(toUrl(pageSpec, requestSpec));
+			if (currentPage > 0) {
+				pageSpec.setOffset((currentPage - 1) * pageSize);
+				pagedLinksInformation.setPrev(toUrl(pageSpec, requestSpec));
+			}
+			if (hasMoreResources) {
+				pageSpec.setOffset((currentPage + 1) * pageSize);
+				pagedLinksInformation.setNext(toUrl(pageSpec, requestSpec));
+			}
+			return;
+		}
+
+		long totalPages = (total + pageSize - 1) / pageSize;
 		if (totalPages > 0) {
 			pageSpec.setOffset(0);
 			pagedLinksInformation.setFirst(toUrl(pageSpec, requestSpec));
@@ -0,0 +1,70 @@
+package io.katharsis.core.internal.repository.adapter;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import io.katharsis.core.internal.utils.PreconditionUtil;
+import io.katharsis.repository.StreamingResourceRepositoryV2;
+
+/**
+ * Resources of a {@link StreamingResourceRepositoryV2} pulled from the underlying stream as they are iterated. Can be
+ * iterated only once, the stream is closed once exhausted or upon {@link #close()}.
+ */
+public class StreamedResources<T> implements Iterable<T>, Closeable {
+
+	private final Stream<T> stream;
+
+	private boolean iterated;
+
+	public StreamedResources(Stream<T> stream) {
+		this.stream = stream;
+	}
+
+	@Override
+	public Iterator<T> iterator() {
+		PreconditionUtil.assertFalse("streamed resources can only be iterated once", iterated);
+		iterated = true;
+		final Iterator<T> iterator = stream.iterator();
+		return new Iterator<T>() {
+
+			@Override
+			public boolean hasNext() {
+				boolean hasNext = iterator.hasNext();
+				if (!hasNext) {
+					close();
+				}
+				return hasNext;
+			}
+
+			@Override
+			public T next() {
+				return iterator.next();
+			}
+		};
+	}
+
+	/**
+	 * Collects the remaining resources and closes the stream.
+	 *
+	 * @return list of the resources
+	 */
+	public List<T> toList() {
+		try {
+			List<T> list = new ArrayList<>();
+			for (T resource : this) {
+				list.add(resource);
+			}
+			return list;
+		} finally {
+			close();
+		}
+	}
+
+	@Override
+	public void close() {
+		stream.close();
+	}
+}
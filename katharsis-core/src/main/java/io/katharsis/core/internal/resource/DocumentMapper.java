@@ -2,17 +2,25 @@ package io.katharsis.core.internal.resource;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Executor;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 import io.katharsis.core.internal.boot.PropertiesProvider;
+import io.katharsis.core.internal.repository.adapter.StreamedResources;
+import io.katharsis.core.properties.KatharsisProperties;
 import io.katharsis.errorhandling.ErrorData;
 import io.katharsis.legacy.internal.RepositoryMethodParameterProvider;
 import io.katharsis.repository.request.QueryAdapter;
 import io.katharsis.repository.response.JsonApiResponse;
 import io.katharsis.resource.Document;
+import io.katharsis.resource.Relationship;
+import io.katharsis.resource.Resource;
 import io.katharsis.resource.registry.ResourceRegistry;
 import io.katharsis.utils.Nullable;
 
@@ -31,10 +39,42 @@ public class DocumentMapper {
 	}
 
 	public DocumentMapper(ResourceRegistry resourceRegistry, ObjectMapper objectMapper, PropertiesProvider propertiesProvider, boolean client) {
+		this.client = client;
+		boolean streaming = !client && isStreaming(propertiesProvider);
 		this.util = new DocumentMapperUtil(resourceRegistry, objectMapper);
+		this.util.setRelationshipLinks(getRelationshipLinks(propertiesProvider));
+		this.util.setDeferLinkRendering(streaming);
 		this.resourceMapper = newResourceMapper(util, client, objectMapper);
+		this.resourceMapper.setDeferAttributeSerialization(streaming);
 		this.includeLookupSetter = new IncludeLookupSetter(resourceRegistry, resourceMapper, propertiesProvider);
-		this.client = client;
+	}
+
+	/**
+	 * @return true if {@link KatharsisProperties#SERIALIZATION_STREAMING} is
+	 *         enabled
+	 */
+	public static boolean isStreaming(PropertiesProvider propertiesProvider) {
+		return propertiesProvider != null && Boolean.parseBoolean(propertiesProvider.getProperty(KatharsisProperties.SERIALIZATION_STREAMING));
+	}
+
+	/**
+	 * @return value of {@link KatharsisProperties#RELATIONSHIP_LINKS},
+	 *         {@link RelationshipLinks#ABSOLUTE} by default
+	 */
+	public static RelationshipLinks getRelationshipLinks(PropertiesProvider propertiesProvider) {
+		String property = propertiesProvider != null ? propertiesProvider.getProperty(KatharsisProperties.RELATIONSHIP_LINKS) : null;
+		if (property == null || property.isEmpty()) {
+			return RelationshipLinks.ABSOLUTE;
+		}
+		return RelationshipLinks.valueOf(property.toUpperCase(Locale.ROOT));
+	}
+
+	/**
+	 * @param executor used to look up relationships of an inclusion level
+	 *        concurrently
+	 */
+	public void setIncludeExecutor(Executor executor) {
+		includeLookupSetter.getScheduler().setExecutor(executor);
 	}
 
 	protected ResourceMapper newResourceMapper(DocumentMapperUtil util, boolean client, ObjectMapper objectMapper) {
@@ -55,14 +95,55 @@ public class DocumentMapper {
 			return null;
 		}
 
-		Document doc = new Document();
-		addErrors(doc, response.getErrors());
-		util.setMeta(doc, response.getMetaInformation());
-		util.setLinks(doc, response.getLinksInformation());
-		addData(doc, response.getEntity(), queryAdapter);
-		addRelationDataAndInclusions(doc, response.getEntity(), queryAdapter, parameterProvider, additionalEagerLoadedRelations);
+		util.startDocument();
+		try {
+			Document doc = new Document();
+			addErrors(doc, response.getErrors());
+			util.setMeta(doc, response.getMetaInformation());
+			util.setLinks(doc, response.getLinksInformation());
+			Object entity = response.getEntity();
+			if (entity instanceof StreamedResources) {
+				// consumed within the DocumentFilter chain and any transaction set up by it
+				entity = ((StreamedResources<?>) entity).toList();
+			}
+			addData(doc, entity, queryAdapter);
+			addRelationDataAndInclusions(doc, entity, queryAdapter, parameterProvider, additionalEagerLoadedRelations);
+			if (util.getRelationshipLinks() == RelationshipLinks.NONE && !client) {
+				removeEmptyRelationships(doc);
+			}
+			return doc;
+		} finally {
+			util.endDocument();
+		}
+	}
+
+	/**
+	 * Without links, relationships whose data has not been loaded carry no
+	 * information anymore and are left out.
+	 */
+	private void removeEmptyRelationships(Document doc) {
+		if (doc.getData().isPresent()) {
+			removeEmptyRelationships(DocumentMapperUtil.<Resource> toList(doc.getData().get()));
+		}
+		removeEmptyRelationships(doc.getIncluded());
+	}
 
-		return doc;
+	private void removeEmptyRelationships(List<Resource> resources) {
+		if (resources == null) {
+			return;
+		}
+		for (Resource resource : resources) {
+			if (resource == null) {
+				continue;
+			}
+			Iterator<Map.Entry<String, Relationship>> iterator = resource.getRelationships().entrySet().iterator();
+			while (iterator.hasNext()) {
+				Relationship relationship = iterator.next().getValue();
+				if (!relationship.getData().isPresent() && relationship.getLinks() == null && relationship.getMeta() == null) {
+					iterator.remove();
+				}
+			}
+		}
 	}
 
 	private void addRelationDataAndInclusions(Document doc, Object entity, QueryAdapter queryAdapter, RepositoryMethodParameterProvider parameterProvider, Set<String> additionalEagerLoadedRelations) {
@@ -94,5 +175,4 @@ public class DocumentMapper {
 			doc.setErrors(errorList);
 		}
 	}
-
 }
@@ -5,15 +5,18 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import com.fasterxml.jackson.annotation.JsonValue;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 
 import io.katharsis.core.internal.dispatcher.path.PathBuilder;
-import io.katharsis.core.internal.utils.PropertyUtils;
 import io.katharsis.legacy.queryParams.include.Inclusion;
 import io.katharsis.legacy.queryParams.params.IncludedFieldsParams;
 import io.katharsis.legacy.queryParams.params.IncludedRelationsParams;
@@ -33,19 +36,130 @@ import io.katharsis.resource.registry.ResourceRegistry;
 
 public class DocumentMapperUtil {
 
+	private static final String SELF_FIELD_NAME = "self";
+
+	private static final String RELATED_FIELD_NAME = "related";
+
 	private ResourceRegistry resourceRegistry;
 
 	private ObjectMapper objectMapper;
 
+	private RelationshipLinks relationshipLinks = RelationshipLinks.ABSOLUTE;
+
+	private boolean deferLinkRendering;
+
+	private final Map<ResourceInformation, LinkTemplate> linkTemplates = new ConcurrentHashMap<>();
+
+	private final ThreadLocal<BaseUrls> documentBaseUrls = new ThreadLocal<>();
+
 	public DocumentMapperUtil(ResourceRegistry resourceRegistry, ObjectMapper objectMapper) {
 		this.resourceRegistry = resourceRegistry;
 		this.objectMapper = objectMapper;
 	}
 
+	/**
+	 * @param relationshipLinks how relationship links are rendered, see
+	 *            {@link io.katharsis.core.properties.KatharsisProperties#RELATIONSHIP_LINKS}
+	 */
+	public void setRelationshipLinks(RelationshipLinks relationshipLinks) {
+		this.relationshipLinks = relationshipLinks;
+	}
+
+	public RelationshipLinks getRelationshipLinks() {
+		return relationshipLinks;
+	}
+
+	/**
+	 * @param deferLinkRendering if true relationship links are wrapped as
+	 *            {@link com.fasterxml.jackson.databind.node.POJONode} and
+	 *            rendered only once the document is written.
+	 */
+	public void setDeferLinkRendering(boolean deferLinkRendering) {
+		this.deferLinkRendering = deferLinkRendering;
+	}
+
+	/**
+	 * Resolves the base url of the current request once for all links of a
+	 * document. Must be followed by {@link #endDocument()}.
+	 */
+	public void startDocument() {
+		documentBaseUrls.set(resolveBaseUrls());
+	}
+
+	public void endDocument() {
+		documentBaseUrls.remove();
+	}
+
+	private BaseUrls getBaseUrls() {
+		BaseUrls baseUrls = documentBaseUrls.get();
+		return baseUrls != null ? baseUrls : resolveBaseUrls();
+	}
+
+	private BaseUrls resolveBaseUrls() {
+		return new BaseUrls();
+	}
+
+	private String toRelationshipUrl(String url) {
+		if (relationshipLinks == RelationshipLinks.RELATIVE) {
+			int schemeEnd = url.indexOf("://");
+			if (schemeEnd != -1) {
+				int pathStart = url.indexOf('/', schemeEnd + 3);
+				return pathStart != -1 ? url.substring(pathStart) : "";
+			}
+		}
+		return url;
+	}
+
+	private LinkTemplate getLinkTemplate(ResourceInformation resourceInformation) {
+		LinkTemplate template = linkTemplates.get(resourceInformation);
+		if (template == null) {
+			template = new LinkTemplate(resourceInformation);
+			linkTemplates.put(resourceInformation, template);
+		}
+		return template;
+	}
+
 	public String getRelationshipLink(ResourceInformation resourceInformation, Object entity, ResourceField field, boolean related) {
-		String resourceUrl = resourceRegistry.getResourceUrl(resourceInformation);
-		String resourceId = getIdString(entity, resourceInformation);
-		return resourceUrl + "/" + resourceId + (!related ? "/" + PathBuilder.RELATIONSHIP_MARK + "/" : "/") + field.getJsonName();
+		return getRelationshipLink(resourceInformation, getIdString(entity, resourceInformation), field, related);
+	}
+
+	/**
+	 * @param resourceInformation of the source resource
+	 * @param resourceId of the source resource
+	 * @param field of the relationship
+	 * @param related true for the related link, false for the relationship
+	 *            self link
+	 * @return link
+	 */
+	public String getRelationshipLink(ResourceInformation resourceInformation, String resourceId, ResourceField field, boolean related) {
+		return getLinkTemplate(resourceInformation).render(getBaseUrls().getRelationshipUrl(resourceInformation), resourceId, field.getJsonName(), related);
+	}
+
+	/**
+	 * @param resourceInformation of the source resource
+	 * @param resourceId of the source resource
+	 * @param field of the relationship
+	 * @return self and related link of the relationship or null if relationship
+	 *         links are omitted
+	 */
+	public ObjectNode getRelationshipLinks(ResourceInformation resourceInformation, String resourceId, ResourceField field) {
+		if (relationshipLinks == RelationshipLinks.NONE) {
+			return null;
+		}
+		LinkTemplate template = getLinkTemplate(resourceInformation);
+		String baseUrl = getBaseUrls().getRelationshipUrl(resourceInformation);
+		String fieldName = field.getJsonName();
+		ObjectNode links = objectMapper.createObjectNode();
+		links.set(SELF_FIELD_NAME, toLinkNode(template, baseUrl, resourceId, fieldName, false));
+		links.set(RELATED_FIELD_NAME, toLinkNode(template, baseUrl, resourceId, fieldName, true));
+		return links;
+	}
+
+	private JsonNode toLinkNode(LinkTemplate template, String baseUrl, String resourceId, String fieldName, boolean related) {
+		if (deferLinkRendering) {
+			return objectMapper.getNodeFactory().pojoNode(new DeferredLink(template, baseUrl, resourceId, fieldName, related));
+		}
+		return objectMapper.getNodeFactory().textNode(template.render(baseUrl, resourceId, fieldName, related));
 	}
 
 	public List<ResourceIdentifier> toResourceIds(Collection<?> entities) {
@@ -68,7 +182,7 @@ public class DocumentMapperUtil {
 
 	public String getIdString(Object entity, ResourceInformation resourceInformation) {
 		ResourceField idField = resourceInformation.getIdField();
-		Object sourceId = PropertyUtils.getProperty(entity, idField.getUnderlyingName());
+		Object sourceId = idField.getAccessor().getValue(entity);
 		return resourceInformation.toIdString(sourceId);
 	}
 
@@ -177,7 +291,113 @@ public class DocumentMapperUtil {
 	}
 
 	public String getSelfUrl(ResourceInformation resourceInformation, Object entity) {
-		String resourceUrl = resourceRegistry.getResourceUrl(resourceInformation);
-		return resourceUrl + "/" + getIdString(entity, resourceInformation);
+		return getSelfUrl(resourceInformation, getIdString(entity, resourceInformation));
+	}
+
+	public String getSelfUrl(ResourceInformation resourceInformation, String resourceId) {
+		return getLinkTemplate(resourceInformation).render(getBaseUrls().getResourceUrl(resourceInformation), resourceId, null, false);
+	}
+
+	/**
+	 * Urls of the resource types of a document as obtained from
+	 * {@link ResourceRegistry#getResourceUrl(ResourceInformation)}, resolved
+	 * once per type and document.
+	 */
+	final class BaseUrls {
+
+		private final Map<ResourceInformation, String> resourceUrls = new ConcurrentHashMap<>();
+
+		private final Map<ResourceInformation, String> relationshipUrls = new ConcurrentHashMap<>();
+
+		String getResourceUrl(ResourceInformation resourceInformation) {
+			String url = resourceUrls.get(resourceInformation);
+			if (url == null) {
+				url = resourceRegistry.getResourceUrl(resourceInformation);
+				if (url.endsWith("/")) {
+					url = url.substring(0, url.length() - 1);
+				}
+				resourceUrls.put(resourceInformation, url);
+			}
+			return url;
+		}
+
+		String getRelationshipUrl(ResourceInformation resourceInformation) {
+			String url = relationshipUrls.get(resourceInformation);
+			if (url == null) {
+				url = toRelationshipUrl(getResourceUrl(resourceInformation));
+				relationshipUrls.put(resourceInformation, url);
+			}
+			return url;
+		}
+	}
+
+	/**
+	 * Precompiled parts of the links of a resource type, only the resource url
+	 * and the id vary from resource to resource.
+	 */
+	private static final class LinkTemplate {
+
+		private final Map<String, String> relationshipSegments = new ConcurrentHashMap<>();
+
+		private final Map<String, String> relatedSegments = new ConcurrentHashMap<>();
+
+		LinkTemplate(ResourceInformation resourceInformation) {
+			for (ResourceField field : resourceInformation.getRelationshipFields()) {
+				addField(field.getJsonName());
+			}
+		}
+
+		private void addField(String fieldName) {
+			relationshipSegments.put(fieldName, "/" + PathBuilder.RELATIONSHIP_MARK + "/" + fieldName);
+			relatedSegments.put(fieldName, "/" + fieldName);
+		}
+
+		String render(String resourceUrl, String resourceId, String fieldName, boolean related) {
+			String fieldSegment = null;
+			if (fieldName != null) {
+				fieldSegment = related ? relatedSegments.get(fieldName) : relationshipSegments.get(fieldName);
+				if (fieldSegment == null) {
+					addField(fieldName);
+					fieldSegment = related ? relatedSegments.get(fieldName) : relationshipSegments.get(fieldName);
+				}
+			}
+			StringBuilder builder = new StringBuilder(resourceUrl.length() + 1 + resourceId.length()
+					+ (fieldSegment != null ? fieldSegment.length() : 0));
+			builder.append(resourceUrl).append('/').append(resourceId);
+			if (fieldSegment != null) {
+				builder.append(fieldSegment);
+			}
+			return builder.toString();
+		}
+	}
+
+	/**
+	 * Link rendered only once it is written.
+	 */
+	private static final class DeferredLink {
+
+		private final LinkTemplate template;
+
+		private final String baseUrl;
+
+		private final String resourceId;
+
+		private final String fieldName;
+
+		private final boolean related;
+
+		DeferredLink(LinkTemplate template, String baseUrl, String resourceId, String fieldName, boolean related) {
+			this.template = template;
+			this.baseUrl = baseUrl;
+			this.resourceId = resourceId;
+			this.fieldName = fieldName;
+			this.related = related;
+		}
+
+		@JsonValue
+		@Override
+		public String toString() {
+			return template.render(baseUrl, resourceId, fieldName, related);
+		}
 	}
 }
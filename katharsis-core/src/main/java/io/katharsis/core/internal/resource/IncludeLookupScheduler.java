@@ -0,0 +1,197 @@
+package io.katharsis.core.internal.resource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.katharsis.core.internal.boot.PropertiesProvider;
+import io.katharsis.core.internal.utils.PreconditionUtil;
+import io.katharsis.core.properties.KatharsisProperties;
+
+/**
+ * Schedules the repository lookups of the relationship fields of a single
+ * inclusion level. With a parallelism of one (the default) lookups are
+ * executed one after another on the calling thread. Otherwise up to
+ * parallelism lookups of a request run at the same time: all but the last
+ * lookup are handed to the executor as long as a permit of the request is
+ * available, the remaining ones are executed by the calling thread. Results
+ * are always returned in the order of the submitted lookups, the caller is
+ * responsible to merge them sequentially.
+ * <p>
+ * Lookups handed to the executor run without the thread-bound state of the
+ * request, like its transaction. JPA repositories furthermore share an
+ * EntityManager that must not be used by several threads at the same time,
+ * so concurrent lookups are not suitable for them.
+ * </p>
+ */
+public class IncludeLookupScheduler {
+
+	public static final int DEFAULT_PARALLELISM = 1;
+
+	/**
+	 * Maximum number of threads of the default executor shared by all
+	 * requests.
+	 */
+	public static final int DEFAULT_EXECUTOR_THREADS = 16;
+
+	private final int parallelism;
+
+	private Executor executor;
+
+	public IncludeLookupScheduler(int parallelism) {
+		PreconditionUtil.assertTrue("parallelism must be at least 1", parallelism >= 1);
+		this.parallelism = parallelism;
+	}
+
+	/**
+	 * @return parallelism as configured by
+	 *         {@link KatharsisProperties#INCLUDE_PARALLELISM}
+	 */
+	public static int getParallelism(PropertiesProvider propertiesProvider) {
+		String property = propertiesProvider != null ? propertiesProvider.getProperty(KatharsisProperties.INCLUDE_PARALLELISM) : null;
+		if (property == null || property.isEmpty()) {
+			return DEFAULT_PARALLELISM;
+		}
+		return Math.max(1, Integer.parseInt(property.trim()));
+	}
+
+	public int getParallelism() {
+		return parallelism;
+	}
+
+	public boolean isConcurrent() {
+		return parallelism > 1;
+	}
+
+	/**
+	 * @return executor used for concurrent lookups. If none has been set, a
+	 *         dedicated pool of at most {@link #DEFAULT_EXECUTOR_THREADS}
+	 *         daemon threads is created. It does not queue lookups, they are
+	 *         executed by the calling thread while all threads are busy.
+	 *         Lookups block its threads, so the common ForkJoinPool is not
+	 *         used.
+	 */
+	public synchronized Executor getExecutor() {
+		if (executor == null) {
+			executor = createDefaultExecutor();
+		}
+		return executor;
+	}
+
+	public synchronized void setExecutor(Executor executor) {
+		this.executor = executor;
+	}
+
+	private static Executor createDefaultExecutor() {
+		final AtomicInteger threadCount = new AtomicInteger();
+		ThreadFactory threadFactory = new ThreadFactory() {
+
+			@Override
+			public Thread newThread(Runnable runnable) {
+				Thread thread = new Thread(runnable, "katharsis-include-" + threadCount.incrementAndGet());
+				thread.setDaemon(true);
+				return thread;
+			}
+		};
+		ThreadPoolExecutor executor = new ThreadPoolExecutor(DEFAULT_EXECUTOR_THREADS, DEFAULT_EXECUTOR_THREADS, 60L, TimeUnit.SECONDS,
+				new SynchronousQueue<Runnable>(), threadFactory);
+		executor.allowCoreThreadTimeOut(true);
+		return executor;
+	}
+
+	/**
+	 * @return new scheduling context for a single request holding its
+	 *         concurrency permits.
+	 */
+	public RequestScope startRequest() {
+		return new RequestScope(new Semaphore(parallelism - 1));
+	}
+
+	public class RequestScope {
+
+		private final Semaphore permits;
+
+		private RequestScope(Semaphore permits) {
+			this.permits = permits;
+		}
+
+		/**
+		 * Executes the given lookups and waits for their completion.
+		 *
+		 * @return results in the order of the given lookups
+		 */
+		public <T> List<T> invokeAll(List<Callable<T>> lookups) {
+			List<FutureTask<T>> tasks = new ArrayList<>(lookups.size());
+			List<FutureTask<T>> inlineTasks = new ArrayList<>();
+			for (int i = 0; i < lookups.size(); i++) {
+				FutureTask<T> task = new FutureTask<>(lookups.get(i));
+				tasks.add(task);
+
+				boolean last = i == lookups.size() - 1;
+				if (last || !submit(task)) {
+					inlineTasks.add(task);
+				}
+			}
+			for (FutureTask<T> inlineTask : inlineTasks) {
+				inlineTask.run();
+			}
+
+			List<T> results = new ArrayList<>(tasks.size());
+			for (FutureTask<T> task : tasks) {
+				results.add(await(task));
+			}
+			return results;
+		}
+
+		private boolean submit(final FutureTask<?> task) {
+			if (!permits.tryAcquire()) {
+				return false;
+			}
+			try {
+				getExecutor().execute(new Runnable() {
+
+					@Override
+					public void run() {
+						try {
+							task.run();
+						} finally {
+							permits.release();
+						}
+					}
+				});
+				return true;
+			} catch (RejectedExecutionException e) { // NOSONAR fallback to calling thread
+				permits.release();
+				return false;
+			}
+		}
+
+		private <T> T await(FutureTask<T> task) {
+			try {
+				return task.get();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IllegalStateException("interrupted while waiting for inclusion lookup", e);
+			} catch (ExecutionException e) {
+				Throwable cause = e.getCause();
+				if (cause instanceof RuntimeException) {
+					throw (RuntimeException) cause;
+				}
+				if (cause instanceof Error) {
+					throw (Error) cause;
+				}
+				throw new IllegalStateException(cause);
+			}
+		}
+	}
+}
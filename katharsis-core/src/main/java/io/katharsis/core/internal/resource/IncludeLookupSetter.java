@@ -3,13 +3,15 @@ package io.katharsis.core.internal.resource;
 import java.io.Serializable;
 import java.lang.reflect.ParameterizedType;
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
-import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -17,7 +19,6 @@ import org.slf4j.LoggerFactory;
 import io.katharsis.core.internal.boot.PropertiesProvider;
 import io.katharsis.core.internal.repository.adapter.RelationshipRepositoryAdapter;
 import io.katharsis.core.internal.utils.PreconditionUtil;
-import io.katharsis.core.internal.utils.PropertyUtils;
 import io.katharsis.errorhandling.exception.InternalServerErrorException;
 import io.katharsis.legacy.internal.RepositoryMethodParameterProvider;
 import io.katharsis.repository.request.QueryAdapter;
@@ -25,7 +26,6 @@ import io.katharsis.repository.response.JsonApiResponse;
 import io.katharsis.resource.Document;
 import io.katharsis.resource.Relationship;
 import io.katharsis.resource.Resource;
-import io.katharsis.resource.ResourceIdentifier;
 import io.katharsis.resource.annotations.JsonApiLookupIncludeAutomatically;
 import io.katharsis.resource.annotations.LookupIncludeBehavior;
 import io.katharsis.resource.information.ResourceField;
@@ -45,6 +45,8 @@ public class IncludeLookupSetter {
 
 	private IncludeLookupUtil util;
 
+	private IncludeLookupScheduler scheduler;
+
 	public IncludeLookupSetter(ResourceRegistry resourceRegistry, ResourceMapper resourceMapper, PropertiesProvider propertiesProvider) {
 		this.resourceMapper = resourceMapper;
 		this.resourceRegistry = resourceRegistry;
@@ -52,47 +54,48 @@ public class IncludeLookupSetter {
 		this.globalLookupIncludeBehavior = IncludeLookupUtil.getDefaultLookupIncludeBehavior(propertiesProvider);
 		IncludeBehavior includeBehavior = IncludeLookupUtil.getIncludeBehavior(propertiesProvider);
 		this.util = new IncludeLookupUtil(resourceRegistry, includeBehavior);
+		this.scheduler = new IncludeLookupScheduler(IncludeLookupScheduler.getParallelism(propertiesProvider));
+	}
 
+	public IncludeLookupScheduler getScheduler() {
+		return scheduler;
 	}
 
 	public void setIncludedElements(Document document, Object entity, QueryAdapter queryAdapter, RepositoryMethodParameterProvider parameterProvider, Set<String> additionalEagerLoadedRelations) {
 		List<Object> entityList = DocumentMapperUtil.toList(entity);
 		List<Resource> dataList = DocumentMapperUtil.toList(document.getData().get());
-		Map<ResourceIdentifier, Resource> dataMap = new HashMap<>();
-		Map<ResourceIdentifier, Object> entityMap = new HashMap<>();
+		ResourceIndex resourceIndex = new ResourceIndex(dataList.size());
+		BitSet dataIndices = new BitSet(dataList.size());
 		for (int i = 0; i < dataList.size(); i++) {
-			Resource dataElement = dataList.get(i);
-			ResourceIdentifier id = dataElement.toIdentifier();
-			entityMap.put(id, entityList.get(i));
-			dataMap.put(id, dataElement);
+			int index = resourceIndex.intern(dataList.get(i));
+			resourceIndex.setEntity(index, entityList.get(i));
+			dataIndices.set(index);
 		}
 
-		Map<ResourceIdentifier, Resource> resourceMap = new HashMap<>();
-		resourceMap.putAll(dataMap);
-
-		Set<ResourceIdentifier> inclusions = new HashSet<>();
-		PopulatedCache populatedCache = new PopulatedCache();
+		BitSet inclusions = new BitSet();
+		PopulatedCache populatedCache = new PopulatedCache(resourceIndex);
 
 		ArrayList<ResourceField> stack = new ArrayList<>();
-		populate(dataList, inclusions, resourceMap, entityMap, stack, queryAdapter, parameterProvider, additionalEagerLoadedRelations, populatedCache);
+		IncludeLookupScheduler.RequestScope lookupScope = scheduler.startRequest();
+		populate(dataList, inclusions, resourceIndex, stack, queryAdapter, parameterProvider, additionalEagerLoadedRelations, populatedCache, lookupScope);
 
 		// no need to include resources included in the data section
-		inclusions.removeAll(dataMap.keySet());
+		inclusions.andNot(dataIndices);
 
 		// setup included section
-		ArrayList<Resource> included = new ArrayList<>();
-		for (ResourceIdentifier inclusionId : inclusions) {
-			Resource includedResource = resourceMap.get(inclusionId);
+		ArrayList<Resource> included = new ArrayList<>(inclusions.cardinality());
+		for (int index = inclusions.nextSetBit(0); index >= 0; index = inclusions.nextSetBit(index + 1)) {
+			Resource includedResource = resourceIndex.getResource(index);
 			PreconditionUtil.assertNotNull("resource not found", includedResource);
 			included.add(includedResource);
 		}
 		Collections.sort(included);
-		LOGGER.debug("Extracted included resources {}", included.toString());
+		LOGGER.debug("Extracted included resources {}", included);
 		document.setIncluded(included);
 	}
 
-	private void populate(Collection<Resource> resourceList, Set<ResourceIdentifier> inclusions, Map<ResourceIdentifier, Resource> resourceMap, Map<ResourceIdentifier, Object> entityMap, List<ResourceField> fieldPath,
-			QueryAdapter queryAdapter, RepositoryMethodParameterProvider parameterProvider, Set<String> additionalEagerLoadedRootRelations, PopulatedCache populatedCache) {
+	private void populate(Collection<Resource> resourceList, BitSet inclusions, ResourceIndex resourceIndex, List<ResourceField> fieldPath,
+			QueryAdapter queryAdapter, RepositoryMethodParameterProvider parameterProvider, Set<String> additionalEagerLoadedRootRelations, PopulatedCache populatedCache, IncludeLookupScheduler.RequestScope lookupScope) {
 
 		if (resourceList.isEmpty()) {
 			return; // nothing to do
@@ -103,78 +106,160 @@ public class IncludeLookupSetter {
 			throw new IllegalStateException("42 nested inclusions reached, aborting");
 		}
 
+		// with a concurrent scheduler the lookups of all fields of this level
+		// are collected first and merged in field order once completed
+		List<FieldInclusion> pendingInclusions = new ArrayList<>();
+
 		Set<ResourceField> relationshipFields = util.getRelationshipFields(resourceList);
 		for (ResourceField resourceField : relationshipFields) {
 			fieldPath.add(resourceField);
 
-			ResourceInformation resourceInformation = resourceField.getParentResourceInformation();
-
-			boolean includeRequested = util.isInclusionRequested(queryAdapter, fieldPath);
-
-			boolean includeResources = includeRequested || resourceField.getIncludeByDefault();
-			boolean includeRelationshipData = !resourceField.isLazy() || includeResources || additionalEagerLoadedRootRelations.contains(resourceField.getJsonName());
-
-			if (includeRelationshipData) {
-
-				Collection<Resource> unpopulatedResourceList = populatedCache.filterProcessed(resourceList, resourceField);
-				if (!unpopulatedResourceList.isEmpty()) {
-
-					// only handle resources from the proper subtype where the
-					// relationship is desired to be loaded
-					List<Resource> resourcesByType = util.filterByType(unpopulatedResourceList, resourceInformation);
-					List<Resource> resourcesWithField = util.filterByLoadedRelationship(resourcesByType, resourceField);
-
-					// lookup resources by inspecting the POJOs in entityMap
-					LookupIncludeBehavior fieldLookupIncludeBehavior = resourceField.getLookupIncludeAutomatically();
-
-					Set<Resource> populatedResources;
-					if (fieldLookupIncludeBehavior == LookupIncludeBehavior.AUTOMATICALLY_ALWAYS || globalLookupIncludeBehavior == LookupIncludeBehavior.AUTOMATICALLY_ALWAYS) {
-						// lookup resources by making repository calls
-						populatedResources = lookupRelationshipField(resourcesWithField, resourceField, queryAdapter, parameterProvider, resourceMap, entityMap);
-					} else if (fieldLookupIncludeBehavior == LookupIncludeBehavior.AUTOMATICALLY_WHEN_NULL || globalLookupIncludeBehavior == LookupIncludeBehavior.AUTOMATICALLY_WHEN_NULL) {
-						// try to populate from entities
-						Set<Resource> extractedResources = extractRelationshipField(resourcesWithField, resourceField, queryAdapter, resourceMap, entityMap, true);
-
-						// do lookups where relationship data is null
-						Collection<Resource> resourcesForLookup = util.findResourcesWithoutRelationshipData(resourcesWithField, resourceField);
-						Collection<Resource> lookedupResources = lookupRelationshipField(resourcesForLookup, resourceField, queryAdapter, parameterProvider, resourceMap, entityMap);
-
-						populatedResources = util.union(lookedupResources, extractedResources);
-					} else {
-						// do not do any lookups
-						populatedResources = extractRelationshipField(resourcesWithField, resourceField, queryAdapter, resourceMap, entityMap, false);
-
-						// set relationship data to null for single-valued
-						// relation.
-						// extractRelationshipField cannot differentiate between
-						// null and not loaded.
-						// It assume it is null and loaded. Otherwise an
-						// application
-						// can reconfigure the includeBehavior to make a lookup
-						// and
-						// be sure.
-						if (!Iterable.class.isAssignableFrom(resourceField.getType())) {
-							Nullable<Object> emptyData = Nullable.nullValue();
-							for (Resource resourceWithField : resourcesWithField) {
-								Relationship relationship = resourceWithField.getRelationships().get(resourceField.getJsonName());
-								if (!relationship.getData().isPresent()) {
-									relationship.setData(emptyData);
-								}
-							}
-						}
+			FieldInclusion fieldInclusion = prepareInclusion(resourceList, resourceIndex, fieldPath, queryAdapter, additionalEagerLoadedRootRelations, populatedCache);
+			if (fieldInclusion != null) {
+				if (scheduler.isConcurrent()) {
+					pendingInclusions.add(fieldInclusion);
+				} else {
+					if (fieldInclusion.lookupResources != null) {
+						fieldInclusion.lookupResponses = fetchRelationshipField(fieldInclusion.lookupResources, resourceField, queryAdapter, parameterProvider);
 					}
+					completeInclusion(fieldInclusion, inclusions, resourceIndex, fieldPath, queryAdapter, parameterProvider, populatedCache, lookupScope);
+				}
+			}
+
+			fieldPath.remove(fieldPath.size() - 1);
+		}
+
+		if (!pendingInclusions.isEmpty()) {
+			fetchRelationshipFields(pendingInclusions, queryAdapter, parameterProvider, lookupScope);
+			for (FieldInclusion fieldInclusion : pendingInclusions) {
+				fieldPath.add(fieldInclusion.resourceField);
+				completeInclusion(fieldInclusion, inclusions, resourceIndex, fieldPath, queryAdapter, parameterProvider, populatedCache, lookupScope);
+				fieldPath.remove(fieldPath.size() - 1);
+			}
+		}
+	}
+
+	/**
+	 * Populates the relationship data that is available from the entities and
+	 * determines the resources for which a repository lookup is necessary.
+	 *
+	 * @return inclusion to complete or null if there is nothing to do for the
+	 *         last field of the fieldPath.
+	 */
+	private FieldInclusion prepareInclusion(Collection<Resource> resourceList, ResourceIndex resourceIndex, List<ResourceField> fieldPath,
+			QueryAdapter queryAdapter, Set<String> additionalEagerLoadedRootRelations, PopulatedCache populatedCache) {
+		ResourceField resourceField = fieldPath.get(fieldPath.size() - 1);
+		ResourceInformation resourceInformation = resourceField.getParentResourceInformation();
+
+		boolean includeRequested = util.isInclusionRequested(queryAdapter, fieldPath);
 
-					// add inclusions and do nested population if requested as
-					// such
-					if (includeResources && !populatedResources.isEmpty()) {
-						inclusions.addAll(util.toIds(populatedResources));
-						Set<String> additionalEagerLoadedNestedRelations = Collections.emptySet();
-						populate(populatedResources, inclusions, resourceMap, entityMap, fieldPath, queryAdapter, parameterProvider, additionalEagerLoadedNestedRelations, populatedCache);
+		boolean includeResources = includeRequested || resourceField.getIncludeByDefault();
+		boolean includeRelationshipData = !resourceField.isLazy() || includeResources || additionalEagerLoadedRootRelations.contains(resourceField.getJsonName());
+		if (!includeRelationshipData) {
+			return null;
+		}
+
+		Collection<Resource> unpopulatedResourceList = populatedCache.filterProcessed(resourceList, resourceField);
+		if (unpopulatedResourceList.isEmpty()) {
+			return null;
+		}
+
+		FieldInclusion fieldInclusion = new FieldInclusion(resourceField, includeResources);
+
+		// only handle resources from the proper subtype where the
+		// relationship is desired to be loaded
+		List<Resource> resourcesByType = util.filterByType(unpopulatedResourceList, resourceInformation);
+		List<Resource> resourcesWithField = util.filterByLoadedRelationship(resourcesByType, resourceField);
+
+		// lookup resources by inspecting the entities of the resource index
+		LookupIncludeBehavior fieldLookupIncludeBehavior = resourceField.getLookupIncludeAutomatically();
+
+		if (fieldLookupIncludeBehavior == LookupIncludeBehavior.AUTOMATICALLY_ALWAYS || globalLookupIncludeBehavior == LookupIncludeBehavior.AUTOMATICALLY_ALWAYS) {
+			// lookup resources by making repository calls
+			fieldInclusion.lookupResources = resourcesWithField;
+		} else if (fieldLookupIncludeBehavior == LookupIncludeBehavior.AUTOMATICALLY_WHEN_NULL || globalLookupIncludeBehavior == LookupIncludeBehavior.AUTOMATICALLY_WHEN_NULL) {
+			// try to populate from entities
+			fieldInclusion.extractedResources = extractRelationshipField(resourcesWithField, resourceField, queryAdapter, resourceIndex, true);
+
+			// do lookups where relationship data is null
+			fieldInclusion.lookupResources = util.findResourcesWithoutRelationshipData(resourcesWithField, resourceField);
+		} else {
+			// do not do any lookups
+			fieldInclusion.extractedResources = extractRelationshipField(resourcesWithField, resourceField, queryAdapter, resourceIndex, false);
+
+			// set relationship data to null for single-valued
+			// relation.
+			// extractRelationshipField cannot differentiate between
+			// null and not loaded.
+			// It assume it is null and loaded. Otherwise an
+			// application
+			// can reconfigure the includeBehavior to make a lookup
+			// and
+			// be sure.
+			if (!Iterable.class.isAssignableFrom(resourceField.getType())) {
+				Nullable<Object> emptyData = Nullable.nullValue();
+				for (Resource resourceWithField : resourcesWithField) {
+					Relationship relationship = resourceWithField.getRelationships().get(resourceField.getJsonName());
+					if (!relationship.getData().isPresent()) {
+						relationship.setData(emptyData);
 					}
 				}
 			}
+		}
+		return fieldInclusion;
+	}
 
-			fieldPath.remove(fieldPath.size() - 1);
+	/**
+	 * Merges the looked up resources of the last field of the fieldPath, adds
+	 * the inclusions and does nested population if requested as such.
+	 */
+	private void completeInclusion(FieldInclusion fieldInclusion, BitSet inclusions, ResourceIndex resourceIndex, List<ResourceField> fieldPath, QueryAdapter queryAdapter, RepositoryMethodParameterProvider parameterProvider, PopulatedCache populatedCache, IncludeLookupScheduler.RequestScope lookupScope) {
+		List<Resource> populatedResources;
+		if (fieldInclusion.lookupResources == null) {
+			populatedResources = fieldInclusion.extractedResources;
+		} else {
+			List<Resource> lookedupResources = applyRelationshipField(fieldInclusion.lookupResources, fieldInclusion.resourceField, fieldInclusion.lookupResponses, queryAdapter, resourceIndex);
+			if (fieldInclusion.extractedResources == null) {
+				populatedResources = lookedupResources;
+			} else {
+				populatedResources = resourceIndex.union(lookedupResources, fieldInclusion.extractedResources);
+			}
+		}
+
+		if (fieldInclusion.includeResources && !populatedResources.isEmpty()) {
+			for (Resource populatedResource : populatedResources) {
+				inclusions.set(resourceIndex.intern(populatedResource));
+			}
+			Set<String> additionalEagerLoadedNestedRelations = Collections.emptySet();
+			populate(populatedResources, inclusions, resourceIndex, fieldPath, queryAdapter, parameterProvider, additionalEagerLoadedNestedRelations, populatedCache, lookupScope);
+		}
+	}
+
+	/**
+	 * Performs the repository lookups of the given inclusions with the
+	 * scheduler. Only the repository calls are run concurrently, the results
+	 * are merged afterwards by the calling thread.
+	 */
+	private void fetchRelationshipFields(List<FieldInclusion> fieldInclusions, final QueryAdapter queryAdapter, final RepositoryMethodParameterProvider parameterProvider,
+			IncludeLookupScheduler.RequestScope lookupScope) {
+		List<FieldInclusion> lookupInclusions = new ArrayList<>();
+		List<Callable<Map<Object, JsonApiResponse>>> lookups = new ArrayList<>();
+		for (final FieldInclusion fieldInclusion : fieldInclusions) {
+			if (fieldInclusion.lookupResources != null && !fieldInclusion.lookupResources.isEmpty()) {
+				lookupInclusions.add(fieldInclusion);
+				lookups.add(new Callable<Map<Object, JsonApiResponse>>() {
+
+					@Override
+					public Map<Object, JsonApiResponse> call() {
+						return fetchRelationshipField(fieldInclusion.lookupResources, fieldInclusion.resourceField, queryAdapter, parameterProvider);
+					}
+				});
+			}
+		}
+
+		List<Map<Object, JsonApiResponse>> responses = lookupScope.invokeAll(lookups);
+		for (int i = 0; i < lookupInclusions.size(); i++) {
+			lookupInclusions.get(i).lookupResponses = responses.get(i);
 		}
 	}
 
@@ -183,41 +268,40 @@ public class IncludeLookupSetter {
 	 * original POJOs. Throw an InternalServerErrorException if the field is an
 	 * Iterable and null.
 	 */
-	private Set<Resource> extractRelationshipField(List<Resource> sourceResources, ResourceField relationshipField, QueryAdapter queryAdapter, Map<ResourceIdentifier, Resource> resourceMap,
-			Map<ResourceIdentifier, Object> entityMap, boolean lookUp) {
-		Set<Resource> loadedEntities = new HashSet<>();
+	private List<Resource> extractRelationshipField(List<Resource> sourceResources, ResourceField relationshipField, QueryAdapter queryAdapter, ResourceIndex resourceIndex, boolean lookUp) {
+		ResourceCollector loadedEntities = resourceIndex.newCollector(sourceResources.size());
 		for (Resource sourceResource : sourceResources) {
-			ResourceIdentifier id = sourceResource.toIdentifier();
-
-			Object source = entityMap.get(id);
+			Object source = resourceIndex.getEntity(resourceIndex.intern(sourceResource));
 			if (source != null && !(source instanceof Resource)) {
-				Object targetEntity = PropertyUtils.getProperty(source, relationshipField.getUnderlyingName());
+				Object targetEntity = relationshipField.getAccessor().getValue(source);
 
 				if (!lookUp && Iterable.class.isAssignableFrom(relationshipField.getType()) && targetEntity == null) {
-					throw new InternalServerErrorException(id + " relationship field collection '" + relationshipField.getJsonName() + "' can not be null. Either set the relationship as an empty "
+					throw new InternalServerErrorException(sourceResource.toIdentifier() + " relationship field collection '" + relationshipField.getJsonName() + "' can not be null. Either set the relationship as an empty "
 							+ Iterable.class.getCanonicalName() + " or add annotation @" + JsonApiLookupIncludeAutomatically.class.getCanonicalName());
 				}
 				if (targetEntity == null) {
 					continue;
 				}
-				List<Resource> targetIds = setupRelation(sourceResource, relationshipField, targetEntity, queryAdapter, resourceMap, entityMap);
+				List<Resource> targetIds = setupRelation(sourceResource, relationshipField, targetEntity, queryAdapter, resourceIndex);
 				loadedEntities.addAll(targetIds);
 			}
 		}
-		return loadedEntities;
+		return loadedEntities.getResources();
 	}
 
 	/**
 	 * Loads all related resources for the given resources and relationship
-	 * field. It updates the relationship data of the source resources
-	 * accordingly and returns the loaded resources for potential inclusion in
-	 * the result document.
+	 * field with the bulk methods of the relationship repository. Does not
+	 * touch any of the resources and as such is safe to be called
+	 * concurrently for different fields.
+	 *
+	 * @return responses by source id or null if no lookup was possible
 	 */
 	@SuppressWarnings("unchecked")
-	private Set<Resource> lookupRelationshipField(Collection<Resource> sourceResources, ResourceField relationshipField, QueryAdapter queryAdapter, RepositoryMethodParameterProvider parameterProvider,
-			Map<ResourceIdentifier, Resource> resourceMap, Map<ResourceIdentifier, Object> entityMap) {
+	private Map<Object, JsonApiResponse> fetchRelationshipField(Collection<Resource> sourceResources, ResourceField relationshipField, QueryAdapter queryAdapter,
+			RepositoryMethodParameterProvider parameterProvider) {
 		if (sourceResources.isEmpty()) {
-			return Collections.emptySet();
+			return null;
 		}
 
 		ResourceInformation resourceInformation = relationshipField.getParentResourceInformation();
@@ -228,71 +312,82 @@ public class IncludeLookupSetter {
 		boolean isMany = Iterable.class.isAssignableFrom(relationshipField.getType());
 		Class<?> relationshipFieldClass = relationshipField.getElementType();
 
-		Set<Resource> loadedTargets = new HashSet<>();
-
 		@SuppressWarnings("rawtypes")
 		RelationshipRepositoryAdapter relationshipRepository = registyEntry.getRelationshipRepositoryForClass(relationshipFieldClass, parameterProvider);
-		if (relationshipRepository != null) {
-			Map<Object, JsonApiResponse> responseMap;
-			if (isMany) {
-				responseMap = relationshipRepository.findBulkManyTargets(resourceIds, relationshipField, queryAdapter);
-			} else {
-				responseMap = relationshipRepository.findBulkOneTargets(resourceIds, relationshipField, queryAdapter);
-			}
+		if (relationshipRepository == null) {
+			return null;
+		}
+		if (isMany) {
+			return relationshipRepository.findBulkManyTargets(resourceIds, relationshipField, queryAdapter);
+		} else {
+			return relationshipRepository.findBulkOneTargets(resourceIds, relationshipField, queryAdapter);
+		}
+	}
 
-			for (Resource sourceResource : sourceResources) {
-				Serializable sourceId = resourceInformation.parseIdString(sourceResource.getId());
-				JsonApiResponse targetResponse = responseMap.get(sourceId);
-				if (targetResponse != null && targetResponse.getEntity() != null) {
-					Object targetEntity = targetResponse.getEntity();
+	/**
+	 * Updates the relationship data of the source resources with the result
+	 * of {@link #fetchRelationshipField} and returns the loaded resources for
+	 * potential inclusion in the result document.
+	 */
+	private List<Resource> applyRelationshipField(Collection<Resource> sourceResources, ResourceField relationshipField, Map<Object, JsonApiResponse> responseMap, QueryAdapter queryAdapter,
+			ResourceIndex resourceIndex) {
+		if (responseMap == null) {
+			return Collections.emptyList();
+		}
 
-					List<Resource> targets = setupRelation(sourceResource, relationshipField, targetEntity, queryAdapter, resourceMap, entityMap);
-					loadedTargets.addAll(targets);
-				} else {
-					Nullable<Object> emptyData = Nullable.of(Iterable.class.isAssignableFrom(relationshipField.getType()) ? (Object) Collections.emptyList() : null);
-					Relationship relationship = sourceResource.getRelationships().get(relationshipField.getJsonName());
-					relationship.setData(emptyData);
-				}
+		ResourceInformation resourceInformation = relationshipField.getParentResourceInformation();
+		ResourceCollector loadedTargets = resourceIndex.newCollector(sourceResources.size());
+		for (Resource sourceResource : sourceResources) {
+			Serializable sourceId = resourceInformation.parseIdString(sourceResource.getId());
+			JsonApiResponse targetResponse = responseMap.get(sourceId);
+			if (targetResponse != null && targetResponse.getEntity() != null) {
+				Object targetEntity = targetResponse.getEntity();
+
+				List<Resource> targets = setupRelation(sourceResource, relationshipField, targetEntity, queryAdapter, resourceIndex);
+				loadedTargets.addAll(targets);
+			} else {
+				Nullable<Object> emptyData = Nullable.of(Iterable.class.isAssignableFrom(relationshipField.getType()) ? (Object) Collections.emptyList() : null);
+				Relationship relationship = sourceResource.getRelationships().get(relationshipField.getJsonName());
+				relationship.setData(emptyData);
 			}
 		}
-
-		return loadedTargets;
+		return loadedTargets.getResources();
 	}
 
-	private List<Resource> setupRelation(Resource sourceResource, ResourceField relationshipField, Object targetEntity, QueryAdapter queryAdapter, Map<ResourceIdentifier, Resource> resourceMap,
-			Map<ResourceIdentifier, Object> entityMap) {
+	private List<Resource> setupRelation(Resource sourceResource, ResourceField relationshipField, Object targetEntity, QueryAdapter queryAdapter, ResourceIndex resourceIndex) {
 		// set the relation
 		String relationshipName = relationshipField.getJsonName();
 		Map<String, Relationship> relationships = sourceResource.getRelationships();
 		Relationship relationship = relationships.get(relationshipName);
 		if (targetEntity instanceof Iterable) {
-			List<Resource> targets = new ArrayList<>();
+			List<Resource> targets = targetEntity instanceof Collection ? new ArrayList<Resource>(((Collection<?>) targetEntity).size()) : new ArrayList<Resource>();
 			for (Object targetElement : (Iterable<?>) targetEntity) {
-				Resource targetResource = mergeResource(targetElement, queryAdapter, resourceMap, entityMap);
+				Resource targetResource = mergeResource(targetElement, queryAdapter, resourceIndex);
 				targets.add(targetResource);
 			}
 			relationship.setData(Nullable.of((Object) util.toIds(targets)));
 			return targets;
 		} else {
-			Resource targetResource = mergeResource(targetEntity, queryAdapter, resourceMap, entityMap);
+			Resource targetResource = mergeResource(targetEntity, queryAdapter, resourceIndex);
 			relationship.setData(Nullable.of((Object) targetResource.toIdentifier()));
 			return Collections.singletonList(targetResource);
 		}
 	}
 
-	private Resource mergeResource(Object targetEntity, QueryAdapter queryAdapter, Map<ResourceIdentifier, Resource> resourceMap, Map<ResourceIdentifier, Object> entityMap) {
-		Resource targetResource = resourceMapper.toData(targetEntity, queryAdapter);
-		ResourceIdentifier targetId = targetResource.toIdentifier();
-		if (!resourceMap.containsKey(targetId)) {
-			resourceMap.put(targetId, targetResource);
-		} else {
-			// TODO consider merging
-			targetResource = resourceMap.get(targetId);
+	private Resource mergeResource(Object targetEntity, QueryAdapter queryAdapter, ResourceIndex resourceIndex) {
+		// entities reachable along several paths are mapped only once
+		int entityIndex = resourceIndex.indexOfEntity(targetEntity);
+		if (entityIndex != -1) {
+			return resourceIndex.getResource(entityIndex);
 		}
+
+		Resource targetResource = resourceMapper.toData(targetEntity, queryAdapter);
+		// TODO consider merging
+		int targetIndex = resourceIndex.intern(targetResource);
 		if (!(targetEntity instanceof Resource)) {
-			entityMap.put(targetId, targetEntity);
+			resourceIndex.setEntity(targetIndex, targetEntity);
 		}
-		return targetResource;
+		return resourceIndex.getResource(targetIndex);
 	}
 
 	private List<Serializable> getIds(Collection<Resource> resources, ResourceInformation resourceInformation) {
@@ -315,36 +410,208 @@ public class IncludeLookupSetter {
 		return resourceClass;
 	}
 
+	/**
+	 * State of a single relationship field of an inclusion level between
+	 * preparation and completion.
+	 */
+	private static class FieldInclusion {
+
+		private final ResourceField resourceField;
+
+		private final boolean includeResources;
+
+		private List<Resource> extractedResources;
+
+		private Collection<Resource> lookupResources;
+
+		private Map<Object, JsonApiResponse> lookupResponses;
+
+		FieldInclusion(ResourceField resourceField, boolean includeResources) {
+			this.resourceField = resourceField;
+			this.includeResources = includeResources;
+		}
+	}
+
+	/**
+	 * Interns the resources of a single request. Every distinct resource, as
+	 * identified by its base resource type and id, gets assigned a dense int
+	 * index. The first resource seen for an identity is the canonical one all
+	 * later occurrences get merged into. Inclusions and populated relationship
+	 * fields are tracked with bit sets over those indices, avoiding identifier
+	 * objects and string keys per resource.
+	 */
+	class ResourceIndex {
+
+		private final Map<String, Map<String, Integer>> idsByType = new HashMap<>();
+
+		private final Map<String, Map<String, Integer>> idsByBaseType = new HashMap<>();
+
+		private final IdentityHashMap<Resource, Integer> indexByInstance;
+
+		private final IdentityHashMap<Object, Integer> indexByEntity;
+
+		private final ArrayList<Resource> resources;
+
+		private final ArrayList<Object> entities;
+
+		ResourceIndex(int expectedSize) {
+			indexByInstance = new IdentityHashMap<>(expectedSize);
+			indexByEntity = new IdentityHashMap<>(expectedSize);
+			resources = new ArrayList<>(expectedSize);
+			entities = new ArrayList<>(expectedSize);
+		}
+
+		/**
+		 * @return index of the given resource, registers it as canonical
+		 *         resource if it has not been seen before.
+		 */
+		public int intern(Resource resource) {
+			Integer index = indexByInstance.get(resource);
+			if (index != null) {
+				return index;
+			}
+			Map<String, Integer> ids = getIds(resource.getType());
+			index = ids.get(resource.getId());
+			if (index == null) {
+				index = resources.size();
+				resources.add(resource);
+				entities.add(null);
+				ids.put(resource.getId(), index);
+			}
+			indexByInstance.put(resource, index);
+			return index;
+		}
+
+		public Resource getResource(int index) {
+			return resources.get(index);
+		}
+
+		public Object getEntity(int index) {
+			return entities.get(index);
+		}
+
+		public void setEntity(int index, Object entity) {
+			entities.set(index, entity);
+			if (entity != null) {
+				indexByEntity.put(entity, index);
+			}
+		}
+
+		/**
+		 * @return index of the resource the given entity has been mapped to or
+		 *         -1 if not known.
+		 */
+		public int indexOfEntity(Object entity) {
+			Integer index = indexByEntity.get(entity);
+			return index != null ? index : -1;
+		}
+
+		public ResourceCollector newCollector(int expectedSize) {
+			return new ResourceCollector(this, expectedSize);
+		}
+
+		public List<Resource> union(List<Resource> resources0, List<Resource> resources1) {
+			ResourceCollector collector = newCollector(resources0.size() + resources1.size());
+			collector.addAll(resources0);
+			collector.addAll(resources1);
+			return collector.getResources();
+		}
+
+		public int size() {
+			return resources.size();
+		}
+
+		private Map<String, Integer> getIds(String resourceType) {
+			Map<String, Integer> ids = idsByType.get(resourceType);
+			if (ids == null) {
+				String baseType = resourceRegistry.getBaseResourceInformation(resourceType).getResourceType();
+				ids = idsByBaseType.get(baseType);
+				if (ids == null) {
+					ids = new HashMap<>();
+					idsByBaseType.put(baseType, ids);
+				}
+				idsByType.put(resourceType, ids);
+			}
+			return ids;
+		}
+	}
+
+	/**
+	 * Collects distinct resources in their order of appearance.
+	 */
+	static class ResourceCollector {
+
+		private final ResourceIndex resourceIndex;
+
+		private final BitSet collected = new BitSet();
+
+		private final List<Resource> resources;
+
+		ResourceCollector(ResourceIndex resourceIndex, int expectedSize) {
+			this.resourceIndex = resourceIndex;
+			this.resources = new ArrayList<>(expectedSize);
+		}
+
+		public void addAll(Collection<Resource> resources) {
+			for (Resource resource : resources) {
+				add(resource);
+			}
+		}
+
+		public void add(Resource resource) {
+			int index = resourceIndex.intern(resource);
+			if (!collected.get(index)) {
+				collected.set(index);
+				resources.add(resourceIndex.getResource(index));
+			}
+		}
+
+		public List<Resource> getResources() {
+			return resources;
+		}
+	}
+
 	/**
 	 * Cache resource/field pairs already populated to avoid loops
 	 */
 	class PopulatedCache {
 
-		private HashSet<String> processed = new HashSet<>();
+		private final ResourceIndex resourceIndex;
+
+		private final Map<String, BitSet> processed = new HashMap<>();
+
+		PopulatedCache(ResourceIndex resourceIndex) {
+			this.resourceIndex = resourceIndex;
+		}
 
 		public void markProcessed(Resource resource, ResourceField field) {
-			String key = getKey(resource, field);
-			processed.add(key);
+			getProcessed(field).set(resourceIndex.intern(resource));
 		}
 
 		public Collection<Resource> filterProcessed(Collection<Resource> resources, ResourceField field) {
-			Collection<Resource> result = new ArrayList<>();
+			BitSet fieldProcessed = getProcessed(field);
+			Collection<Resource> result = new ArrayList<>(resources.size());
 			for (Resource resource : resources) {
-				if (!wasProcessed(resource, field)) {
+				int index = resourceIndex.intern(resource);
+				if (!fieldProcessed.get(index)) {
 					result.add(resource);
-					markProcessed(resource, field);
+					fieldProcessed.set(index);
 				}
 			}
 			return result;
 		}
 
 		public boolean wasProcessed(Resource resource, ResourceField field) {
-			String key = getKey(resource, field);
-			return processed.contains(key);
+			return getProcessed(field).get(resourceIndex.intern(resource));
 		}
 
-		private String getKey(Resource resource, ResourceField field) {
-			return resourceRegistry.getBaseResourceInformation(resource.getType()).getResourceType() + "@" + resource.getId() + "@" + field.getUnderlyingName();
+		private BitSet getProcessed(ResourceField field) {
+			BitSet fieldProcessed = processed.get(field.getUnderlyingName());
+			if (fieldProcessed == null) {
+				fieldProcessed = new BitSet(resourceIndex.size());
+				processed.put(field.getUnderlyingName(), fieldProcessed);
+			}
+			return fieldProcessed;
 		}
 	}
 
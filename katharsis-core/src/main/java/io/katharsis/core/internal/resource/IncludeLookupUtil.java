@@ -2,8 +2,8 @@ package io.katharsis.core.internal.resource;
 
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -56,7 +56,7 @@ public class IncludeLookupUtil {
 	}
 
 	public Set<ResourceField> getRelationshipFields(Collection<Resource> resources) {
-		Set<ResourceField> fields = new HashSet<>();
+		Set<ResourceField> fields = new LinkedHashSet<>();
 
 		Set<String> processedTypes = new HashSet<>();
 
@@ -225,14 +225,6 @@ public class IncludeLookupUtil {
 		return results;
 	}
 
-	public Set<ResourceIdentifier> toIds(Set<Resource> resources) {
-		Set<ResourceIdentifier> results = new HashSet<>();
-		for (Resource resource : resources) {
-			results.add(resource.toIdentifier());
-		}
-		return results;
-	}
-
 	public List<ResourceIdentifier> toIds(List<Resource> resources) {
 		List<ResourceIdentifier> results = new ArrayList<>();
 		for (Resource resource : resources) {
@@ -241,17 +233,6 @@ public class IncludeLookupUtil {
 		return results;
 	}
 
-	public Set<Resource> union(Collection<Resource> set0, Collection<Resource> set1) {
-		Map<ResourceIdentifier, Resource> map = new HashMap<>();
-		for (Resource resource : set0) {
-			map.put(resource.toIdentifier(), resource);
-		}
-		for (Resource resource : set1) {
-			map.put(resource.toIdentifier(), resource);
-		}
-		return new HashSet<>(map.values());
-	}
-
 	public List<Resource> findResourcesWithoutRelationshipData(List<Resource> resources, ResourceField resourceField) {
 		List<Resource> results = new ArrayList<>();
 		for (Resource resource : resources) {
@@ -14,12 +14,8 @@ public class NullableSerializer extends JsonSerializer<Nullable<Object>> {
 	@Override
 	public void serialize(Nullable<Object> value, JsonGenerator gen, SerializerProvider serializers) throws IOException, JsonProcessingException {
 		if (value.isPresent()) {
-			Object object = value.get();
-			if (object == null) {
-				gen.writeNull();
-			} else {
-				gen.writeObject(object);
-			}
+			// serialize with the provider rather than the codec to honor the configuration of the writer
+			serializers.defaultSerializeValue(value.get(), gen);
 		}
 	}
 
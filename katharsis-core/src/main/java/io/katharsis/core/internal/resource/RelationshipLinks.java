@@ -0,0 +1,10 @@
+package io.katharsis.core.internal.resource;
+
+import io.katharsis.core.properties.KatharsisProperties;
+
+/**
+ * See {@link KatharsisProperties#RELATIONSHIP_LINKS} for more information.
+ */
+public enum RelationshipLinks {
+	ABSOLUTE, RELATIVE, NONE
+}
@@ -15,7 +15,6 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.ObjectReader;
 
 import io.katharsis.core.internal.utils.ClassUtils;
-import io.katharsis.core.internal.utils.PropertyUtils;
 import io.katharsis.errorhandling.exception.InvalidResourceException;
 import io.katharsis.errorhandling.exception.ResourceException;
 import io.katharsis.resource.information.ResourceField;
@@ -70,7 +69,6 @@ public class ResourceAttributesBridge<T> {
         Optional<ResourceField> staticField = findStaticField(propertyName);
         try{
 	        if (staticField.isPresent()) {
-	            String underlyingName = staticField.get().getUnderlyingName();
 	            Type valueType = staticField.get().getGenericType();
 		            Object value;
 		            if(valueNode != null){
@@ -80,7 +78,7 @@ public class ResourceAttributesBridge<T> {
 		            }else{
 		            	value = null;
 		            }
-		            PropertyUtils.setProperty(instance, underlyingName, value);
+		            staticField.get().getAccessor().setValue(instance, value);
 	        } else if(jsonAnySetter != null){
 	            // Needed for JsonIgnore and dynamic attributes
 	        	Object value = objectMapper.reader().forType(Object.class).readValue(valueNode);
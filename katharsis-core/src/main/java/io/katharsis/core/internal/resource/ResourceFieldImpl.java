@@ -5,8 +5,10 @@ import java.lang.reflect.Type;
 import java.util.Objects;
 
 import io.katharsis.core.internal.utils.PreconditionUtil;
+import io.katharsis.core.internal.utils.PropertyAccessor;
 import io.katharsis.resource.annotations.LookupIncludeBehavior;
 import io.katharsis.resource.information.ResourceField;
+import io.katharsis.resource.information.ResourceFieldAccessor;
 import io.katharsis.resource.information.ResourceFieldType;
 import io.katharsis.resource.information.ResourceInformation;
 
@@ -34,6 +36,8 @@ public class ResourceFieldImpl implements ResourceField {
 
 	private ResourceInformation parentResourceInformation;
 
+	private ResourceFieldAccessor accessor;
+
 	public ResourceFieldImpl(String jsonName, String underlyingName, ResourceFieldType resourceFieldType, Class<?> type, Type genericType, String oppositeResourceType) {
 		this(jsonName, underlyingName, resourceFieldType, type, genericType, oppositeResourceType, null, true, false, LookupIncludeBehavior.NONE);
 	}
@@ -146,6 +150,19 @@ public class ResourceFieldImpl implements ResourceField {
 
 	public void setResourceInformation(ResourceInformation resourceInformation) {
 		this.parentResourceInformation = resourceInformation;
+		if (underlyingName != null && resourceInformation.getResourceClass() != null) {
+			this.accessor = PropertyAccessor.create(resourceInformation.getResourceClass(), underlyingName);
+		}
+	}
+
+	public ResourceFieldAccessor getAccessor() {
+		if (accessor == null) {
+			// not bound to a resource class yet, resolve every access
+			// reflectively
+			PreconditionUtil.assertNotNull("no underlyingName specified", underlyingName);
+			accessor = PropertyAccessor.create(Object.class, underlyingName);
+		}
+		return accessor;
 	}
 
 	@Override
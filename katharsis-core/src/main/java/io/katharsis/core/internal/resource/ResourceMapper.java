@@ -1,13 +1,14 @@
 package io.katharsis.core.internal.resource;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.node.POJONode;
 
 import io.katharsis.core.internal.resource.DocumentMapperUtil.DefaultSelfRelatedLinksInformation;
-import io.katharsis.core.internal.utils.PropertyUtils;
 import io.katharsis.repository.request.QueryAdapter;
 import io.katharsis.resource.Relationship;
 import io.katharsis.resource.Resource;
@@ -19,19 +20,28 @@ import io.katharsis.resource.meta.MetaInformation;
 
 public class ResourceMapper {
 
-	private static final String SELF_FIELD_NAME = "self";
-	private static final String RELATED_FIELD_NAME = "related";
-
 	private DocumentMapperUtil util;
 	private boolean client;
 	private ObjectMapper objectMapper;
 
+	private boolean deferAttributeSerialization;
+
 	public ResourceMapper(DocumentMapperUtil util, boolean client, ObjectMapper objectMapper) {
 		this.util = util;
 		this.client = client;
 		this.objectMapper = objectMapper;
 	}
 
+	/**
+	 * @param deferAttributeSerialization if true attribute values are wrapped
+	 *            as {@link POJONode} and serialized only once the document is
+	 *            written. Collections and maps are still converted right away,
+	 *            they may be lazily loaded and no longer accessible by then.
+	 */
+	public void setDeferAttributeSerialization(boolean deferAttributeSerialization) {
+		this.deferAttributeSerialization = deferAttributeSerialization;
+	}
+
 	public Resource toData(Object entity, QueryAdapter queryAdapter) {
 		if (entity instanceof Resource) {
 			// Resource and ResourceId
@@ -46,7 +56,7 @@ public class ResourceMapper {
 			resource.setId(util.getIdString(entity, resourceInformation));
 			resource.setType(resourceInformation.getResourceType());
 			if (!client) {
-				util.setLinks(resource, getResourceLinks(entity, resourceInformation));
+				util.setLinks(resource, getResourceLinks(entity, resourceInformation, resource.getId()));
 				util.setMeta(resource, getResourceMeta(entity, resourceInformation));
 			}
 			setAttributes(resource, entity, resourceInformation, queryAdapter);
@@ -57,22 +67,26 @@ public class ResourceMapper {
 
 	private MetaInformation getResourceMeta(Object entity, ResourceInformation resourceInformation) {
 		if (resourceInformation.getMetaField() != null) {
-			return (MetaInformation) PropertyUtils.getProperty(entity, resourceInformation.getMetaField().getUnderlyingName());
+			return (MetaInformation) resourceInformation.getMetaField().getAccessor().getValue(entity);
 		}
 		return null;
 	}
 
 	public LinksInformation getResourceLinks(Object entity, ResourceInformation resourceInformation) {
+		return getResourceLinks(entity, resourceInformation, util.getIdString(entity, resourceInformation));
+	}
+
+	protected LinksInformation getResourceLinks(Object entity, ResourceInformation resourceInformation, String resourceId) {
 		LinksInformation info;
 		if (resourceInformation.getLinksField() != null) {
-			info = (LinksInformation) PropertyUtils.getProperty(entity, resourceInformation.getLinksField().getUnderlyingName());
+			info = (LinksInformation) resourceInformation.getLinksField().getAccessor().getValue(entity);
 		} else {
 			info = new DefaultSelfRelatedLinksInformation();
 		}
 		if (info instanceof SelfLinksInformation) {
 			SelfLinksInformation self = (SelfLinksInformation) info;
 			if (self.getSelf() == null) {
-				self.setSelf(util.getSelfUrl(resourceInformation, entity));
+				self.setSelf(util.getSelfUrl(resourceInformation, resourceId));
 			}
 		}
 		return info;
@@ -84,8 +98,13 @@ public class ResourceMapper {
 
 		// serialize the individual attributes
 		for (ResourceField field : fields) {
-			Object value = PropertyUtils.getProperty(entity, field.getUnderlyingName());
-			JsonNode valueNode = objectMapper.valueToTree(value);
+			Object value = field.getAccessor().getValue(entity);
+			JsonNode valueNode;
+			if (deferAttributeSerialization && value != null && !(value instanceof Collection) && !(value instanceof Map)) {
+				valueNode = objectMapper.getNodeFactory().pojoNode(value);
+			} else {
+				valueNode = objectMapper.valueToTree(value);
+			}
 			resource.getAttributes().put(field.getJsonName(), valueNode);
 		}
 	}
@@ -98,12 +117,8 @@ public class ResourceMapper {
 	}
 
 	protected void setRelationship(Resource resource, ResourceField field, Object entity, ResourceInformation resourceInformation, QueryAdapter queryAdapter) {
-		ObjectNode relationshipLinks = objectMapper.createObjectNode();
-		relationshipLinks.put(SELF_FIELD_NAME, util.getRelationshipLink(resourceInformation, entity, field, false));
-		relationshipLinks.put(RELATED_FIELD_NAME, util.getRelationshipLink(resourceInformation, entity, field, true));
-
 		Relationship relationship = new Relationship();
-		relationship.setLinks(relationshipLinks);
+		relationship.setLinks(util.getRelationshipLinks(resourceInformation, resource.getId(), field));
 		resource.getRelationships().put(field.getJsonName(), relationship);
 	}
 }
@@ -0,0 +1,46 @@
+package io.katharsis.core.internal.utils;
+
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+
+public class CompletionStageUtils {
+
+	/**
+	 * private constructor since it is a static only class
+	 */
+	private CompletionStageUtils() {
+	}
+
+	/**
+	 * Waits for the given stage to complete.
+	 *
+	 * @param stage to wait for
+	 * @return result of the stage
+	 * @throws RuntimeException or {@link Error} the stage completed exceptionally with, unwrapped from the
+	 *             {@link CompletionException}
+	 */
+	public static <T> T await(CompletionStage<T> stage) {
+		try {
+			return stage.toCompletableFuture().join();
+		} catch (CompletionException e) {
+			throw unwrap(e);
+		}
+	}
+
+	/**
+	 * @param e exception a stage completed with
+	 * @return the cause of a {@link CompletionException} if it is a {@link RuntimeException}, the exception itself
+	 *         otherwise
+	 * @throws Error the stage completed with
+	 */
+	public static RuntimeException unwrap(Throwable e) {
+		Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+		if (cause instanceof Error) {
+			throw (Error) cause;
+		}
+		if (cause instanceof RuntimeException) {
+			return (RuntimeException) cause;
+		}
+		return e instanceof RuntimeException ? (RuntimeException) e : new CompletionException(e);
+	}
+}
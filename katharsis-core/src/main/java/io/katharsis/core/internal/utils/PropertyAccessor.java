@@ -0,0 +1,166 @@
+package io.katharsis.core.internal.utils;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.AccessibleObject;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+import io.katharsis.resource.information.ResourceFieldAccessor;
+
+/**
+ * Accessor for a single bean property. Follows the same resolution rules as {@link PropertyUtils}, but resolves the
+ * getter, setter or public field only once upon creation and invokes them through {@link MethodHandle}s afterwards.
+ * Beans not assignable to the class the accessor has been created for and properties that could not be resolved are
+ * delegated to {@link PropertyUtils}.
+ */
+public class PropertyAccessor implements ResourceFieldAccessor {
+
+	private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+
+	private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+	private final Class<?> beanClass;
+
+	private final String propertyName;
+
+	private final MethodHandle getter;
+
+	private final MethodHandle setter;
+
+	private final Class<?> setterType;
+
+	private PropertyAccessor(Class<?> beanClass, String propertyName, MethodHandle getter, MethodHandle setter, Class<?> setterType) {
+		this.beanClass = beanClass;
+		this.propertyName = propertyName;
+		this.getter = getter;
+		this.setter = setter;
+		this.setterType = setterType;
+	}
+
+	/**
+	 * @param beanClass class declaring the property, subclasses are supported as well
+	 * @param propertyName name of the property
+	 * @return accessor for the given property
+	 */
+	public static PropertyAccessor create(Class<?> beanClass, String propertyName) {
+		PreconditionUtil.assertNotNull("no beanClass specified", beanClass);
+		PreconditionUtil.assertNotNull("no propertyName specified", propertyName);
+
+		MethodHandle getter = null;
+		MethodHandle setter = null;
+		Class<?> setterType = null;
+
+		Field field = ClassUtils.findClassField(beanClass, propertyName);
+		if (field != null && Modifier.isStatic(field.getModifiers())) {
+			// leave static fields to PropertyUtils
+			return new PropertyAccessor(beanClass, propertyName, null, null, null);
+		}
+		if (field != null && Modifier.isPublic(field.getModifiers())) {
+			getter = unreflectGetter(field);
+			if (!Modifier.isFinal(field.getModifiers())) {
+				setter = unreflectSetter(field);
+				setterType = field.getType();
+			}
+		} else {
+			Method getterMethod = ClassUtils.findGetter(beanClass, propertyName);
+			if (getterMethod != null) {
+				getter = unreflect(getterMethod, GETTER_TYPE);
+			}
+
+			Class<?> propertyType = field != null ? field.getType() : getterMethod != null ? getterMethod.getReturnType() : null;
+			Method setterMethod = propertyType != null ? ClassUtils.findSetter(beanClass, propertyName, propertyType) : null;
+			if (setterMethod != null) {
+				setter = unreflect(setterMethod, SETTER_TYPE);
+				setterType = setterMethod.getParameterTypes()[0];
+			}
+		}
+		return new PropertyAccessor(beanClass, propertyName, getter, setter, setterType);
+	}
+
+	@Override
+	public Object getValue(Object bean) {
+		if (getter == null || !beanClass.isInstance(bean)) {
+			return PropertyUtils.getProperty(bean, propertyName);
+		}
+		try {
+			return getter.invokeExact(bean);
+		} catch (RuntimeException | Error e) { // NOSONAR
+			throw e;
+		} catch (Throwable e) { // NOSONAR
+			throw new PropertyException(e, bean.getClass(), propertyName);
+		}
+	}
+
+	@Override
+	public void setValue(Object bean, Object value) {
+		if (setter == null || !beanClass.isInstance(bean)) {
+			PropertyUtils.setProperty(bean, propertyName, value);
+			return;
+		}
+		try {
+			setter.invokeExact(bean, PropertyUtils.prepareValue(value, setterType));
+		} catch (RuntimeException | Error e) { // NOSONAR
+			throw e;
+		} catch (Throwable e) { // NOSONAR
+			throw new PropertyException(e, bean.getClass(), propertyName);
+		}
+	}
+
+	public Class<?> getBeanClass() {
+		return beanClass;
+	}
+
+	public String getPropertyName() {
+		return propertyName;
+	}
+
+	private static MethodHandle unreflectGetter(Field field) {
+		if (!makeAccessible(field)) {
+			return null;
+		}
+		try {
+			return MethodHandles.lookup().unreflectGetter(field).asType(GETTER_TYPE);
+		} catch (IllegalAccessException e) { // NOSONAR
+			return null;
+		}
+	}
+
+	private static MethodHandle unreflectSetter(Field field) {
+		if (!makeAccessible(field)) {
+			return null;
+		}
+		try {
+			return MethodHandles.lookup().unreflectSetter(field).asType(SETTER_TYPE);
+		} catch (IllegalAccessException e) { // NOSONAR
+			return null;
+		}
+	}
+
+	private static MethodHandle unreflect(Method method, MethodType type) {
+		if (Modifier.isStatic(method.getModifiers()) || !makeAccessible(method)) {
+			return null;
+		}
+		try {
+			return MethodHandles.lookup().unreflect(method).asType(type);
+		} catch (IllegalAccessException e) { // NOSONAR
+			return null;
+		}
+	}
+
+	private static boolean makeAccessible(AccessibleObject member) {
+		try {
+			member.setAccessible(true);
+			return true;
+		} catch (SecurityException e) { // NOSONAR
+			return false;
+		}
+	}
+
+	@Override
+	public String toString() {
+		return getClass().getSimpleName() + "[beanClass=" + beanClass.getName() + ",propertyName=" + propertyName + "]";
+	}
+}
@@ -82,4 +82,180 @@ public class KatharsisProperties {
      * @since 2.8.2
      */
     public static final String INCLUDE_AUTOMATICALLY_OVERWRITE = "katharsis.config.include.automatically.overwrite";
+
+    /**
+     * Set the maximum number of relationship lookups a single request performs concurrently when resolving
+     * inclusions. Independent relationship fields of an inclusion level, like <tt>include=author,comments,tags</tt>,
+     * are then looked up at the same time with the bulk methods of their relationship repositories and merged in field
+     * order afterwards. The executor can be set with
+     * {@link io.katharsis.core.internal.boot.KatharsisBoot#setIncludeExecutor(java.util.concurrent.Executor)}.
+     * <p>
+     * Only enable it for repositories that do not depend on thread-bound state like transactions or request contexts.
+     * In particular JPA repositories share an EntityManager that is not thread-safe and lose the transaction of the
+     * request on the threads of the executor. Defaults to 1, i.e. lookups are done one after another by the request
+     * thread.
+     * </p>
+     * <p>
+     * The name of the configuration property is <tt>{@value}</tt>.
+     * </p>
+     *
+     * @since 3.0.4
+     */
+    public static final String INCLUDE_PARALLELISM = "katharsis.config.include.parallelism";
+
+    /**
+     * Set a boolean whether response documents are streamed to the client. If enabled, documents are written directly
+     * to the servlet or JAX-RS output stream rather than to a buffer first. Attribute values are no longer converted to
+     * Jackson trees, but written by the {@link com.fasterxml.jackson.core.JsonGenerator} that serializes the document.
+     * The produced output is the same.
+     * <p>
+     * Resources, relationships and inclusions are still mapped while the request is dispatched, within the
+     * {@link io.katharsis.repository.filter.DocumentFilter} chain and any transaction set up by it. Only collection and
+     * map attributes are converted up-front, since they may be loaded lazily by the underlying persistence layer.
+     * </p>
+     * <p>
+     * Note that {@link io.katharsis.repository.filter.DocumentFilter}s then see attributes as
+     * {@link com.fasterxml.jackson.databind.node.POJONode} and that serialization errors can no longer be turned into
+     * an error document once the response has been started. Disabled by default.
+     * </p>
+     * <p>
+     * The name of the configuration property is <tt>{@value}</tt>.
+     * </p>
+     *
+     * @since 3.0.4
+     */
+    public static final String SERIALIZATION_STREAMING = "katharsis.config.serialization.streaming";
+
+    /**
+     * Set how the self and related links of relationships are rendered. Links are rendered from templates precompiled
+     * for every resource type and relationship and a base url resolved once per document.
+     * <p>
+     * Possible values:
+     * </p>
+     * <ul>
+     * <li><tt>ABSOLUTE</tt> (default) : links are absolute urls.</li>
+     * <li><tt>RELATIVE</tt> : links are paths relative to the host of the service, e.g. <tt>/api/tasks/1/project</tt>.
+     * Self links of resources remain absolute.</li>
+     * <li><tt>NONE</tt> : relationship links are omitted. Relationships neither carrying data nor meta information are
+     * left out entirely. Clients then have to construct relationship urls themselves, which substantially reduces the
+     * size of documents with many relationships.</li>
+     * </ul>
+     * <p>
+     * The name of the configuration property is <tt>{@value}</tt>.
+     * </p>
+     *
+     * @since 3.0.4
+     */
+    public static final String RELATIONSHIP_LINKS = "katharsis.config.serialization.relationshipLinks";
+
+    /**
+     * Set a boolean whether requests are dispatched asynchronously. If enabled, the servlet integration puts requests
+     * into asynchronous mode and dispatches them with the executor set by
+     * {@link io.katharsis.core.internal.boot.KatharsisBoot#setDispatchExecutor(java.util.concurrent.Executor)}, so that
+     * slow repositories no longer hold container threads. Repositories may then also return a
+     * {@link java.util.concurrent.CompletionStage} from annotated methods. Such stages are not waited for, the
+     * remaining processing of the request is composed with them and runs on the thread completing them, so no dispatch
+     * thread is held in the meantime.
+     * <p>
+     * Request bodies are still read by the container thread and the request is bound to the dispatching thread for
+     * the duration of the dispatch, other thread-bound state like transactions is not propagated. Disabled by default.
+     * </p>
+     * <p>
+     * The name of the configuration property is <tt>{@value}</tt>.
+     * </p>
+     *
+     * @since 3.0.4
+     */
+    public static final String DISPATCH_ASYNC = "katharsis.config.dispatch.async";
+
+    /**
+     * Set the time in milliseconds an asynchronously dispatched request may take, see {@link #DISPATCH_ASYNC}. Requests
+     * taking longer are answered with <tt>503 Service Unavailable</tt> and their late results are discarded. Uses the
+     * asynchronous timeout of the container by default.
+     * <p>
+     * The name of the configuration property is <tt>{@value}</tt>.
+     * </p>
+     *
+     * @since 3.0.4
+     */
+    public static final String DISPATCH_TIMEOUT = "katharsis.config.dispatch.timeout";
+
+    /**
+     * Set the maximum number of threads of the default executor asynchronously dispatched requests are processed with,
+     * see {@link #DISPATCH_ASYNC}. Defaults to
+     * {@value io.katharsis.core.internal.dispatcher.RequestDispatcher#DEFAULT_ASYNC_THREADS}. Has no effect if an
+     * executor is set with
+     * {@link io.katharsis.core.internal.boot.KatharsisBoot#setDispatchExecutor(java.util.concurrent.Executor)}.
+     * <p>
+     * The name of the configuration property is <tt>{@value}</tt>.
+     * </p>
+     *
+     * @since 3.0.4
+     */
+    public static final String DISPATCH_THREADS = "katharsis.config.dispatch.threads";
+
+    /**
+     * Set the maximum size in bytes of a request body. Larger bodies are rejected with a
+     * <tt>413 Request Entity Too Large</tt> error document, either up-front based on the <tt>Content-Length</tt> header or
+     * as soon as the limit is exceeded while parsing. Bodies are parsed straight from the request stream, so memory usage
+     * is bounded by the parsed document rather than the raw payload. Unlimited by default.
+     * <p>
+     * The name of the configuration property is <tt>{@value}</tt>.
+     * </p>
+     *
+     * @since 3.0.4
+     */
+    public static final String MAX_REQUEST_BODY_SIZE = "katharsis.config.request.maxBodySize";
+
+    /**
+     * Set a boolean whether response documents are written without indentation. Documents are indented by default to
+     * ease reading them, compact output considerably reduces their size. Only applies to responses written by the
+     * servlet, Spring and JAX-RS integrations.
+     * <p>
+     * The name of the configuration property is <tt>{@value}</tt>.
+     * </p>
+     *
+     * @since 3.0.4
+     */
+    public static final String SERIALIZATION_COMPACT = "katharsis.config.serialization.compact";
+
+    /**
+     * Set a boolean whether responses are compressed with gzip or deflate as accepted by the <tt>Accept-Encoding</tt>
+     * header of the request. Bodies are compressed while being written, bodies smaller than
+     * {@link #RESPONSE_COMPRESSION_THRESHOLD} are sent as they are. Disabled by default, leave it disabled if the
+     * container or a proxy compresses responses already.
+     * <p>
+     * The ETag header of responses, see {@link #RESPONSE_ETAG}, is computed over the compressed body.
+     * </p>
+     * <p>
+     * The name of the configuration property is <tt>{@value}</tt>.
+     * </p>
+     *
+     * @since 3.0.4
+     */
+    public static final String RESPONSE_COMPRESSION = "katharsis.config.response.compression";
+
+    /**
+     * Set the minimum size in bytes of a response body to be compressed, see {@link #RESPONSE_COMPRESSION}. 1024 by
+     * default.
+     * <p>
+     * The name of the configuration property is <tt>{@value}</tt>.
+     * </p>
+     *
+     * @since 3.0.4
+     */
+    public static final String RESPONSE_COMPRESSION_THRESHOLD = "katharsis.config.response.compressionThreshold";
+
+    /**
+     * Set a boolean whether successful responses to <tt>GET</tt> requests carry an ETag header computed over the body
+     * sent. Requests whose <tt>If-None-Match</tt> header matches the tag are answered with <tt>304 Not Modified</tt>
+     * and no body. Only applies to responses held back entirely before being sent, streamed responses have committed
+     * their headers already. Disabled by default.
+     * <p>
+     * The name of the configuration property is <tt>{@value}</tt>.
+     * </p>
+     *
+     * @since 3.0.4
+     */
+    public static final String RESPONSE_ETAG = "katharsis.config.response.etag";
 }
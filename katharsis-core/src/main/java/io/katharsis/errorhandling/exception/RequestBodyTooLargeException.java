@@ -0,0 +1,19 @@
+package io.katharsis.errorhandling.exception;
+
+import io.katharsis.errorhandling.ErrorData;
+import io.katharsis.repository.response.HttpStatus;
+
+/**
+ * Thrown, when the request body exceeds the configured maximum size
+ */
+public class RequestBodyTooLargeException extends BadRequestException { // NOSONAR exception hierarchy deep but ok
+    private static final String TITLE = "request body too large";
+
+    public RequestBodyTooLargeException(long maxBodySize) {
+        super(HttpStatus.REQUEST_ENTITY_TOO_LARGE_413, ErrorData.builder()
+                .setTitle(TITLE)
+                .setDetail("request body exceeds maximum size of " + maxBodySize + " bytes")
+                .setStatus(String.valueOf(HttpStatus.REQUEST_ENTITY_TOO_LARGE_413))
+                .build());
+    }
+}
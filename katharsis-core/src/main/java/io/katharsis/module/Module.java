@@ -2,6 +2,7 @@ package io.katharsis.module;
 
 import io.katharsis.core.internal.exception.ExceptionMapperLookup;
 import io.katharsis.errorhandling.mapper.ExceptionMapper;
+import io.katharsis.repository.cache.RelationshipLookupCache;
 import io.katharsis.repository.decorate.RepositoryDecoratorFactory;
 import io.katharsis.repository.filter.DocumentFilter;
 import io.katharsis.repository.filter.RepositoryFilter;
@@ -146,6 +147,16 @@ public interface Module {
 		 */
 		void addRepositoryDecoratorFactory(RepositoryDecoratorFactory decorator);
 
+		/**
+		 * Adds a cache for relationship lookups. At most one cache can be
+		 * registered. It is only used by repositories implementing
+		 * {@link io.katharsis.repository.CacheableRelationshipRepositoryV2}.
+		 *
+		 * @param relationshipLookupCache
+		 *            cache
+		 */
+		void addRelationshipLookupCache(RelationshipLookupCache relationshipLookupCache);
+
 		/**
 		 * Returns the ResourceRegistry. Note that instance is not yet available
 		 * when {@link Module#setupModule(ModuleContext)} is called. So
@@ -28,6 +28,7 @@ import io.katharsis.legacy.repository.annotations.JsonApiRelationshipRepository;
 import io.katharsis.legacy.repository.annotations.JsonApiResourceRepository;
 import io.katharsis.repository.RelationshipRepositoryV2;
 import io.katharsis.repository.ResourceRepositoryV2;
+import io.katharsis.repository.cache.RelationshipLookupCache;
 import io.katharsis.repository.decorate.RelationshipRepositoryDecorator;
 import io.katharsis.repository.decorate.RepositoryDecoratorFactory;
 import io.katharsis.repository.decorate.ResourceRepositoryDecorator;
@@ -196,6 +197,13 @@ public class ModuleRegistry {
 			aggregatedModule.addRepository(repository);
 		}
 
+		@Override
+		public void addRelationshipLookupCache(RelationshipLookupCache relationshipLookupCache) {
+			checkNotInitialized();
+			PreconditionUtil.assertTrue("only a single RelationshipLookupCache can be installed", aggregatedModule.getRelationshipLookupCaches().isEmpty());
+			aggregatedModule.addRelationshipLookupCache(relationshipLookupCache);
+		}
+
 		@Override
 		public boolean isServer() {
 			return isServer;
@@ -270,6 +278,15 @@ public class ModuleRegistry {
 		return securityProviders.get(0);
 	}
 
+	/**
+	 * @return cache for relationship lookups registered by a module, null if
+	 *         none is available.
+	 */
+	public RelationshipLookupCache getRelationshipLookupCache() {
+		List<RelationshipLookupCache> relationshipLookupCaches = aggregatedModule.getRelationshipLookupCaches();
+		return relationshipLookupCaches.isEmpty() ? null : relationshipLookupCaches.get(0);
+	}
+
 	/**
 	 * Returns a {@link SecurityProvider} instance that combines all instances
 	 * registered by modules.
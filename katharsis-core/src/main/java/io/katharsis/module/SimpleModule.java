@@ -9,6 +9,7 @@ import java.util.Set;
 
 import io.katharsis.core.internal.exception.ExceptionMapperLookup;
 import io.katharsis.errorhandling.mapper.JsonApiExceptionMapper;
+import io.katharsis.repository.cache.RelationshipLookupCache;
 import io.katharsis.repository.decorate.RepositoryDecoratorFactory;
 import io.katharsis.repository.filter.DocumentFilter;
 import io.katharsis.repository.filter.RepositoryFilter;
@@ -34,6 +35,8 @@ public class SimpleModule implements Module {
 
 	private List<SecurityProvider> securityProviders = new ArrayList<>();
 
+	private List<RelationshipLookupCache> relationshipLookupCaches = new ArrayList<>();
+
 	private List<ResourceLookup> resourceLookups = new ArrayList<>();
 
 	private List<com.fasterxml.jackson.databind.Module> jacksonModules = new ArrayList<>();
@@ -85,6 +88,9 @@ public class SimpleModule implements Module {
 		for (ExceptionMapperLookup exceptionMapperLookup : exceptionMapperLookups) {
 			context.addExceptionMapperLookup(exceptionMapperLookup);
 		}
+		for (RelationshipLookupCache relationshipLookupCache : relationshipLookupCaches) {
+			context.addRelationshipLookupCache(relationshipLookupCache);
+		}
 	}
 
 	private void checkInitialized() {
@@ -169,6 +175,11 @@ public class SimpleModule implements Module {
 		securityProviders.add(securityProvider);
 	}
 
+	public void addRelationshipLookupCache(RelationshipLookupCache relationshipLookupCache) {
+		checkInitialized();
+		relationshipLookupCaches.add(relationshipLookupCache);
+	}
+
 	public void addJacksonModule(com.fasterxml.jackson.databind.Module module) {
 		checkInitialized();
 		jacksonModules.add(module);
@@ -242,4 +253,8 @@ public class SimpleModule implements Module {
 		return Collections.unmodifiableList(securityProviders);
 	}
 
+	public List<RelationshipLookupCache> getRelationshipLookupCaches() {
+		return Collections.unmodifiableList(relationshipLookupCaches);
+	}
+
 }
@@ -29,6 +29,10 @@ public class DefaultQuerySpecDeserializer implements QuerySpecDeserializer {
 
 	private static final String LIMIT_PARAMETER = "limit";
 
+	private static final String AFTER_PARAMETER = "after";
+
+	private static final String BEFORE_PARAMETER = "before";
+
 	private static final Pattern PARAMETER_PATTERN = Pattern.compile("(\\w+)(\\[([^\\]]+)\\])?([\\w\\[\\]]*)");
 
 	private TypeParser typeParser;
@@ -214,6 +218,10 @@ public class DefaultQuerySpecDeserializer implements QuerySpecDeserializer {
 				throw new BadRequestException(error);
 			}
 			querySpec.setLimit(limit);
+		} else if (AFTER_PARAMETER.equalsIgnoreCase(name)) {
+			querySpec.setPageAfter(parameter.getValue());
+		} else if (BEFORE_PARAMETER.equalsIgnoreCase(name)) {
+			querySpec.setPageBefore(parameter.getValue());
 		} else {
 			throw new ParametersDeserializationException(parameter.toString());
 		}
@@ -339,6 +347,13 @@ public class DefaultQuerySpecDeserializer implements QuerySpecDeserializer {
 
 		Set<String> values;
 
+		public String getValue() {
+			if (values.size() != 1) {
+				throw new ParametersDeserializationException("expected a single value for " + toString());
+			}
+			return values.iterator().next();
+		}
+
 		public Long getLongValue() {
 			if (values.size() != 1) {
 				throw new ParametersDeserializationException("expected a Long for " + toString());
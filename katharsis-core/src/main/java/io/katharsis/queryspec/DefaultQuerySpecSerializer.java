@@ -125,6 +125,12 @@ public class DefaultQuerySpecSerializer implements QuerySpecSerializer {
 		if (querySpec.getLimit() != null) {
 			put(map, "page[limit]", Long.toString(querySpec.getLimit()));
 		}
+		if (querySpec.getPageAfter() != null) {
+			put(map, "page[after]", querySpec.getPageAfter());
+		}
+		if (querySpec.getPageBefore() != null) {
+			put(map, "page[before]", querySpec.getPageBefore());
+		}
 	}
 
 	private static void put(Map<String, Set<String>> map, String key, String value) {
@@ -0,0 +1,399 @@
+package io.katharsis.queryspec;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.RandomAccess;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+import java.util.stream.IntStream;
+
+import io.katharsis.core.internal.utils.PropertyAccessor;
+import io.katharsis.core.internal.utils.PropertyUtils;
+import io.katharsis.resource.list.ResourceList;
+import io.katharsis.resource.meta.MetaInformation;
+import io.katharsis.resource.meta.PagedMetaInformation;
+
+/**
+ * A {@link QuerySpec} compiled for in-memory evaluation with {@link InMemoryEvaluator#compile(QuerySpec)}. Filters
+ * are compiled into a tree of short-circuiting predicates, attribute paths are resolved through
+ * {@link PropertyAccessor}s and sort keys are extracted once per resource rather than once per comparison. With a
+ * limit only the first offset + limit resources are kept in a bounded heap instead of sorting the entire result.
+ * Plans are immutable and may be used by multiple threads.
+ */
+public class InMemoryEvaluationPlan {
+
+	private static final Predicate<Object> MATCH_ALL = resource -> true;
+
+	private static final Predicate<Object> MATCH_NONE = resource -> false;
+
+	private final Predicate<Object> filter;
+
+	private final AttributePath[] sortPaths;
+
+	private final boolean[] sortDescending;
+
+	private final long offset;
+
+	private final Long limit;
+
+	private final int parallelThreshold;
+
+	/**
+	 * @param querySpec to compile
+	 * @param parallelThreshold minimum number of resources to evaluate with parallel streams or
+	 *            {@link InMemoryEvaluator#PARALLEL_DISABLED}
+	 */
+	InMemoryEvaluationPlan(QuerySpec querySpec, int parallelThreshold) {
+		this.filter = compileAnd(querySpec.getFilters());
+		this.offset = querySpec.getOffset();
+		this.limit = querySpec.getLimit();
+		this.parallelThreshold = parallelThreshold;
+
+		List<SortSpec> sortSpecs = querySpec.getSort();
+		sortPaths = new AttributePath[sortSpecs.size()];
+		sortDescending = new boolean[sortSpecs.size()];
+		for (int i = 0; i < sortPaths.length; i++) {
+			sortPaths[i] = new AttributePath(sortSpecs.get(i).getAttributePath());
+			sortDescending[i] = sortSpecs.get(i).getDirection() == Direction.DESC;
+		}
+	}
+
+	/**
+	 * Checks a single resource against the already compiled filters, to be preferred over
+	 * {@link InMemoryEvaluator#matches(Object, FilterSpec)} when checking many resources.
+	 *
+	 * @param resource to check
+	 * @return true if the resource matches the filters of this plan
+	 */
+	public boolean matches(Object resource) {
+		return filter.test(resource);
+	}
+
+	/**
+	 * Filters, sorts and pages the given resources and adds the result to the provided list.
+	 *
+	 * @param <T> resource type
+	 * @param resources to evaluate
+	 * @param resultList used to return the result (including paging meta information)
+	 */
+	public <T> void eval(Iterable<T> resources, ResourceList<T> resultList) {
+		long totalCount;
+		if (parallelThreshold >= 0 && resources instanceof Collection && ((Collection<?>) resources).size() >= parallelThreshold) {
+			totalCount = evalParallel(toList(resources), resultList);
+		} else if (sortPaths.length == 0) {
+			totalCount = evalUnsorted(resources, resultList);
+		} else {
+			totalCount = evalSorted(resources, resultList);
+		}
+
+		// set page information
+		if (limit != null || offset != 0) {
+			MetaInformation meta = resultList.getMeta();
+			if (meta instanceof PagedMetaInformation) {
+				PagedMetaInformation pagedMeta = (PagedMetaInformation) meta;
+				pagedMeta.setTotalResourceCount(totalCount);
+			}
+		}
+	}
+
+	private <T> long evalUnsorted(Iterable<T> resources, List<T> resultList) {
+		long end = getEnd();
+		long count = 0;
+		for (T resource : resources) {
+			if (filter.test(resource)) {
+				if (count >= offset && count < end) {
+					resultList.add(resource);
+				}
+				count++;
+			}
+		}
+		return count;
+	}
+
+	private <T> long evalSorted(Iterable<T> resources, List<T> resultList) {
+		Comparator<Row> comparator = new RowComparator();
+		long end = getEnd();
+		int index = 0;
+		long count = 0;
+
+		List<Row> rows;
+		if (end < Integer.MAX_VALUE) {
+			// top-k: keep the first offset + limit rows, the largest one on top of the heap
+			int capacity = (int) end;
+			PriorityQueue<Row> heap = new PriorityQueue<>(Math.max(1, Math.min(capacity, 1024)), comparator.reversed());
+			for (T resource : resources) {
+				if (filter.test(resource)) {
+					count++;
+					if (capacity == 0) {
+						continue;
+					}
+					Row row = new Row(resource, index++, extractKeys(resource));
+					if (heap.size() < capacity) {
+						heap.add(row);
+					} else if (comparator.compare(row, heap.peek()) < 0) {
+						heap.poll();
+						heap.add(row);
+					}
+				}
+			}
+			rows = new ArrayList<>(heap);
+		} else {
+			rows = new ArrayList<>();
+			for (T resource : resources) {
+				if (filter.test(resource)) {
+					rows.add(new Row(resource, index++, extractKeys(resource)));
+				}
+			}
+			count = rows.size();
+		}
+		rows.sort(comparator);
+		addPage(rows.toArray(new Row[rows.size()]), resultList);
+		return count;
+	}
+
+	private <T> long evalParallel(List<T> resources, List<T> resultList) {
+		Row[] rows = IntStream.range(0, resources.size()).parallel().mapToObj(i -> {
+			T resource = resources.get(i);
+			return filter.test(resource) ? new Row(resource, i, extractKeys(resource)) : null;
+		}).filter(Objects::nonNull).toArray(Row[]::new);
+		if (sortPaths.length > 0) {
+			Arrays.parallelSort(rows, new RowComparator());
+		}
+		addPage(rows, resultList);
+		return rows.length;
+	}
+
+	@SuppressWarnings("unchecked")
+	private <T> void addPage(Row[] rows, List<T> resultList) {
+		long end = Math.min(getEnd(), rows.length);
+		for (long i = offset; i < end; i++) {
+			resultList.add((T) rows[(int) i].resource);
+		}
+	}
+
+	private long getEnd() {
+		long end = limit != null ? offset + limit : Long.MAX_VALUE;
+		return end < 0 ? Long.MAX_VALUE : end;
+	}
+
+	private Object[] extractKeys(Object resource) {
+		if (sortPaths.length == 0) {
+			return null;
+		}
+		Object[] keys = new Object[sortPaths.length];
+		for (int i = 0; i < keys.length; i++) {
+			keys[i] = sortPaths[i].getValue(resource);
+		}
+		return keys;
+	}
+
+	/**
+	 * @return list with constant-time indexed access
+	 */
+	@SuppressWarnings("unchecked")
+	private static <T> List<T> toList(Iterable<T> resources) {
+		if (resources instanceof List && resources instanceof RandomAccess) {
+			return (List<T>) resources;
+		}
+		return new ArrayList<>((Collection<T>) resources);
+	}
+
+	private static Predicate<Object> compileAnd(List<FilterSpec> filterSpecs) {
+		if (filterSpecs.isEmpty()) {
+			return MATCH_ALL;
+		}
+		if (filterSpecs.size() == 1) {
+			return compile(filterSpecs.get(0));
+		}
+		Predicate<Object>[] predicates = compile(filterSpecs);
+		return resource -> {
+			for (Predicate<Object> predicate : predicates) {
+				if (!predicate.test(resource)) {
+					return false;
+				}
+			}
+			return true;
+		};
+	}
+
+	static Predicate<Object> compile(FilterSpec filterSpec) {
+		List<FilterSpec> expressions = filterSpec.getExpression();
+		if (expressions == null) {
+			return compilePrimitiveOperator(filterSpec);
+		}
+		FilterOperator operator = filterSpec.getOperator();
+		if (operator == FilterOperator.AND) {
+			return compileAnd(expressions);
+		}
+		Predicate<Object>[] predicates = compile(expressions);
+		if (operator == FilterOperator.OR) {
+			return resource -> {
+				for (Predicate<Object> predicate : predicates) {
+					if (predicate.test(resource)) {
+						return true;
+					}
+				}
+				return false;
+			};
+		}
+		if (operator == FilterOperator.NOT) {
+			return resource -> {
+				for (Predicate<Object> predicate : predicates) {
+					if (predicate.test(resource)) {
+						return false;
+					}
+				}
+				return true;
+			};
+		}
+		throw new UnsupportedOperationException("not implemented " + filterSpec);
+	}
+
+	@SuppressWarnings("unchecked")
+	private static Predicate<Object>[] compile(List<FilterSpec> filterSpecs) {
+		Predicate<Object>[] predicates = new Predicate[filterSpecs.size()];
+		for (int i = 0; i < predicates.length; i++) {
+			predicates[i] = compile(filterSpecs.get(i));
+		}
+		return predicates;
+	}
+
+	private static Predicate<Object> compilePrimitiveOperator(FilterSpec filterSpec) {
+		AttributePath path = new AttributePath(filterSpec.getAttributePath());
+		FilterOperator operator = filterSpec.getOperator();
+		Object filterValue = filterSpec.getValue();
+
+		// the ability to operate on a null value should be handled polymorphically by the operator itself
+		if (filterValue == null && !operator.equals(FilterOperator.EQ) && !operator.equals(FilterOperator.NEQ)) {
+			return MATCH_NONE;
+		}
+		return resource -> {
+			Object value = path.getValue(resource);
+			if (value instanceof Collection) {
+				for (Object element : (Collection<?>) value) {
+					if (operator.matches(element, filterValue)) {
+						return true;
+					}
+				}
+				return false;
+			}
+			return operator.matches(value, filterValue);
+		};
+	}
+
+	private static final class Row {
+
+		private final Object resource;
+
+		private final int index;
+
+		private final Object[] keys;
+
+		Row(Object resource, int index, Object[] keys) {
+			this.resource = resource;
+			this.index = index;
+			this.keys = keys;
+		}
+	}
+
+	/**
+	 * Compares rows by their sort keys, nulls first. Rows with equal keys keep their original order.
+	 */
+	private final class RowComparator implements Comparator<Row> {
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public int compare(Row row1, Row row2) {
+			for (int i = 0; i < sortPaths.length; i++) {
+				Comparable<Object> value1 = (Comparable<Object>) row1.keys[i];
+				Comparable<Object> value2 = (Comparable<Object>) row2.keys[i];
+
+				int d;
+				if (value1 == value2) {
+					d = 0;
+				} else if (value1 == null) {
+					d = -1;
+				} else if (value2 == null) {
+					d = 1;
+				} else {
+					d = value1.compareTo(value2);
+				}
+				if (d != 0) {
+					return sortDescending[i] ? -d : d;
+				}
+			}
+			return Integer.compare(row1.index, row2.index);
+		}
+	}
+
+	/**
+	 * Attribute path resolved with {@link PropertyAccessor}s. Multi-valued properties are followed for each of their
+	 * elements.
+	 */
+	static final class AttributePath {
+
+		private final PropertyStep[] steps;
+
+		AttributePath(List<String> propertyPath) {
+			steps = new PropertyStep[propertyPath.size()];
+			for (int i = 0; i < steps.length; i++) {
+				steps[i] = new PropertyStep(propertyPath.get(i));
+			}
+		}
+
+		public Object getValue(Object bean) {
+			Object current = bean;
+			for (PropertyStep step : steps) {
+				if (current == null) {
+					return null;
+				}
+				if (current instanceof Iterable) {
+					// follow multi-valued property
+					List<Object> result = new ArrayList<>();
+					for (Object currentElem : (Iterable<?>) current) {
+						result.add(step.getValue(currentElem));
+					}
+					current = result;
+				} else {
+					// follow single-valued property
+					current = step.getValue(current);
+				}
+			}
+			return current;
+		}
+	}
+
+	/**
+	 * Single property of an {@link AttributePath}. Accessors are created once per bean class, the most recently used
+	 * one is kept at hand for homogeneous collections.
+	 */
+	private static final class PropertyStep {
+
+		private final String propertyName;
+
+		private final ConcurrentHashMap<Class<?>, PropertyAccessor> accessors = new ConcurrentHashMap<>();
+
+		private volatile PropertyAccessor lastAccessor;
+
+		PropertyStep(String propertyName) {
+			this.propertyName = propertyName;
+		}
+
+		public Object getValue(Object bean) {
+			if (bean == null) {
+				return PropertyUtils.getProperty(bean, propertyName);
+			}
+			PropertyAccessor accessor = lastAccessor;
+			if (accessor == null || accessor.getBeanClass() != bean.getClass()) {
+				accessor = accessors.computeIfAbsent(bean.getClass(), beanClass -> PropertyAccessor.create(beanClass, propertyName));
+				lastAccessor = accessor;
+			}
+			return accessor.getValue(bean);
+		}
+	}
+}
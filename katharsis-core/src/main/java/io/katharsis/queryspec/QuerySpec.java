@@ -21,6 +21,10 @@ public class QuerySpec {
 
 	private long offset = 0;
 
+	private String pageAfter = null;
+
+	private String pageBefore = null;
+
 	private List<FilterSpec> filters = new ArrayList<>();
 
 	private List<SortSpec> sort = new ArrayList<>();
@@ -88,6 +92,8 @@ public class QuerySpec {
 		result = prime * result + ((includedRelations == null) ? 0 : includedRelations.hashCode());
 		result = prime * result + ((limit == null) ? 0 : limit.hashCode());
 		result = prime * result + Long.valueOf(offset).hashCode();
+		result = prime * result + ((pageAfter == null) ? 0 : pageAfter.hashCode());
+		result = prime * result + ((pageBefore == null) ? 0 : pageBefore.hashCode());
 		result = prime * result + ((relatedSpecs == null) ? 0 : relatedSpecs.hashCode());
 		result = prime * result + ((sort == null) ? 0 : sort.hashCode());
 		return result;
@@ -102,7 +108,8 @@ public class QuerySpec {
 		QuerySpec other = (QuerySpec) obj;
 		return CompareUtils.isEquals(filters, other.filters) // NOSONAR
 				&& CompareUtils.isEquals(includedFields, other.includedFields) && CompareUtils.isEquals(includedRelations, other.includedRelations) && CompareUtils.isEquals(limit, other.limit)
-				&& CompareUtils.isEquals(offset, other.offset) && CompareUtils.isEquals(relatedSpecs, other.relatedSpecs) && CompareUtils.isEquals(sort, other.sort);
+				&& CompareUtils.isEquals(offset, other.offset) && CompareUtils.isEquals(relatedSpecs, other.relatedSpecs) && CompareUtils.isEquals(sort, other.sort)
+				&& CompareUtils.isEquals(pageAfter, other.pageAfter) && CompareUtils.isEquals(pageBefore, other.pageBefore);
 	}
 
 	public Long getLimit() {
@@ -121,6 +128,30 @@ public class QuerySpec {
 		this.offset = offset;
 	}
 
+	/**
+	 * @return cursor of the resource after which the requested page starts or null. Used by repositories supporting
+	 *         keyset pagination, see {@link io.katharsis.resource.meta.CursorMetaInformation}.
+	 */
+	public String getPageAfter() {
+		return pageAfter;
+	}
+
+	public void setPageAfter(String pageAfter) {
+		this.pageAfter = pageAfter;
+	}
+
+	/**
+	 * @return cursor of the resource before which the requested page ends or null. Used by repositories supporting
+	 *         keyset pagination, see {@link io.katharsis.resource.meta.CursorMetaInformation}.
+	 */
+	public String getPageBefore() {
+		return pageBefore;
+	}
+
+	public void setPageBefore(String pageBefore) {
+		this.pageBefore = pageBefore;
+	}
+
 	public List<FilterSpec> getFilters() {
 		return filters;
 	}
@@ -209,6 +240,8 @@ public class QuerySpec {
 		QuerySpec copy = new QuerySpec(resourceClass);
 		copy.limit = limit;
 		copy.offset = offset;
+		copy.pageAfter = pageAfter;
+		copy.pageBefore = pageBefore;
 		copy.includedFields.addAll(includedFields);
 		copy.includedRelations.addAll(includedRelations);
 		copy.sort.addAll(sort);
@@ -236,6 +269,8 @@ public class QuerySpec {
 				"resourceClass=" + resourceClass +
 				", limit=" + limit +
 				", offset=" + offset +
+				(pageAfter != null ? ", pageAfter=" + pageAfter : "") +
+				(pageBefore != null ? ", pageBefore=" + pageBefore : "") +
 				", filters=" + filters +
 				", sort=" + sort +
 				", includedFields=" + includedFields +
@@ -0,0 +1,19 @@
+package io.katharsis.repository;
+
+import java.io.Serializable;
+
+import io.katharsis.module.Module.ModuleContext;
+import io.katharsis.repository.cache.RelationshipLookupCache;
+
+/**
+ * Marks a {@code RelationshipRepositoryV2} whose lookups may be served from the {@link RelationshipLookupCache}
+ * registered with {@link ModuleContext#addRelationshipLookupCache(RelationshipLookupCache)}. Lookups of other
+ * repositories always reach the repository.
+ * <p>
+ * Implementations guarantee that the targets of a lookup only depend on the source, the relationship field and the
+ * {@link io.katharsis.queryspec.QuerySpec}, and in particular not on the current user, tenant or any other state of
+ * the request. Cached targets are shared among all requests.
+ */
+public interface CacheableRelationshipRepositoryV2<T, I extends Serializable, D, J extends Serializable> extends RelationshipRepositoryV2<T, I, D, J> {
+
+}
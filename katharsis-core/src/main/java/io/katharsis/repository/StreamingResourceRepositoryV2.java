@@ -0,0 +1,30 @@
+package io.katharsis.repository;
+
+import java.io.Serializable;
+import java.util.stream.Stream;
+
+import io.katharsis.queryspec.QuerySpec;
+
+/**
+ * Resource repository streaming the result of a findAll request rather than returning it as a whole, e.g. from a
+ * database cursor. The stream is consumed while the request is dispatched, within the
+ * {@link io.katharsis.repository.filter.DocumentFilter} chain and any transaction set up by it, and closed once the
+ * resources have been mapped.
+ * <p>
+ * Streamed resources can be iterated only once. If repository filters are registered or the repository also implements
+ * {@link MetaRepositoryV2} or {@link LinksRepositoryV2}, the stream is collected into a list before they are invoked.
+ *
+ * @param <T> Type of an entity
+ * @param <I> Type of Identifier of an entity
+ */
+public interface StreamingResourceRepositoryV2<T, I extends Serializable> extends ResourceRepositoryV2<T, I> {
+
+	/**
+	 * Streams all of the resources matching the querySpec. Used in favor of {@link #findAll(QuerySpec)} to serve
+	 * collection requests.
+	 *
+	 * @param querySpec querySpec sent along with the request as parameters
+	 * @return lazily populated stream of the found resources
+	 */
+	Stream<T> findAllStream(QuerySpec querySpec);
+}
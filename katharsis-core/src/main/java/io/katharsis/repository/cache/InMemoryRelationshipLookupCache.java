@@ -0,0 +1,151 @@
+package io.katharsis.repository.cache;
+
+import java.io.Serializable;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+
+import io.katharsis.core.internal.utils.PreconditionUtil;
+import io.katharsis.utils.Nullable;
+
+/**
+ * Bounded in-memory {@link RelationshipLookupCache}. Evicts the least
+ * recently used entry once maxSize is reached and expires entries after the
+ * given time to live.
+ */
+public class InMemoryRelationshipLookupCache implements RelationshipLookupCache {
+
+	private final int maxSize;
+
+	private final long timeToLiveMillis;
+
+	private final LinkedHashMap<RelationshipLookupKey, CacheEntry> entries;
+
+	private final AtomicLong hitCount = new AtomicLong();
+
+	private final AtomicLong missCount = new AtomicLong();
+
+	/**
+	 * @param maxSize maximum number of cached lookups
+	 * @param timeToLiveMillis time after which an entry expires, zero or less
+	 *        for no expiration.
+	 */
+	public InMemoryRelationshipLookupCache(final int maxSize, long timeToLiveMillis) {
+		PreconditionUtil.assertTrue("maxSize must be positive", maxSize > 0);
+		this.maxSize = maxSize;
+		this.timeToLiveMillis = timeToLiveMillis;
+		this.entries = new LinkedHashMap<RelationshipLookupKey, CacheEntry>(16, 0.75f, true) {
+
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<RelationshipLookupKey, CacheEntry> eldest) {
+				return size() > maxSize;
+			}
+		};
+	}
+
+	@Override
+	public Nullable<Object> get(RelationshipLookupKey key) {
+		synchronized (entries) {
+			CacheEntry entry = entries.get(key);
+			if (entry != null && entry.isExpired(currentTimeMillis())) {
+				entries.remove(key);
+				entry = null;
+			}
+			if (entry == null) {
+				missCount.incrementAndGet();
+				return Nullable.empty();
+			}
+			hitCount.incrementAndGet();
+			return Nullable.of(entry.targets);
+		}
+	}
+
+	@Override
+	public void put(RelationshipLookupKey key, Object targets) {
+		long expiration = timeToLiveMillis > 0 ? currentTimeMillis() + timeToLiveMillis : Long.MAX_VALUE;
+		synchronized (entries) {
+			entries.put(key, new CacheEntry(targets, expiration));
+		}
+	}
+
+	@Override
+	public void invalidate(String resourceType, Serializable id) {
+		synchronized (entries) {
+			Iterator<RelationshipLookupKey> iterator = entries.keySet().iterator();
+			while (iterator.hasNext()) {
+				RelationshipLookupKey key = iterator.next();
+				if (resourceType.equals(key.getSourceType()) && Objects.equals(id, key.getSourceId())) {
+					iterator.remove();
+				}
+			}
+		}
+	}
+
+	@Override
+	public void invalidate(String resourceType) {
+		synchronized (entries) {
+			Iterator<RelationshipLookupKey> iterator = entries.keySet().iterator();
+			while (iterator.hasNext()) {
+				RelationshipLookupKey key = iterator.next();
+				if (resourceType.equals(key.getSourceType()) || resourceType.equals(key.getTargetType())) {
+					iterator.remove();
+				}
+			}
+		}
+	}
+
+	@Override
+	public void clear() {
+		synchronized (entries) {
+			entries.clear();
+		}
+	}
+
+	/**
+	 * @return number of currently cached lookups, including expired ones not
+	 *         yet removed.
+	 */
+	public int size() {
+		synchronized (entries) {
+			return entries.size();
+		}
+	}
+
+	public int getMaxSize() {
+		return maxSize;
+	}
+
+	@Override
+	public long getHitCount() {
+		return hitCount.get();
+	}
+
+	@Override
+	public long getMissCount() {
+		return missCount.get();
+	}
+
+	protected long currentTimeMillis() {
+		return System.currentTimeMillis();
+	}
+
+	private static class CacheEntry {
+
+		private final Object targets;
+
+		private final long expiration;
+
+		CacheEntry(Object targets, long expiration) {
+			this.targets = targets;
+			this.expiration = expiration;
+		}
+
+		boolean isExpired(long now) {
+			return now >= expiration;
+		}
+	}
+}
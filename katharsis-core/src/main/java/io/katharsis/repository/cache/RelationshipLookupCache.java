@@ -0,0 +1,69 @@
+package io.katharsis.repository.cache;
+
+import java.io.Serializable;
+
+import io.katharsis.module.Module.ModuleContext;
+import io.katharsis.utils.Nullable;
+
+/**
+ * Caches the targets of relationship lookups done by relationship
+ * repositories implementing
+ * {@link io.katharsis.repository.CacheableRelationshipRepositoryV2}, both
+ * within a single request and across requests. Caching is opt-in per
+ * repository since entries are shared among all users. Repository filters are still applied
+ * to every request, only the actual repository call is skipped upon a cache
+ * hit. Entries are invalidated by Katharsis whenever a resource or
+ * relationship is modified through a repository.
+ *
+ * Can be registered with
+ * {@link ModuleContext#addRelationshipLookupCache(RelationshipLookupCache)},
+ * see {@link InMemoryRelationshipLookupCache} for the default
+ * implementation.
+ */
+public interface RelationshipLookupCache {
+
+	/**
+	 * @param key of the lookup
+	 * @return cached targets, either a single resource or a collection of
+	 *         resources (which might both be null). Empty if no entry is
+	 *         available.
+	 */
+	Nullable<Object> get(RelationshipLookupKey key);
+
+	/**
+	 * @param key of the lookup
+	 * @param targets single resource or a collection of resources, might be
+	 *        null.
+	 */
+	void put(RelationshipLookupKey key, Object targets);
+
+	/**
+	 * Removes all entries of relationships of the given source resource.
+	 *
+	 * @param resourceType of the source resource
+	 * @param id of the source resource
+	 */
+	void invalidate(String resourceType, Serializable id);
+
+	/**
+	 * Removes all entries having the given type either as source or target.
+	 *
+	 * @param resourceType of the source or target resources
+	 */
+	void invalidate(String resourceType);
+
+	/**
+	 * Removes all entries.
+	 */
+	void clear();
+
+	/**
+	 * @return number of lookups answered from the cache
+	 */
+	long getHitCount();
+
+	/**
+	 * @return number of lookups that had to be forwarded to the repository
+	 */
+	long getMissCount();
+}
@@ -0,0 +1,113 @@
+package io.katharsis.repository.cache;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Objects;
+
+import io.katharsis.queryspec.QuerySpec;
+
+/**
+ * Identifies the lookup of a relationship of a single source resource with a
+ * given query.
+ */
+public final class RelationshipLookupKey {
+
+	private static final Comparator<Object> TO_STRING_ORDER = new Comparator<Object>() {
+
+		@Override
+		public int compare(Object o1, Object o2) {
+			return o1.toString().compareTo(o2.toString());
+		}
+	};
+
+	private final String sourceType;
+
+	private final Serializable sourceId;
+
+	private final String fieldName;
+
+	private final String targetType;
+
+	private final QuerySpec querySpec;
+
+	private final int hashCode;
+
+	/**
+	 * @param sourceType resource type of the source
+	 * @param sourceId id of the source
+	 * @param fieldName name of the relationship field
+	 * @param targetType resource type of the target
+	 * @param querySpec applied to the targets, a normalized copy is taken to
+	 *        protect the key from later modifications.
+	 */
+	public RelationshipLookupKey(String sourceType, Serializable sourceId, String fieldName, String targetType, QuerySpec querySpec) {
+		this.sourceType = sourceType;
+		this.sourceId = sourceId;
+		this.fieldName = fieldName;
+		this.targetType = targetType;
+		this.querySpec = querySpec != null ? normalize(querySpec) : null;
+		this.hashCode = Objects.hash(sourceType, sourceId, fieldName, targetType, this.querySpec);
+	}
+
+	/**
+	 * Filters, included fields and included relations are order-independent,
+	 * equivalent queries thereby share an entry. Sorting is order-dependent and
+	 * kept as is.
+	 */
+	private static QuerySpec normalize(QuerySpec querySpec) {
+		QuerySpec copy = querySpec.duplicate();
+		sortUnordered(copy);
+		return copy;
+	}
+
+	private static void sortUnordered(QuerySpec querySpec) {
+		Collections.sort(querySpec.getFilters());
+		Collections.sort(querySpec.getIncludedFields(), TO_STRING_ORDER);
+		Collections.sort(querySpec.getIncludedRelations(), TO_STRING_ORDER);
+		for (QuerySpec relatedSpec : querySpec.getRelatedSpecs().values()) {
+			sortUnordered(relatedSpec);
+		}
+	}
+
+	public String getSourceType() {
+		return sourceType;
+	}
+
+	public Serializable getSourceId() {
+		return sourceId;
+	}
+
+	public String getFieldName() {
+		return fieldName;
+	}
+
+	public String getTargetType() {
+		return targetType;
+	}
+
+	public QuerySpec getQuerySpec() {
+		return querySpec;
+	}
+
+	@Override
+	public int hashCode() {
+		return hashCode;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null || getClass() != obj.getClass())
+			return false;
+		RelationshipLookupKey other = (RelationshipLookupKey) obj;
+		return hashCode == other.hashCode && Objects.equals(sourceType, other.sourceType) && Objects.equals(sourceId, other.sourceId) && Objects.equals(fieldName, other.fieldName) // NOSONAR
+				&& Objects.equals(targetType, other.targetType) && Objects.equals(querySpec, other.querySpec);
+	}
+
+	@Override
+	public String toString() {
+		return "RelationshipLookupKey[sourceType=" + sourceType + ",sourceId=" + sourceId + ",fieldName=" + fieldName + ",targetType=" + targetType + ",querySpec=" + querySpec + "]";
+	}
+}
@@ -10,6 +10,7 @@ public interface HttpStatus {
     int UNAUTHORIZED_401 = 401;
     int FORBIDDEN_403 = 403;
     int CONFLICT_409 = 409;
+    int REQUEST_ENTITY_TOO_LARGE_413 = 413;
     int INTERNAL_SERVER_ERROR_500 = 500;
     int NOT_IMPLEMENTED_501 = 501;
     int BAD_GATEWAY_502 = 502;
@@ -2,6 +2,7 @@ package io.katharsis.resource.information;
 
 import java.lang.reflect.Type;
 
+import io.katharsis.core.internal.utils.PropertyUtils;
 import io.katharsis.resource.annotations.LookupIncludeBehavior;
 
 public interface ResourceField {
@@ -54,5 +55,27 @@ public interface ResourceField {
 
 	public void setResourceInformation(ResourceInformation resourceInformation);
 
+	/**
+	 * @return accessor to read and write the value of this field, available
+	 *         once the field is bound to its {@link ResourceInformation}.
+	 *         Falls back to reflective access by the underlying name for
+	 *         implementations not providing a compiled accessor.
+	 */
+	public default ResourceFieldAccessor getAccessor() {
+		final String underlyingName = getUnderlyingName();
+		return new ResourceFieldAccessor() {
+
+			@Override
+			public Object getValue(Object resource) {
+				return PropertyUtils.getProperty(resource, underlyingName);
+			}
+
+			@Override
+			public void setValue(Object resource, Object fieldValue) {
+				PropertyUtils.setProperty(resource, underlyingName, fieldValue);
+			}
+		};
+	}
+
 	public boolean isCollection();
 }
\ No newline at end of file
@@ -0,0 +1,23 @@
+package io.katharsis.resource.information;
+
+import io.katharsis.core.internal.utils.PropertyAccessor;
+
+/**
+ * Reads and writes the value of a {@link ResourceField} on a resource object. {@link PropertyAccessor} resolves the
+ * underlying getter, setter or public field once when the field is bound to its {@link ResourceInformation} and
+ * avoids a reflective lookup on every access.
+ */
+public interface ResourceFieldAccessor {
+
+	/**
+	 * @param resource resource object
+	 * @return value of the field
+	 */
+	Object getValue(Object resource);
+
+	/**
+	 * @param resource resource object
+	 * @param fieldValue value to set
+	 */
+	void setValue(Object resource, Object fieldValue);
+}
@@ -11,7 +11,6 @@ import java.util.Set;
 
 import io.katharsis.core.internal.resource.DefaultResourceInstanceBuilder;
 import io.katharsis.core.internal.resource.ResourceAttributesBridge;
-import io.katharsis.core.internal.utils.PropertyUtils;
 import io.katharsis.errorhandling.exception.MultipleJsonApiLinksInformationException;
 import io.katharsis.errorhandling.exception.MultipleJsonApiMetaInformationException;
 import io.katharsis.errorhandling.exception.ResourceDuplicateIdException;
@@ -273,11 +272,11 @@ public class ResourceInformation {
 	 * @return id of the resource
 	 */
 	public Object getId(Object resource) {
-		return PropertyUtils.getProperty(resource, idField.getUnderlyingName());
+		return idField.getAccessor().getValue(resource);
 	}
 
 	public void setId(Object resource, Object id) {
-		PropertyUtils.setProperty(resource, idField.getUnderlyingName(), id);
+		idField.getAccessor().setValue(resource, id);
 	}
 
 	@Deprecated // Temporary method until proper versioning/locking/timestamping
@@ -0,0 +1,27 @@
+package io.katharsis.resource.meta;
+
+import io.katharsis.queryspec.QuerySpec;
+import io.katharsis.resource.list.ResourceList;
+
+/**
+ * Implement this class and provide the cursors of the adjacent pages to let Katharsis compute keyset pagination links
+ * (page[after] and page[before]) rather than offset-based ones. The meta information can be delivered as part of the
+ * result by returning an instance of {@link ResourceList}. Cursors are opaque to Katharsis and handed back to the
+ * repository with {@link QuerySpec#getPageAfter()} and {@link QuerySpec#getPageBefore()}.
+ */
+public interface CursorMetaInformation extends MetaInformation {
+
+	/**
+	 * @return cursor to fetch the next page with page[after] or null if there is no next page
+	 */
+	public String getNextCursor();
+
+	public void setNextCursor(String nextCursor);
+
+	/**
+	 * @return cursor to fetch the previous page with page[before] or null if there is no previous page
+	 */
+	public String getPrevCursor();
+
+	public void setPrevCursor(String prevCursor);
+}
@@ -1,9 +1,19 @@
 package io.katharsis.resource.meta;
 
-public class DefaultPagedMetaInformation implements PagedMetaInformation {
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+
+public class DefaultPagedMetaInformation implements PagedMetaInformation, CursorMetaInformation, HasMoreResourcesMetaInformation {
 
 	private Long totalResourceCount;
 
+	private Boolean hasMoreResources;
+
+	private String nextCursor;
+
+	private String prevCursor;
+
 	@Override
 	public Long getTotalResourceCount() {
 		return totalResourceCount;
@@ -13,4 +23,37 @@ public class DefaultPagedMetaInformation implements PagedMetaInformation {
 	public void setTotalResourceCount(Long totalResourceCount) {
 		this.totalResourceCount = totalResourceCount;
 	}
+
+	@Override
+	@JsonInclude(Include.NON_NULL)
+	public Boolean getHasMoreResources() {
+		return hasMoreResources;
+	}
+
+	@Override
+	public void setHasMoreResources(Boolean hasMoreResources) {
+		this.hasMoreResources = hasMoreResources;
+	}
+
+	@Override
+	@JsonIgnore
+	public String getNextCursor() {
+		return nextCursor;
+	}
+
+	@Override
+	public void setNextCursor(String nextCursor) {
+		this.nextCursor = nextCursor;
+	}
+
+	@Override
+	@JsonIgnore
+	public String getPrevCursor() {
+		return prevCursor;
+	}
+
+	@Override
+	public void setPrevCursor(String prevCursor) {
+		this.prevCursor = prevCursor;
+	}
 }
@@ -0,0 +1,19 @@
+package io.katharsis.resource.meta;
+
+import io.katharsis.resource.list.ResourceList;
+
+/**
+ * Implement this class and provide whether there are further resources after the current page to let Katharsis compute
+ * first/prev/next pagination links if the total number of resources is not known. The meta information can be
+ * delivered as part of the result by returning an instance of {@link ResourceList}. A total count provided by
+ * {@link PagedMetaInformation} takes precedence.
+ */
+public interface HasMoreResourcesMetaInformation extends MetaInformation {
+
+	/**
+	 * @return true if there are further resources after the current page, null if unknown
+	 */
+	public Boolean getHasMoreResources();
+
+	public void setHasMoreResources(Boolean hasMoreResources);
+}
@@ -0,0 +1,114 @@
+package io.katharsis.resource.registry;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+import io.katharsis.resource.information.ResourceField;
+import io.katharsis.resource.information.ResourceInformation;
+
+/**
+ * Resource types of a registry compiled into a trie over their path segments
+ * to resolve resource types containing "/" with a single walk, together with
+ * the relationship fields of every resource by JSON name. A table reflects the
+ * registry at the time of its creation and is to be replaced when new
+ * resources get registered, see {@link ResourceRegistry#getRouteTable()}.
+ */
+public class PathRouteTable {
+
+	private static final String SEPARATOR = "/";
+
+	private final Route root = new Route(null, 0);
+
+	private final Map<String, Map<String, ResourceField>> relationshipFields = new HashMap<>();
+
+	public PathRouteTable(Collection<RegistryEntry> entries) {
+		for (RegistryEntry entry : entries) {
+			ResourceInformation resourceInformation = entry.getResourceInformation();
+			if (resourceInformation != null && resourceInformation.getResourceType() != null) {
+				add(resourceInformation.getResourceType(), entry);
+			}
+		}
+	}
+
+	private void add(String resourceType, RegistryEntry entry) {
+		Route route = root;
+		String[] segments = resourceType.split(SEPARATOR);
+		for (int i = 0; i < segments.length; i++) {
+			Route child = route.children.get(segments[i]);
+			if (child == null) {
+				child = new Route(null, i + 1);
+				route.children.put(segments[i], child);
+			}
+			route = child;
+		}
+		route.resourceType = resourceType;
+		route.entry = entry;
+
+		Map<String, ResourceField> fields = new HashMap<>();
+		for (ResourceField field : entry.getResourceInformation().getRelationshipFields()) {
+			if (!fields.containsKey(field.getJsonName())) {
+				fields.put(field.getJsonName(), field);
+			}
+		}
+		relationshipFields.put(resourceType, fields);
+	}
+
+	/**
+	 * @return route of the shortest resource type formed by the segments
+	 *         starting at offset or null if there is none.
+	 */
+	public Route match(String[] segments, int offset) {
+		Route route = root;
+		for (int i = offset; i < segments.length; i++) {
+			route = route.children.get(segments[i]);
+			if (route == null) {
+				return null;
+			}
+			if (route.entry != null) {
+				return route;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * @return relationship field of the given resource type with the given JSON
+	 *         name or null if there is none.
+	 */
+	public ResourceField findRelationshipField(String resourceType, String jsonName) {
+		Map<String, ResourceField> fields = relationshipFields.get(resourceType);
+		return fields != null ? fields.get(jsonName) : null;
+	}
+
+	public static class Route {
+
+		private final Map<String, Route> children = new HashMap<>();
+
+		private final int length;
+
+		private String resourceType;
+
+		private RegistryEntry entry;
+
+		Route(String resourceType, int length) {
+			this.resourceType = resourceType;
+			this.length = length;
+		}
+
+		/**
+		 * @return number of path segments of the resource type
+		 */
+		public int getLength() {
+			return length;
+		}
+
+		public String getResourceType() {
+			return resourceType;
+		}
+
+		public RegistryEntry getEntry() {
+			return entry;
+		}
+	}
+}
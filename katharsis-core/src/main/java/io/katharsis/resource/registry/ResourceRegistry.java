@@ -30,4 +30,13 @@ public interface ResourceRegistry {
 	 */
 	public ResourceInformation getBaseResourceInformation(String resourceType);
 
+	/**
+	 * @return routes to resolve request paths with. Implementations should keep
+	 *         the table until new resources get registered, the default builds
+	 *         a new table reflecting the current resources upon every call.
+	 */
+	public default PathRouteTable getRouteTable() {
+		return new PathRouteTable(getResources());
+	}
+
 }
@@ -0,0 +1,83 @@
+package io.katharsis.benchmark;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.katharsis.queryspec.Direction;
+import io.katharsis.queryspec.FilterOperator;
+import io.katharsis.queryspec.FilterSpec;
+import io.katharsis.queryspec.QuerySpec;
+import io.katharsis.queryspec.SortSpec;
+import io.katharsis.resource.list.ResourceList;
+import io.katharsis.resource.mock.models.Task;
+
+/**
+ * Applies a filtered, sorted and paged {@link QuerySpec} to 100k tasks in memory. {@link #filterSortPage()} fetches
+ * the first page, {@link #filterSort()} the complete sorted result. Compile with
+ * <code>mvn test-compile -Pbenchmark</code> and run with
+ * <code>java -cp target/test-classes:... org.openjdk.jmh.Main InMemoryEvaluatorBenchmark -prof gc</code>.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InMemoryEvaluatorBenchmark {
+
+	private static final int SIZE = 100000;
+
+	private List<Task> tasks;
+
+	private QuerySpec pageSpec;
+
+	private QuerySpec sortSpec;
+
+	@Setup
+	public void setup() {
+		Random random = new Random(0);
+		tasks = new ArrayList<>();
+		for (long i = 0; i < SIZE; i++) {
+			Task task = new Task();
+			task.setId(i);
+			task.setName("task" + random.nextInt(SIZE));
+			task.setCategory("category" + random.nextInt(10));
+			tasks.add(task);
+		}
+
+		sortSpec = new QuerySpec(Task.class);
+		sortSpec.addFilter(FilterSpec.or(new FilterSpec(Arrays.asList("category"), FilterOperator.EQ, "category1"),
+				new FilterSpec(Arrays.asList("id"), FilterOperator.GE, SIZE / 2L)));
+		sortSpec.addFilter(new FilterSpec(Arrays.asList("name"), FilterOperator.NEQ, "task0"));
+		sortSpec.addSort(new SortSpec(Arrays.asList("name"), Direction.ASC));
+		sortSpec.addSort(new SortSpec(Arrays.asList("id"), Direction.DESC));
+
+		pageSpec = sortSpec.duplicate();
+		pageSpec.setOffset(20);
+		pageSpec.setLimit(20L);
+	}
+
+	@Benchmark
+	public ResourceList<Task> filterSortPage() {
+		return pageSpec.apply(tasks);
+	}
+
+	@Benchmark
+	public ResourceList<Task> filterSort() {
+		return sortSpec.apply(tasks);
+	}
+}
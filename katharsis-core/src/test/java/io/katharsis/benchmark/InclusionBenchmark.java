@@ -0,0 +1,113 @@
+package io.katharsis.benchmark;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.katharsis.core.internal.jackson.JsonApiModuleBuilder;
+import io.katharsis.core.internal.query.QuerySpecAdapter;
+import io.katharsis.core.internal.resource.AnnotationResourceInformationBuilder;
+import io.katharsis.core.internal.resource.DocumentMapper;
+import io.katharsis.legacy.locator.SampleJsonServiceLocator;
+import io.katharsis.legacy.registry.ResourceRegistryBuilder;
+import io.katharsis.module.ModuleRegistry;
+import io.katharsis.queryspec.QuerySpec;
+import io.katharsis.repository.response.JsonApiResponse;
+import io.katharsis.resource.Document;
+import io.katharsis.resource.information.ResourceFieldNameTransformer;
+import io.katharsis.resource.mock.models.HierarchicalTask;
+import io.katharsis.resource.registry.ConstantServiceUrlProvider;
+import io.katharsis.resource.registry.ResourceRegistry;
+import io.katharsis.resource.registry.ResourceRegistryBuilderTest;
+import io.katharsis.resource.registry.ResourceRegistryTest;
+
+/**
+ * Maps the leaves of a synthetic task tree to a document including their parents and children, which in turn
+ * includes the entire tree (4681 resources). Measures the inclusion bookkeeping of
+ * {@link io.katharsis.core.internal.resource.IncludeLookupSetter}. Compile with
+ * <code>mvn test-compile -Pbenchmark</code> and run with
+ * <code>java -cp target/test-classes:... org.openjdk.jmh.Main InclusionBenchmark -prof gc</code> to also report the
+ * allocation rate.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InclusionBenchmark {
+
+	private static final int DEPTH = 4;
+
+	private static final int FAN_OUT = 8;
+
+	private DocumentMapper mapper;
+
+	private ResourceRegistry resourceRegistry;
+
+	private List<HierarchicalTask> leaves;
+
+	private QuerySpec querySpec;
+
+	@Setup
+	public void setup() {
+		ModuleRegistry moduleRegistry = new ModuleRegistry();
+		ResourceRegistryBuilder registryBuilder = new ResourceRegistryBuilder(moduleRegistry, new SampleJsonServiceLocator(), new AnnotationResourceInformationBuilder(new ResourceFieldNameTransformer()));
+		resourceRegistry = registryBuilder.build(ResourceRegistryBuilderTest.TEST_MODELS_PACKAGE, moduleRegistry, new ConstantServiceUrlProvider(ResourceRegistryTest.TEST_MODELS_URL));
+
+		ObjectMapper objectMapper = new ObjectMapper();
+		objectMapper.registerModule(new JsonApiModuleBuilder().build(resourceRegistry, false));
+		mapper = new DocumentMapper(resourceRegistry, objectMapper, null);
+
+		HierarchicalTask root = newTask(0L, null);
+		List<HierarchicalTask> level = Arrays.asList(root);
+		long nextId = 1;
+		for (int depth = 0; depth < DEPTH; depth++) {
+			List<HierarchicalTask> nextLevel = new ArrayList<>();
+			for (HierarchicalTask parent : level) {
+				List<HierarchicalTask> children = new ArrayList<>();
+				for (int i = 0; i < FAN_OUT; i++) {
+					children.add(newTask(nextId++, parent));
+				}
+				parent.setChildren(children);
+				nextLevel.addAll(children);
+			}
+			level = nextLevel;
+		}
+		leaves = level;
+
+		querySpec = new QuerySpec(HierarchicalTask.class);
+		querySpec.includeRelation(Arrays.asList("parent"));
+		querySpec.includeRelation(Arrays.asList("children"));
+	}
+
+	private static HierarchicalTask newTask(long id, HierarchicalTask parent) {
+		HierarchicalTask task = new HierarchicalTask();
+		task.setId(id);
+		task.setName("task" + id);
+		task.setParent(parent);
+		task.setChildren(new ArrayList<HierarchicalTask>());
+		return task;
+	}
+
+	@Benchmark
+	public Document includeTree() {
+		JsonApiResponse response = new JsonApiResponse();
+		response.setEntity(leaves);
+		return mapper.toDocument(response, new QuerySpecAdapter(querySpec, resourceRegistry));
+	}
+}
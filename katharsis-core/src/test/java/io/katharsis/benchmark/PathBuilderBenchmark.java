@@ -0,0 +1,116 @@
+package io.katharsis.benchmark;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.mockito.Mockito;
+
+import io.katharsis.core.internal.dispatcher.path.PathBuilder;
+import io.katharsis.core.internal.repository.information.ResourceRepositoryInformationImpl;
+import io.katharsis.core.internal.resource.AnnotationResourceInformationBuilder;
+import io.katharsis.core.internal.resource.ResourceFieldImpl;
+import io.katharsis.legacy.locator.SampleJsonServiceLocator;
+import io.katharsis.legacy.registry.ResourceRegistryBuilder;
+import io.katharsis.module.ModuleRegistry;
+import io.katharsis.repository.information.RepositoryAction;
+import io.katharsis.resource.information.ResourceField;
+import io.katharsis.resource.information.ResourceFieldNameTransformer;
+import io.katharsis.resource.information.ResourceFieldType;
+import io.katharsis.resource.information.ResourceInformation;
+import io.katharsis.resource.mock.models.Project;
+import io.katharsis.resource.mock.models.Task;
+import io.katharsis.resource.registry.ConstantServiceUrlProvider;
+import io.katharsis.resource.registry.RegistryEntry;
+import io.katharsis.resource.registry.ResourceRegistry;
+import io.katharsis.resource.registry.ResourceRegistryBuilderTest;
+import io.katharsis.resource.registry.ResourceRegistryTest;
+import io.katharsis.utils.parser.TypeParser;
+
+/**
+ * Resolves request paths covering flat and grouped ("/" in the type) resource types, relationships and repository
+ * and resource actions. {@link #resolveRepeated()} resolves the same paths over and over again,
+ * {@link #resolveDistinct()} uses new ids for every invocation. Compile with
+ * <code>mvn test-compile -Pbenchmark</code> and run with
+ * <code>java -cp target/test-classes:... org.openjdk.jmh.Main PathBuilderBenchmark -prof gc</code>.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PathBuilderBenchmark {
+
+	private static final String[] PATHS = { "/tasks/", "/tasks/1", "/tasks/1/relationships/project", "/tasks/1/project", "/tasks/someRepositoryAction",
+			"/admin/tasks/1,2", "/admin/tasks/1/relationships/project", "/admin/tasks/1/archive" };
+
+	private static final String[] PATH_TEMPLATES = { "/tasks/%d", "/tasks/%d/relationships/project", "/admin/tasks/%d/project", "/admin/tasks/%d/archive" };
+
+	private ResourceRegistry resourceRegistry;
+
+	private String[] distinctPaths;
+
+	private int distinctIndex;
+
+	@Setup
+	public void setup() {
+		ModuleRegistry moduleRegistry = new ModuleRegistry();
+		ResourceRegistryBuilder registryBuilder = new ResourceRegistryBuilder(moduleRegistry, new SampleJsonServiceLocator(), new AnnotationResourceInformationBuilder(new ResourceFieldNameTransformer()));
+		resourceRegistry = registryBuilder.build(ResourceRegistryBuilderTest.TEST_MODELS_PACKAGE, moduleRegistry, new ConstantServiceUrlProvider(ResourceRegistryTest.TEST_MODELS_URL));
+		resourceRegistry.findEntry(Task.class).getRepositoryInformation().getActions().put("someRepositoryAction", Mockito.mock(RepositoryAction.class));
+
+		ResourceField idField = new ResourceFieldImpl("id", "id", ResourceFieldType.ID, Long.class, Long.class, null);
+		ResourceField projectField = new ResourceFieldImpl("project", "project", ResourceFieldType.RELATIONSHIP, Project.class, Project.class, "projects");
+		ResourceInformation resourceInformation = new ResourceInformation(new TypeParser(), GroupedTask.class, "admin/tasks", null, Arrays.asList(idField, projectField));
+		ResourceRepositoryInformationImpl repositoryInformation = new ResourceRepositoryInformationImpl(Object.class, "admin/tasks", resourceInformation);
+		repositoryInformation.getActions().put("archive", Mockito.mock(RepositoryAction.class));
+		resourceRegistry.addEntry(GroupedTask.class, new RegistryEntry(repositoryInformation, null));
+
+		// a new id for every invocation
+		distinctPaths = new String[PATH_TEMPLATES.length * 10000];
+		for (int i = 0; i < distinctPaths.length; i++) {
+			distinctPaths[i] = String.format(PATH_TEMPLATES[i % PATH_TEMPLATES.length], i);
+		}
+	}
+
+	@Benchmark
+	public void resolveRepeated(Blackhole blackhole) {
+		PathBuilder pathBuilder = new PathBuilder(resourceRegistry);
+		for (String path : PATHS) {
+			blackhole.consume(pathBuilder.build(path));
+		}
+	}
+
+	@Benchmark
+	public void resolveDistinct(Blackhole blackhole) {
+		PathBuilder pathBuilder = new PathBuilder(resourceRegistry);
+		for (int i = 0; i < PATHS.length; i++) {
+			distinctIndex = (distinctIndex + 1) % distinctPaths.length;
+			blackhole.consume(pathBuilder.build(distinctPaths[distinctIndex]));
+		}
+	}
+
+	public static class GroupedTask {
+
+		private Long id;
+
+		public Long getId() {
+			return id;
+		}
+
+		public void setId(Long id) {
+			this.id = id;
+		}
+	}
+}
@@ -0,0 +1,86 @@
+package io.katharsis.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import io.katharsis.core.internal.resource.AnnotationResourceInformationBuilder;
+import io.katharsis.core.internal.utils.PropertyUtils;
+import io.katharsis.legacy.registry.DefaultResourceInformationBuilderContext;
+import io.katharsis.resource.information.ResourceField;
+import io.katharsis.resource.information.ResourceFieldNameTransformer;
+import io.katharsis.resource.information.ResourceInformation;
+import io.katharsis.resource.information.ResourceInformationBuilder;
+import io.katharsis.resource.mock.models.Task;
+import io.katharsis.utils.parser.TypeParser;
+
+/**
+ * Compares reading all attributes of a list of resources with {@link PropertyUtils} and with the {@link ResourceField}
+ * bound accessors. Compile with <code>mvn test-compile -Pbenchmark</code> and run with
+ * <code>java -cp target/test-classes:... org.openjdk.jmh.Main PropertyAccessBenchmark</code>.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PropertyAccessBenchmark {
+
+	private static final int NUM_RESOURCES = 1000;
+
+	private List<Task> tasks;
+
+	private List<ResourceField> fields;
+
+	@Setup
+	public void setup() {
+		ResourceInformationBuilder builder = new AnnotationResourceInformationBuilder(new ResourceFieldNameTransformer());
+		builder.init(new DefaultResourceInformationBuilderContext(builder, new TypeParser()));
+		ResourceInformation resourceInformation = builder.build(Task.class);
+
+		fields = new ArrayList<>();
+		fields.add(resourceInformation.getIdField());
+		fields.addAll(resourceInformation.getAttributeFields().getFields());
+		fields.addAll(resourceInformation.getRelationshipFields());
+
+		tasks = new ArrayList<>();
+		for (long i = 0; i < NUM_RESOURCES; i++) {
+			Task task = new Task();
+			task.setId(i);
+			task.setName("task" + i);
+			task.setCategory("category" + i);
+			tasks.add(task);
+		}
+	}
+
+	@Benchmark
+	public void reflective(Blackhole blackhole) {
+		for (Task task : tasks) {
+			for (ResourceField field : fields) {
+				blackhole.consume(PropertyUtils.getProperty(task, field.getUnderlyingName()));
+			}
+		}
+	}
+
+	@Benchmark
+	public void accessor(Blackhole blackhole) {
+		for (Task task : tasks) {
+			for (ResourceField field : fields) {
+				blackhole.consume(field.getAccessor().getValue(task));
+			}
+		}
+	}
+}
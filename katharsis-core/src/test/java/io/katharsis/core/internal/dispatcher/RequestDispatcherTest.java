@@ -12,7 +12,14 @@ import static org.mockito.Mockito.when;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
 
+import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
@@ -20,12 +27,14 @@ import org.junit.rules.ExpectedException;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+import io.katharsis.core.internal.boot.PropertiesProvider;
 import io.katharsis.core.internal.dispatcher.controller.CollectionGet;
 import io.katharsis.core.internal.dispatcher.path.JsonPath;
 import io.katharsis.core.internal.dispatcher.path.PathBuilder;
 import io.katharsis.core.internal.exception.ExceptionMapperRegistryTest;
 import io.katharsis.core.internal.query.QuerySpecAdapterBuilder;
 import io.katharsis.core.internal.resource.AnnotationResourceInformationBuilder;
+import io.katharsis.core.properties.KatharsisProperties;
 import io.katharsis.legacy.internal.RepositoryMethodParameterProvider;
 import io.katharsis.legacy.locator.SampleJsonServiceLocator;
 import io.katharsis.legacy.registry.ResourceRegistryBuilder;
@@ -114,4 +123,171 @@ public class RequestDispatcherTest {
 
 		Response response = requestDispatcher.dispatchRequest(null, null, null, null, null);
 	}
+
+	@Test
+	public void shouldDispatchAsyncWithExecutor() throws Exception {
+		ControllerRegistry controllerRegistry = mock(ControllerRegistry.class);
+		// noinspection unchecked
+		when(controllerRegistry.getController(any(JsonPath.class), anyString())).thenThrow(IllegalStateException.class);
+
+		QuerySpecAdapterBuilder queryAdapterBuilder = new QuerySpecAdapterBuilder(new DefaultQuerySpecDeserializer(), moduleRegistry);
+		RequestDispatcher requestDispatcher = new RequestDispatcher(moduleRegistry, controllerRegistry, ExceptionMapperRegistryTest.exceptionMapperRegistry, queryAdapterBuilder);
+
+		final Thread[] dispatchThread = new Thread[1];
+		Executor executor = new Executor() {
+
+			@Override
+			public void execute(Runnable command) {
+				Thread thread = new Thread(command);
+				dispatchThread[0] = thread;
+				thread.start();
+			}
+		};
+
+		CompletionStage<Response> stage = requestDispatcher.dispatchRequestAsync(null, null, null, null, null, executor);
+		Response response = stage.toCompletableFuture().get();
+		assertThat(response.getHttpStatus()).isEqualTo(HttpStatus.BAD_REQUEST_400);
+		Assert.assertNotNull(dispatchThread[0]);
+		Assert.assertNotSame(Thread.currentThread(), dispatchThread[0]);
+	}
+
+	@Test
+	public void shouldCompleteAsyncExceptionallyIfMapperIsNotAvailable() throws Exception {
+		ControllerRegistry controllerRegistry = mock(ControllerRegistry.class);
+		// noinspection unchecked
+		when(controllerRegistry.getController(any(JsonPath.class), anyString())).thenThrow(ArithmeticException.class);
+
+		QuerySpecAdapterBuilder queryAdapterBuilder = new QuerySpecAdapterBuilder(new DefaultQuerySpecDeserializer(), moduleRegistry);
+		RequestDispatcher requestDispatcher = new RequestDispatcher(moduleRegistry, controllerRegistry, ExceptionMapperRegistryTest.exceptionMapperRegistry, queryAdapterBuilder);
+
+		CompletionStage<Response> stage = requestDispatcher.dispatchRequestAsync(null, null, null, null, null);
+		try {
+			stage.toCompletableFuture().join();
+			Assert.fail();
+		} catch (CompletionException e) {
+			assertThat(e.getCause()).isInstanceOf(ArithmeticException.class);
+		}
+	}
+
+	@Test
+	public void checkIsAsync() {
+		Assert.assertFalse(RequestDispatcher.isAsync(null));
+	}
+
+	@Test
+	public void checkGetAsyncTimeout() {
+		Assert.assertNull(RequestDispatcher.getAsyncTimeout(null));
+		Assert.assertEquals(Long.valueOf(3000L), RequestDispatcher.getAsyncTimeout(new PropertiesProvider() {
+
+			@Override
+			public String getProperty(String key) {
+				return KatharsisProperties.DISPATCH_TIMEOUT.equals(key) ? " 3000" : null;
+			}
+		}));
+	}
+
+	@Test
+	public void shouldDefaultToBoundedAsyncExecutor() {
+		RequestDispatcher requestDispatcher = new RequestDispatcher(moduleRegistry, mock(ControllerRegistry.class), ExceptionMapperRegistryTest.exceptionMapperRegistry, null);
+		Executor executor = requestDispatcher.getAsyncExecutor();
+		assertThat(executor).isInstanceOf(ThreadPoolExecutor.class);
+		ThreadPoolExecutor pool = (ThreadPoolExecutor) executor;
+		Assert.assertEquals(RequestDispatcher.DEFAULT_ASYNC_THREADS, pool.getMaximumPoolSize());
+		Assert.assertEquals(RequestDispatcher.DEFAULT_ASYNC_QUEUE_SIZE, pool.getQueue().remainingCapacity());
+		Assert.assertSame(executor, requestDispatcher.getAsyncExecutor());
+	}
+
+	@Test
+	public void shouldCompleteAsyncExceptionallyIfRejected() {
+		RequestDispatcher requestDispatcher = new RequestDispatcher(moduleRegistry, mock(ControllerRegistry.class), ExceptionMapperRegistryTest.exceptionMapperRegistry, null);
+		Executor executor = new Executor() {
+
+			@Override
+			public void execute(Runnable command) {
+				throw new RejectedExecutionException();
+			}
+		};
+
+		CompletionStage<Response> stage = requestDispatcher.dispatchRequestAsync(null, null, null, null, null, executor);
+		try {
+			stage.toCompletableFuture().join();
+			Assert.fail();
+		} catch (CompletionException e) {
+			assertThat(e.getCause()).isInstanceOf(RejectedExecutionException.class);
+		}
+	}
+
+	@Test
+	public void shouldCompleteAsyncOnceResponseIsAvailable() throws Exception {
+		CompletableFuture<Response> pending = new CompletableFuture<>();
+		RequestDispatcher requestDispatcher = createDispatcherWithResponse(new PendingResponse(pending));
+		JsonPath jsonPath = new PathBuilder(resourceRegistry).buildPath("/tasks/");
+
+		CompletionStage<Response> stage = requestDispatcher.dispatchRequestAsync(jsonPath, "GET", new HashMap<String, Set<String>>(), null, null, new DirectExecutor());
+		Assert.assertFalse(stage.toCompletableFuture().isDone());
+
+		Response response = new Response(new Document(), HttpStatus.OK_200);
+		pending.complete(response);
+		Assert.assertSame(response, stage.toCompletableFuture().get());
+	}
+
+	@Test
+	public void shouldMapExceptionOfPendingResponse() throws Exception {
+		CompletableFuture<Response> pending = new CompletableFuture<>();
+		RequestDispatcher requestDispatcher = createDispatcherWithResponse(new PendingResponse(pending));
+		JsonPath jsonPath = new PathBuilder(resourceRegistry).buildPath("/tasks/");
+
+		CompletionStage<Response> stage = requestDispatcher.dispatchRequestAsync(jsonPath, "GET", new HashMap<String, Set<String>>(), null, null, new DirectExecutor());
+		pending.completeExceptionally(new IllegalStateException());
+		assertThat(stage.toCompletableFuture().get().getHttpStatus()).isEqualTo(HttpStatus.BAD_REQUEST_400);
+	}
+
+	@Test
+	public void shouldAwaitPendingResponseIfDispatchedSynchronously() throws Exception {
+		CompletableFuture<Response> pending = new CompletableFuture<>();
+		Response response = new Response(new Document(), HttpStatus.OK_200);
+		pending.complete(response);
+		RequestDispatcher requestDispatcher = createDispatcherWithResponse(new PendingResponse(pending));
+		JsonPath jsonPath = new PathBuilder(resourceRegistry).buildPath("/tasks/");
+
+		Assert.assertSame(response, requestDispatcher.dispatchRequest(jsonPath, "GET", new HashMap<String, Set<String>>(), null, null));
+	}
+
+	@Test
+	public void checkGetAsyncThreads() {
+		Assert.assertEquals(RequestDispatcher.DEFAULT_ASYNC_THREADS, RequestDispatcher.getAsyncThreads(null));
+		Assert.assertEquals(8, RequestDispatcher.getAsyncThreads(new PropertiesProvider() {
+
+			@Override
+			public String getProperty(String key) {
+				return KatharsisProperties.DISPATCH_THREADS.equals(key) ? "8" : null;
+			}
+		}));
+	}
+
+	@Test
+	public void shouldSizeDefaultAsyncExecutor() {
+		RequestDispatcher requestDispatcher = new RequestDispatcher(moduleRegistry, mock(ControllerRegistry.class), ExceptionMapperRegistryTest.exceptionMapperRegistry, null);
+		requestDispatcher.setAsyncThreads(4);
+		ThreadPoolExecutor pool = (ThreadPoolExecutor) requestDispatcher.getAsyncExecutor();
+		Assert.assertEquals(4, pool.getMaximumPoolSize());
+	}
+
+	private RequestDispatcher createDispatcherWithResponse(Response response) {
+		ControllerRegistry controllerRegistry = new ControllerRegistry(null);
+		CollectionGet collectionGet = mock(CollectionGet.class);
+		when(collectionGet.isAcceptable(any(JsonPath.class), eq("GET"))).thenCallRealMethod();
+		when(collectionGet.handle(any(JsonPath.class), any(QueryAdapter.class), any(RepositoryMethodParameterProvider.class), any(Document.class))).thenReturn(response);
+		controllerRegistry.addController(collectionGet);
+		QuerySpecAdapterBuilder queryAdapterBuilder = new QuerySpecAdapterBuilder(new DefaultQuerySpecDeserializer(), moduleRegistry);
+		return new RequestDispatcher(moduleRegistry, controllerRegistry, ExceptionMapperRegistryTest.exceptionMapperRegistry, queryAdapterBuilder);
+	}
+
+	private static class DirectExecutor implements Executor {
+
+		@Override
+		public void execute(Runnable command) {
+			command.run();
+		}
+	}
 }
@@ -19,7 +19,9 @@ import io.katharsis.core.internal.dispatcher.path.PathBuilder;
 import io.katharsis.core.internal.dispatcher.path.PathIds;
 import io.katharsis.core.internal.dispatcher.path.RelationshipsPath;
 import io.katharsis.core.internal.dispatcher.path.ResourcePath;
+import io.katharsis.core.internal.repository.information.ResourceRepositoryInformationImpl;
 import io.katharsis.core.internal.resource.AnnotationResourceInformationBuilder;
+import io.katharsis.core.internal.resource.ResourceFieldImpl;
 import io.katharsis.errorhandling.exception.RepositoryNotFoundException;
 import io.katharsis.errorhandling.exception.ResourceException;
 import io.katharsis.errorhandling.exception.ResourceFieldNotFoundException;
@@ -28,19 +30,26 @@ import io.katharsis.legacy.registry.ResourceRegistryBuilder;
 import io.katharsis.module.ModuleRegistry;
 import io.katharsis.repository.information.RepositoryAction;
 import io.katharsis.repository.information.ResourceRepositoryInformation;
+import io.katharsis.resource.information.ResourceField;
 import io.katharsis.resource.information.ResourceFieldNameTransformer;
+import io.katharsis.resource.information.ResourceFieldType;
+import io.katharsis.resource.information.ResourceInformation;
 import io.katharsis.resource.information.ResourceInformationBuilder;
+import io.katharsis.resource.mock.models.Project;
 import io.katharsis.resource.mock.models.Task;
 import io.katharsis.resource.registry.ConstantServiceUrlProvider;
 import io.katharsis.resource.registry.RegistryEntry;
 import io.katharsis.resource.registry.ResourceRegistry;
 import io.katharsis.resource.registry.ResourceRegistryBuilderTest;
 import io.katharsis.resource.registry.ResourceRegistryTest;
+import io.katharsis.utils.parser.TypeParser;
 
 public class PathBuilderTest {
 
     private PathBuilder pathBuilder;
 
+    private ResourceRegistry resourceRegistry;
+
     @Rule
     public ExpectedException expectedException = ExpectedException.none();
 
@@ -52,7 +61,7 @@ public class PathBuilderTest {
             new ResourceFieldNameTransformer());
         ResourceRegistryBuilder registryBuilder = new ResourceRegistryBuilder(moduleRegistry, new SampleJsonServiceLocator(),
             resourceInformationBuilder);
-        ResourceRegistry resourceRegistry = registryBuilder
+        resourceRegistry = registryBuilder
             .build(ResourceRegistryBuilderTest.TEST_MODELS_PACKAGE, moduleRegistry, new ConstantServiceUrlProvider(ResourceRegistryTest.TEST_MODELS_URL));
 
         pathBuilder = new PathBuilder(resourceRegistry);
@@ -351,4 +360,95 @@ public class PathBuilderTest {
         expectedPath.setParentResource(new ResourcePath("tasks", new PathIds("1")));
         assertThat(jsonPath).isEqualTo(expectedPath);
     }
+
+    @Test
+    public void onGroupedResourceTypeShouldReturnResourcePath() {
+        // GIVEN
+        addGroupedTaskEntry();
+        String path = "/admin/tasks/1";
+
+        // WHEN
+        JsonPath jsonPath = pathBuilder.buildPath(path);
+
+        // THEN
+        assertThat(jsonPath).isEqualTo(new ResourcePath("admin/tasks", new PathIds("1")));
+    }
+
+    @Test
+    public void onGroupedResourceTypeRelationshipAndActionShouldReturnNestedPath() {
+        // GIVEN
+        addGroupedTaskEntry();
+
+        // WHEN
+        JsonPath relationshipPath = pathBuilder.buildPath("/admin/tasks/1/relationships/project");
+        JsonPath actionPath = pathBuilder.buildPath("/admin/tasks/1/archive");
+
+        // THEN
+        JsonPath expectedRelationshipPath = new RelationshipsPath("project");
+        expectedRelationshipPath.setParentResource(new ResourcePath("admin/tasks", new PathIds("1")));
+        assertThat(relationshipPath).isEqualTo(expectedRelationshipPath);
+
+        JsonPath expectedActionPath = new ActionPath("archive");
+        expectedActionPath.setParentResource(new ResourcePath("admin/tasks", new PathIds("1")));
+        assertThat(actionPath).isEqualTo(expectedActionPath);
+    }
+
+    @Test
+    public void onNewRegistrationShouldResolveNewResource() {
+        // GIVEN
+        String path = "/admin/tasks/1";
+        Assert.assertNull(pathBuilder.build(path));
+
+        // WHEN
+        addGroupedTaskEntry();
+
+        // THEN
+        assertThat(pathBuilder.build(path)).isEqualTo(new ResourcePath("admin/tasks", new PathIds("1")));
+    }
+
+    @Test
+    public void onRepeatedPathShouldReturnIndependentCopies() {
+        // GIVEN
+        String path = "/tasks/1/project";
+
+        // WHEN
+        JsonPath first = pathBuilder.build(path);
+        first.getParentResource().getIds().getIds().add("2");
+        JsonPath second = pathBuilder.build(path);
+
+        // THEN
+        JsonPath expectedPath = new FieldPath("project");
+        expectedPath.setParentResource(new ResourcePath("tasks", new PathIds("1")));
+        assertThat(second).isEqualTo(expectedPath);
+        Assert.assertNotSame(first, second);
+        Assert.assertSame(second, second.getParentResource().getChildResource());
+    }
+
+    @Test
+    public void onRepeatedUnknownPathShouldReturnNull() {
+        Assert.assertNull(pathBuilder.build("/unknown/1"));
+        Assert.assertNull(pathBuilder.build("/unknown/1"));
+    }
+
+    private void addGroupedTaskEntry() {
+        ResourceField idField = new ResourceFieldImpl("id", "id", ResourceFieldType.ID, Long.class, Long.class, null);
+        ResourceField projectField = new ResourceFieldImpl("project", "project", ResourceFieldType.RELATIONSHIP, Project.class, Project.class, "projects");
+        ResourceInformation resourceInformation = new ResourceInformation(new TypeParser(), GroupedTask.class, "admin/tasks", null, Arrays.asList(idField, projectField));
+        ResourceRepositoryInformationImpl repositoryInformation = new ResourceRepositoryInformationImpl(Object.class, "admin/tasks", resourceInformation);
+        repositoryInformation.getActions().put("archive", Mockito.mock(RepositoryAction.class));
+        resourceRegistry.addEntry(GroupedTask.class, new RegistryEntry(repositoryInformation, null));
+    }
+
+    public static class GroupedTask {
+
+        private Long id;
+
+        public Long getId() {
+            return id;
+        }
+
+        public void setId(Long id) {
+            this.id = id;
+        }
+    }
 }
@@ -0,0 +1,198 @@
+package io.katharsis.core.internal.http;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import io.katharsis.core.internal.boot.PropertiesProvider;
+import io.katharsis.core.properties.KatharsisProperties;
+import io.katharsis.core.internal.http.ResponseEncoder.EncodedBody;
+import io.katharsis.core.internal.http.ResponseEncoder.EncodingOutputStream;
+
+public class ResponseEncoderTest {
+
+	private ResponseEncoder encoder = new ResponseEncoder(true, true, 100);
+
+	@Test
+	public void testCreateFromProperties() {
+		ResponseEncoder defaultEncoder = ResponseEncoder.create(null);
+		Assert.assertFalse(defaultEncoder.isCompact());
+		Assert.assertFalse(defaultEncoder.isCompression());
+		Assert.assertEquals(ResponseEncoder.DEFAULT_COMPRESSION_THRESHOLD, defaultEncoder.getCompressionThreshold());
+		Assert.assertFalse(defaultEncoder.isETag());
+
+		final Map<String, String> properties = new HashMap<>();
+		properties.put(KatharsisProperties.SERIALIZATION_COMPACT, "true");
+		properties.put(KatharsisProperties.RESPONSE_COMPRESSION, "true");
+		properties.put(KatharsisProperties.RESPONSE_COMPRESSION_THRESHOLD, "512");
+		properties.put(KatharsisProperties.RESPONSE_ETAG, "true");
+		ResponseEncoder configuredEncoder = ResponseEncoder.create(new PropertiesProvider() {
+
+			@Override
+			public String getProperty(String key) {
+				return properties.get(key);
+			}
+		});
+		Assert.assertTrue(configuredEncoder.isCompact());
+		Assert.assertTrue(configuredEncoder.isCompression());
+		Assert.assertEquals(512, configuredEncoder.getCompressionThreshold());
+		Assert.assertTrue(configuredEncoder.isETag());
+	}
+
+	@Test
+	public void testNegotiate() {
+		Assert.assertNull(encoder.negotiate(null));
+		Assert.assertNull(encoder.negotiate("identity"));
+		Assert.assertNull(encoder.negotiate("gzip;q=0"));
+		Assert.assertEquals("gzip", encoder.negotiate("gzip, deflate"));
+		Assert.assertEquals("gzip", encoder.negotiate("deflate, gzip"));
+		Assert.assertEquals("gzip", encoder.negotiate("*"));
+		Assert.assertEquals("deflate", encoder.negotiate("deflate"));
+		Assert.assertEquals("deflate", encoder.negotiate("gzip;q=0.5, deflate;q=0.8"));
+		Assert.assertNull(new ResponseEncoder(false, false, 100).negotiate("gzip"));
+	}
+
+	@Test
+	public void testNegotiateWildcardDoesNotOverrideExplicitCodings() {
+		Assert.assertEquals("deflate", encoder.negotiate("gzip;q=0, *"));
+		Assert.assertEquals("deflate", encoder.negotiate("*, gzip;q=0"));
+		Assert.assertNull(encoder.negotiate("gzip;q=0, deflate;q=0, *"));
+		Assert.assertEquals("deflate", encoder.negotiate("*;q=0.5, gzip;q=0.2"));
+		Assert.assertNull(encoder.negotiate("*;q=0"));
+	}
+
+	@Test
+	public void testETagOnlyForSuccessfulGet() {
+		ResponseEncoder etagEncoder = new ResponseEncoder(false, false, 100, true);
+		Assert.assertTrue(etagEncoder.isETag("GET", 200));
+		Assert.assertFalse(etagEncoder.isETag("GET", 404));
+		Assert.assertFalse(etagEncoder.isETag("POST", 200));
+		Assert.assertFalse(encoder.isETag("GET", 200));
+	}
+
+	@Test
+	public void testNotModified() {
+		Assert.assertFalse(ResponseEncoder.isNotModified(null, "\"abc\""));
+		Assert.assertTrue(ResponseEncoder.isNotModified("\"abc\"", "\"abc\""));
+		Assert.assertTrue(ResponseEncoder.isNotModified("\"xyz\", W/\"abc\"", "\"abc\""));
+		Assert.assertTrue(ResponseEncoder.isNotModified("*", "\"abc\""));
+		Assert.assertFalse(ResponseEncoder.isNotModified("\"xyz\"", "\"abc\""));
+	}
+
+	@Test
+	public void testReleaseAbandonedStream() throws IOException {
+		EncodingOutputStream encodedOut = encoder.newOutputStream(new ByteArrayOutputStream(), "gzip", null, true);
+		encodedOut.write(createBody());
+		Assert.assertTrue(encodedOut.isEncoding());
+		encodedOut.release();
+		encodedOut.release();
+	}
+
+	@Test
+	public void testCompactOutput() throws IOException {
+		ObjectMapper objectMapper = new ObjectMapper();
+		objectMapper.enable(SerializationFeature.INDENT_OUTPUT);
+		Map<String, String> value = new HashMap<>();
+		value.put("name", "value");
+		Assert.assertEquals("{\"name\":\"value\"}", encoder.configure(objectMapper.writer()).writeValueAsString(value));
+		Assert.assertNotEquals("{\"name\":\"value\"}", new ResponseEncoder(false, false, 100).configure(objectMapper.writer()).writeValueAsString(value));
+	}
+
+	@Test
+	public void testSmallBodyNotCompressed() throws IOException {
+		byte[] body = "{\"data\":null}".getBytes(StandardCharsets.UTF_8);
+		EncodedBody encodedBody = encoder.encode(body, "gzip");
+		Assert.assertNull(encodedBody.getContentEncoding());
+		Assert.assertArrayEquals(body, encodedBody.getBytes());
+		Assert.assertNotNull(encodedBody.getETag());
+	}
+
+	@Test
+	public void testGzip() throws IOException {
+		byte[] body = createBody();
+		EncodedBody encodedBody = encoder.encode(body, "gzip");
+		Assert.assertEquals("gzip", encodedBody.getContentEncoding());
+		Assert.assertTrue(encodedBody.getBytes().length < body.length);
+		Assert.assertArrayEquals(body, readFully(new GZIPInputStream(new ByteArrayInputStream(encodedBody.getBytes()))));
+	}
+
+	@Test
+	public void testDeflate() throws IOException {
+		byte[] body = createBody();
+		EncodedBody encodedBody = encoder.encode(body, "deflate");
+		Assert.assertEquals("deflate", encodedBody.getContentEncoding());
+		Assert.assertArrayEquals(body, readFully(new InflaterInputStream(new ByteArrayInputStream(encodedBody.getBytes()))));
+	}
+
+	@Test
+	public void testETagOfEncodedBody() throws IOException {
+		byte[] body = createBody();
+		EncodedBody identity = encoder.encode(body, null);
+		EncodedBody gzip = encoder.encode(body, "gzip");
+		Assert.assertEquals(identity.getETag(), encoder.encode(body, null).getETag());
+		Assert.assertEquals(gzip.getETag(), encoder.encode(body, "gzip").getETag());
+		Assert.assertNotEquals(identity.getETag(), gzip.getETag());
+	}
+
+	@Test
+	public void testStreamSetsHeaderOnceCompressionStarts() throws IOException {
+		final Map<String, String> headers = new HashMap<>();
+		BiConsumer<String, String> headerSink = new BiConsumer<String, String>() {
+
+			@Override
+			public void accept(String name, String value) {
+				headers.put(name, value);
+			}
+		};
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		EncodingOutputStream encodedOut = encoder.newOutputStream(out, "gzip", headerSink, false);
+		byte[] body = createBody();
+		encodedOut.write(body, 0, 50);
+		Assert.assertTrue(headers.isEmpty());
+		Assert.assertEquals(0, out.size());
+
+		encodedOut.write(body, 50, body.length - 50);
+		Assert.assertEquals("gzip", headers.get(ResponseEncoder.HEADER_CONTENT_ENCODING));
+		Assert.assertTrue(encodedOut.isEncoding());
+		encodedOut.finish();
+		Assert.assertArrayEquals(body, readFully(new GZIPInputStream(new ByteArrayInputStream(out.toByteArray()))));
+	}
+
+	@Test
+	public void testForcedCompression() throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		EncodingOutputStream encodedOut = encoder.newOutputStream(out, "gzip", null, true);
+		encodedOut.finish();
+		Assert.assertEquals(0, readFully(new GZIPInputStream(new ByteArrayInputStream(out.toByteArray()))).length);
+	}
+
+	private static byte[] createBody() {
+		byte[] body = new byte[4096];
+		Arrays.fill(body, (byte) ' ');
+		return body;
+	}
+
+	private static byte[] readFully(InputStream in) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		byte[] buffer = new byte[1024];
+		int n;
+		while ((n = in.read(buffer)) != -1) {
+			out.write(buffer, 0, n);
+		}
+		return out.toByteArray();
+	}
+}
@@ -0,0 +1,120 @@
+package io.katharsis.core.internal.jackson;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.katharsis.core.internal.boot.PropertiesProvider;
+import io.katharsis.core.properties.KatharsisProperties;
+import io.katharsis.errorhandling.exception.JsonDeserializationException;
+import io.katharsis.errorhandling.exception.RequestBodyTooLargeException;
+import io.katharsis.repository.response.HttpStatus;
+import io.katharsis.resource.Document;
+import io.katharsis.resource.Resource;
+
+public class RequestBodyReaderTest {
+
+	private static final String BODY = "{\"data\":{\"type\":\"tasks\",\"id\":\"1\",\"attributes\":{\"name\":\"sample task\"}}}";
+
+	private ObjectMapper objectMapper = new ObjectMapper();
+
+	@Test
+	public void testMaxBodySizeFromProperties() {
+		Assert.assertEquals(RequestBodyReader.UNLIMITED, RequestBodyReader.getMaxBodySize(null));
+		Assert.assertEquals(1024, RequestBodyReader.getMaxBodySize(new PropertiesProvider() {
+
+			@Override
+			public String getProperty(String key) {
+				return key.equals(KatharsisProperties.MAX_REQUEST_BODY_SIZE) ? "1024" : null;
+			}
+		}));
+	}
+
+	@Test
+	public void testRead() {
+		RequestBodyReader reader = new RequestBodyReader(objectMapper, RequestBodyReader.UNLIMITED);
+		Document document = reader.read(toStream(BODY));
+		Resource resource = document.getSingleData().get();
+		Assert.assertEquals("tasks", resource.getType());
+		Assert.assertEquals("1", resource.getId());
+		Assert.assertEquals("sample task", resource.getAttributes().get("name").asText());
+	}
+
+	@Test
+	public void testEmptyBody() {
+		RequestBodyReader reader = new RequestBodyReader(objectMapper, RequestBodyReader.UNLIMITED);
+		Assert.assertNull(reader.read(null));
+		Assert.assertNull(reader.read(toStream("")));
+	}
+
+	@Test(expected = JsonDeserializationException.class)
+	public void testInvalidBody() {
+		RequestBodyReader reader = new RequestBodyReader(objectMapper, RequestBodyReader.UNLIMITED);
+		reader.read(toStream("{\"data\":"));
+	}
+
+	@Test
+	public void testBodyWithinLimit() {
+		RequestBodyReader reader = new RequestBodyReader(objectMapper, BODY.length());
+		reader.checkContentLength(BODY.length());
+		reader.checkContentLength(-1);
+		Assert.assertNotNull(reader.read(toStream(BODY)));
+	}
+
+	@Test
+	public void testContentLengthExceedsLimit() {
+		RequestBodyReader reader = new RequestBodyReader(objectMapper, 16);
+		try {
+			reader.checkContentLength(17);
+			Assert.fail();
+		} catch (RequestBodyTooLargeException e) {
+			Assert.assertEquals(HttpStatus.REQUEST_ENTITY_TOO_LARGE_413, e.getHttpStatus());
+		}
+	}
+
+	@Test(expected = RequestBodyTooLargeException.class)
+	public void testBodyExceedsLimitWhileReading() {
+		RequestBodyReader reader = new RequestBodyReader(objectMapper, BODY.length() - 1);
+		reader.read(toStream(BODY));
+	}
+
+	@Test
+	public void testBodyExceedsLimitWithinValue() {
+		StringBuilder name = new StringBuilder();
+		for (int i = 0; i < 20000; i++) {
+			name.append('x');
+		}
+		String body = "{\"data\":{\"type\":\"tasks\",\"id\":\"1\",\"attributes\":{\"name\":\"" + name + "\"}}}";
+		RequestBodyReader reader = new RequestBodyReader(objectMapper, 12000);
+		try {
+			reader.read(toStream(body));
+			Assert.fail();
+		} catch (RequestBodyTooLargeException e) {
+			Assert.assertEquals(HttpStatus.REQUEST_ENTITY_TOO_LARGE_413, e.getHttpStatus());
+		}
+	}
+
+	@Test
+	public void testStreamNotClosed() {
+		final boolean[] closed = new boolean[1];
+		InputStream is = new ByteArrayInputStream(BODY.getBytes(StandardCharsets.UTF_8)) {
+
+			@Override
+			public void close() throws IOException {
+				closed[0] = true;
+			}
+		};
+		new RequestBodyReader(objectMapper, RequestBodyReader.UNLIMITED).read(is);
+		Assert.assertFalse(closed[0]);
+	}
+
+	private static InputStream toStream(String body) {
+		return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+	}
+}
@@ -0,0 +1,266 @@
+package io.katharsis.core.internal.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.lang.reflect.Type;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import io.katharsis.core.internal.utils.PropertyUtilsTest.Bean;
+import io.katharsis.core.internal.utils.PropertyUtilsTest.FieldSetTest;
+import io.katharsis.core.internal.utils.PropertyUtilsTest.GetterTest;
+import io.katharsis.core.internal.utils.PropertyUtilsTest.SetterSetTest;
+import io.katharsis.resource.annotations.LookupIncludeBehavior;
+import io.katharsis.resource.information.ResourceField;
+import io.katharsis.resource.information.ResourceFieldAccessor;
+import io.katharsis.resource.information.ResourceFieldType;
+import io.katharsis.resource.information.ResourceInformation;
+
+public class PropertyAccessorTest {
+
+	@Rule
+	public ExpectedException expectedException = ExpectedException.none();
+
+	@Test
+	public void onPrivatePropertyWithMutatorsShouldGetAndSetValue() {
+		// GIVEN
+		PropertyAccessor accessor = PropertyAccessor.create(Bean.class, "privatePropertyWithMutators");
+		Bean bean = new Bean();
+
+		// WHEN
+		accessor.setValue(bean, "value");
+
+		// THEN
+		assertThat(bean.getPrivatePropertyWithMutators()).isEqualTo("value");
+		assertThat(accessor.getValue(bean)).isEqualTo("value");
+	}
+
+	@Test
+	public void onBooleanPrimitiveShouldGetAndSetValue() {
+		// GIVEN
+		PropertyAccessor accessor = PropertyAccessor.create(Bean.class, "booleanPrimitivePropertyWithMutators");
+		Bean bean = new Bean();
+
+		// WHEN
+		accessor.setValue(bean, true);
+
+		// THEN
+		assertThat(accessor.getValue(bean)).isEqualTo(true);
+	}
+
+	@Test
+	public void onPublicFieldShouldGetAndSetValue() {
+		// GIVEN
+		PropertyAccessor accessor = PropertyAccessor.create(Bean.class, "publicProperty");
+		Bean bean = new Bean();
+
+		// WHEN
+		accessor.setValue(bean, "value");
+
+		// THEN
+		assertThat(bean.publicProperty).isEqualTo("value");
+		assertThat(accessor.getValue(bean)).isEqualTo("value");
+	}
+
+	@Test
+	public void onMethodPropertyShouldReturnValue() {
+		// GIVEN
+		PropertyAccessor accessor = PropertyAccessor.create(GetterTest.class, "property");
+
+		// WHEN
+		Object result = accessor.getValue(new GetterTest());
+
+		// THEN
+		assertThat(result).isEqualTo("valueProperty");
+	}
+
+	@Test
+	public void onSubclassShouldReturnValue() {
+		// GIVEN
+		PropertyAccessor accessor = PropertyAccessor.create(Bean.class, "privatePropertyWithMutators");
+		Bean bean = new Bean() {
+		};
+		bean.setPrivatePropertyWithMutators("value");
+
+		// WHEN
+		Object result = accessor.getValue(bean);
+
+		// THEN
+		assertThat(result).isEqualTo("value");
+	}
+
+	@Test
+	public void onUnrelatedBeanShouldFallbackToPropertyUtils() {
+		// GIVEN
+		PropertyAccessor accessor = PropertyAccessor.create(Bean.class, "property");
+
+		// WHEN
+		Object result = accessor.getValue(new GetterTest());
+
+		// THEN
+		assertThat(result).isEqualTo("valueProperty");
+	}
+
+	@Test
+	public void onSetterSetShouldConvertList() {
+		// GIVEN
+		PropertyAccessor accessor = PropertyAccessor.create(SetterSetTest.class, "property");
+		SetterSetTest bean = new SetterSetTest();
+
+		// WHEN
+		accessor.setValue(bean, Arrays.asList("a", "b"));
+
+		// THEN
+		assertThat(bean.getProperty()).isEqualTo(new LinkedHashSet<>(Arrays.asList("a", "b")));
+	}
+
+	@Test
+	public void onFieldSetShouldConvertList() {
+		// GIVEN
+		PropertyAccessor accessor = PropertyAccessor.create(FieldSetTest.class, "property");
+		FieldSetTest bean = new FieldSetTest();
+
+		// WHEN
+		accessor.setValue(bean, Arrays.asList("a", "b"));
+
+		// THEN
+		assertThat(bean.property).containsOnly("a", "b");
+	}
+
+	@Test
+	public void onThrowingUncheckedExceptionGetterShouldRethrowException() {
+		// GIVEN
+		PropertyAccessor accessor = PropertyAccessor.create(Bean.class, "uncheckedExceptionalField");
+
+		// THEN
+		expectedException.expect(IllegalStateException.class);
+
+		// WHEN
+		accessor.getValue(new Bean());
+	}
+
+	@Test
+	public void onThrowingCheckedExceptionSetterShouldThrowPropertyException() {
+		// GIVEN
+		PropertyAccessor accessor = PropertyAccessor.create(Bean.class, "checkedExceptionalField");
+
+		// THEN
+		expectedException.expect(PropertyException.class);
+
+		// WHEN
+		accessor.setValue(new Bean(), "value");
+	}
+
+	@Test
+	public void onUnknownPropertyShouldThrowPropertyException() {
+		// GIVEN
+		PropertyAccessor accessor = PropertyAccessor.create(Bean.class, "attrThatDoesNotExist");
+
+		// THEN
+		expectedException.expect(PropertyException.class);
+
+		// WHEN
+		accessor.getValue(new Bean());
+	}
+
+	@Test
+	public void onResourceFieldWithoutAccessorShouldFallBackToReflection() {
+		// GIVEN
+		ResourceField field = new ResourceFieldWithoutAccessor("privatePropertyWithMutators");
+		ResourceFieldAccessor accessor = field.getAccessor();
+		Bean bean = new Bean();
+
+		// WHEN
+		accessor.setValue(bean, "value");
+
+		// THEN
+		assertThat(bean.getPrivatePropertyWithMutators()).isEqualTo("value");
+		assertThat(accessor.getValue(bean)).isEqualTo("value");
+	}
+
+	/**
+	 * Implementation predating {@link ResourceField#getAccessor()}.
+	 */
+	private static class ResourceFieldWithoutAccessor implements ResourceField {
+
+		private final String underlyingName;
+
+		ResourceFieldWithoutAccessor(String underlyingName) {
+			this.underlyingName = underlyingName;
+		}
+
+		@Override
+		public ResourceFieldType getResourceFieldType() {
+			return null;
+		}
+
+		@Override
+		public LookupIncludeBehavior getLookupIncludeAutomatically() {
+			return null;
+		}
+
+		@Override
+		public String getOppositeName() {
+			return null;
+		}
+
+		@Override
+		public String getJsonName() {
+			return underlyingName;
+		}
+
+		@Override
+		public String getUnderlyingName() {
+			return underlyingName;
+		}
+
+		@Override
+		public String getOppositeResourceType() {
+			return null;
+		}
+
+		@Override
+		public Class<?> getType() {
+			return null;
+		}
+
+		@Override
+		public Type getGenericType() {
+			return null;
+		}
+
+		@Override
+		public boolean isLazy() {
+			return false;
+		}
+
+		@Override
+		public boolean getIncludeByDefault() {
+			return false;
+		}
+
+		@Override
+		public Class<?> getElementType() {
+			return null;
+		}
+
+		@Override
+		public ResourceInformation getParentResourceInformation() {
+			return null;
+		}
+
+		@Override
+		public void setResourceInformation(ResourceInformation resourceInformation) {
+			// not bound
+		}
+
+		@Override
+		public boolean isCollection() {
+			return false;
+		}
+	}
+}
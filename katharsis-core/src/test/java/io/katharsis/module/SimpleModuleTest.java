@@ -20,6 +20,8 @@ import io.katharsis.core.internal.registry.ResourceRegistryImpl;
 import io.katharsis.errorhandling.mapper.ExceptionMapper;
 import io.katharsis.errorhandling.mapper.JsonApiExceptionMapper;
 import io.katharsis.module.Module.ModuleContext;
+import io.katharsis.repository.cache.InMemoryRelationshipLookupCache;
+import io.katharsis.repository.cache.RelationshipLookupCache;
 import io.katharsis.repository.decorate.RepositoryDecoratorFactory;
 import io.katharsis.repository.filter.DocumentFilter;
 import io.katharsis.repository.filter.RepositoryFilter;
@@ -113,6 +115,17 @@ public class SimpleModuleTest {
 		Assert.assertEquals(0, context.numRepositories);
 	}
 
+	@Test
+	public void testRelationshipLookupCache() {
+		module.addRelationshipLookupCache(new InMemoryRelationshipLookupCache(10, 0));
+		Assert.assertEquals(1, module.getRelationshipLookupCaches().size());
+		module.setupModule(context);
+
+		Assert.assertEquals(1, context.numRelationshipLookupCaches);
+		Assert.assertEquals(0, context.numDecorators);
+		Assert.assertEquals(0, context.numRepositories);
+	}
+
 	@Test
 	public void testJacksonModule() {
 		module.addJacksonModule(new com.fasterxml.jackson.databind.module.SimpleModule() {
@@ -208,6 +221,8 @@ public class SimpleModuleTest {
 
 		private int numDecorators = 0;
 
+		private int numRelationshipLookupCaches = 0;
+
 		@Override
 		public void addResourceInformationBuilder(ResourceInformationBuilder resourceInformationBuilder) {
 			numResourceInformationBuilds++;
@@ -288,6 +303,11 @@ public class SimpleModuleTest {
 			numDecorators++;
 		}
 
+		@Override
+		public void addRelationshipLookupCache(RelationshipLookupCache relationshipLookupCache) {
+			numRelationshipLookupCaches++;
+		}
+
 		@Override
 		public boolean isServer() {
 			return true;
@@ -2,7 +2,9 @@ package io.katharsis.queryspec;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.LinkedList;
 import java.util.List;
+import java.util.Random;
 
 import org.junit.Assert;
 import org.junit.Before;
@@ -231,4 +233,98 @@ public class InMemoryEvaluatorTest {
 		List<Task> results = spec.apply(tasks);
 		Assert.assertEquals(4, results.size());
 	}
+
+	@Test
+	public void testTopKMatchesFullSort() {
+		List<Task> randomTasks = newRandomTasks(1000);
+		QuerySpec sortSpec = new QuerySpec(Task.class);
+		sortSpec.addFilter(new FilterSpec(Arrays.asList("id"), FilterOperator.GE, 100L));
+		sortSpec.addSort(new SortSpec(Arrays.asList("name"), Direction.DESC));
+		List<Task> sorted = sortSpec.apply(randomTasks);
+		Assert.assertEquals(900, sorted.size());
+
+		for (long[] page : new long[][] { { 0, 10 }, { 20, 20 }, { 890, 50 }, { 950, 10 }, { 0, 0 } }) {
+			QuerySpec pageSpec = sortSpec.duplicate();
+			pageSpec.setOffset(page[0]);
+			pageSpec.setLimit(page[1]);
+			ResourceList<Task> results = pageSpec.apply(randomTasks);
+			int from = (int) Math.min(page[0], sorted.size());
+			int to = (int) Math.min(page[0] + page[1], sorted.size());
+			Assert.assertEquals(sorted.subList(from, to), results);
+			Assert.assertEquals(900L, results.getMeta(PagedMetaInformation.class).getTotalResourceCount().longValue());
+		}
+	}
+
+	@Test
+	public void testParallelMatchesSequential() {
+		List<Task> randomTasks = newRandomTasks(1000);
+		QuerySpec spec = new QuerySpec(Task.class);
+		spec.addFilter(FilterSpec.or(new FilterSpec(Arrays.asList("id"), FilterOperator.LT, 100L),
+				new FilterSpec(Arrays.asList("name"), FilterOperator.LIKE, "task1%")));
+		spec.addSort(new SortSpec(Arrays.asList("name"), Direction.ASC));
+		spec.setOffset(10L);
+		spec.setLimit(50L);
+
+		InMemoryEvaluator evaluator = new InMemoryEvaluator();
+		evaluator.setParallelThreshold(100);
+		InMemoryEvaluationPlan plan = evaluator.compile(spec);
+		ResourceList<Task> results = newResultList();
+		plan.eval(randomTasks, results);
+
+		ResourceList<Task> expected = spec.apply(randomTasks);
+		Assert.assertEquals(expected, results);
+		Assert.assertEquals(expected.getMeta(PagedMetaInformation.class).getTotalResourceCount(),
+				results.getMeta(PagedMetaInformation.class).getTotalResourceCount());
+
+		// plans can be reused
+		ResourceList<Task> results2 = newResultList();
+		plan.eval(randomTasks, results2);
+		Assert.assertEquals(expected, results2);
+
+		// lists without indexed access
+		ResourceList<Task> results3 = newResultList();
+		plan.eval(new LinkedList<>(randomTasks), results3);
+		Assert.assertEquals(expected, results3);
+	}
+
+	@Test
+	public void testSortIsStable() {
+		QuerySpec spec = new QuerySpec(Task.class);
+		spec.addSort(new SortSpec(Arrays.asList("category"), Direction.DESC));
+		spec.setLimit(3L);
+		List<Task> results = spec.apply(tasks);
+		Assert.assertEquals(Arrays.asList(tasks.get(0), tasks.get(1), tasks.get(2)), results);
+	}
+
+	@Test
+	public void testMatches() {
+		Assert.assertTrue(InMemoryEvaluator.matches(tasks.get(1), new FilterSpec(Arrays.asList("projects", "id"), FilterOperator.EQ, 14L)));
+		Assert.assertFalse(InMemoryEvaluator.matches(tasks.get(1), new FilterSpec(Arrays.asList("projects", "id"), FilterOperator.EQ, 13L)));
+	}
+
+	@Test
+	public void testPlanMatches() {
+		QuerySpec spec = new QuerySpec(Task.class);
+		spec.addFilter(new FilterSpec(Arrays.asList("projects", "id"), FilterOperator.EQ, 14L));
+		InMemoryEvaluationPlan plan = new InMemoryEvaluator().compile(spec);
+		Assert.assertTrue(plan.matches(tasks.get(0)));
+		Assert.assertTrue(plan.matches(tasks.get(1)));
+		Assert.assertFalse(plan.matches(tasks.get(2)));
+	}
+
+	private static ResourceList<Task> newResultList() {
+		return new QuerySpec(Task.class).apply(new ArrayList<Task>());
+	}
+
+	private static List<Task> newRandomTasks(int size) {
+		Random random = new Random(0);
+		List<Task> randomTasks = new ArrayList<>();
+		for (long i = 0; i < size; i++) {
+			Task task = new Task();
+			task.setId(i);
+			task.setName("task" + random.nextInt(size / 4));
+			randomTasks.add(task);
+		}
+		return randomTasks;
+	}
 }
@@ -291,6 +291,22 @@ public class DefaultQuerySpecDeserializerTest extends AbstractQuerySpecTest {
 		Assert.assertEquals(expectedSpec, actualSpec);
 	}
 
+	@Test
+	public void testKeysetPaging() throws InstantiationException, IllegalAccessException {
+		QuerySpec expectedSpec = new QuerySpec(Task.class);
+		expectedSpec.setLimit(2L);
+		expectedSpec.setPageAfter("abc");
+		expectedSpec.setPageBefore("def");
+
+		Map<String, Set<String>> params = new HashMap<>();
+		add(params, "page[after]", "abc");
+		add(params, "page[before]", "def");
+		add(params, "page[limit]", "2");
+
+		QuerySpec actualSpec = deserializer.deserialize(taskInformation, params);
+		Assert.assertEquals(expectedSpec, actualSpec);
+	}
+
 	@Test(expected = ParametersDeserializationException.class)
 	public void testPagingError() throws InstantiationException, IllegalAccessException {
 		QuerySpec expectedSpec = new QuerySpec(Task.class);
@@ -6,10 +6,14 @@ import static org.mockito.Mockito.verify;
 
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 
 import org.junit.Before;
 import org.junit.Test;
 
+import io.katharsis.core.internal.repository.adapter.PendingJsonApiResponse;
+import io.katharsis.core.internal.repository.adapter.ResourceRepositoryAdapter;
 import io.katharsis.errorhandling.exception.RepositoryAnnotationNotFoundException;
 import io.katharsis.errorhandling.exception.RepositoryMethodException;
 import io.katharsis.legacy.internal.AnnotatedRepositoryAdapter;
@@ -17,11 +21,13 @@ import io.katharsis.legacy.internal.AnnotatedResourceRepositoryAdapter;
 import io.katharsis.legacy.internal.ParametersFactory;
 import io.katharsis.legacy.internal.QueryParamsAdapter;
 import io.katharsis.legacy.queryParams.QueryParams;
+import io.katharsis.legacy.repository.annotations.JsonApiFindOne;
 import io.katharsis.legacy.repository.annotations.JsonApiLinks;
 import io.katharsis.legacy.repository.annotations.JsonApiMeta;
 import io.katharsis.legacy.repository.annotations.JsonApiResourceRepository;
 import io.katharsis.module.ModuleRegistry;
 import io.katharsis.repository.mock.NewInstanceRepositoryMethodParameterProvider;
+import io.katharsis.repository.response.JsonApiResponse;
 import io.katharsis.resource.links.LinksInformation;
 import io.katharsis.resource.meta.MetaInformation;
 import io.katharsis.resource.mock.models.Project;
@@ -160,10 +166,63 @@ public class RepositoryAdapterTest {
         verify(repo).getMetaInformation(resources, queryParams, "");
     }
 
+    @Test
+    public void onCompletionStageResultShouldAwaitResource() throws Exception {
+        // GIVEN
+        ResourceRepositoryWithAsyncFindOne repo = new ResourceRepositoryWithAsyncFindOne();
+        AnnotatedResourceRepositoryAdapter<Project, Long> annotatedAdapter = new AnnotatedResourceRepositoryAdapter<>(repo, parameterFactory);
+        ResourceRepositoryAdapter<Project, Long> sut = new ResourceRepositoryAdapter<>(null, moduleRegistry, annotatedAdapter);
+
+        // WHEN
+        JsonApiResponse response = sut.findOne(1L, queryAdapter);
+
+        // THEN
+        assertThat(response.getEntity()).isInstanceOf(Project.class);
+        assertThat(((Project) response.getEntity()).getId()).isEqualTo(1L);
+    }
+
+    @Test
+    public void onIncompleteCompletionStageResultShouldComposeResponse() throws Exception {
+        // GIVEN
+        ResourceRepositoryWithPendingFindOne repo = new ResourceRepositoryWithPendingFindOne();
+        AnnotatedResourceRepositoryAdapter<Project, Long> annotatedAdapter = new AnnotatedResourceRepositoryAdapter<>(repo, parameterFactory);
+        ResourceRepositoryAdapter<Project, Long> sut = new ResourceRepositoryAdapter<>(null, moduleRegistry, annotatedAdapter);
+
+        // WHEN
+        JsonApiResponse response = sut.findOne(1L, queryAdapter);
+
+        // THEN
+        assertThat(response).isInstanceOf(PendingJsonApiResponse.class);
+        CompletableFuture<JsonApiResponse> stage = ((PendingJsonApiResponse) response).getStage().toCompletableFuture();
+        assertThat(stage.isDone()).isFalse();
+        repo.future.complete(new Project().setId(1L));
+        assertThat(((Project) stage.get().getEntity()).getId()).isEqualTo(1L);
+    }
+
     @JsonApiResourceRepository(Project.class)
     public static class ResourceRepositoryWithoutAnyMethods {
     }
 
+    @JsonApiResourceRepository(Project.class)
+    public static class ResourceRepositoryWithAsyncFindOne {
+
+        @JsonApiFindOne
+        public CompletionStage<Project> findOne(Long id, QueryParams queryParams) {
+            return CompletableFuture.supplyAsync(() -> new Project().setId(id));
+        }
+    }
+
+    @JsonApiResourceRepository(Project.class)
+    public static class ResourceRepositoryWithPendingFindOne {
+
+        private CompletableFuture<Project> future = new CompletableFuture<>();
+
+        @JsonApiFindOne
+        public CompletionStage<Project> findOne(Long id, QueryParams queryParams) {
+            return future;
+        }
+    }
+
     @JsonApiResourceRepository(Project.class)
     public static class ResourceRepositoryWithEmptyGetLinksInformation {
 
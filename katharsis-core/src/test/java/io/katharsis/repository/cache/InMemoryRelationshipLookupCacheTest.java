@@ -0,0 +1,117 @@
+package io.katharsis.repository.cache;
+
+import java.util.Arrays;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import io.katharsis.queryspec.QuerySpec;
+import io.katharsis.resource.mock.models.Task;
+
+public class InMemoryRelationshipLookupCacheTest {
+
+	private long now;
+
+	private InMemoryRelationshipLookupCache cache;
+
+	@Before
+	public void setup() {
+		now = 1000L;
+		cache = new InMemoryRelationshipLookupCache(2, 100L) {
+
+			@Override
+			protected long currentTimeMillis() {
+				return now;
+			}
+		};
+	}
+
+	@Test
+	public void testHitAndMiss() {
+		RelationshipLookupKey key = newKey("users", 1L, "assignedTasks");
+		Assert.assertFalse(cache.get(key).isPresent());
+		cache.put(key, "task");
+		Assert.assertEquals("task", cache.get(key).get());
+		Assert.assertEquals(1L, cache.getHitCount());
+		Assert.assertEquals(1L, cache.getMissCount());
+	}
+
+	@Test
+	public void testNullTargetsCached() {
+		RelationshipLookupKey key = newKey("users", 1L, "assignedTasks");
+		cache.put(key, null);
+		Assert.assertTrue(cache.get(key).isPresent());
+		Assert.assertNull(cache.get(key).get());
+	}
+
+	@Test
+	public void testKeyNormalizesQuerySpec() {
+		QuerySpec querySpec = new QuerySpec(Task.class);
+		RelationshipLookupKey key = new RelationshipLookupKey("users", 1L, "assignedTasks", "tasks", querySpec);
+		cache.put(key, "task");
+
+		// later modifications of the spec must not affect the key
+		querySpec.setLimit(10L);
+		Assert.assertEquals("task", cache.get(newKey("users", 1L, "assignedTasks")).get());
+		Assert.assertFalse(cache.get(new RelationshipLookupKey("users", 1L, "assignedTasks", "tasks", querySpec)).isPresent());
+	}
+
+	@Test
+	public void testLeastRecentlyUsedEvicted() {
+		RelationshipLookupKey key1 = newKey("users", 1L, "assignedTasks");
+		RelationshipLookupKey key2 = newKey("users", 2L, "assignedTasks");
+		RelationshipLookupKey key3 = newKey("users", 3L, "assignedTasks");
+		cache.put(key1, "task1");
+		cache.put(key2, "task2");
+		cache.get(key1);
+		cache.put(key3, "task3");
+
+		Assert.assertEquals(2, cache.size());
+		Assert.assertTrue(cache.get(key1).isPresent());
+		Assert.assertFalse(cache.get(key2).isPresent());
+		Assert.assertTrue(cache.get(key3).isPresent());
+	}
+
+	@Test
+	public void testExpiration() {
+		RelationshipLookupKey key = newKey("users", 1L, "assignedTasks");
+		cache.put(key, "task");
+		now += 99L;
+		Assert.assertTrue(cache.get(key).isPresent());
+		now += 1L;
+		Assert.assertFalse(cache.get(key).isPresent());
+		Assert.assertEquals(0, cache.size());
+	}
+
+	@Test
+	public void testInvalidateSource() {
+		RelationshipLookupKey key1 = newKey("users", 1L, "assignedTasks");
+		RelationshipLookupKey key2 = newKey("users", 2L, "assignedTasks");
+		cache.put(key1, Arrays.asList("task1"));
+		cache.put(key2, Arrays.asList("task2"));
+
+		cache.invalidate("users", 1L);
+		Assert.assertFalse(cache.get(key1).isPresent());
+		Assert.assertTrue(cache.get(key2).isPresent());
+	}
+
+	@Test
+	public void testInvalidateType() {
+		RelationshipLookupKey key1 = newKey("users", 1L, "assignedTasks");
+		RelationshipLookupKey key2 = new RelationshipLookupKey("projects", 2L, "tasks", "tasks", null);
+		cache.put(key1, "task1");
+		cache.put(key2, "task2");
+
+		cache.invalidate("tasks");
+		Assert.assertEquals(0, cache.size());
+
+		cache.put(key1, "task1");
+		cache.clear();
+		Assert.assertEquals(0, cache.size());
+	}
+
+	private static RelationshipLookupKey newKey(String sourceType, Long sourceId, String fieldName) {
+		return new RelationshipLookupKey(sourceType, sourceId, fieldName, "tasks", new QuerySpec(Task.class));
+	}
+}
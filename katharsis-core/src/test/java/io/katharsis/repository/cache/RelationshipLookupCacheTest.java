@@ -0,0 +1,194 @@
+package io.katharsis.repository.cache;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.katharsis.core.internal.query.QuerySpecAdapter;
+import io.katharsis.core.internal.repository.adapter.RelationshipRepositoryAdapter;
+import io.katharsis.core.internal.repository.adapter.ResourceRepositoryAdapter;
+import io.katharsis.core.internal.resource.AnnotationResourceInformationBuilder;
+import io.katharsis.legacy.locator.SampleJsonServiceLocator;
+import io.katharsis.legacy.registry.ResourceRegistryBuilder;
+import io.katharsis.module.ModuleRegistry;
+import io.katharsis.module.SimpleModule;
+import io.katharsis.queryspec.FilterOperator;
+import io.katharsis.queryspec.FilterSpec;
+import io.katharsis.queryspec.QuerySpec;
+import io.katharsis.repository.CacheableRelationshipRepositoryV2;
+import io.katharsis.repository.response.JsonApiResponse;
+import io.katharsis.resource.information.ResourceField;
+import io.katharsis.resource.information.ResourceFieldNameTransformer;
+import io.katharsis.resource.information.ResourceInformationBuilder;
+import io.katharsis.resource.mock.models.Task;
+import io.katharsis.resource.mock.models.User;
+import io.katharsis.resource.mock.repository.UserRepository;
+import io.katharsis.resource.mock.repository.UserToTaskRepository;
+import io.katharsis.resource.registry.ConstantServiceUrlProvider;
+import io.katharsis.resource.registry.RegistryEntry;
+import io.katharsis.resource.registry.ResourceRegistry;
+import io.katharsis.resource.registry.ResourceRegistryBuilderTest;
+import io.katharsis.resource.registry.ResourceRegistryTest;
+
+public class RelationshipLookupCacheTest {
+
+	private InMemoryRelationshipLookupCache cache = new InMemoryRelationshipLookupCache(100, 0);
+
+	private ModuleRegistry moduleRegistry = new ModuleRegistry();
+
+	private QuerySpecAdapter queryAdapter;
+
+	private ResourceRepositoryAdapter<User, Serializable> resourceAdapter;
+
+	private RelationshipRepositoryAdapter<User, Long, Task, Long> registeredRelationAdapter;
+
+	private RelationshipRepositoryAdapter<User, Long, Task, Long> taskRelationAdapter;
+
+	private ResourceField assignedTasksField;
+
+	private User user1;
+
+	@Before
+	@After
+	public void cleanup() {
+		UserRepository.clear();
+		UserToTaskRepository.clear();
+	}
+
+	@Before
+	public void prepare() {
+		ResourceInformationBuilder resourceInformationBuilder = new AnnotationResourceInformationBuilder(new ResourceFieldNameTransformer());
+		ResourceRegistryBuilder registryBuilder = new ResourceRegistryBuilder(moduleRegistry, new SampleJsonServiceLocator(), resourceInformationBuilder);
+		ResourceRegistry resourceRegistry = registryBuilder.build(ResourceRegistryBuilderTest.TEST_MODELS_PACKAGE, moduleRegistry, new ConstantServiceUrlProvider(ResourceRegistryTest.TEST_MODELS_URL));
+
+		SimpleModule cacheModule = new SimpleModule("cache");
+		cacheModule.addRelationshipLookupCache(cache);
+		moduleRegistry.addModule(cacheModule);
+		moduleRegistry.init(new ObjectMapper());
+		Assert.assertSame(cache, moduleRegistry.getRelationshipLookupCache());
+
+		queryAdapter = new QuerySpecAdapter(new QuerySpec(User.class), resourceRegistry);
+
+		RegistryEntry userEntry = resourceRegistry.findEntry(User.class);
+		resourceAdapter = userEntry.getResourceRepository(null);
+		registeredRelationAdapter = userEntry.getRelationshipRepositoryForClass(Task.class, null);
+		taskRelationAdapter = new RelationshipRepositoryAdapter<>(userEntry.getResourceInformation(), moduleRegistry, new CacheableUserToTaskRepository());
+		assignedTasksField = userEntry.getResourceInformation().findRelationshipFieldByName("assignedTasks");
+
+		UserRepository resourceRepository = (UserRepository) resourceAdapter.getResourceRepository();
+		user1 = new User();
+		user1.setId(1L);
+		resourceRepository.save(user1);
+		User user2 = new User();
+		user2.setId(2L);
+		resourceRepository.save(user2);
+
+		UserToTaskRepository userTaskRepository = (UserToTaskRepository) registeredRelationAdapter.getRelationshipRepository();
+		userTaskRepository.addRelations(user1, Arrays.asList(21L), "assignedTasks");
+		userTaskRepository.addRelations(user2, Arrays.asList(22L), "assignedTasks");
+	}
+
+	@Test
+	public void testRepeatedLookupServedFromCache() {
+		Assert.assertEquals(1, getTaskIds(taskRelationAdapter.findManyTargets(1L, assignedTasksField, queryAdapter)).size());
+		Assert.assertEquals(0L, cache.getHitCount());
+		Assert.assertEquals(1L, cache.getMissCount());
+
+		Assert.assertEquals(1, getTaskIds(taskRelationAdapter.findManyTargets(1L, assignedTasksField, queryAdapter)).size());
+		Assert.assertEquals(1L, cache.getHitCount());
+		Assert.assertEquals(1L, cache.getMissCount());
+	}
+
+	@Test
+	public void testCacheHitsDoNotShareLists() {
+		Object missTargets = taskRelationAdapter.findManyTargets(1L, assignedTasksField, queryAdapter).getEntity();
+		Object hitTargets1 = taskRelationAdapter.findManyTargets(1L, assignedTasksField, queryAdapter).getEntity();
+		Object hitTargets2 = taskRelationAdapter.findManyTargets(1L, assignedTasksField, queryAdapter).getEntity();
+		Assert.assertEquals(2L, cache.getHitCount());
+		Assert.assertNotSame(missTargets, hitTargets1);
+		Assert.assertNotSame(hitTargets1, hitTargets2);
+
+		((List<?>) hitTargets1).clear();
+		Assert.assertEquals(Arrays.asList(21L), getTaskIds(taskRelationAdapter.findManyTargets(1L, assignedTasksField, queryAdapter)));
+	}
+
+	@Test
+	public void testNonCacheableRepositoryBypassesCache() {
+		registeredRelationAdapter.findManyTargets(1L, assignedTasksField, queryAdapter);
+		registeredRelationAdapter.findManyTargets(1L, assignedTasksField, queryAdapter);
+		Assert.assertEquals(0L, cache.getHitCount());
+		Assert.assertEquals(0L, cache.getMissCount());
+		Assert.assertEquals(0, cache.size());
+	}
+
+	@Test
+	public void testEquivalentQueriesShareEntry() {
+		QuerySpec querySpec1 = new QuerySpec(Task.class);
+		querySpec1.addFilter(new FilterSpec(Arrays.asList("name"), FilterOperator.EQ, "a"));
+		querySpec1.addFilter(new FilterSpec(Arrays.asList("id"), FilterOperator.GT, 1L));
+		QuerySpec querySpec2 = new QuerySpec(Task.class);
+		querySpec2.addFilter(new FilterSpec(Arrays.asList("id"), FilterOperator.GT, 1L));
+		querySpec2.addFilter(new FilterSpec(Arrays.asList("name"), FilterOperator.EQ, "a"));
+
+		Assert.assertEquals(new RelationshipLookupKey("users", 1L, "assignedTasks", "tasks", querySpec1),
+				new RelationshipLookupKey("users", 1L, "assignedTasks", "tasks", querySpec2));
+		Assert.assertEquals(2, querySpec1.getFilters().size());
+		Assert.assertEquals("name", querySpec1.getFilters().get(0).getAttributePath().get(0));
+	}
+
+	@Test
+	public void testBulkLookupOnlyFetchesUncachedSources() {
+		taskRelationAdapter.findManyTargets(1L, assignedTasksField, queryAdapter);
+
+		Map<Long, JsonApiResponse> responses = taskRelationAdapter.findBulkManyTargets(Arrays.asList(1L, 2L), assignedTasksField, queryAdapter);
+		Assert.assertEquals(Arrays.asList(21L), getTaskIds(responses.get(1L)));
+		Assert.assertEquals(Arrays.asList(22L), getTaskIds(responses.get(2L)));
+		Assert.assertEquals(1L, cache.getHitCount());
+		Assert.assertEquals(2L, cache.getMissCount());
+
+		taskRelationAdapter.findBulkManyTargets(Arrays.asList(1L, 2L), assignedTasksField, queryAdapter);
+		Assert.assertEquals(3L, cache.getHitCount());
+	}
+
+	@Test
+	public void testRelationshipModificationInvalidates() {
+		taskRelationAdapter.findManyTargets(1L, assignedTasksField, queryAdapter);
+		taskRelationAdapter.addRelations(user1, Arrays.asList(23L), assignedTasksField, queryAdapter);
+
+		List<Long> taskIds = getTaskIds(taskRelationAdapter.findManyTargets(1L, assignedTasksField, queryAdapter));
+		Assert.assertEquals(2, taskIds.size());
+		Assert.assertEquals(0L, cache.getHitCount());
+	}
+
+	@Test
+	public void testResourceModificationInvalidates() {
+		taskRelationAdapter.findManyTargets(1L, assignedTasksField, queryAdapter);
+		Assert.assertEquals(1, cache.size());
+
+		resourceAdapter.update(user1, queryAdapter);
+		Assert.assertEquals(0, cache.size());
+	}
+
+	@SuppressWarnings("unchecked")
+	private static List<Long> getTaskIds(JsonApiResponse response) {
+		List<Long> ids = new ArrayList<>();
+		for (Task task : (Iterable<Task>) response.getEntity()) {
+			ids.add(task.getId());
+		}
+		Collections.sort(ids);
+		return ids;
+	}
+
+	public static class CacheableUserToTaskRepository extends UserToTaskRepository implements CacheableRelationshipRepositoryV2<User, Long, Task, Long> {
+	}
+}
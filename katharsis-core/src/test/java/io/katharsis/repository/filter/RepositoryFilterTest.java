@@ -3,6 +3,8 @@ package io.katharsis.repository.filter;
 import java.io.Serializable;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
+import java.util.stream.Stream;
 
 import org.junit.After;
 import org.junit.Assert;
@@ -23,8 +25,10 @@ import io.katharsis.legacy.registry.ResourceRegistryBuilder;
 import io.katharsis.module.ModuleRegistry;
 import io.katharsis.module.SimpleModule;
 import io.katharsis.queryspec.QuerySpec;
+import io.katharsis.repository.StreamingResourceRepositoryV2;
 import io.katharsis.repository.request.HttpMethod;
 import io.katharsis.repository.request.RepositoryRequestSpec;
+import io.katharsis.repository.response.JsonApiResponse;
 import io.katharsis.resource.information.ResourceField;
 import io.katharsis.resource.information.ResourceFieldNameTransformer;
 import io.katharsis.resource.information.ResourceInformation;
@@ -152,6 +156,33 @@ public class RepositoryFilterTest {
 		Assert.assertSame(querySpec, actualQuerySpec);
 	}
 
+	@SuppressWarnings({ "rawtypes", "unchecked" })
+	@Test
+	public void findAllWithStreamedResources() throws Exception {
+		Schedule schedule1 = new Schedule();
+		schedule1.setId(1L);
+		Schedule schedule2 = new Schedule();
+		schedule2.setId(2L);
+		StreamingResourceRepositoryV2<Schedule, Long> repository = Mockito.mock(StreamingResourceRepositoryV2.class);
+		Mockito.when(repository.findAllStream(Mockito.any(QuerySpec.class))).thenReturn(Stream.of(schedule1, schedule2));
+
+		ResourceRepositoryAdapter<Schedule, Long> scheduleResourceAdapter = new ResourceRepositoryAdapter<>(scheduleInfo, moduleRegistry, repository);
+		querySpec = new QuerySpec(Schedule.class);
+		JsonApiResponse response = scheduleResourceAdapter.findAll(new QuerySpecAdapter(querySpec, resourceRegistry));
+
+		ArgumentCaptor<Iterable> linksResources = ArgumentCaptor.forClass(Iterable.class);
+		ArgumentCaptor<Iterable> metaResources = ArgumentCaptor.forClass(Iterable.class);
+		Mockito.verify(filter, Mockito.times(1)).filterResult(Mockito.any(RepositoryFilterContext.class), Mockito.any(RepositoryResultFilterChain.class));
+		Mockito.verify(filter, Mockito.times(1)).filterLinks(Mockito.any(RepositoryFilterContext.class), linksResources.capture(), Mockito.any(RepositoryLinksFilterChain.class));
+		Mockito.verify(filter, Mockito.times(1)).filterMeta(Mockito.any(RepositoryFilterContext.class), metaResources.capture(), Mockito.any(RepositoryMetaFilterChain.class));
+
+		// streams can be iterated only once, results, links and meta must all see every resource
+		List<Schedule> expected = Arrays.asList(schedule1, schedule2);
+		Assert.assertEquals(expected, response.getEntity());
+		Assert.assertEquals(expected, linksResources.getValue());
+		Assert.assertEquals(expected, metaResources.getValue());
+	}
+
 	@SuppressWarnings({ "rawtypes", "unchecked" })
 	@Test
 	public void findAllWithResourceList() throws Exception {
@@ -0,0 +1,149 @@
+package io.katharsis.resource.internal;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import io.katharsis.core.internal.boot.PropertiesProvider;
+import io.katharsis.core.internal.resource.IncludeLookupScheduler;
+import io.katharsis.core.properties.KatharsisProperties;
+
+public class IncludeLookupSchedulerTest {
+
+	private ExecutorService executor;
+
+	@Before
+	public void setup() {
+		executor = Executors.newFixedThreadPool(8);
+	}
+
+	@After
+	public void tearDown() throws InterruptedException {
+		executor.shutdown();
+		executor.awaitTermination(10, TimeUnit.SECONDS);
+	}
+
+	@Test
+	public void testParallelismFromProperties() {
+		Assert.assertEquals(IncludeLookupScheduler.DEFAULT_PARALLELISM, IncludeLookupScheduler.getParallelism(null));
+		Assert.assertEquals(4, IncludeLookupScheduler.getParallelism(new PropertiesProvider() {
+
+			@Override
+			public String getProperty(String key) {
+				return key.equals(KatharsisProperties.INCLUDE_PARALLELISM) ? "4" : null;
+			}
+		}));
+	}
+
+	@Test
+	public void testDefaultExecutorIsDedicatedAndBounded() {
+		IncludeLookupScheduler scheduler = new IncludeLookupScheduler(4);
+		Executor defaultExecutor = scheduler.getExecutor();
+		Assert.assertTrue(defaultExecutor instanceof ThreadPoolExecutor);
+		Assert.assertEquals(IncludeLookupScheduler.DEFAULT_EXECUTOR_THREADS, ((ThreadPoolExecutor) defaultExecutor).getMaximumPoolSize());
+		Assert.assertSame(defaultExecutor, scheduler.getExecutor());
+
+		List<Thread> threads = scheduler.startRequest().invokeAll(Arrays.asList(currentThread(), currentThread()));
+		Assert.assertTrue(threads.get(0).getName().startsWith("katharsis-include-"));
+		Assert.assertSame(Thread.currentThread(), threads.get(1));
+	}
+
+	@Test
+	public void testSequentialRunsOnCallingThread() {
+		IncludeLookupScheduler scheduler = new IncludeLookupScheduler(1);
+		scheduler.setExecutor(executor);
+		Assert.assertFalse(scheduler.isConcurrent());
+
+		List<Thread> threads = scheduler.startRequest().invokeAll(Arrays.asList(currentThread(), currentThread(), currentThread()));
+		Assert.assertEquals(Arrays.asList(Thread.currentThread(), Thread.currentThread(), Thread.currentThread()), threads);
+	}
+
+	@Test
+	public void testResultsInSubmissionOrder() {
+		IncludeLookupScheduler scheduler = new IncludeLookupScheduler(4);
+		scheduler.setExecutor(executor);
+
+		List<Callable<Integer>> lookups = new ArrayList<>();
+		for (int i = 0; i < 10; i++) {
+			final int value = i;
+			lookups.add(new Callable<Integer>() {
+
+				@Override
+				public Integer call() throws Exception {
+					Thread.sleep(10 - value);
+					return value;
+				}
+			});
+		}
+		List<Integer> results = scheduler.startRequest().invokeAll(lookups);
+		Assert.assertEquals(Arrays.asList(0, 1, 2, 3, 4, 5, 6, 7, 8, 9), results);
+	}
+
+	@Test
+	public void testConcurrencyLimit() {
+		IncludeLookupScheduler scheduler = new IncludeLookupScheduler(3);
+		scheduler.setExecutor(executor);
+
+		final AtomicInteger running = new AtomicInteger();
+		final AtomicInteger maxRunning = new AtomicInteger();
+		List<Callable<Void>> lookups = new ArrayList<>();
+		for (int i = 0; i < 12; i++) {
+			lookups.add(new Callable<Void>() {
+
+				@Override
+				public Void call() throws Exception {
+					int current = running.incrementAndGet();
+					synchronized (maxRunning) {
+						maxRunning.set(Math.max(maxRunning.get(), current));
+					}
+					Thread.sleep(20);
+					running.decrementAndGet();
+					return null;
+				}
+			});
+		}
+		scheduler.startRequest().invokeAll(lookups);
+		Assert.assertTrue(maxRunning.get() <= 3);
+		Assert.assertTrue(maxRunning.get() >= 2);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testExceptionPropagated() {
+		IncludeLookupScheduler scheduler = new IncludeLookupScheduler(2);
+		scheduler.setExecutor(executor);
+
+		Callable<Void> failingLookup = new Callable<Void>() {
+
+			@Override
+			public Void call() throws Exception {
+				throw new IllegalArgumentException();
+			}
+		};
+		List<Callable<Void>> lookups = new ArrayList<>();
+		lookups.add(failingLookup);
+		lookups.add(failingLookup);
+		scheduler.startRequest().invokeAll(lookups);
+	}
+
+	private static Callable<Thread> currentThread() {
+		return new Callable<Thread>() {
+
+			@Override
+			public Thread call() throws Exception {
+				return Thread.currentThread();
+			}
+		};
+	}
+}
@@ -8,6 +8,8 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -286,4 +288,70 @@ public class IncludeLookupSetterTest extends AbstractDocumentMapperTest {
 		assertEquals("2", resources.get(1).getId());
 
 	}
+
+	@Test
+	public void includeConcurrentRelationLookups() throws Exception {
+		PropertiesProvider propertiesProvider = new PropertiesProvider() {
+
+			@Override
+			public String getProperty(String key) {
+				if (key.equalsIgnoreCase(KatharsisProperties.INCLUDE_PARALLELISM)) {
+					return "4";
+				}
+				return null;
+			}
+		};
+		final List<Runnable> submittedLookups = new CopyOnWriteArrayList<>();
+		mapper = new DocumentMapper(resourceRegistry, objectMapper, propertiesProvider);
+		mapper.setIncludeExecutor(new Executor() {
+
+			@Override
+			public void execute(Runnable command) {
+				submittedLookups.add(command);
+				new Thread(command).start();
+			}
+		});
+
+		QuerySpec querySpec = new QuerySpec(Task.class);
+		querySpec.includeRelation(Arrays.asList("includedProject"));
+		querySpec.includeRelation(Arrays.asList("includedProjects"));
+
+		Task task = new Task();
+		task.setId(1L);
+
+		Document document = mapper.toDocument(toResponse(task), toAdapter(querySpec));
+		assertEquals(1, submittedLookups.size());
+
+		Resource taskResource = document.getSingleData().get();
+		assertNotNull(taskResource.getRelationships().get("includedProject").getSingleData().get());
+		assertEquals(1, taskResource.getRelationships().get("includedProjects").getCollectionData().get().size());
+
+		// same result as with sequential lookups
+		DocumentMapper sequentialMapper = new DocumentMapper(resourceRegistry, objectMapper, null);
+		Document sequentialDocument = sequentialMapper.toDocument(toResponse(task), toAdapter(querySpec));
+		assertEquals(objectMapper.writeValueAsString(sequentialDocument), objectMapper.writeValueAsString(document));
+	}
+
+	@Test
+	public void includeSharedResourcesOnce() throws Exception {
+		QuerySpec querySpec = new QuerySpec(HierarchicalTask.class);
+		querySpec.includeRelation(Arrays.asList("parent"));
+		querySpec.includeRelation(Arrays.asList("children"));
+
+		Document document = mapper.toDocument(toResponse(Arrays.asList(h0, h11)), toAdapter(querySpec));
+
+		// h is reachable as parent of h0 and h1 and must be included once
+		List<Resource> included = document.getIncluded();
+		assertEquals(2, included.size());
+		assertEquals("1", included.get(0).getId());
+		assertEquals("3", included.get(1).getId());
+
+		Resource hResource = included.get(0);
+		List<ResourceIdentifier> children = hResource.getRelationships().get("children").getCollectionData().get();
+		assertEquals(Arrays.asList(new ResourceIdentifier("2", "hierarchicalTask"), new ResourceIdentifier("3", "hierarchicalTask")), children);
+
+		Resource h1Resource = included.get(1);
+		assertEquals("1", h1Resource.getRelationships().get("parent").getSingleData().get().getId());
+		assertEquals(Arrays.asList(new ResourceIdentifier("4", "hierarchicalTask")), h1Resource.getRelationships().get("children").getCollectionData().get());
+	}
 }
@@ -0,0 +1,125 @@
+package io.katharsis.resource.internal;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+import io.katharsis.core.internal.boot.PropertiesProvider;
+import io.katharsis.core.internal.resource.DocumentMapper;
+import io.katharsis.core.internal.resource.RelationshipLinks;
+import io.katharsis.core.properties.KatharsisProperties;
+import io.katharsis.resource.Document;
+import io.katharsis.resource.Relationship;
+import io.katharsis.resource.Resource;
+import io.katharsis.resource.information.ResourceInformation;
+import io.katharsis.resource.mock.models.LazyTask;
+import io.katharsis.resource.mock.models.Project;
+import io.katharsis.resource.mock.models.Task;
+import io.katharsis.resource.registry.ResourceRegistry;
+
+public class RelationshipLinksDocumentMapperTest extends AbstractDocumentMapperTest {
+
+	@Test
+	public void testGetRelationshipLinks() {
+		Assert.assertEquals(RelationshipLinks.ABSOLUTE, DocumentMapper.getRelationshipLinks(null));
+		Assert.assertEquals(RelationshipLinks.ABSOLUTE, DocumentMapper.getRelationshipLinks(createPropertiesProvider("")));
+		Assert.assertEquals(RelationshipLinks.RELATIVE, DocumentMapper.getRelationshipLinks(createPropertiesProvider("relative")));
+		Assert.assertEquals(RelationshipLinks.NONE, DocumentMapper.getRelationshipLinks(createPropertiesProvider("NONE")));
+	}
+
+	@Test
+	public void testRelativeLinks() {
+		DocumentMapper relativeMapper = new DocumentMapper(resourceRegistry, objectMapper, createPropertiesProvider("RELATIVE"));
+
+		Document document = relativeMapper.toDocument(toResponse(createTask(2)), createAdapter());
+		Resource resource = document.getSingleData().get();
+
+		Relationship relationship = resource.getRelationships().get("project");
+		Assert.assertEquals("/tasks/2/relationships/project", relationship.getLinks().get("self").asText());
+		Assert.assertEquals("/tasks/2/project", relationship.getLinks().get("related").asText());
+	}
+
+	@Test
+	public void testOmittedLinks() {
+		DocumentMapper omittingMapper = new DocumentMapper(resourceRegistry, objectMapper, createPropertiesProvider("NONE"));
+
+		Task task = createTask(2);
+		Project project = new Project();
+		project.setId(3L);
+		task.setProject(project);
+
+		Document document = omittingMapper.toDocument(toResponse(task), createAdapter());
+		Resource resource = document.getSingleData().get();
+
+		Relationship relationship = resource.getRelationships().get("project");
+		Assert.assertNull(relationship.getLinks());
+		Assert.assertEquals("3", relationship.getSingleData().get().getId());
+	}
+
+	@Test
+	public void testOmittedLinksRemoveEmptyRelationships() {
+		DocumentMapper omittingMapper = new DocumentMapper(resourceRegistry, objectMapper, createPropertiesProvider("NONE"));
+
+		LazyTask task = new LazyTask();
+		task.setId(2L);
+
+		Document document = omittingMapper.toDocument(toResponse(task), createAdapter());
+		Resource resource = document.getSingleData().get();
+		Assert.assertFalse(resource.getRelationships().containsKey("lazyProject"));
+	}
+
+	@Test
+	public void testRepeatedLinksMatchDefault() {
+		Document document = mapper.toDocument(toResponse(createTask(2)), createAdapter());
+		Document nextDocument = mapper.toDocument(toResponse(createTask(5)), createAdapter());
+
+		Relationship relationship = document.getSingleData().get().getRelationships().get("project");
+		Assert.assertEquals("https://service.local/tasks/2/relationships/project", relationship.getLinks().get("self").asText());
+		Relationship nextRelationship = nextDocument.getSingleData().get().getRelationships().get("project");
+		Assert.assertEquals("https://service.local/tasks/5/project", nextRelationship.getLinks().get("related").asText());
+	}
+
+	@Test
+	public void testLinksUseResourceUrlOfRegistry() {
+		ResourceRegistry customRegistry = Mockito.spy(resourceRegistry);
+		Mockito.doAnswer(new Answer<String>() {
+
+			@Override
+			public String answer(InvocationOnMock invocation) throws Throwable {
+				ResourceInformation resourceInformation = (ResourceInformation) invocation.getArguments()[0];
+				return "https://other.local/api/" + resourceInformation.getResourceType() + "/";
+			}
+		}).when(customRegistry).getResourceUrl(Mockito.any(ResourceInformation.class));
+
+		DocumentMapper customMapper = new DocumentMapper(customRegistry, objectMapper, null);
+		Resource resource = customMapper.toDocument(toResponse(createTask(2)), createAdapter()).getSingleData().get();
+		Relationship relationship = resource.getRelationships().get("project");
+		Assert.assertEquals("https://other.local/api/tasks/2/relationships/project", relationship.getLinks().get("self").asText());
+
+		DocumentMapper relativeMapper = new DocumentMapper(customRegistry, objectMapper, createPropertiesProvider("RELATIVE"));
+		resource = relativeMapper.toDocument(toResponse(createTask(2)), createAdapter()).getSingleData().get();
+		relationship = resource.getRelationships().get("project");
+		Assert.assertEquals("/api/tasks/2/project", relationship.getLinks().get("related").asText());
+	}
+
+	private PropertiesProvider createPropertiesProvider(final String relationshipLinks) {
+		return new PropertiesProvider() {
+
+			@Override
+			public String getProperty(String key) {
+				if (key.equals(KatharsisProperties.RELATIONSHIP_LINKS))
+					return relationshipLinks;
+				return null;
+			}
+		};
+	}
+
+	private Task createTask(long id) {
+		Task task = new Task();
+		task.setId(id);
+		task.setName("sample task");
+		return task;
+	}
+}
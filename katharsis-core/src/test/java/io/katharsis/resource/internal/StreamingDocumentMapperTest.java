@@ -0,0 +1,160 @@
+package io.katharsis.resource.internal;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.fasterxml.jackson.databind.node.POJONode;
+
+import io.katharsis.core.internal.boot.PropertiesProvider;
+import io.katharsis.core.internal.repository.adapter.StreamedResources;
+import io.katharsis.core.internal.resource.DocumentMapper;
+import io.katharsis.core.properties.KatharsisProperties;
+import io.katharsis.queryspec.QuerySpec;
+import io.katharsis.resource.Document;
+import io.katharsis.resource.Resource;
+import io.katharsis.resource.mock.models.Project;
+import io.katharsis.resource.mock.models.Schedule;
+import io.katharsis.resource.mock.models.Task;
+
+public class StreamingDocumentMapperTest extends AbstractDocumentMapperTest {
+
+	@Override
+	protected PropertiesProvider getPropertiesProvider() {
+		return new PropertiesProvider() {
+
+			@Override
+			public String getProperty(String key) {
+				if (key.equals(KatharsisProperties.SERIALIZATION_STREAMING))
+					return "true";
+				return null;
+			}
+		};
+	}
+
+	@Test
+	public void testIsStreaming() {
+		Assert.assertTrue(DocumentMapper.isStreaming(getPropertiesProvider()));
+		Assert.assertFalse(DocumentMapper.isStreaming(null));
+	}
+
+	@Test
+	public void testAttributesDeferred() {
+		Task task = createTask(2, "sample task");
+
+		Document document = mapper.toDocument(toResponse(task), createAdapter());
+		Resource resource = document.getSingleData().get();
+		Assert.assertTrue(resource.getAttributes().get("name") instanceof POJONode);
+	}
+
+	@Test
+	public void testSameOutputAsBuffered() throws Exception {
+		Project project = new Project();
+		project.setId(3L);
+		project.setName("sample project");
+
+		Task task = createTask(2, "sample task");
+		task.setCategory("sample category");
+		task.setProject(project);
+		task.setProjects(Arrays.asList(project));
+
+		QuerySpec querySpec = new QuerySpec(Task.class);
+		querySpec.includeRelation(Arrays.asList("project"));
+
+		DocumentMapper bufferedMapper = new DocumentMapper(resourceRegistry, objectMapper, null);
+		Document bufferedDocument = bufferedMapper.toDocument(toResponse(task), toAdapter(querySpec));
+		Document streamingDocument = mapper.toDocument(toResponse(task), toAdapter(querySpec));
+
+		String expected = objectMapper.writeValueAsString(bufferedDocument);
+		String actual = objectMapper.writeValueAsString(streamingDocument);
+		Assert.assertEquals(expected, actual);
+	}
+
+	@Test
+	public void testStreamedResourcesSameOutputAsBuffered() throws Exception {
+		QuerySpec querySpec = new QuerySpec(Task.class);
+		querySpec.includeRelation(Arrays.asList("project"));
+
+		final AtomicBoolean closed = new AtomicBoolean();
+		Stream<Task> stream = createTasks(150).stream().onClose(new Runnable() {
+
+			@Override
+			public void run() {
+				closed.set(true);
+			}
+		});
+		Document streamingDocument = mapper.toDocument(toResponse(new StreamedResources<>(stream)), toAdapter(querySpec));
+		Assert.assertTrue(closed.get());
+
+		DocumentMapper bufferedMapper = new DocumentMapper(resourceRegistry, objectMapper, null);
+		Document bufferedDocument = bufferedMapper.toDocument(toResponse(createTasks(150)), toAdapter(querySpec));
+
+		String expected = objectMapper.writeValueAsString(bufferedDocument);
+		String actual = objectMapper.writeValueAsString(streamingDocument);
+		Assert.assertEquals(expected, actual);
+		Assert.assertEquals(2, streamingDocument.getIncluded().size());
+	}
+
+	@Test
+	public void testCollectionMappedUpfront() throws Exception {
+		QuerySpec querySpec = new QuerySpec(Task.class);
+		querySpec.includeRelation(Arrays.asList("project"));
+
+		Document streamingDocument = mapper.toDocument(toResponse(createTasks(150)), toAdapter(querySpec));
+		Assert.assertEquals(150, streamingDocument.getCollectionData().get().size());
+		Assert.assertEquals(2, streamingDocument.getIncluded().size());
+
+		DocumentMapper bufferedMapper = new DocumentMapper(resourceRegistry, objectMapper, null);
+		Document bufferedDocument = bufferedMapper.toDocument(toResponse(createTasks(150)), toAdapter(querySpec));
+		Assert.assertEquals(objectMapper.writeValueAsString(bufferedDocument), objectMapper.writeValueAsString(streamingDocument));
+	}
+
+	@Test
+	public void testCollectionAttributesNotDeferred() {
+		Schedule schedule = new Schedule();
+		schedule.setId(1L);
+		schedule.setName("sample schedule");
+		schedule.setKeywords(Arrays.asList("a", "b"));
+
+		Document document = mapper.toDocument(toResponse(schedule), createAdapter());
+		Resource resource = document.getSingleData().get();
+		Assert.assertTrue(resource.getAttributes().get("keywords").isArray());
+		Assert.assertTrue(resource.getAttributes().get("name") instanceof POJONode);
+	}
+
+	@Test
+	public void testStreamedResourcesCollectedWithoutStreaming() {
+		DocumentMapper bufferedMapper = new DocumentMapper(resourceRegistry, objectMapper, null);
+		Document document = bufferedMapper.toDocument(toResponse(new StreamedResources<>(createTasks(3).stream())), createAdapter());
+		Assert.assertEquals(3, document.getCollectionData().get().size());
+	}
+
+	private List<Task> createTasks(int n) {
+		Project project1 = new Project();
+		project1.setId(1L);
+		project1.setName("project 1");
+		Project project2 = new Project();
+		project2.setId(2L);
+		project2.setName("project 2");
+
+		List<Task> tasks = new ArrayList<>();
+		for (int i = 0; i < n; i++) {
+			Task task = createTask(i, "task " + i);
+			task.setProject(i % 2 == 0 ? project1 : project2);
+			tasks.add(task);
+		}
+		return tasks;
+	}
+
+	private Task createTask(long id, String name) {
+		Task task = new Task();
+		task.setId(id);
+		task.setName(name);
+		return task;
+	}
+}
@@ -1,5 +1,7 @@
 package io.katharsis.resource.mock.models;
 
+import java.util.List;
+
 import io.katharsis.resource.annotations.JsonApiId;
 import io.katharsis.resource.annotations.JsonApiResource;
 
@@ -10,6 +12,8 @@ public class Schedule {
 	private Long id;
 
 	private String name;
+
+	private List<String> keywords;
 	
 	public Long getId() {
 		return id;
@@ -27,6 +31,14 @@ public class Schedule {
 	public void setName(String name) {
 		this.name = name;
 	}
+
+	public List<String> getKeywords() {
+		return keywords;
+	}
+
+	public void setKeywords(List<String> keywords) {
+		this.keywords = keywords;
+	}
 	
 	
 }
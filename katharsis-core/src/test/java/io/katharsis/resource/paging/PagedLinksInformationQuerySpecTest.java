@@ -94,4 +94,48 @@ public class PagedLinksInformationQuerySpecTest extends AbstractQuerySpecTest {
 		Assert.assertEquals("http://127.0.0.1/tasks/?page[limit]=4", linksInformation.getFirst());
 		Assert.assertNull(linksInformation.getNext());
 	}
+
+	@Test
+	public void testPagingWithoutTotalCount() throws InstantiationException, IllegalAccessException {
+		TestPagedResourceRepository.setSkipTotalCount(true);
+
+		QuerySpecAdapter querySpec = new QuerySpecAdapter(new QuerySpec(Task.class), resourceRegistry);
+		querySpec.setOffset(2L);
+		querySpec.setLimit(2L);
+		PagedLinksInformation linksInformation = (PagedLinksInformation) adapter.findAll(querySpec).getLinksInformation();
+		Assert.assertEquals("http://127.0.0.1/tasks/?page[limit]=2", linksInformation.getFirst());
+		Assert.assertNull(linksInformation.getLast());
+		Assert.assertEquals("http://127.0.0.1/tasks/?page[limit]=2", linksInformation.getPrev());
+		Assert.assertEquals("http://127.0.0.1/tasks/?page[limit]=2&page[offset]=4", linksInformation.getNext());
+
+		querySpec.setOffset(4L);
+		linksInformation = (PagedLinksInformation) adapter.findAll(querySpec).getLinksInformation();
+		Assert.assertEquals("http://127.0.0.1/tasks/?page[limit]=2&page[offset]=2", linksInformation.getPrev());
+		Assert.assertNull(linksInformation.getNext());
+	}
+
+	@Test
+	public void testKeysetPaging() throws InstantiationException, IllegalAccessException {
+		TestPagedResourceRepository.setKeysetPaging(true);
+
+		QuerySpec querySpec = new QuerySpec(Task.class);
+		querySpec.setLimit(2L);
+		PagedLinksInformation linksInformation = (PagedLinksInformation) adapter.findAll(new QuerySpecAdapter(querySpec, resourceRegistry)).getLinksInformation();
+		Assert.assertEquals("http://127.0.0.1/tasks/?page[limit]=2", linksInformation.getFirst());
+		Assert.assertNull(linksInformation.getLast());
+		Assert.assertNull(linksInformation.getPrev());
+		Assert.assertEquals("http://127.0.0.1/tasks/?page[limit]=2&page[after]=1", linksInformation.getNext());
+
+		querySpec.setPageAfter("1");
+		linksInformation = (PagedLinksInformation) adapter.findAll(new QuerySpecAdapter(querySpec, resourceRegistry)).getLinksInformation();
+		Assert.assertEquals("http://127.0.0.1/tasks/?page[limit]=2", linksInformation.getFirst());
+		Assert.assertNull(linksInformation.getLast());
+		Assert.assertEquals("http://127.0.0.1/tasks/?page[limit]=2&page[before]=2", linksInformation.getPrev());
+		Assert.assertEquals("http://127.0.0.1/tasks/?page[limit]=2&page[after]=3", linksInformation.getNext());
+
+		querySpec.setPageAfter("3");
+		linksInformation = (PagedLinksInformation) adapter.findAll(new QuerySpecAdapter(querySpec, resourceRegistry)).getLinksInformation();
+		Assert.assertEquals("http://127.0.0.1/tasks/?page[limit]=2&page[before]=4", linksInformation.getPrev());
+		Assert.assertNull(linksInformation.getNext());
+	}
 }
@@ -6,13 +6,19 @@ import java.util.List;
 
 import io.katharsis.queryspec.QuerySpec;
 import io.katharsis.repository.ResourceRepositoryV2;
+import io.katharsis.resource.list.DefaultResourceList;
 import io.katharsis.resource.list.ResourceList;
+import io.katharsis.resource.meta.DefaultPagedMetaInformation;
 import io.katharsis.resource.mock.models.Task;
 
 public class TestPagedResourceRepository implements ResourceRepositoryV2<Task, Long> {
 
 	private static List<Task> tasks = new ArrayList<Task>();
 
+	private static boolean keysetPaging = false;
+
+	private static boolean skipTotalCount = false;
+
 	@Override
 	public Class<Task> getResourceClass() {
 		return Task.class;
@@ -30,7 +36,53 @@ public class TestPagedResourceRepository implements ResourceRepositoryV2<Task, L
 
 	@Override
 	public ResourceList<Task> findAll(QuerySpec querySpec) {
-		return querySpec.apply(tasks);
+		if (keysetPaging) {
+			return findPage(querySpec);
+		}
+		ResourceList<Task> list = querySpec.apply(tasks);
+		if (skipTotalCount) {
+			DefaultPagedMetaInformation meta = (DefaultPagedMetaInformation) list.getMeta();
+			meta.setHasMoreResources(meta.getTotalResourceCount() > querySpec.getOffset() + querySpec.getLimit());
+			meta.setTotalResourceCount(null);
+		}
+		return list;
+	}
+
+	/**
+	 * Pages by task id with the id as cursor.
+	 */
+	private ResourceList<Task> findPage(QuerySpec querySpec) {
+		int limit = querySpec.getLimit().intValue();
+		int from = 0;
+		int to = tasks.size();
+		if (querySpec.getPageAfter() != null) {
+			from = indexOf(Long.parseLong(querySpec.getPageAfter())) + 1;
+			to = Math.min(to, from + limit);
+		} else if (querySpec.getPageBefore() != null) {
+			to = indexOf(Long.parseLong(querySpec.getPageBefore()));
+			from = Math.max(0, to - limit);
+		} else {
+			to = Math.min(to, limit);
+		}
+		DefaultResourceList<Task> list = new DefaultResourceList<>(new DefaultPagedMetaInformation(), null);
+		list.addAll(tasks.subList(from, to));
+		DefaultPagedMetaInformation meta = (DefaultPagedMetaInformation) list.getMeta();
+		if (from > 0) {
+			meta.setPrevCursor(tasks.get(from).getId().toString());
+		}
+		if (to < tasks.size()) {
+			meta.setNextCursor(tasks.get(to - 1).getId().toString());
+		}
+		return list;
+	}
+
+	private static int indexOf(long id) {
+		for (int i = 0; i < tasks.size(); i++) {
+			if (tasks.get(i).getId() == id) {
+				return i;
+			}
+		}
+		throw new IllegalArgumentException();
 	}
 
 	@Override
@@ -57,6 +109,16 @@ public class TestPagedResourceRepository implements ResourceRepositoryV2<Task, L
 
 	public static void clear() {
 		tasks.clear();
+		keysetPaging = false;
+		skipTotalCount = false;
+	}
+
+	public static void setKeysetPaging(boolean keysetPaging) {
+		TestPagedResourceRepository.keysetPaging = keysetPaging;
+	}
+
+	public static void setSkipTotalCount(boolean skipTotalCount) {
+		TestPagedResourceRepository.skipTotalCount = skipTotalCount;
 	}
 
 	@Override
@@ -98,6 +98,31 @@ public class ResourceRegistryTest {
 		assertThat(clazz).isEqualTo(Task.class);
 	}
 
+	@Test
+	public void onUnregisteredClassReturnNoResourceClass() {
+		resourceRegistry.addEntry(Task.class, newRegistryEntry(Task.class, "tasks"));
+		ResourceRegistryImpl registryImpl = (ResourceRegistryImpl) resourceRegistry;
+
+		assertThat(registryImpl.getResourceClass(Long.class).isPresent()).isFalse();
+		assertThat(registryImpl.getResourceClass(Long.class).isPresent()).isFalse();
+		assertThat(registryImpl.getResourceClass(Task$Proxy.class).get()).isEqualTo(Task.class);
+		assertThat(registryImpl.getResourceClass(Task$Proxy.class).get()).isEqualTo(Task.class);
+	}
+
+	@Test
+	@SuppressWarnings("deprecation")
+	public void testDeprecatedResourceMapOfSubclasses() {
+		resourceRegistry = new ResourceRegistryImpl(moduleRegistry, new ConstantServiceUrlProvider(TEST_MODELS_URL)) {
+
+			@Override
+			public RegistryEntry getEntryForClass(Class<?> resourceClass) {
+				return getResourceMap().get(resourceClass);
+			}
+		};
+		RegistryEntry entry = resourceRegistry.addEntry(Task.class, newRegistryEntry(Task.class, "tasks"));
+		assertThat(resourceRegistry.getEntryForClass(Task.class)).isSameAs(entry);
+	}
+
 	@Test
 	public void onResourceClassReturnCorrectParentInstanceClass() {
 		resourceRegistry.addEntry(Task.class, newRegistryEntry(Task.class, "tasks"));
@@ -150,6 +175,33 @@ public class ResourceRegistryTest {
 		assertNotNull(registryEntry.getResourceInformation().getResourceType(), taskType);
 	}
 
+	@Test
+	public void onRegistrationAfterLookupShouldUpdateIndex() {
+		assertThat(resourceRegistry.getEntry("tasks")).isNull();
+		assertThat(resourceRegistry.hasEntry(Task$Proxy.class)).isFalse();
+
+		// WHEN
+		RegistryEntry entry = resourceRegistry.addEntry(Task.class, newRegistryEntry(Task.class, "tasks"));
+
+		// THEN
+		assertThat(resourceRegistry.getEntry("tasks")).isSameAs(entry);
+		assertThat(resourceRegistry.findEntry(Task$Proxy.class)).isSameAs(entry);
+		assertThat(resourceRegistry.getResources()).containsOnly(entry);
+	}
+
+	@Test
+	public void onSubclassLookupShouldReturnSameEntry() {
+		RegistryEntry entry = resourceRegistry.addEntry(Task.class, newRegistryEntry(Task.class, "tasks"));
+
+		// WHEN
+		RegistryEntry first = resourceRegistry.findEntry(Task$Proxy.class);
+		RegistryEntry second = resourceRegistry.findEntry(Task$Proxy.class);
+
+		// THEN
+		assertThat(first).isSameAs(entry);
+		assertThat(second).isSameAs(entry);
+	}
+
 	public static class Task$Proxy extends Task {
 	}
 
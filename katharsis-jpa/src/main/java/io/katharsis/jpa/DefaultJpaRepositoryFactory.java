@@ -7,6 +7,9 @@ public class DefaultJpaRepositoryFactory implements JpaRepositoryFactory {
 	@Override
 	public <T, I extends Serializable> JpaEntityRepository<T, I> createEntityRepository(JpaModule module,
 			JpaRepositoryConfig<T> config) {
+		if (config.getStreaming()) {
+			return new JpaStreamingEntityRepository<>(module, config);
+		}
 		return new JpaEntityRepository<>(module, config);
 	}
 
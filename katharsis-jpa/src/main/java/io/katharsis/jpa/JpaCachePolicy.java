@@ -0,0 +1,272 @@
+package io.katharsis.jpa;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.persistence.Cache;
+import javax.persistence.CacheRetrieveMode;
+import javax.persistence.CacheStoreMode;
+import javax.persistence.EntityManager;
+
+import io.katharsis.jpa.internal.JpaRepositoryUtils;
+import io.katharsis.jpa.query.JpaQueryExecutor;
+
+/**
+ * Controls how a JPA repository makes use of the second-level and query cache of the JPA provider, see
+ * {@link JpaRepositoryConfig.Builder#setCachePolicy(JpaCachePolicy)}. The policy applies to findAll, findOne and the
+ * lookup of relationship targets. Entities changed by the repositories are never loaded read-only. Entities are evicted from the second-level cache when they are saved, deleted or
+ * their relationships change. Caching must be enabled in the persistence unit as well, hints unknown to the JPA
+ * provider are ignored.
+ */
+public class JpaCachePolicy {
+
+	public static final String HINT_CACHEABLE = "org.hibernate.cacheable";
+
+	public static final String HINT_CACHE_REGION = "org.hibernate.cacheRegion";
+
+	public static final String HINT_READ_ONLY = "org.hibernate.readOnly";
+
+	public static final String HINT_RETRIEVE_MODE = "javax.persistence.cache.retrieveMode";
+
+	public static final String HINT_STORE_MODE = "javax.persistence.cache.storeMode";
+
+	private static final JpaCachePolicy NONE = new JpaCachePolicy();
+
+	private boolean queryCache;
+
+	private String queryCacheRegion;
+
+	private boolean readOnly;
+
+	private CacheRetrieveMode retrieveMode;
+
+	private CacheStoreMode storeMode;
+
+	private Map<String, Object> entityHints = Collections.emptyMap();
+
+	private JpaCachePolicy() {
+	}
+
+	public static class Builder {
+
+		private boolean queryCache;
+
+		private String queryCacheRegion;
+
+		private boolean readOnly;
+
+		private CacheRetrieveMode retrieveMode;
+
+		private CacheStoreMode storeMode;
+
+		public JpaCachePolicy build() {
+			JpaCachePolicy policy = new JpaCachePolicy();
+			policy.queryCache = queryCache;
+			policy.queryCacheRegion = queryCacheRegion;
+			policy.readOnly = readOnly;
+			policy.retrieveMode = retrieveMode;
+			policy.storeMode = storeMode;
+
+			Map<String, Object> entityHints = new HashMap<>();
+			if (retrieveMode != null) {
+				entityHints.put(HINT_RETRIEVE_MODE, retrieveMode);
+			}
+			if (storeMode != null) {
+				entityHints.put(HINT_STORE_MODE, storeMode);
+			}
+			if (readOnly) {
+				entityHints.put(HINT_READ_ONLY, Boolean.TRUE);
+			}
+			policy.entityHints = Collections.unmodifiableMap(entityHints);
+			return policy;
+		}
+
+		/**
+		 * @param queryCache true to cache the results of queries issued by the repository
+		 * @return this builder
+		 */
+		public Builder setQueryCache(boolean queryCache) {
+			this.queryCache = queryCache;
+			return this;
+		}
+
+		/**
+		 * @param queryCacheRegion to hold the cached query results, the default region is used if null
+		 * @return this builder
+		 */
+		public Builder setQueryCacheRegion(String queryCacheRegion) {
+			this.queryCacheRegion = queryCacheRegion;
+			return this;
+		}
+
+		/**
+		 * Loads entities in read-only mode, sparing the snapshots needed for dirty checking. Suitable for resources
+		 * that are rarely updated: entities about to be changed by save or a relationship repository are loaded
+		 * without the hint or copied to a writable instance, see {@link JpaCachePolicy#toWritable(EntityManager, Object)}.
+		 *
+		 * @param readOnly true to load entities read-only
+		 * @return this builder
+		 */
+		public Builder setReadOnly(boolean readOnly) {
+			this.readOnly = readOnly;
+			return this;
+		}
+
+		/**
+		 * @param retrieveMode whether entities are read from the second-level cache, provider default if null
+		 * @return this builder
+		 */
+		public Builder setRetrieveMode(CacheRetrieveMode retrieveMode) {
+			this.retrieveMode = retrieveMode;
+			return this;
+		}
+
+		/**
+		 * @param storeMode whether loaded entities are put into the second-level cache, provider default if null
+		 * @return this builder
+		 */
+		public Builder setStoreMode(CacheStoreMode storeMode) {
+			this.storeMode = storeMode;
+			return this;
+		}
+	}
+
+	/**
+	 * @return builder for a new policy
+	 */
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	/**
+	 * @return policy leaving caching to the defaults of the persistence unit
+	 */
+	public static JpaCachePolicy none() {
+		return NONE;
+	}
+
+	/**
+	 * Policy for mostly-static reference data: query results are cached, entities are read from and put into the
+	 * second-level cache and loaded read-only.
+	 *
+	 * @param queryCacheRegion to hold the cached query results, the default region is used if null
+	 * @return policy
+	 */
+	public static JpaCachePolicy referenceData(String queryCacheRegion) {
+		return builder().setQueryCache(true).setQueryCacheRegion(queryCacheRegion).setReadOnly(true)
+				.setRetrieveMode(CacheRetrieveMode.USE).setStoreMode(CacheStoreMode.USE).build();
+	}
+
+	public boolean getQueryCache() {
+		return queryCache;
+	}
+
+	public String getQueryCacheRegion() {
+		return queryCacheRegion;
+	}
+
+	public boolean getReadOnly() {
+		return readOnly;
+	}
+
+	public CacheRetrieveMode getRetrieveMode() {
+		return retrieveMode;
+	}
+
+	public CacheStoreMode getStoreMode() {
+		return storeMode;
+	}
+
+	/**
+	 * @return true if the policy makes use of any cache and entities have to be evicted upon changes
+	 */
+	public boolean isCaching() {
+		return queryCache || retrieveMode == CacheRetrieveMode.USE || storeMode == CacheStoreMode.USE;
+	}
+
+	/**
+	 * @return hints to pass to <code>EntityManager.find</code>
+	 */
+	public Map<String, Object> getEntityHints() {
+		return entityHints;
+	}
+
+	/**
+	 * @return hints to pass to <code>EntityManager.find</code> for entities about to be changed, without
+	 *         {@link #HINT_READ_ONLY}
+	 */
+	public Map<String, Object> getWritableEntityHints() {
+		if (!readOnly) {
+			return entityHints;
+		}
+		Map<String, Object> writableHints = new HashMap<>(entityHints);
+		writableHints.remove(HINT_READ_ONLY);
+		return writableHints;
+	}
+
+	/**
+	 * Applies this policy to a query issued by the repository.
+	 *
+	 * @param executor to set up
+	 */
+	public void apply(JpaQueryExecutor<?> executor) {
+		apply(executor, entityHints);
+	}
+
+	/**
+	 * Applies this policy to a query loading entities about to be changed, without {@link #HINT_READ_ONLY}.
+	 *
+	 * @param executor to set up
+	 */
+	public void applyWritable(JpaQueryExecutor<?> executor) {
+		apply(executor, getWritableEntityHints());
+	}
+
+	private void apply(JpaQueryExecutor<?> executor, Map<String, Object> hints) {
+		if (queryCache) {
+			executor.setCached(true);
+			if (queryCacheRegion != null) {
+				executor.setHint(HINT_CACHE_REGION, queryCacheRegion);
+			}
+		}
+		for (Map.Entry<String, Object> entry : hints.entrySet()) {
+			executor.setHint(entry.getKey(), entry.getValue());
+		}
+	}
+
+	/**
+	 * Changes to entities loaded read-only are not flushed. This is the case for an entity obtained from findOne and
+	 * then changed and saved by a PATCH request. Such an entity is detached and merged into a writable instance,
+	 * carrying along any changes already made.
+	 *
+	 * @param <E> entity type
+	 * @param em of the current request
+	 * @param entity about to be saved or changed
+	 * @return the entity itself or the writable instance holding its state
+	 */
+	public <E> E toWritable(EntityManager em, E entity) {
+		if (readOnly && JpaRepositoryUtils.isReadOnly(em, entity)) {
+			em.detach(entity);
+			return em.merge(entity);
+		}
+		return entity;
+	}
+
+	/**
+	 * Evicts the given entity from the second-level cache. Query results cached by the provider are invalidated by the
+	 * provider itself upon changes.
+	 *
+	 * @param em of the current request
+	 * @param entityClass of the entity
+	 * @param id of the entity
+	 */
+	public void evict(EntityManager em, Class<?> entityClass, Object id) {
+		if (isCaching() && id != null) {
+			Cache cache = em.getEntityManagerFactory().getCache();
+			if (cache != null) {
+				cache.evict(entityClass, id);
+			}
+		}
+	}
+}
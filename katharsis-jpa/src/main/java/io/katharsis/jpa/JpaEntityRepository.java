@@ -2,30 +2,37 @@ package io.katharsis.jpa;
 
 import java.io.Serializable;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Set;
+import java.util.stream.Stream;
 
 import javax.persistence.EntityManager;
 
 import io.katharsis.core.internal.utils.PropertyUtils;
+import io.katharsis.jpa.internal.EntityTuple;
 import io.katharsis.jpa.internal.JpaRepositoryBase;
 import io.katharsis.jpa.internal.JpaRepositoryUtils;
 import io.katharsis.jpa.internal.JpaRequestContext;
+import io.katharsis.jpa.internal.KeysetPagination;
+import io.katharsis.jpa.internal.PartialEntityProjection;
+import io.katharsis.jpa.internal.query.backend.querydsl.ObjectArrayTupleImpl;
+import io.katharsis.jpa.mapping.IdentityMapper;
 import io.katharsis.jpa.mapping.JpaMapper;
 import io.katharsis.jpa.meta.MetaEntity;
 import io.katharsis.jpa.query.ComputedAttributeRegistry;
 import io.katharsis.jpa.query.JpaQuery;
 import io.katharsis.jpa.query.JpaQueryExecutor;
 import io.katharsis.jpa.query.JpaQueryFactory;
+import io.katharsis.jpa.query.TotalCountContext;
 import io.katharsis.jpa.query.Tuple;
 import io.katharsis.meta.model.MetaAttribute;
+import io.katharsis.meta.model.MetaAttributePath;
 import io.katharsis.queryspec.FilterOperator;
 import io.katharsis.queryspec.FilterSpec;
 import io.katharsis.queryspec.QuerySpec;
 import io.katharsis.repository.ResourceRepositoryV2;
 import io.katharsis.resource.list.ResourceList;
-import io.katharsis.resource.meta.MetaInformation;
-import io.katharsis.resource.meta.PagedMetaInformation;
 
 /**
  * Exposes a JPA entity as ResourceRepository.
@@ -61,35 +68,97 @@ public class JpaEntityRepository<T, I extends Serializable> extends JpaRepositor
 	public ResourceList<T> findAll(QuerySpec querySpec) {
 		Class<?> entityClass = repositoryConfig.getEntityClass();
 		QuerySpec filteredQuerySpec = filterQuerySpec(querySpec);
-		JpaQueryFactory queryFactory = module.getQueryFactory();
-		JpaQuery<?> query = queryFactory.query(entityClass);
-		query.setPrivateData(new JpaRequestContext(this, querySpec));
-
-		ComputedAttributeRegistry computedAttributesRegistry = queryFactory.getComputedAttributes();
-		Set<String> computedAttrs = computedAttributesRegistry.getForType(entityClass);
-
-		JpaRepositoryUtils.prepareQuery(query, filteredQuerySpec, computedAttrs);
-		query = filterQuery(filteredQuerySpec, query);
-		JpaQueryExecutor<?> executor = query.buildExecutor();
-		JpaRepositoryUtils.prepareExecutor(executor, filteredQuerySpec, fetchRelations(null));
+		KeysetPagination keyset = KeysetPagination.create(meta, repositoryConfig, filteredQuerySpec);
+		if (keyset != null) {
+			filteredQuerySpec = keyset.prepare(filteredQuerySpec);
+		}
+		List<MetaAttributePath> cursorPaths = keyset != null ? keyset.getSortPaths() : Collections.<MetaAttributePath> emptyList();
+		PartialEntityProjection projection = createProjection(filteredQuerySpec, cursorPaths);
+		JpaQueryExecutor<?> executor = buildExecutor(querySpec, filteredQuerySpec, projection);
+		boolean fetchNextRow = false;
+		if (keyset != null) {
+			executor.setLimit(keyset.getFetchLimit());
+		}
+		else {
+			fetchNextRow = prepareFetchNextRow(filteredQuerySpec, executor);
+		}
 		executor = filterExecutor(filteredQuerySpec, executor);
 
 		List<Tuple> tuples = executor.getResultTuples();
+		int numFetchedRows = tuples.size();
+		if (fetchNextRow) {
+			tuples = trimNextRow(filteredQuerySpec, tuples);
+		}
+		if (projection != null) {
+			tuples = projection.toEntityTuples(tuples);
+		}
+		if (keyset != null) {
+			tuples = keyset.apply(tuples);
+		}
 		tuples = filterTuples(filteredQuerySpec, tuples);
 		ResourceList<T> resources = map(tuples);
 		resources = filterResults(filteredQuerySpec, resources);
 
-		if (filteredQuerySpec.getLimit() != null) {
-			MetaInformation metaInfo = resources.getMeta();
-			if (metaInfo instanceof PagedMetaInformation) {
-				long totalRowCount = executor.getTotalRowCount();
-				((PagedMetaInformation) metaInfo).setTotalResourceCount(totalRowCount);
-			}
+		if (keyset != null) {
+			keyset.setCursors(resources);
+		}
+		else if (filteredQuerySpec.getLimit() != null) {
+			TotalCountContext context = new TotalCountContext(module.getEntityManager(), entityClass, filteredQuerySpec, null, null,
+					getTotalCountFilterKey(filteredQuerySpec), executor);
+			setTotalCount(resources, context, numFetchedRows, fetchNextRow);
 		}
 
 		return resources;
 	}
 
+	/**
+	 * Streams the resources matching the querySpec. Rows are scrolled from the database and mapped one at a time
+	 * rather than being collected into a {@link ResourceList} first. Requests subject to {@link JpaRepositoryFilter}s
+	 * or keyset paging are served by {@link #findAll(QuerySpec)}, since those need the complete result. Paged
+	 * requests are streamed without a total count.
+	 * 
+	 * @param querySpec of the request
+	 * @return stream of resources, to be closed to release the underlying cursor
+	 */
+	protected Stream<T> streamAll(QuerySpec querySpec) {
+		QuerySpec filteredQuerySpec = filterQuerySpec(querySpec);
+		if (hasFilters() || KeysetPagination.create(meta, repositoryConfig, filteredQuerySpec) != null) {
+			return findAll(querySpec).stream();
+		}
+		PartialEntityProjection projection = createProjection(filteredQuerySpec, Collections.<MetaAttributePath> emptyList());
+		JpaQueryExecutor<?> executor = buildExecutor(querySpec, filteredQuerySpec, projection);
+		Stream<Tuple> tuples = executor.getResultTupleStream();
+		if (projection != null) {
+			tuples = tuples.map(projection::toEntityTuple);
+		}
+		JpaMapper<Object, T> mapper = repositoryConfig.getMapper();
+		return tuples.map(mapper::map);
+	}
+
+	private PartialEntityProjection createProjection(QuerySpec filteredQuerySpec, List<MetaAttributePath> cursorPaths) {
+		Set<String> computedAttrs = module.getQueryFactory().getComputedAttributes().getForType(repositoryConfig.getEntityClass());
+		return PartialEntityProjection.create(meta, filteredQuerySpec, computedAttrs, cursorPaths);
+	}
+
+	private JpaQueryExecutor<?> buildExecutor(QuerySpec querySpec, QuerySpec filteredQuerySpec, PartialEntityProjection projection) {
+		JpaQueryFactory queryFactory = module.getQueryFactory();
+		JpaQuery<?> query = queryFactory.query(repositoryConfig.getEntityClass());
+		query.setPrivateData(new JpaRequestContext(this, querySpec));
+
+		ComputedAttributeRegistry computedAttributesRegistry = queryFactory.getComputedAttributes();
+		Set<String> computedAttrs = computedAttributesRegistry.getForType(repositoryConfig.getEntityClass());
+
+		JpaRepositoryUtils.prepareQuery(query, filteredQuerySpec, computedAttrs);
+		if (projection != null) {
+			projection.apply(query);
+		}
+		query = filterQuery(filteredQuerySpec, query);
+		JpaQueryExecutor<?> executor = query.buildExecutor();
+		JpaRepositoryUtils.prepareExecutor(executor, filteredQuerySpec, fetchRelations(null));
+		repositoryConfig.getCachePolicy().apply(executor);
+		return executor;
+	}
+
 	@Override
 	public <S extends T> S create(S resource) {
 		return saveInternal(resource);
@@ -108,18 +177,66 @@ public class JpaEntityRepository<T, I extends Serializable> extends JpaRepositor
 		// PATCH reads, updates and saves entities, needs reattachment during
 		// save since reads do a detach
 		EntityManager em = module.getEntityManager();
-		em.persist(entity);
+		Object writableEntity = repositoryConfig.getCachePolicy().toWritable(em, entity);
+		if (writableEntity != entity) {
+			// read-only entity of the cache policy merged into a writable one
+			entity = writableEntity;
+		}
+		else {
+			em.persist(entity);
+		}
 		
 		I id = (I) em.getEntityManagerFactory().getPersistenceUnitUtil().getIdentifier(entity);
-
-		// fetch again since we may have to fetch tuple data and do DTO mapping
-		QuerySpec querySpec = new QuerySpec(repositoryConfig.getResourceClass());
 		if (id == null) {
 			throw new IllegalStateException("id not available for entity " + id);
 		}
+		repositoryConfig.getCachePolicy().evict(em, repositoryConfig.getEntityClass(), id);
+		QuerySpec querySpec = new QuerySpec(repositoryConfig.getResourceClass());
+		if (!repositoryConfig.getReadAfterSave()) {
+			// map the saved entity directly, only computed attributes have to be fetched
+			Tuple tuple = needsTupleData() ? fetchComputedAttributes(entity, id) : new ObjectArrayTupleImpl(entity);
+			List<Tuple> tuples = filterTuples(querySpec, Collections.singletonList(tuple));
+			ResourceList<T> resources = filterResults(querySpec, map(tuples));
+			return (S) getUniqueOrNull(resources);
+		}
+
+		// fetch again since we may have to fetch tuple data and do DTO mapping
 		return (S) findOne(id, querySpec);
 	}
 
+	/**
+	 * @return tuple of the given entity followed by its computed attributes, same as for regular queries
+	 */
+	private Tuple fetchComputedAttributes(Object entity, I id) {
+		QuerySpec idQuerySpec = new QuerySpec(repositoryConfig.getResourceClass());
+		idQuerySpec.addFilter(new FilterSpec(Arrays.asList(primaryKeyAttr.getName()), FilterOperator.EQ, id));
+
+		JpaQueryFactory queryFactory = module.getQueryFactory();
+		JpaQuery<?> query = queryFactory.query(repositoryConfig.getEntityClass());
+		query.setPrivateData(new JpaRequestContext(this, idQuerySpec));
+		query.setEntitySelection(false);
+		Set<String> computedAttrs = queryFactory.getComputedAttributes().getForType(repositoryConfig.getEntityClass());
+		JpaRepositoryUtils.prepareQuery(query, idQuerySpec, computedAttrs);
+		query.addSelection(Arrays.asList(primaryKeyAttr.getName()));
+
+		Tuple computedTuple = getUniqueOrNull(query.buildExecutor().getResultTuples());
+		if (computedTuple == null) {
+			throw new IllegalStateException("saved entity not found: " + id);
+		}
+		return new EntityTuple(entity, computedTuple);
+	}
+
+	/**
+	 * @return true if mapping requires computed attributes next to the entity itself
+	 */
+	private boolean needsTupleData() {
+		if (repositoryConfig.getMapper() instanceof IdentityMapper) {
+			return false;
+		}
+		Class<?> entityClass = repositoryConfig.getEntityClass();
+		return !module.getQueryFactory().getComputedAttributes().getForType(entityClass).isEmpty();
+	}
+
 	@Override
 	public void delete(I id) {
 		EntityManager em = module.getEntityManager();
@@ -128,6 +245,7 @@ public class JpaEntityRepository<T, I extends Serializable> extends JpaRepositor
 		if (object != null) {
 			em.remove(object);
 		}
+		repositoryConfig.getCachePolicy().evict(em, repositoryConfig.getEntityClass(), id);
 	}
 
 	@Override
@@ -83,6 +83,10 @@ import io.katharsis.resource.information.ResourceInformationBuilder;
  * requests on the relations where necessary.</li>
  * </ul>
  * 
+ * The repositories share a single EntityManager and rely on the transaction of
+ * the request. Do not combine them with concurrent inclusion lookups, see
+ * {@link io.katharsis.core.properties.KatharsisProperties#INCLUDE_PARALLELISM}.
+ * 
  */
 public class JpaModule implements Module {
 
@@ -117,6 +121,8 @@ public class JpaModule implements Module {
 
 	private ResourceMetaProvider resourceMetaProvider;
 
+	private Integer jdbcBatchSize;
+
 	/**
 	 * Constructor used on client side.
 	 */
@@ -504,6 +510,26 @@ public class JpaModule implements Module {
 		}
 	}
 
+	/**
+	 * Sets the JDBC batch size applied to the session of relationship writes, allowing the resulting inserts and
+	 * updates to be sent in batches. Requires a provider with session-level batch sizes like Hibernate 5.2 and
+	 * later, otherwise <code>hibernate.jdbc.batch_size</code> or its equivalent has to be set for the persistence unit.
+	 * If applied, the writes are flushed at the end of the relationship operation and the previous batch size of the
+	 * session is restored.
+	 * 
+	 * @param jdbcBatchSize to apply or null to keep the configured one
+	 */
+	public void setJdbcBatchSize(Integer jdbcBatchSize) {
+		this.jdbcBatchSize = jdbcBatchSize;
+	}
+
+	/**
+	 * @return JDBC batch size for relationship writes or null if not set
+	 */
+	public Integer getJdbcBatchSize() {
+		return jdbcBatchSize;
+	}
+
 	/**
 	 * @return {@link EntityManager}} in use.
 	 */
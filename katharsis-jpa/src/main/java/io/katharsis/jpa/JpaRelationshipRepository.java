@@ -4,8 +4,10 @@ import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import javax.persistence.EntityManager;
@@ -13,6 +15,7 @@ import javax.persistence.EntityManager;
 import io.katharsis.core.internal.utils.MultivaluedMap;
 import io.katharsis.jpa.internal.JpaRepositoryBase;
 import io.katharsis.jpa.internal.JpaRepositoryUtils;
+import io.katharsis.jpa.internal.JpaRepositoryUtils.JdbcBatchSizeScope;
 import io.katharsis.jpa.internal.JpaRequestContext;
 import io.katharsis.jpa.mapping.IdentityMapper;
 import io.katharsis.jpa.mapping.JpaMapper;
@@ -21,14 +24,18 @@ import io.katharsis.jpa.query.ComputedAttributeRegistry;
 import io.katharsis.jpa.query.JpaQuery;
 import io.katharsis.jpa.query.JpaQueryExecutor;
 import io.katharsis.jpa.query.JpaQueryFactory;
+import io.katharsis.jpa.query.TotalCountContext;
 import io.katharsis.jpa.query.Tuple;
 import io.katharsis.meta.model.MetaAttribute;
+import io.katharsis.meta.model.MetaDataObject;
 import io.katharsis.meta.model.MetaType;
+import io.katharsis.queryspec.FilterOperator;
 import io.katharsis.queryspec.QuerySpec;
 import io.katharsis.repository.BulkRelationshipRepositoryV2;
 import io.katharsis.repository.RelationshipRepositoryV2;
 import io.katharsis.resource.list.DefaultResourceList;
 import io.katharsis.resource.list.ResourceList;
+import io.katharsis.resource.meta.HasMoreResourcesMetaInformation;
 import io.katharsis.resource.meta.MetaInformation;
 import io.katharsis.resource.meta.PagedMetaInformation;
 
@@ -42,6 +49,8 @@ public class JpaRelationshipRepository<S, I extends Serializable, T, J extends S
 
 	private JpaMapper<?, S> sourceMapper;
 
+	private JpaCachePolicy sourceCachePolicy;
+
 	/**
 	 * JPA relationship directly exposed as repository
 	 * 
@@ -60,9 +69,11 @@ public class JpaRelationshipRepository<S, I extends Serializable, T, J extends S
 		if (sourceMapping != null) {
 			this.sourceEntityClass = sourceMapping.getEntityClass();
 			this.sourceMapper = sourceMapping.getMapper();
+			this.sourceCachePolicy = sourceMapping.getCachePolicy();
 		} else {
 			this.sourceEntityClass = sourceResourceClass;
 			this.sourceMapper = IdentityMapper.newInstance();
+			this.sourceCachePolicy = JpaCachePolicy.none();
 		}
 		this.entityMeta = module.getJpaMetaLookup().getMeta(sourceEntityClass, MetaEntity.class);
 	}
@@ -76,16 +87,26 @@ public class JpaRelationshipRepository<S, I extends Serializable, T, J extends S
 		Object sourceEntity = sourceMapper.unmap(source);
 
 		EntityManager em = module.getEntityManager();
-		Object target = targetId != null ? em.find(targetType, targetId) : null;
-		attrMeta.setValue(sourceEntity, target);
-
-		if (target != null && oppositeAttrMeta != null) {
-			if (oppositeAttrMeta.getType().isCollection()) {
-				oppositeAttrMeta.addValue(target, sourceEntity);
-			} else {
-				oppositeAttrMeta.setValue(target, sourceEntity);
+		sourceEntity = sourceCachePolicy.toWritable(em, sourceEntity);
+		try (JdbcBatchSizeScope batchSizeScope = JpaRepositoryUtils.setJdbcBatchSize(em, module.getJdbcBatchSize())) {
+			Object target = null;
+			if (targetId != null) {
+				JpaCachePolicy cachePolicy = repositoryConfig.getCachePolicy();
+				target = cachePolicy.toWritable(em, em.find(targetType, targetId, cachePolicy.getWritableEntityHints()));
+			}
+			attrMeta.setValue(sourceEntity, target);
+
+			if (target != null && oppositeAttrMeta != null) {
+				if (oppositeAttrMeta.getType().isCollection()) {
+					oppositeAttrMeta.addValue(target, sourceEntity);
+				} else {
+					oppositeAttrMeta.setValue(target, sourceEntity);
+				}
+				em.persist(target);
+				evict(repositoryConfig.getCachePolicy(), targetType, target);
 			}
-			em.persist(target);
+			evict(sourceCachePolicy, sourceEntityClass, sourceEntity);
+			batchSizeScope.flush();
 		}
 	}
 
@@ -98,40 +119,97 @@ public class JpaRelationshipRepository<S, I extends Serializable, T, J extends S
 		Object sourceEntity = sourceMapper.unmap(source);
 
 		EntityManager em = module.getEntityManager();
-		Collection<Object> targets = attrMeta.getType().asCollection().newInstance();
-		for (J targetId : targetIds) {
+		sourceEntity = sourceCachePolicy.toWritable(em, sourceEntity);
+		try (JdbcBatchSizeScope batchSizeScope = JpaRepositoryUtils.setJdbcBatchSize(em, module.getJdbcBatchSize())) {
+			Collection<Object> targets = attrMeta.getType().asCollection().newInstance();
+			targets.addAll(getTargets(targetType, targetIds));
 
-			Object target = em.find(targetType, targetId);
-			targets.add(target);
-		}
+			// detach current
+			if (oppositeAttrMeta != null) {
+				Collection<?> col = (Collection<?>) attrMeta.getValue(sourceEntity);
+				Iterator<?> iterator = col.iterator();
+				while (iterator.hasNext()) {
+					Object prevTarget = repositoryConfig.getCachePolicy().toWritable(em, iterator.next());
+					iterator.remove();
+					if (oppositeAttrMeta.getType().isCollection()) {
+						oppositeAttrMeta.removeValue(prevTarget, sourceEntity);
+					} else {
+						oppositeAttrMeta.setValue(prevTarget, null);
+					}
+					evict(repositoryConfig.getCachePolicy(), targetType, prevTarget);
+				}
+			}
 
-		// detach current
-		if (oppositeAttrMeta != null) {
-			Collection<?> col = (Collection<?>) attrMeta.getValue(sourceEntity);
-			Iterator<?> iterator = col.iterator();
-			while (iterator.hasNext()) {
-				Object prevTarget = iterator.next();
-				iterator.remove();
-				if (oppositeAttrMeta.getType().isCollection()) {
-					oppositeAttrMeta.removeValue(prevTarget, sourceEntity);
-				} else {
-					oppositeAttrMeta.setValue(prevTarget, null);
+			// attach new targets
+			for (Object target : targets) {
+				if (oppositeAttrMeta != null) {
+					if (oppositeAttrMeta.getType().isCollection()) {
+						oppositeAttrMeta.addValue(target, sourceEntity);
+					} else {
+						oppositeAttrMeta.setValue(target, sourceEntity);
+					}
+					em.persist(target);
+					evict(repositoryConfig.getCachePolicy(), targetType, target);
 				}
 			}
+			attrMeta.setValue(sourceEntity, targets);
+			evict(sourceCachePolicy, sourceEntityClass, sourceEntity);
+			batchSizeScope.flush();
 		}
+	}
 
-		// attach new targets
-		for (Object target : targets) {
-			if (oppositeAttrMeta != null) {
-				if (oppositeAttrMeta.getType().isCollection()) {
-					oppositeAttrMeta.addValue(target, sourceEntity);
-				} else {
-					oppositeAttrMeta.setValue(target, sourceEntity);
-				}
-				em.persist(target);
+	/**
+	 * Evicts a changed entity from the second-level cache if cached according to the given policy. The mapped entity
+	 * class is passed along since the entity may be a proxy.
+	 */
+	private void evict(JpaCachePolicy cachePolicy, Class<?> entityClass, Object entity) {
+		if (cachePolicy.isCaching()) {
+			EntityManager em = module.getEntityManager();
+			Object id = em.getEntityManagerFactory().getPersistenceUnitUtil().getIdentifier(entity);
+			cachePolicy.evict(em, entityClass, id);
+		}
+	}
+
+	/**
+	 * Loads the targets with a single query rather than one per target. Large id sets are split up by the
+	 * {@link io.katharsis.jpa.query.JpaQuery} as for any other filter. The targets are changed by the caller and
+	 * therefore never loaded read-only.
+	 * 
+	 * @return targets in the order of the ids, null for targets that do not exist
+	 */
+	private List<Object> getTargets(Class<?> targetType, Iterable<J> targetIds) {
+		EntityManager em = module.getEntityManager();
+		List<J> ids = new ArrayList<>();
+		for (J targetId : targetIds) {
+			ids.add(targetId);
+		}
+
+		JpaCachePolicy cachePolicy = repositoryConfig.getCachePolicy();
+		List<Object> targets = new ArrayList<>(ids.size());
+		MetaEntity targetMeta = module.getJpaMetaLookup().getMeta(targetType, MetaEntity.class);
+		MetaAttribute primaryKeyAttr = JpaRepositoryUtils.getPrimaryKeyAttr(targetMeta);
+		if (ids.size() == 1 || primaryKeyAttr.getType() instanceof MetaDataObject) {
+			for (J targetId : ids) {
+				targets.add(em.find(targetType, targetId, cachePolicy.getWritableEntityHints()));
+			}
+		}
+		else if (!ids.isEmpty()) {
+			JpaQuery<?> query = module.getQueryFactory().query(targetType);
+			query.addFilter(primaryKeyAttr.getName(), FilterOperator.EQ, ids);
+			query.setEnsureTotalOrder(false);
+			JpaQueryExecutor<?> executor = query.buildExecutor();
+			cachePolicy.applyWritable(executor);
+			Map<Object, Object> targetMap = new HashMap<>();
+			for (Object target : executor.getResultList()) {
+				targetMap.put(primaryKeyAttr.getValue(target), target);
+			}
+			for (J targetId : ids) {
+				targets.add(targetMap.get(targetId));
 			}
 		}
-		attrMeta.setValue(sourceEntity, targets);
+		// targets loaded read-only earlier in the request
+		targets.replaceAll(target -> cachePolicy.toWritable(em, target));
+		return targets;
 	}
 
 	private Class<?> getElementType(MetaAttribute attrMeta) {
@@ -151,20 +229,25 @@ public class JpaRelationshipRepository<S, I extends Serializable, T, J extends S
 		Object sourceEntity = sourceMapper.unmap(source);
 
 		EntityManager em = module.getEntityManager();
-		for (J targetId : targetIds) {
-			Object target = em.find(targetType, targetId);
-			attrMeta.addValue(sourceEntity, target);
-
-			if (oppositeAttrMeta != null) {
-				if (oppositeAttrMeta.getType().isCollection()) {
-					oppositeAttrMeta.addValue(target, sourceEntity);
-				} else {
-					oppositeAttrMeta.setValue(target, sourceEntity);
+		sourceEntity = sourceCachePolicy.toWritable(em, sourceEntity);
+		try (JdbcBatchSizeScope batchSizeScope = JpaRepositoryUtils.setJdbcBatchSize(em, module.getJdbcBatchSize())) {
+			for (Object target : getTargets(targetType, targetIds)) {
+				attrMeta.addValue(sourceEntity, target);
+
+				if (oppositeAttrMeta != null) {
+					if (oppositeAttrMeta.getType().isCollection()) {
+						oppositeAttrMeta.addValue(target, sourceEntity);
+					} else {
+						oppositeAttrMeta.setValue(target, sourceEntity);
+					}
+					em.persist(target);
+					evict(repositoryConfig.getCachePolicy(), targetType, target);
 				}
-				em.persist(target);
 			}
+			em.persist(sourceEntity);
+			evict(sourceCachePolicy, sourceEntityClass, sourceEntity);
+			batchSizeScope.flush();
 		}
-		em.persist(sourceEntity);
 	}
 
 	@Override
@@ -176,8 +259,8 @@ public class JpaRelationshipRepository<S, I extends Serializable, T, J extends S
 		Object sourceEntity = sourceMapper.unmap(source);
 
 		EntityManager em = module.getEntityManager();
-		for (J targetId : targetIds) {
-			Object target = em.find(targetType, targetId);
+		sourceEntity = sourceCachePolicy.toWritable(em, sourceEntity);
+		for (Object target : getTargets(targetType, targetIds)) {
 			attrMeta.removeValue(sourceEntity, target);
 
 			if (target != null && oppositeAttrMeta != null) {
@@ -186,8 +269,10 @@ public class JpaRelationshipRepository<S, I extends Serializable, T, J extends S
 				} else {
 					oppositeAttrMeta.setValue(target, null);
 				}
+				evict(repositoryConfig.getCachePolicy(), targetType, target);
 			}
 		}
+		evict(sourceCachePolicy, sourceEntityClass, sourceEntity);
 	}
 
 	@Override
@@ -197,51 +282,105 @@ public class JpaRelationshipRepository<S, I extends Serializable, T, J extends S
 			sourceIdLists.add(sourceId);
 		}
 
-		if (querySpec.getLimit() != null && sourceIdLists.size() > 1) {
-			throw new UnsupportedOperationException("page limit not supported for bulk inclusions");
+		if (sourceIdLists.size() > 1 && (querySpec.getLimit() != null || querySpec.getOffset() != 0)) {
+			return findPagedTargets(sourceIdLists, fieldName, querySpec);
 		}
 
 		QuerySpec bulkQuerySpec = querySpec.duplicate();
 
 		QuerySpec filteredQuerySpec = filterQuerySpec(bulkQuerySpec);
 
-		JpaQueryFactory queryFactory = module.getQueryFactory();
-		JpaQuery<?> query = queryFactory.query(sourceEntityClass, fieldName, sourceIdLists);
-		query.setPrivateData(new JpaRequestContext(this, querySpec));
-		query.addParentIdSelection();
-		query = filterQuery(filteredQuerySpec, query);
-
-		Class<?> entityClass = repositoryConfig.getEntityClass();
-		ComputedAttributeRegistry computedAttributesRegistry = queryFactory.getComputedAttributes();
-		Set<String> computedAttrs = computedAttributesRegistry.getForType(entityClass);
-
-		JpaRepositoryUtils.prepareQuery(query, filteredQuerySpec, computedAttrs);
-
-		JpaQueryExecutor<?> executor = query.buildExecutor();
-		JpaRepositoryUtils.prepareExecutor(executor, filteredQuerySpec, fetchRelations(fieldName));
+		JpaQueryExecutor<?> executor = buildExecutor(sourceIdLists, fieldName, querySpec, filteredQuerySpec);
+		boolean fetchNextRow = prepareFetchNextRow(filteredQuerySpec, executor);
 		executor = filterExecutor(filteredQuerySpec, executor);
 
 		List<Tuple> tuples = executor.getResultTuples();
+		int numFetchedRows = tuples.size();
+		if (fetchNextRow) {
+			tuples = trimNextRow(filteredQuerySpec, tuples);
+		}
 
 		tuples = filterTuples(bulkQuerySpec, tuples);
 
 		MultivaluedMap<I, T> map = mapTuples(tuples);
 
 		// support paging for non-bulk requests
-		if (sourceIdLists.size() == 1 && querySpec.getLimit() != null) {
-			I sourceId = sourceIdLists.get(0);
+		I sourceId = sourceIdLists.size() == 1 ? sourceIdLists.get(0) : null;
+		if (sourceId != null && querySpec.getLimit() != null && map.containsKey(sourceId)) {
 			ResourceList<T> iterable = (ResourceList<T>) map.getList(sourceId);
 
-			MetaInformation metaInfo = iterable.getMeta();
-			if (metaInfo instanceof PagedMetaInformation) {
-				long totalRowCount = executor.getTotalRowCount();
-				((PagedMetaInformation) metaInfo).setTotalResourceCount(totalRowCount);
+			TotalCountContext context = new TotalCountContext(module.getEntityManager(), repositoryConfig.getEntityClass(), filteredQuerySpec,
+					fieldName, sourceId, getTotalCountFilterKey(filteredQuerySpec), executor);
+			setTotalCount(iterable, context, numFetchedRows, fetchNextRow);
+		}
+
+		return map;
+	}
+
+	/**
+	 * Pages the targets of multiple sources with a single query. The targets of all sources are queried in the
+	 * requested order, the window of every source is then cut out in a single pass over the rows. Counting the rows of
+	 * every source along the way gives the total counts without further queries. Sources with many targets are
+	 * thereby read in full, the same as for an unpaged inclusion.
+	 */
+	private MultivaluedMap<I, T> findPagedTargets(List<I> sourceIds, String fieldName, QuerySpec querySpec) {
+		QuerySpec bulkQuerySpec = querySpec.duplicate();
+		QuerySpec filteredQuerySpec = filterQuerySpec(bulkQuerySpec);
+		long offset = filteredQuerySpec.getOffset();
+		Long limit = filteredQuerySpec.getLimit();
+
+		QuerySpec unpagedQuerySpec = filteredQuerySpec.duplicate();
+		unpagedQuerySpec.setOffset(0);
+		unpagedQuerySpec.setLimit(null);
+		JpaQueryExecutor<?> executor = buildExecutor(sourceIds, fieldName, querySpec, unpagedQuerySpec);
+		executor = filterExecutor(filteredQuerySpec, executor);
+
+		Map<Object, Long> totalCounts = new HashMap<>();
+		List<Tuple> tuples = new ArrayList<>();
+		for (Tuple tuple : executor.getResultTuples()) {
+			Object sourceId = tuple.get(0, Object.class);
+			Long index = totalCounts.get(sourceId);
+			index = index != null ? index : 0L;
+			totalCounts.put(sourceId, index + 1);
+			if (index >= offset && (limit == null || index < offset + limit)) {
+				tuples.add(tuple);
 			}
 		}
+		tuples = filterTuples(bulkQuerySpec, tuples);
 
+		MultivaluedMap<I, T> map = mapTuples(tuples);
+		for (I sourceId : map.keySet()) {
+			MetaInformation metaInformation = ((ResourceList<T>) map.getList(sourceId)).getMeta();
+			long totalCount = totalCounts.get(sourceId);
+			if (metaInformation instanceof PagedMetaInformation) {
+				((PagedMetaInformation) metaInformation).setTotalResourceCount(totalCount);
+			}
+			if (metaInformation instanceof HasMoreResourcesMetaInformation && limit != null) {
+				((HasMoreResourcesMetaInformation) metaInformation).setHasMoreResources(totalCount > offset + limit);
+			}
+		}
 		return map;
 	}
 
+	private JpaQueryExecutor<?> buildExecutor(List<I> sourceIds, String fieldName, QuerySpec querySpec, QuerySpec filteredQuerySpec) {
+		JpaQueryFactory queryFactory = module.getQueryFactory();
+		JpaQuery<?> query = queryFactory.query(sourceEntityClass, fieldName, sourceIds);
+		query.setPrivateData(new JpaRequestContext(this, querySpec));
+		query.addParentIdSelection();
+		query = filterQuery(filteredQuerySpec, query);
+
+		Class<?> entityClass = repositoryConfig.getEntityClass();
+		ComputedAttributeRegistry computedAttributesRegistry = queryFactory.getComputedAttributes();
+		Set<String> computedAttrs = computedAttributesRegistry.getForType(entityClass);
+
+		JpaRepositoryUtils.prepareQuery(query, filteredQuerySpec, computedAttrs);
+
+		JpaQueryExecutor<?> executor = query.buildExecutor();
+		JpaRepositoryUtils.prepareExecutor(executor, filteredQuerySpec, fetchRelations(fieldName));
+		repositoryConfig.getCachePolicy().apply(executor);
+		return executor;
+	}
+
 	@SuppressWarnings("unchecked")
 	private MultivaluedMap<I, T> mapTuples(List<Tuple> tuples) {
 		MultivaluedMap<I, T> map = new MultivaluedMap<I, T>() {
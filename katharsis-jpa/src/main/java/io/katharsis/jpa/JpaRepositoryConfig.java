@@ -8,6 +8,8 @@ import java.util.Map;
 import io.katharsis.core.internal.utils.ClassUtils;
 import io.katharsis.jpa.mapping.IdentityMapper;
 import io.katharsis.jpa.mapping.JpaMapper;
+import io.katharsis.jpa.query.TotalCountStrategies;
+import io.katharsis.jpa.query.TotalCountStrategy;
 import io.katharsis.queryspec.QuerySpec;
 import io.katharsis.repository.ResourceRepositoryV2;
 import io.katharsis.repository.decorate.RelationshipRepositoryDecorator;
@@ -42,6 +44,16 @@ public class JpaRepositoryConfig<T> {
 
 	private Map<Class<?>, RelationshipRepositoryDecorator<T, ?, ?, ?>> relationshipRepositoriesDecorators;
 
+	private boolean keysetPaging;
+
+	private TotalCountStrategy totalCountStrategy;
+
+	private boolean readAfterSave;
+
+	private JpaCachePolicy cachePolicy;
+
+	private boolean streaming;
+
 	private JpaRepositoryConfig() {
 	}
 
@@ -64,6 +76,16 @@ public class JpaRepositoryConfig<T> {
 
 		private Map<Class<?>, RelationshipRepositoryDecorator<T, ?, ?, ?>> relationshipRepositoryDecorators = new HashMap<>();
 
+		private boolean keysetPaging = false;
+
+		private TotalCountStrategy totalCountStrategy = TotalCountStrategies.exact();
+
+		private boolean readAfterSave = true;
+
+		private JpaCachePolicy cachePolicy = JpaCachePolicy.none();
+
+		private boolean streaming = false;
+
 		public JpaRepositoryConfig<T> build() {
 			JpaRepositoryConfig<T> config = new JpaRepositoryConfig<>();
 			config.entityClass = entityClass;
@@ -74,6 +96,11 @@ public class JpaRepositoryConfig<T> {
 			config.listLinksClass = listLinksClass;
 			config.resourceRepositoryDecorator = resourceRepositoryDecorator;
 			config.relationshipRepositoriesDecorators = relationshipRepositoryDecorators;
+			config.keysetPaging = keysetPaging;
+			config.totalCountStrategy = totalCountStrategy;
+			config.readAfterSave = readAfterSave;
+			config.cachePolicy = cachePolicy;
+			config.streaming = streaming;
 			return config;
 		}
 
@@ -132,6 +159,77 @@ public class JpaRepositoryConfig<T> {
 			return this;
 		}
 
+		/**
+		 * Enables keyset (seek) pagination. Paged requests then seek past the last resource of the previous page with
+		 * range predicates on the sort attributes and primary key rather than skipping page[offset] rows, and
+		 * next/prev links carry page[after]/page[before] cursors. The total resource count is not computed in this
+		 * mode. Cursors provided by clients are honored regardless of this setting.
+		 * 
+		 * @param keysetPaging true to enable keyset pagination
+		 * @return this builder
+		 */
+		public Builder<T> setKeysetPaging(boolean keysetPaging) {
+			this.keysetPaging = keysetPaging;
+			return this;
+		}
+
+		/**
+		 * Sets how the total number of resources of paged requests is determined. By default an exact count query is
+		 * issued unless the count can be derived from the last page. See {@link TotalCountStrategies} for
+		 * alternatives.
+		 * 
+		 * @param totalCountStrategy to use
+		 * @return this builder
+		 */
+		public Builder<T> setTotalCountStrategy(TotalCountStrategy totalCountStrategy) {
+			this.totalCountStrategy = totalCountStrategy;
+			return this;
+		}
+
+		/**
+		 * By default created and saved resources are queried again from the database to return them. If disabled, the
+		 * managed entity is mapped back directly instead. The entity is then not flushed as part of the save, values
+		 * generated by the database other than the primary key are not visible and constraint violations only surface
+		 * on flush or commit. Of the {@link JpaRepositoryFilter}s only the tuple and result filters are applied to the
+		 * returned resource. If the mapper makes use of computed attributes, only those are queried by primary key,
+		 * which flushes the entity.
+		 * 
+		 * @param readAfterSave false to map the saved entity directly
+		 * @return this builder
+		 */
+		public Builder<T> setReadAfterSave(boolean readAfterSave) {
+			this.readAfterSave = readAfterSave;
+			return this;
+		}
+
+		/**
+		 * Sets how the repository makes use of the second-level and query cache, e.g.
+		 * {@link JpaCachePolicy#referenceData(String)} for mostly-static resources. By default the defaults of the
+		 * persistence unit apply.
+		 * 
+		 * @param cachePolicy to use
+		 * @return this builder
+		 */
+		public Builder<T> setCachePolicy(JpaCachePolicy cachePolicy) {
+			this.cachePolicy = cachePolicy;
+			return this;
+		}
+
+		/**
+		 * By default collection requests are answered with a {@link io.katharsis.resource.list.ResourceList} holding
+		 * all the resources. If enabled, the repository implements
+		 * {@link io.katharsis.repository.StreamingResourceRepositoryV2} instead and rows are scrolled from the
+		 * database and mapped one at a time. Paged requests are then answered without a total count. Requests
+		 * subject to {@link JpaRepositoryFilter}s or keyset paging are not streamed.
+		 * 
+		 * @param streaming true to stream the results of collection requests
+		 * @return this builder
+		 */
+		public Builder<T> setStreaming(boolean streaming) {
+			this.streaming = streaming;
+			return this;
+		}
+
 		/**
 		 * Sets a decorator that allows to intercept all requests to the actual repository.
 		 * 
@@ -218,6 +316,41 @@ public class JpaRepositoryConfig<T> {
 		return (Class<? extends ResourceListBase<T, M, L>>) listClass;
 	}
 
+	/**
+	 * @return true if keyset pagination is enabled, see {@link Builder#setKeysetPaging(boolean)}
+	 */
+	public boolean getKeysetPaging() {
+		return keysetPaging;
+	}
+
+	/**
+	 * @return strategy to determine the total number of resources of paged requests
+	 */
+	public TotalCountStrategy getTotalCountStrategy() {
+		return totalCountStrategy;
+	}
+
+	/**
+	 * @return true if saved resources are queried again from the database, see {@link Builder#setReadAfterSave(boolean)}
+	 */
+	public boolean getReadAfterSave() {
+		return readAfterSave;
+	}
+
+	/**
+	 * @return cache policy of the repository, see {@link Builder#setCachePolicy(JpaCachePolicy)}
+	 */
+	/**
+	 * @return true if the results of collection requests are streamed, see {@link Builder#setStreaming(boolean)}
+	 */
+	public boolean getStreaming() {
+		return streaming;
+	}
+
+	public JpaCachePolicy getCachePolicy() {
+		return cachePolicy;
+	}
+
 	public DefaultResourceList<T> newResultList() {
 		DefaultResourceList<T> list = ClassUtils.newInstance(listClass);
 		list.setMeta(newMetaInformation());
@@ -99,4 +99,18 @@ public interface JpaRepositoryFilter {
 	 */
 	<T> ResourceList<T> filterResults(Object repository, QuerySpec querySpec, ResourceList<T> resources);
 
+	/**
+	 * Allows total counts to be cached by
+	 * {@link io.katharsis.jpa.query.TotalCountStrategies#cached(long, java.util.concurrent.TimeUnit)} despite the
+	 * restrictions this filter adds in {@link #filterQuery(Object, QuerySpec, JpaQuery)} or
+	 * {@link #filterExecutor(Object, QuerySpec, JpaQueryExecutor)}.
+	 * 
+	 * @param repository where the query is executed
+	 * @param querySpec that is used to query
+	 * @return value identifying the restrictions added by this filter for the current request, e.g. the tenant, or
+	 *         null if they cannot be identified and counts must not be cached.
+	 */
+	default Object getTotalCountKey(Object repository, QuerySpec querySpec) {
+		return null;
+	}
 }
@@ -0,0 +1,24 @@
+package io.katharsis.jpa;
+
+import java.io.Serializable;
+import java.util.stream.Stream;
+
+import io.katharsis.queryspec.QuerySpec;
+import io.katharsis.repository.StreamingResourceRepositoryV2;
+
+/**
+ * Exposes a JPA entity as ResourceRepository streaming the results of collection requests, see
+ * {@link JpaRepositoryConfig.Builder#setStreaming(boolean)}.
+ */
+public class JpaStreamingEntityRepository<T, I extends Serializable> extends JpaEntityRepository<T, I>
+		implements StreamingResourceRepositoryV2<T, I> {
+
+	public JpaStreamingEntityRepository(JpaModule module, JpaRepositoryConfig<T> config) {
+		super(module, config);
+	}
+
+	@Override
+	public Stream<T> findAllStream(QuerySpec querySpec) {
+		return streamAll(querySpec);
+	}
+}
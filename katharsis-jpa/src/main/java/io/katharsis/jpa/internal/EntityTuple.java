@@ -0,0 +1,41 @@
+package io.katharsis.jpa.internal;
+
+import io.katharsis.jpa.query.Tuple;
+
+/**
+ * Tuple carrying an entity as first entry followed by the entries of a tuple that did not select the entity itself,
+ * same as for regular queries. Entries are also accessible by the names of the underlying tuple.
+ */
+public class EntityTuple implements Tuple {
+
+	private Object entity;
+
+	private Tuple tuple;
+
+	private int numEntriesToIgnore;
+
+	public EntityTuple(Object entity, Tuple tuple) {
+		this.entity = entity;
+		this.tuple = tuple;
+	}
+
+	@Override
+	public <T> T get(String name, Class<T> clazz) {
+		return tuple.get(name, clazz);
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public <T> T get(int index, Class<T> clazz) {
+		int tupleIndex = index + numEntriesToIgnore;
+		if (tupleIndex == 0) {
+			return (T) entity;
+		}
+		return tuple.get(tupleIndex - 1, clazz);
+	}
+
+	@Override
+	public void reduce(int numEntriesToIgnore) {
+		this.numEntriesToIgnore = numEntriesToIgnore;
+	}
+}
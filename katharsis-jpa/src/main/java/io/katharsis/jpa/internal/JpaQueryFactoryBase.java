@@ -2,7 +2,9 @@ package io.katharsis.jpa.internal;
 
 import javax.persistence.EntityManager;
 
+import io.katharsis.jpa.internal.query.AbstractJpaQueryImpl;
 import io.katharsis.jpa.internal.query.ComputedAttributeRegistryImpl;
+import io.katharsis.jpa.internal.query.FetchPlanCache;
 import io.katharsis.jpa.query.ComputedAttributeRegistry;
 import io.katharsis.jpa.query.JpaQueryFactory;
 import io.katharsis.jpa.query.JpaQueryFactoryContext;
@@ -14,6 +16,8 @@ public abstract class JpaQueryFactoryBase implements JpaQueryFactory {
 
 	protected ComputedAttributeRegistryImpl computedAttrs = new ComputedAttributeRegistryImpl();
 
+	protected FetchPlanCache fetchPlans = new FetchPlanCache();
+
 	protected MetaLookup metaLookup;
 	
 
@@ -31,4 +35,16 @@ public abstract class JpaQueryFactoryBase implements JpaQueryFactory {
 	public ComputedAttributeRegistry getComputedAttributes() {
 		return computedAttrs;
 	}
+
+	/**
+	 * @return plans used to load the fetch paths of queries, including their row counts
+	 */
+	public FetchPlanCache getFetchPlans() {
+		return fetchPlans;
+	}
+
+	protected <Q extends AbstractJpaQueryImpl<?, ?>> Q setupQuery(Q query) {
+		query.setFetchPlans(fetchPlans);
+		return query;
+	}
 }
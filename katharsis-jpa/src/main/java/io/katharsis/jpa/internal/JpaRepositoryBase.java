@@ -1,5 +1,6 @@
 package io.katharsis.jpa.internal;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import javax.persistence.EntityManager;
@@ -10,9 +11,13 @@ import io.katharsis.jpa.JpaRepositoryFilter;
 import io.katharsis.jpa.mapping.JpaMapper;
 import io.katharsis.jpa.query.JpaQuery;
 import io.katharsis.jpa.query.JpaQueryExecutor;
+import io.katharsis.jpa.query.TotalCountContext;
 import io.katharsis.jpa.query.Tuple;
 import io.katharsis.queryspec.QuerySpec;
 import io.katharsis.resource.list.ResourceList;
+import io.katharsis.resource.meta.HasMoreResourcesMetaInformation;
+import io.katharsis.resource.meta.MetaInformation;
+import io.katharsis.resource.meta.PagedMetaInformation;
 
 public abstract class JpaRepositoryBase<T> {
 
@@ -98,6 +103,36 @@ public abstract class JpaRepositoryBase<T> {
 		return filteredResources;
 	}
 
+	/**
+	 * @param querySpec that is used to query
+	 * @return keys contributed by the filters of this repository or null if a filter does not provide one
+	 */
+	protected Object getTotalCountFilterKey(QuerySpec querySpec) {
+		List<Object> keys = new ArrayList<>();
+		for (JpaRepositoryFilter filter : module.getFilters()) {
+			if (filter.accept(repositoryConfig.getResourceClass())) {
+				Object key = filter.getTotalCountKey(this, querySpec);
+				if (key == null) {
+					return null;
+				}
+				keys.add(key);
+			}
+		}
+		return keys;
+	}
+
+	/**
+	 * @return true if a {@link JpaRepositoryFilter} applies to this repository
+	 */
+	protected boolean hasFilters() {
+		for (JpaRepositoryFilter filter : module.getFilters()) {
+			if (filter.accept(repositoryConfig.getResourceClass())) {
+				return true;
+			}
+		}
+		return false;
+	}
+
 	protected ResourceList<T> map(List<Tuple> tuples) {
 		ResourceList<T> resources = repositoryConfig.newResultList();
 		for (Tuple tuple : tuples) {
@@ -106,4 +141,61 @@ public abstract class JpaRepositoryBase<T> {
 		}
 		return resources;
 	}
+
+	/**
+	 * Lets the executor fetch one row in addition to the requested page if demanded by the total count strategy.
+	 * 
+	 * @param querySpec of the request
+	 * @param executor to prepare
+	 * @return true if an additional row is fetched
+	 */
+	protected boolean prepareFetchNextRow(QuerySpec querySpec, JpaQueryExecutor<?> executor) {
+		Long limit = querySpec.getLimit();
+		if (limit != null && limit < Integer.MAX_VALUE && repositoryConfig.getTotalCountStrategy().isFetchNextRow()) {
+			executor.setLimit((int) limit.longValue() + 1);
+			return true;
+		}
+		return false;
+	}
+
+	protected static List<Tuple> trimNextRow(QuerySpec querySpec, List<Tuple> tuples) {
+		int limit = (int) querySpec.getLimit().longValue();
+		return tuples.size() > limit ? tuples.subList(0, limit) : tuples;
+	}
+
+	/**
+	 * Sets the total number of resources of a paged request. For the last page the count is derived from the page
+	 * itself, otherwise the total count strategy is asked. If it does not provide a count, {@link
+	 * HasMoreResourcesMetaInformation} is used to tell whether there is a next page.
+	 * 
+	 * @param resources of the requested page
+	 * @param context of the paged request
+	 * @param numFetchedRows number of rows returned by the query, including an additional one
+	 * @param fetchedNextRow true if an additional row was fetched
+	 */
+	protected void setTotalCount(ResourceList<?> resources, TotalCountContext context, int numFetchedRows, boolean fetchedNextRow) {
+		MetaInformation metaInformation = resources.getMeta();
+		if (!(metaInformation instanceof PagedMetaInformation) && !(metaInformation instanceof HasMoreResourcesMetaInformation)) {
+			return;
+		}
+
+		QuerySpec querySpec = context.getQuerySpec();
+		long limit = querySpec.getLimit();
+		long offset = querySpec.getOffset();
+		boolean lastPage = fetchedNextRow ? numFetchedRows <= limit : numFetchedRows < limit;
+		Long totalCount;
+		if (lastPage && (numFetchedRows > 0 || offset == 0)) {
+			totalCount = offset + numFetchedRows;
+		}
+		else {
+			totalCount = repositoryConfig.getTotalCountStrategy().getTotalRowCount(context);
+		}
+
+		if (metaInformation instanceof PagedMetaInformation) {
+			((PagedMetaInformation) metaInformation).setTotalResourceCount(totalCount);
+		}
+		if (metaInformation instanceof HasMoreResourcesMetaInformation && totalCount == null && fetchedNextRow) {
+			((HasMoreResourcesMetaInformation) metaInformation).setHasMoreResources(!lastPage);
+		}
+	}
 }
@@ -1,11 +1,17 @@
 package io.katharsis.jpa.internal;
 
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
 import java.lang.reflect.Type;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Deque;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.persistence.EntityManager;
 
 import io.katharsis.core.internal.utils.PreconditionUtil;
 import io.katharsis.core.internal.utils.PropertyUtils;
@@ -24,6 +30,12 @@ import io.katharsis.queryspec.SortSpec;
 
 public class JpaRepositoryUtils {
 
+	private static final Method[] NO_ACCESSORS = new Method[0];
+
+	private static final Map<Class<?>, Method[]> JDBC_BATCH_SIZE_ACCESSORS = new ConcurrentHashMap<>();
+
+	private static final Map<Class<?>, Method[]> READ_ONLY_ACCESSORS = new ConcurrentHashMap<>();
+
 	private JpaRepositoryUtils() {
 	}
 
@@ -41,6 +53,108 @@ public class JpaRepositoryUtils {
 		return primaryKey.getElements().get(0);
 	}
 
+	/**
+	 * Applies the given JDBC batch size to the session of the entity manager if supported by the provider (e.g.
+	 * <code>Session.setJdbcBatchSize</code> of Hibernate 5.2 and later).
+	 * 
+	 * @param em to configure
+	 * @param jdbcBatchSize to apply, nothing is done if null
+	 * @return scope restoring the previous batch size of the session when closed
+	 */
+	public static JdbcBatchSizeScope setJdbcBatchSize(EntityManager em, Integer jdbcBatchSize) {
+		Object session = em.getDelegate();
+		Method[] accessors = jdbcBatchSize != null ? getJdbcBatchSizeAccessors(session.getClass()) : NO_ACCESSORS;
+		if (accessors.length == 0) {
+			return new JdbcBatchSizeScope(null, null, null, null);
+		}
+		Integer previousBatchSize = (Integer) invoke(accessors[0], session);
+		invoke(accessors[1], session, jdbcBatchSize);
+		return new JdbcBatchSizeScope(em, accessors[1], session, previousBatchSize);
+	}
+
+	private static Method[] getJdbcBatchSizeAccessors(Class<?> sessionClass) {
+		return JDBC_BATCH_SIZE_ACCESSORS.computeIfAbsent(sessionClass, key -> {
+			try {
+				return new Method[] { key.getMethod("getJdbcBatchSize"), key.getMethod("setJdbcBatchSize", Integer.class) };
+			}
+			catch (NoSuchMethodException e) { // NOSONAR provider without session-level batch sizes
+				// nothing to do, batch size of the persistence unit applies
+				return NO_ACCESSORS;
+			}
+		});
+	}
+
+	/**
+	 * Checks whether an entity was loaded read-only, e.g. with the <code>org.hibernate.readOnly</code> hint, by means of
+	 * <code>Session.isReadOnly</code> of Hibernate.
+	 * 
+	 * @param em holding the entity
+	 * @param entity to check
+	 * @return true if the entity is managed by the entity manager and read-only, false if not or not supported by the
+	 *         provider
+	 */
+	public static boolean isReadOnly(EntityManager em, Object entity) {
+		if (entity == null || !em.contains(entity)) {
+			return false;
+		}
+		Object session = em.getDelegate();
+		Method[] accessors = READ_ONLY_ACCESSORS.computeIfAbsent(session.getClass(), key -> {
+			try {
+				return new Method[] { key.getMethod("isReadOnly", Object.class) };
+			}
+			catch (NoSuchMethodException e) { // NOSONAR provider without read-only entities
+				return NO_ACCESSORS;
+			}
+		});
+		return accessors.length != 0 && Boolean.TRUE.equals(invoke(accessors[0], session, entity));
+	}
+
+	private static Object invoke(Method method, Object target, Object... args) {
+		try {
+			return method.invoke(target, args);
+		}
+		catch (IllegalAccessException | InvocationTargetException e) {
+			throw new IllegalStateException("failed to invoke " + method, e);
+		}
+	}
+
+	/**
+	 * Restores the JDBC batch size a session had before {@link JpaRepositoryUtils#setJdbcBatchSize(EntityManager, Integer)}.
+	 */
+	public static class JdbcBatchSizeScope implements AutoCloseable {
+
+		private final EntityManager em;
+
+		private final Method setter;
+
+		private final Object session;
+
+		private final Integer previousBatchSize;
+
+		private JdbcBatchSizeScope(EntityManager em, Method setter, Object session, Integer previousBatchSize) {
+			this.em = em;
+			this.setter = setter;
+			this.session = session;
+			this.previousBatchSize = previousBatchSize;
+		}
+
+		/**
+		 * Flushes the writes of this scope while the batch size is applied, nothing is done if it could not be applied.
+		 */
+		public void flush() {
+			if (setter != null) {
+				em.flush();
+			}
+		}
+
+		@Override
+		public void close() {
+			if (setter != null) {
+				invoke(setter, session, previousBatchSize);
+			}
+		}
+	}
+
 	public static void prepareQuery(JpaQuery<?> query, QuerySpec querySpec, Set<String> computedAttrs) {
 
 		for (String computedAttr : computedAttrs) {
@@ -53,10 +167,6 @@ public class JpaRepositoryUtils {
 		for (SortSpec sortSpec : querySpec.getSort()) {
 			query.addSortBy(sortSpec);
 		}
-		if (!querySpec.getIncludedFields().isEmpty()) {
-			throw new UnsupportedOperationException("includeFields not yet supported");
-		}
-
 	}
 
 	public static void prepareExecutor(JpaQueryExecutor<?> executor, QuerySpec querySpec, boolean includeRelations) {
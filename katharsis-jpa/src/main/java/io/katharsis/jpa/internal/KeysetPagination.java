@@ -0,0 +1,364 @@
+package io.katharsis.jpa.internal;
+
+import java.io.IOException;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.temporal.TemporalAccessor;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+import javax.persistence.Basic;
+import javax.persistence.Column;
+import javax.persistence.JoinColumn;
+import javax.persistence.ManyToOne;
+import javax.persistence.OneToOne;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.katharsis.core.internal.utils.ClassUtils;
+import io.katharsis.errorhandling.exception.BadRequestException;
+import io.katharsis.jpa.JpaRepositoryConfig;
+import io.katharsis.jpa.query.Tuple;
+import io.katharsis.meta.model.MetaAttribute;
+import io.katharsis.meta.model.MetaAttributePath;
+import io.katharsis.meta.model.MetaDataObject;
+import io.katharsis.meta.model.MetaKey;
+import io.katharsis.queryspec.Direction;
+import io.katharsis.queryspec.FilterOperator;
+import io.katharsis.queryspec.FilterSpec;
+import io.katharsis.queryspec.QuerySpec;
+import io.katharsis.queryspec.SortSpec;
+import io.katharsis.resource.list.ResourceList;
+import io.katharsis.resource.meta.CursorMetaInformation;
+import io.katharsis.resource.meta.MetaInformation;
+
+/**
+ * Keyset (seek) pagination. The sort order is completed with the primary key to be total, a cursor holds the values
+ * of the sort attributes of the first or last resource of a page. Rather than skipping page[offset] rows, the next
+ * page is selected with a range predicate on those attributes:
+ *
+ * <pre>
+ * (a &gt; :a) OR (a = :a AND b &gt; :b) OR (a = :a AND b = :b AND id &gt; :id)
+ * </pre>
+ *
+ * which lets the database seek into an index on the sort attributes and keeps the latency of deep pages flat. For
+ * page[before] the sort order is reversed and the page is flipped again after fetching. One additional row is fetched
+ * to determine whether a further page exists.
+ *
+ * <p>
+ * The range predicate cannot reach rows holding null in a sort attribute, hence all sort attributes must be declared
+ * non-null (primary key, primitive type, <code>@Column(nullable = false)</code>, <code>@Basic(optional = false)</code>,
+ * <code>@ManyToOne/@OneToOne(optional = false)</code>, <code>@JoinColumn(nullable = false)</code> or
+ * <code>@NotNull</code>). Other sort orders are paged by offset. Cursor values without a JSON representation, like
+ * java.time types, are encoded as text and parsed with the static <code>parse(CharSequence)</code> method of the
+ * attribute type. Dates are encoded as ISO-8601 instants with the full precision of {@link Timestamp}.
+ * </p>
+ */
+public class KeysetPagination {
+
+	private static final ObjectMapper CURSOR_MAPPER = new ObjectMapper();
+
+	private List<SortSpec> sortSpecs;
+
+	private List<MetaAttributePath> sortPaths;
+
+	private String after;
+
+	private String before;
+
+	private int limit;
+
+	private String nextCursor;
+
+	private String prevCursor;
+
+	private KeysetPagination(List<SortSpec> sortSpecs, List<MetaAttributePath> sortPaths, QuerySpec querySpec) {
+		this.sortSpecs = sortSpecs;
+		this.sortPaths = sortPaths;
+		this.after = querySpec.getPageAfter();
+		this.before = querySpec.getPageBefore();
+		this.limit = (int) querySpec.getLimit().longValue();
+	}
+
+	/**
+	 * @param meta of the entity
+	 * @param config of the repository
+	 * @param querySpec of the request
+	 * @return keyset pagination or null if the request has to be paged by offset
+	 */
+	public static KeysetPagination create(MetaDataObject meta, JpaRepositoryConfig<?> config, QuerySpec querySpec) {
+		boolean cursorRequested = querySpec.getPageAfter() != null || querySpec.getPageBefore() != null;
+		if (!cursorRequested && (!config.getKeysetPaging() || querySpec.getLimit() == null)) {
+			return null;
+		}
+		if (querySpec.getPageAfter() != null && querySpec.getPageBefore() != null) {
+			throw new BadRequestException("page[after] and page[before] cannot be combined");
+		}
+		if (querySpec.getLimit() == null || querySpec.getLimit() > Integer.MAX_VALUE - 1) {
+			throw new BadRequestException("page[after] and page[before] require a valid page[limit]");
+		}
+		if (cursorRequested && querySpec.getOffset() != 0) {
+			throw new BadRequestException("page[offset] cannot be combined with page[after] or page[before]");
+		}
+
+		MetaKey primaryKey = meta.getPrimaryKey();
+		if (primaryKey == null || primaryKey.getElements().size() != 1 || primaryKey.getUniqueElement().getType() instanceof MetaDataObject) {
+			return unsupported(cursorRequested, "keyset pagination requires a single-valued primary key");
+		}
+		MetaAttribute primaryKeyAttr = primaryKey.getUniqueElement();
+
+		List<SortSpec> sortSpecs = new ArrayList<>();
+		List<MetaAttributePath> sortPaths = new ArrayList<>();
+		boolean hasPrimaryKey = false;
+		for (SortSpec sortSpec : querySpec.getSort()) {
+			MetaAttributePath path;
+			try {
+				path = meta.resolvePath(sortSpec.getAttributePath());
+			}
+			catch (RuntimeException e) { // NOSONAR computed attributes are not part of the meta model
+				return unsupported(cursorRequested, "keyset pagination not supported for sort " + sortSpec);
+			}
+			for (MetaAttribute attr : path) {
+				if (attr.getType().isCollection() || attr.getType().isMap()) {
+					return unsupported(cursorRequested, "keyset pagination not supported for sort " + sortSpec);
+				}
+				if (!isNotNull(attr)) {
+					return unsupported(cursorRequested, "keyset pagination requires non-null sort attributes, " + attr.getName()
+							+ " is nullable for sort " + sortSpec);
+				}
+			}
+			if (!(path.getLast().getType() instanceof MetaDataObject)) {
+				sortSpecs.add(sortSpec);
+				sortPaths.add(path);
+				hasPrimaryKey |= path.length() == 1 && path.getLast().equals(primaryKeyAttr);
+			}
+			else {
+				return unsupported(cursorRequested, "keyset pagination not supported for sort " + sortSpec);
+			}
+		}
+		if (!hasPrimaryKey) {
+			sortSpecs.add(new SortSpec(Collections.singletonList(primaryKeyAttr.getName()), Direction.ASC));
+			sortPaths.add(new MetaAttributePath(primaryKeyAttr));
+		}
+		return new KeysetPagination(sortSpecs, sortPaths, querySpec);
+	}
+
+	private static boolean isNotNull(MetaAttribute attr) {
+		if (attr.isPrimaryKeyAttribute() || isPrimitive(attr)) {
+			return true;
+		}
+		Column column = attr.getAnnotation(Column.class);
+		Basic basic = attr.getAnnotation(Basic.class);
+		ManyToOne manyToOne = attr.getAnnotation(ManyToOne.class);
+		OneToOne oneToOne = attr.getAnnotation(OneToOne.class);
+		JoinColumn joinColumn = attr.getAnnotation(JoinColumn.class);
+		if (column != null && !column.nullable() || basic != null && !basic.optional() || manyToOne != null && !manyToOne.optional()
+				|| oneToOne != null && !oneToOne.optional() || joinColumn != null && !joinColumn.nullable()) {
+			return true;
+		}
+		for (Annotation annotation : attr.getAnnotations()) {
+			// bean validation is not a dependency of this module
+			if (annotation.annotationType().getName().equals("javax.validation.constraints.NotNull")) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static boolean isPrimitive(MetaAttribute attr) {
+		// the meta model maps primitives to their wrapper types
+		Class<?> beanClass = attr.getParent().getImplementationClass();
+		Field field = ClassUtils.findClassField(beanClass, attr.getName());
+		if (field != null) {
+			return field.getType().isPrimitive();
+		}
+		Method getter = ClassUtils.findGetter(beanClass, attr.getName());
+		return getter != null && getter.getReturnType().isPrimitive();
+	}
+
+	private static KeysetPagination unsupported(boolean cursorRequested, String message) {
+		if (cursorRequested) {
+			throw new BadRequestException(message);
+		}
+		return null;
+	}
+
+	/**
+	 * @return attributes that must be available from the fetched entities to compute cursors
+	 */
+	public List<MetaAttributePath> getSortPaths() {
+		return sortPaths;
+	}
+
+	/**
+	 * @param querySpec of the request
+	 * @return copy of the querySpec with the total (and possibly reversed) sort order and the cursor predicate applied
+	 */
+	public QuerySpec prepare(QuerySpec querySpec) {
+		boolean backward = before != null;
+		QuerySpec keysetSpec = querySpec.duplicate();
+		keysetSpec.getSort().clear();
+		for (SortSpec sortSpec : sortSpecs) {
+			keysetSpec.addSort(backward ? sortSpec.reverse() : sortSpec);
+		}
+
+		String cursor = backward ? before : after;
+		if (cursor != null) {
+			keysetSpec.setOffset(0);
+			keysetSpec.addFilter(toFilterSpec(decode(cursor), backward));
+		}
+		return keysetSpec;
+	}
+
+	private FilterSpec toFilterSpec(Object[] values, boolean backward) {
+		List<FilterSpec> alternatives = new ArrayList<>();
+		for (int i = 0; i < values.length; i++) {
+			List<FilterSpec> conditions = new ArrayList<>();
+			for (int j = 0; j < i; j++) {
+				conditions.add(new FilterSpec(sortSpecs.get(j).getAttributePath(), FilterOperator.EQ, values[j]));
+			}
+			boolean ascending = (sortSpecs.get(i).getDirection() == Direction.ASC) != backward;
+			conditions.add(new FilterSpec(sortSpecs.get(i).getAttributePath(), ascending ? FilterOperator.GT : FilterOperator.LT, values[i]));
+			alternatives.add(conditions.size() == 1 ? conditions.get(0) : FilterSpec.and(conditions));
+		}
+		if (alternatives.size() == 1) {
+			return alternatives.get(0);
+		}
+		return FilterSpec.or(alternatives);
+	}
+
+	/**
+	 * @return number of rows to fetch, one more than requested to detect whether there is a further page
+	 */
+	public int getFetchLimit() {
+		return limit + 1;
+	}
+
+	/**
+	 * Trims the additional row, restores the requested order for page[before] and computes the cursors of the
+	 * adjacent pages.
+	 *
+	 * @param tuples with the entity as first entry
+	 * @return tuples of the requested page
+	 */
+	public List<Tuple> apply(List<Tuple> tuples) {
+		boolean backward = before != null;
+		boolean hasMore = tuples.size() > limit;
+		List<Tuple> page = new ArrayList<>(hasMore ? tuples.subList(0, limit) : tuples);
+		if (backward) {
+			Collections.reverse(page);
+		}
+		if (!page.isEmpty()) {
+			boolean hasNext = backward || hasMore;
+			boolean hasPrev = backward ? hasMore : after != null;
+			nextCursor = hasNext ? encode(page.get(page.size() - 1).get(0, Object.class)) : null;
+			prevCursor = hasPrev ? encode(page.get(0).get(0, Object.class)) : null;
+		}
+		return page;
+	}
+
+	/**
+	 * Exposes the cursors of the adjacent pages if the list carries {@link CursorMetaInformation}.
+	 *
+	 * @param resources of the requested page
+	 */
+	public void setCursors(ResourceList<?> resources) {
+		MetaInformation metaInformation = resources.getMeta();
+		if (metaInformation instanceof CursorMetaInformation) {
+			CursorMetaInformation cursorMeta = (CursorMetaInformation) metaInformation;
+			cursorMeta.setNextCursor(nextCursor);
+			cursorMeta.setPrevCursor(prevCursor);
+		}
+	}
+
+	protected String encode(Object entity) {
+		List<Object> values = new ArrayList<>(sortPaths.size());
+		for (MetaAttributePath path : sortPaths) {
+			Object value = entity;
+			for (MetaAttribute attr : path) {
+				value = value != null ? attr.getValue(value) : null;
+			}
+			values.add(encodeValue(value));
+		}
+		try {
+			byte[] json = CURSOR_MAPPER.writeValueAsBytes(values);
+			return Base64.getUrlEncoder().withoutPadding().encodeToString(json);
+		}
+		catch (IOException e) {
+			throw new IllegalStateException("failed to encode cursor for " + entity, e);
+		}
+	}
+
+	/**
+	 * Dates are encoded as ISO-8601 instants, which keeps the nanoseconds of a {@link Timestamp}. Epoch milliseconds
+	 * would not reach rows differing only below a millisecond.
+	 */
+	private static Object encodeValue(Object value) {
+		if (value instanceof Timestamp) {
+			return ((Timestamp) value).toInstant().toString();
+		}
+		if (value instanceof Date) {
+			return Instant.ofEpochMilli(((Date) value).getTime()).toString();
+		}
+		return value instanceof TemporalAccessor ? value.toString() : value;
+	}
+
+	protected Object[] decode(String cursor) {
+		try {
+			JsonNode node = CURSOR_MAPPER.readTree(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8));
+			if (node == null || !node.isArray() || node.size() != sortPaths.size()) {
+				throw new BadRequestException("cursor does not match the requested sort order: " + cursor);
+			}
+			Object[] values = new Object[node.size()];
+			for (int i = 0; i < values.length; i++) {
+				JsonNode valueNode = node.get(i);
+				if (valueNode.isNull()) {
+					throw new BadRequestException("cursor does not match the requested sort order: " + cursor);
+				}
+				Class<?> type = sortPaths.get(i).getLast().getType().getImplementationClass();
+				values[i] = decodeValue(valueNode, type);
+			}
+			return values;
+		}
+		catch (IOException | IllegalArgumentException e) {
+			throw new BadRequestException("invalid cursor: " + cursor);
+		}
+	}
+
+	private static Object decodeValue(JsonNode valueNode, Class<?> type) throws IOException {
+		if (valueNode.isTextual() && Date.class.isAssignableFrom(type)) {
+			Instant instant = Instant.parse(valueNode.textValue());
+			if (type.isAssignableFrom(Timestamp.class)) {
+				return Timestamp.from(instant);
+			}
+			try {
+				return type.getConstructor(long.class).newInstance(instant.toEpochMilli());
+			}
+			catch (NoSuchMethodException | InstantiationException | IllegalAccessException | InvocationTargetException e) {
+				throw new IllegalArgumentException(e);
+			}
+		}
+		if (valueNode.isTextual() && TemporalAccessor.class.isAssignableFrom(type)) {
+			try {
+				Method parseMethod = type.getMethod("parse", CharSequence.class);
+				if (Modifier.isStatic(parseMethod.getModifiers()) && type.isAssignableFrom(parseMethod.getReturnType())) {
+					return parseMethod.invoke(null, valueNode.textValue());
+				}
+			}
+			catch (NoSuchMethodException | IllegalAccessException | InvocationTargetException e) {
+				throw new IllegalArgumentException(e);
+			}
+		}
+		return CURSOR_MAPPER.treeToValue(valueNode, type);
+	}
+}
@@ -0,0 +1,128 @@
+package io.katharsis.jpa.internal;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import io.katharsis.core.internal.utils.ClassUtils;
+import io.katharsis.jpa.annotations.JpaMergeRelations;
+import io.katharsis.jpa.query.JpaQuery;
+import io.katharsis.jpa.query.Tuple;
+import io.katharsis.meta.model.MetaAttribute;
+import io.katharsis.meta.model.MetaAttributePath;
+import io.katharsis.meta.model.MetaDataObject;
+import io.katharsis.queryspec.IncludeFieldSpec;
+import io.katharsis.queryspec.QuerySpec;
+
+/**
+ * Translates a sparse fieldset into a projection selecting only the primary key and the requested attributes rather
+ * than the entire entity. The selected values are used to populate new, unmanaged entity instances, any other attribute
+ * remains unset. Only applicable if entities are exposed as resources and all requested fields are basic attributes.
+ * Relations, inclusions, DTO mappings and entity hierarchies are loaded as before.
+ */
+public class PartialEntityProjection {
+
+	private MetaDataObject meta;
+
+	private List<MetaAttribute> attributes;
+
+	private int offset;
+
+	private PartialEntityProjection(MetaDataObject meta, List<MetaAttribute> attributes, int offset) {
+		this.meta = meta;
+		this.attributes = attributes;
+		this.offset = offset;
+	}
+
+	/**
+	 * @param meta of the entity
+	 * @param querySpec of the request
+	 * @param computedAttrs selected in front of the projection
+	 * @return projection or null if the entities have to be loaded as a whole
+	 */
+	public static PartialEntityProjection create(MetaDataObject meta, QuerySpec querySpec, Set<String> computedAttrs) {
+		return create(meta, querySpec, computedAttrs, Collections.<MetaAttributePath> emptyList());
+	}
+
+	/**
+	 * @param meta of the entity
+	 * @param querySpec of the request
+	 * @param computedAttrs selected in front of the projection
+	 * @param requiredPaths to populate in addition to the requested fields, e.g. to compute keyset cursors
+	 * @return projection or null if the entities have to be loaded as a whole
+	 */
+	public static PartialEntityProjection create(MetaDataObject meta, QuerySpec querySpec, Set<String> computedAttrs,
+			List<MetaAttributePath> requiredPaths) {
+		List<IncludeFieldSpec> includedFields = querySpec.getIncludedFields();
+		Class<?> resourceClass = querySpec.getResourceClass();
+		if (includedFields.isEmpty() || resourceClass != meta.getImplementationClass() || !querySpec.getIncludedRelations().isEmpty()
+				|| resourceClass.getAnnotation(JpaMergeRelations.class) != null || meta.isAbstract() || !meta.getSubTypes().isEmpty()) {
+			return null;
+		}
+
+		MetaAttribute primaryKeyAttr = JpaRepositoryUtils.getPrimaryKeyAttr(meta);
+		List<MetaAttribute> attributes = new ArrayList<>();
+		attributes.add(primaryKeyAttr);
+		for (IncludeFieldSpec includedField : includedFields) {
+			List<String> attributePath = includedField.getAttributePath();
+			if (attributePath.size() != 1 || computedAttrs.contains(attributePath.get(0))) {
+				return null;
+			}
+			MetaAttribute attr = meta.getAttribute(attributePath.get(0));
+			if (attr.isAssociation() || attr.isDerived() || attr.getType().isCollection() || attr.getType().isMap()) {
+				return null;
+			}
+			if (!attributes.contains(attr)) {
+				attributes.add(attr);
+			}
+		}
+		for (MetaAttributePath requiredPath : requiredPaths) {
+			if (requiredPath.length() != 1) {
+				return null;
+			}
+			if (!attributes.contains(requiredPath.getLast())) {
+				attributes.add(requiredPath.getLast());
+			}
+		}
+		return new PartialEntityProjection(meta, attributes, computedAttrs.size());
+	}
+
+	/**
+	 * Replaces the entity selection of the given query with the projected attributes.
+	 *
+	 * @param query to project
+	 */
+	public void apply(JpaQuery<?> query) {
+		query.setEntitySelection(false);
+		for (MetaAttribute attr : attributes) {
+			query.addSelection(Arrays.asList(attr.getName()));
+		}
+	}
+
+	/**
+	 * @param tuples returned by the projected query
+	 * @return tuples carrying a partial entity as first entry followed by the computed attributes, same as for
+	 *         regular queries.
+	 */
+	public List<Tuple> toEntityTuples(List<Tuple> tuples) {
+		List<Tuple> entityTuples = new ArrayList<>(tuples.size());
+		for (Tuple tuple : tuples) {
+			entityTuples.add(toEntityTuple(tuple));
+		}
+		return entityTuples;
+	}
+
+	/**
+	 * @param tuple returned by the projected query
+	 * @return tuple carrying a partial entity as first entry, see {@link #toEntityTuples(List)}
+	 */
+	public Tuple toEntityTuple(Tuple tuple) {
+		Object entity = ClassUtils.newInstance(meta.getImplementationClass());
+		for (int i = 0; i < attributes.size(); i++) {
+			attributes.get(i).setValue(entity, tuple.get(offset + i, Object.class));
+		}
+		return new EntityTuple(entity, tuple);
+	}
+}
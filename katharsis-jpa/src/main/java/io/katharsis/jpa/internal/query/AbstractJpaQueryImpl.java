@@ -56,10 +56,14 @@ public abstract class AbstractJpaQueryImpl<T, B extends JpaQueryBackend<?, ?, ?,
 
 	protected boolean parentIdSelection;
 
+	protected boolean entitySelection = true;
+
 	private ComputedAttributeRegistryImpl computedAttrs;
 	
 	private Object privateData;
 
+	private FetchPlanCache fetchPlans;
+
 	protected AbstractJpaQueryImpl(MetaLookup metaLookup, EntityManager em, Class<T> clazz,
 			ComputedAttributeRegistryImpl computedAttrs) {
 		this.em = em;
@@ -106,6 +110,16 @@ public abstract class AbstractJpaQueryImpl<T, B extends JpaQueryBackend<?, ?, ?,
 		includedFields.add(new IncludeFieldSpec(path));
 	}
 
+	@Override
+	public JpaQuery<T> setEntitySelection(boolean entitySelection) {
+		this.entitySelection = entitySelection;
+		return this;
+	}
+
+	public boolean getEntitySelection() {
+		return entitySelection;
+	}
+
 	@Override
 	public JpaQuery<T> setEnsureTotalOrder(boolean ensureTotalOrder) {
 		this.ensureTotalOrder = ensureTotalOrder;
@@ -138,7 +152,7 @@ public abstract class AbstractJpaQueryImpl<T, B extends JpaQueryBackend<?, ?, ?,
 
 	@Override
 	public JpaQuery<T> setJoinType(List<String> path, JoinType joinType) {
-		joinTypes.put(meta.resolvePath(path), joinType);
+		joinTypes.put(computedAttrs.getPathCache().resolveEntityPath(meta, path), joinType);
 		return this;
 	}
 
@@ -209,7 +223,16 @@ public abstract class AbstractJpaQueryImpl<T, B extends JpaQueryBackend<?, ?, ?,
 		executorFactory.applySortSpec();
 		int numAutoSelections = executorFactory.applyDistinct();
 
-		return newExecutor(backend, numAutoSelections, selectionBindings);
+		AbstractQueryExecutorImpl<T> executor = newExecutor(backend, numAutoSelections, selectionBindings);
+		executor.setFetchPlans(fetchPlans);
+		return executor;
+	}
+
+	/**
+	 * @param fetchPlans to plan the loading of the fetch paths of executors with
+	 */
+	public void setFetchPlans(FetchPlanCache fetchPlans) {
+		this.fetchPlans = fetchPlans;
 	}
 
 	protected abstract AbstractQueryExecutorImpl<T> newExecutor(B ctx, int numAutoSelections,
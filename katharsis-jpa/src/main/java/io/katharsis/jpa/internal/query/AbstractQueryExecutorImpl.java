@@ -1,29 +1,46 @@
 package io.katharsis.jpa.internal.query;
 
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import javax.persistence.EntityGraph;
 import javax.persistence.EntityManager;
 import javax.persistence.Query;
 import javax.persistence.Subgraph;
 
+import io.katharsis.jpa.JpaCachePolicy;
 import io.katharsis.jpa.query.JpaQueryExecutor;
 import io.katharsis.meta.model.MetaAttributePath;
 import io.katharsis.meta.model.MetaDataObject;
 
 public abstract class AbstractQueryExecutorImpl<T> implements JpaQueryExecutor<T> {
 
+	private static final String[] RESULT_STREAM_METHODS = { "getResultStream", "stream" };
+
 	protected int offset = 0;
 
 	protected int limit = -1;
 
 	protected boolean cached = false;
 
+	protected Map<String, Object> hints = new HashMap<>();
+
 	protected EntityManager em;
 
 	protected int numAutoSelections;
@@ -34,6 +51,8 @@ public abstract class AbstractQueryExecutorImpl<T> implements JpaQueryExecutor<T
 
 	protected Map<String, Integer> selectionBindings;
 
+	protected FetchPlanCache fetchPlans;
+
 	public AbstractQueryExecutorImpl(EntityManager em, MetaDataObject meta, int numAutoSelections,
 			Map<String, Integer> selectionBindings) {
 		this.em = em;
@@ -46,6 +65,20 @@ public abstract class AbstractQueryExecutorImpl<T> implements JpaQueryExecutor<T
 		return meta;
 	}
 
+	/**
+	 * @param fetchPlans to plan the loading of fetch paths with, all paths are joined by a single entity graph if null
+	 */
+	public void setFetchPlans(FetchPlanCache fetchPlans) {
+		this.fetchPlans = fetchPlans;
+	}
+
+	/**
+	 * @return plan of the fetch paths or null if not planned
+	 */
+	protected FetchPlan getFetchPlan() {
+		return fetchPlans != null ? fetchPlans.getPlan(meta, fetchPaths) : null;
+	}
+
 	@Override
 	public JpaQueryExecutor<T> fetch(List<String> attrPath) {
 		// include path an all prefix paths
@@ -62,6 +95,12 @@ public abstract class AbstractQueryExecutorImpl<T> implements JpaQueryExecutor<T
 		return this;
 	}
 
+	@Override
+	public JpaQueryExecutor<T> setHint(String name, Object value) {
+		hints.put(name, value);
+		return this;
+	}
+
 	@Override
 	public JpaQueryExecutor<T> setOffset(int offset) {
 		this.offset = offset;
@@ -81,25 +120,26 @@ public abstract class AbstractQueryExecutorImpl<T> implements JpaQueryExecutor<T
 		return this;
 	}
 
-	@SuppressWarnings("unchecked")
 	@Override
 	public List<T> getResultList() {
-		List<?> list = executeQuery();
+		try (Stream<T> stream = toEntities(executeQueryStream(false))) {
+			return stream.collect(Collectors.toList());
+		}
+	}
+
+	@Override
+	public Stream<T> getResultStream() {
+		return toEntities(executeQueryStream(true));
+	}
+
+	@SuppressWarnings("unchecked")
+	private Stream<T> toEntities(Stream<?> stream) {
 		// due to sorting & distinct we have a multiselect even
 		// if we are only interested in the entites.
-		List<T> resultList;
 		if (isCompoundSelection()) {
-			List<T> entityList = new ArrayList<>();
-			for (Object obj : list) {
-				Object[] values = (Object[]) obj;
-				entityList.add((T) values[0]);
-			}
-			resultList = entityList;
-		}
-		else {
-			resultList = (List<T>) list;
+			return stream.map(obj -> (T) ((Object[]) obj)[0]);
 		}
-		return resultList;
+		return (Stream<T>) stream;
 	}
 
 	protected abstract boolean isCompoundSelection();
@@ -117,15 +157,10 @@ public abstract class AbstractQueryExecutorImpl<T> implements JpaQueryExecutor<T
 			throw new IllegalStateException("no result found");
 	}
 
-	protected List<Object> truncateTuples(List<?> list, int numToRemove) {
-		ArrayList<Object> truncatedList = new ArrayList<>();
-		for (Object obj : list) {
-			Object[] tuple = (Object[]) obj;
-			Object[] truncatedTuple = new Object[tuple.length - numToRemove];
-			System.arraycopy(tuple, 0, truncatedTuple, 0, truncatedTuple.length);
-			truncatedList.add(truncatedTuple);
-		}
-		return truncatedList;
+	protected static Object[] truncateTuple(Object[] tuple, int numToRemove) {
+		Object[] truncatedTuple = new Object[tuple.length - numToRemove];
+		System.arraycopy(tuple, 0, truncatedTuple, 0, truncatedTuple.length);
+		return truncatedTuple;
 	}
 
 	static class TupleElement {
@@ -153,19 +188,12 @@ public abstract class AbstractQueryExecutorImpl<T> implements JpaQueryExecutor<T
 		}
 	}
 
-	protected static List<Object[]> enforceDistinct(List<?> list) {
-		HashSet<TupleElement> distinctSet = new HashSet<>();
-		ArrayList<Object[]> distinctResult = new ArrayList<>();
-		for (Object obj : list) {
-			Object[] values = (Object[]) obj;
-			TupleElement tuple = new TupleElement(values);
-			if (!distinctSet.contains(tuple)) {
-				distinctSet.add(tuple);
-				distinctResult.add(values);
-			}
-		}
-
-		return distinctResult;
+	/**
+	 * @return filter letting pass the first occurrence of every tuple only
+	 */
+	protected static Predicate<Object> distinctFilter() {
+		Set<TupleElement> distinctSet = new HashSet<>();
+		return obj -> distinctSet.add(new TupleElement((Object[]) obj));
 	}
 
 	@SuppressWarnings("unchecked")
@@ -175,6 +203,11 @@ public abstract class AbstractQueryExecutorImpl<T> implements JpaQueryExecutor<T
 	}
 
 	protected void applyFetchPaths(Query criteriaQuery) {
+		FetchPlan fetchPlan = getFetchPlan();
+		if (fetchPlan != null) {
+			fetchPlan.applyJoinGraph(criteriaQuery, em);
+			return;
+		}
 		EntityGraph<T> graph = em.createEntityGraph(getEntityClass());
 		for (MetaAttributePath fetchPath : fetchPaths) {
 			applyFetchPaths(graph, fetchPath);
@@ -204,6 +237,9 @@ public abstract class AbstractQueryExecutorImpl<T> implements JpaQueryExecutor<T
 		if (cached) {
 			typedQuery.setHint("org.hibernate.cacheable", Boolean.TRUE);
 		}
+		for (Map.Entry<String, Object> hint : hints.entrySet()) {
+			typedQuery.setHint(hint.getKey(), hint.getValue());
+		}
 
 		if (limit > 0) {
 			typedQuery.setMaxResults(limit);
@@ -212,25 +248,112 @@ public abstract class AbstractQueryExecutorImpl<T> implements JpaQueryExecutor<T
 		return typedQuery;
 	}
 
-	@SuppressWarnings("rawtypes")
+	@SuppressWarnings({ "rawtypes", "unchecked" })
 	public List<T> executeQuery() {
+		try (Stream<?> stream = executeQueryStream(false)) {
+			return (List) stream.collect(Collectors.toList());
+		}
+	}
+
+	/**
+	 * Executes the query and post-processes one row at a time.
+	 * 
+	 * @param scroll true to scroll the rows from the database if the provider supports it. Otherwise, as well as for
+	 *            cached queries, rows are taken from <code>Query.getResultList()</code>, the only way to make use of the
+	 *            query cache.
+	 * @return stream of results, to be closed to release the underlying cursor
+	 */
+	protected Stream<?> executeQueryStream(boolean scroll) {
 		Query typedQuery = getTypedQuery();
-		
+
 		setupQuery(typedQuery);
 
 		// query execution
-		List resultList = typedQuery.getResultList();
+		Stream<?> stream = scroll && !isCached(typedQuery) ? openResultStream(typedQuery) : typedQuery.getResultList().stream();
+
+		FetchPlan fetchPlan = getFetchPlan();
+		long[] numRows = new long[2];
+		if (fetchPlan != null) {
+			stream = stream.peek(obj -> numRows[0]++);
+		}
 
 		// post processing (distinct and tuples => views)
 		if (isCompoundSelection() && isDistinct() && hasManyRootsFetchesOrJoins()) {
-			resultList = enforceDistinct(resultList);
+			stream = stream.filter(distinctFilter());
+		}
+
+		if (fetchPlan != null) {
+			stream = stream.peek(obj -> numRows[1]++).onClose(() -> fetchPlan.recordExecution(numRows[0], numRows[1]));
+			if (fetchPlan.hasSecondaryFetches()) {
+				stream = fetchSecondary(stream, fetchPlan);
+			}
 		}
 
 		if (numAutoSelections > 0) {
-			resultList = truncateTuples(resultList, numAutoSelections);
+			stream = stream.map(obj -> truncateTuple((Object[]) obj, numAutoSelections));
 		}
+		return stream;
+	}
+
+	/**
+	 * Lets the fetch plan load the multi-valued fetch paths for batches of results before passing them on.
+	 */
+	private Stream<?> fetchSecondary(Stream<?> stream, FetchPlan fetchPlan) {
+		Iterator<?> iterator = stream.iterator();
+		Iterator<Object> batchIterator = new Iterator<Object>() {
+
+			private Iterator<Object> batch = Collections.emptyIterator();
+
+			@Override
+			public boolean hasNext() {
+				if (!batch.hasNext() && iterator.hasNext()) {
+					List<Object> results = new ArrayList<>();
+					while (iterator.hasNext() && results.size() < FetchPlan.BATCH_SIZE) {
+						results.add(iterator.next());
+					}
+					fetchPlan.fetchSecondary(em, results);
+					batch = results.iterator();
+				}
+				return batch.hasNext();
+			}
+
+			@Override
+			public Object next() {
+				if (!hasNext()) {
+					throw new NoSuchElementException();
+				}
+				return batch.next();
+			}
+		};
+		Spliterator<Object> spliterator = Spliterators.spliteratorUnknownSize(batchIterator, Spliterator.ORDERED);
+		return StreamSupport.stream(spliterator, false).onClose(stream::close);
+	}
 
-		return resultList;
+	private boolean isCached(Query query) {
+		return cached || Boolean.TRUE.equals(query.getHints().get(JpaCachePolicy.HINT_CACHEABLE));
+	}
+
+	/**
+	 * Makes use of <code>Query.getResultStream</code> of JPA 2.2 or <code>Query.stream</code> of Hibernate 5.2, both
+	 * backed by scrollable results. Falls back to the result list for older providers or if the method is not
+	 * accessible.
+	 */
+	static Stream<?> openResultStream(Query query) {
+		for (String methodName : RESULT_STREAM_METHODS) {
+			try {
+				Method method = query.getClass().getMethod(methodName);
+				if (Stream.class.isAssignableFrom(method.getReturnType())) {
+					return (Stream<?>) method.invoke(query);
+				}
+			}
+			catch (NoSuchMethodException | IllegalAccessException e) { // NOSONAR try next one
+				// not supported by provider
+			}
+			catch (InvocationTargetException e) {
+				throw new IllegalStateException("failed to stream query results", e.getCause());
+			}
+		}
+		return query.getResultList().stream();
 	}
 
 	protected abstract boolean hasManyRootsFetchesOrJoins();
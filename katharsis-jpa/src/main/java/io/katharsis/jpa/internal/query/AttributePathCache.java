@@ -0,0 +1,111 @@
+package io.katharsis.jpa.internal.query;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import io.katharsis.meta.model.MetaAttribute;
+import io.katharsis.meta.model.MetaAttributeFinder;
+import io.katharsis.meta.model.MetaAttributePath;
+import io.katharsis.meta.model.MetaDataObject;
+
+/**
+ * Caches the resolution of attribute paths of filters, sorts and selections against the meta model. Requests tend to
+ * repeat a small number of query shapes, so every distinct path is resolved once per query factory rather than for
+ * every query. Resolved paths are immutable and shared among queries. Failed resolutions are not cached.
+ */
+public class AttributePathCache {
+
+	private static final int MAX_SIZE = 4096;
+
+	private final MetaAttributeFinder computedAttributeFinder;
+
+	private final MetaAttributeFinder subTypeAttributeFinder = new MetaAttributeFinder() {
+
+		@Override
+		public MetaAttribute getAttribute(MetaDataObject meta, String name) {
+			return meta.findAttribute(name, true);
+		}
+	};
+
+	private final Map<PathKey, MetaAttributePath> paths = new ConcurrentHashMap<>();
+
+	/**
+	 * @param computedAttributeFinder to resolve computed attributes next to regular ones
+	 */
+	public AttributePathCache(MetaAttributeFinder computedAttributeFinder) {
+		this.computedAttributeFinder = computedAttributeFinder;
+	}
+
+	/**
+	 * @param meta to start from
+	 * @param attrPath to resolve
+	 * @return path including computed attributes and attributes of subtypes
+	 */
+	public MetaAttributePath resolvePath(MetaDataObject meta, List<String> attrPath) {
+		return resolvePath(meta, attrPath, computedAttributeFinder);
+	}
+
+	/**
+	 * @param meta to start from
+	 * @param attrPath to resolve
+	 * @return path including attributes of subtypes, but no computed attributes
+	 */
+	public MetaAttributePath resolveEntityPath(MetaDataObject meta, List<String> attrPath) {
+		return resolvePath(meta, attrPath, subTypeAttributeFinder);
+	}
+
+	private MetaAttributePath resolvePath(MetaDataObject meta, List<String> attrPath, MetaAttributeFinder finder) {
+		PathKey key = new PathKey(meta, attrPath, finder);
+		MetaAttributePath path = paths.get(key);
+		if (path == null) {
+			path = meta.resolvePath(attrPath, finder);
+			if (paths.size() >= MAX_SIZE) {
+				// unusual amount of query shapes, start over rather than growing unbounded
+				paths.clear();
+			}
+			paths.put(new PathKey(meta, new ArrayList<>(attrPath), finder), path);
+		}
+		return path;
+	}
+
+	/**
+	 * Discards all resolved paths, e.g. after new computed attributes have been registered.
+	 */
+	public void clear() {
+		paths.clear();
+	}
+
+	private static final class PathKey {
+
+		private final MetaDataObject meta;
+
+		private final List<String> attrPath;
+
+		private final MetaAttributeFinder finder;
+
+		private final int hashCode;
+
+		PathKey(MetaDataObject meta, List<String> attrPath, MetaAttributeFinder finder) {
+			this.meta = meta;
+			this.attrPath = attrPath;
+			this.finder = finder;
+			this.hashCode = 31 * (31 * System.identityHashCode(meta) + attrPath.hashCode()) + System.identityHashCode(finder);
+		}
+
+		@Override
+		public int hashCode() {
+			return hashCode;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof PathKey)) {
+				return false;
+			}
+			PathKey other = (PathKey) obj;
+			return meta == other.meta && finder == other.finder && attrPath.equals(other.attrPath);
+		}
+	}
+}
@@ -1,24 +1,43 @@
 package io.katharsis.jpa.internal.query;
 
 import java.lang.reflect.Type;
-import java.util.HashMap;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import io.katharsis.jpa.meta.MetaJpaDataObject;
 import io.katharsis.jpa.query.ComputedAttributeRegistry;
 import io.katharsis.jpa.query.JpaQueryFactoryContext;
 import io.katharsis.meta.MetaLookup;
+import io.katharsis.meta.model.MetaAttribute;
+import io.katharsis.meta.model.MetaAttributeFinder;
 import io.katharsis.meta.model.MetaDataObject;
 import io.katharsis.meta.model.MetaType;
 
 public class ComputedAttributeRegistryImpl implements ComputedAttributeRegistry {
 
-	private Map<String, Registration> map = new HashMap<>();
+	private Map<String, Registration> map = new ConcurrentHashMap<>();
+
+	private Map<Class<?>, Set<String>> typeCache = new ConcurrentHashMap<>();
 
 	private JpaQueryFactoryContext context;
 
+	private final MetaAttributeFinder attributeFinder = new MetaAttributeFinder() {
+
+		@Override
+		public MetaAttribute getAttribute(MetaDataObject meta, String name) {
+			MetaComputedAttribute attr = ComputedAttributeRegistryImpl.this.get(meta, name);
+			if (attr != null) {
+				return attr;
+			}
+			return meta.findAttribute(name, true);
+		}
+	};
+
+	private final AttributePathCache pathCache = new AttributePathCache(attributeFinder);
+
 	private class Registration {
 
 		private MetaComputedAttribute attr;
@@ -72,6 +91,15 @@ public class ComputedAttributeRegistryImpl implements ComputedAttributeRegistry
 		registration.type = type;
 		registration.expressionFactory = expressionFactory;
 		map.put(key(targetClass, name), registration);
+		typeCache.clear();
+		pathCache.clear();
+	}
+
+	/**
+	 * @return cache of resolved attribute paths shared by all queries of the factory
+	 */
+	public AttributePathCache getPathCache() {
+		return pathCache;
 	}
 
 	private String key(Class<?> targetClass, String name) {
@@ -80,6 +108,15 @@ public class ComputedAttributeRegistryImpl implements ComputedAttributeRegistry
 
 	@Override
 	public Set<String> getForType(Class<?> entityType) {
+		Set<String> set = typeCache.get(entityType);
+		if (set == null) {
+			set = Collections.unmodifiableSet(computeForType(entityType));
+			typeCache.put(entityType, set);
+		}
+		return set;
+	}
+
+	private Set<String> computeForType(Class<?> entityType) {
 		Set<String> set = new HashSet<>();
 		for (Registration reg : map.values()) {
 			MetaComputedAttribute attr = reg.getAttribute();
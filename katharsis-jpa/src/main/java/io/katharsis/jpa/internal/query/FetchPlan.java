@@ -0,0 +1,286 @@
+package io.katharsis.jpa.internal.query;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.persistence.EntityGraph;
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.Query;
+import javax.persistence.Subgraph;
+
+import io.katharsis.meta.model.MetaAttribute;
+import io.katharsis.meta.model.MetaAttributePath;
+import io.katharsis.meta.model.MetaDataObject;
+import io.katharsis.meta.model.MetaKey;
+
+/**
+ * Decides how the fetch paths of a query are loaded. Single-valued paths are fetched along with the query through an
+ * entity graph. Every multi-valued path is loaded by a separate secondary query for a batch of results, so that
+ * several collections do not multiply into a cartesian product and the rows of the main query are not repeated for
+ * every collection element. The entity graphs are built once and registered as named entity graphs of the
+ * {@link EntityManagerFactory}. Plans count the rows they read to reveal remaining row blow-ups.
+ */
+public class FetchPlan {
+
+	/**
+	 * Number of results whose collections are loaded by one secondary query.
+	 */
+	public static final int BATCH_SIZE = 500;
+
+	private static final String GRAPH_PREFIX = "katharsis.";
+
+	private final Class<?> entityClass;
+
+	private final Set<MetaAttributePath> fetchPaths;
+
+	private final GraphDefinition joinGraph;
+
+	private final List<GraphDefinition> secondaryGraphs = new ArrayList<>();
+
+	private MetaAttribute primaryKeyAttr;
+
+	private final AtomicLong numExecutions = new AtomicLong();
+
+	private final AtomicLong numRows = new AtomicLong();
+
+	private final AtomicLong numResults = new AtomicLong();
+
+	private final AtomicLong numSecondaryQueries = new AtomicLong();
+
+	private final AtomicLong numSecondaryRows = new AtomicLong();
+
+	FetchPlan(MetaDataObject meta, Set<MetaAttributePath> fetchPaths) {
+		this.entityClass = meta.getImplementationClass();
+		this.fetchPaths = Collections.unmodifiableSet(new LinkedHashSet<>(fetchPaths));
+
+		MetaKey primaryKey = meta.getPrimaryKey();
+		boolean batchable = primaryKey != null && primaryKey.getElements().size() == 1
+				&& !(primaryKey.getUniqueElement().getType() instanceof MetaDataObject);
+		if (batchable) {
+			primaryKeyAttr = primaryKey.getUniqueElement();
+		}
+
+		String baseName = GRAPH_PREFIX + entityClass.getName() + this.fetchPaths;
+		List<MetaAttributePath> joinPaths = new ArrayList<>();
+		Map<MetaAttributePath, List<MetaAttributePath>> secondaryPaths = new LinkedHashMap<>();
+		for (MetaAttributePath fetchPath : this.fetchPaths) {
+			MetaAttributePath manyPath = batchable ? getManyValuedPrefix(fetchPath) : null;
+			if (manyPath == null) {
+				joinPaths.add(fetchPath);
+			}
+			else {
+				List<MetaAttributePath> paths = secondaryPaths.get(manyPath);
+				if (paths == null) {
+					paths = new ArrayList<>();
+					secondaryPaths.put(manyPath, paths);
+				}
+				paths.add(fetchPath);
+			}
+		}
+		joinGraph = new GraphDefinition(baseName, joinPaths);
+		for (Map.Entry<MetaAttributePath, List<MetaAttributePath>> entry : secondaryPaths.entrySet()) {
+			secondaryGraphs.add(new GraphDefinition(baseName + "#" + entry.getKey(), entry.getValue()));
+		}
+	}
+
+	/**
+	 * @return shortest prefix of the path ending with a multi-valued attribute or null if single-valued
+	 */
+	private static MetaAttributePath getManyValuedPrefix(MetaAttributePath path) {
+		for (int i = 0; i < path.length(); i++) {
+			MetaAttribute attr = path.getElement(i);
+			if (attr.getType().isCollection() || attr.getType().isMap()) {
+				return path.subPath(0, i + 1);
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * @param query to fetch the single-valued paths with
+	 * @param em of the query
+	 */
+	public void applyJoinGraph(Query query, EntityManager em) {
+		query.setHint("javax.persistence.fetchgraph", joinGraph.getGraph(em));
+	}
+
+	/**
+	 * @return true if multi-valued paths are loaded by secondary queries
+	 */
+	public boolean hasSecondaryFetches() {
+		return !secondaryGraphs.isEmpty();
+	}
+
+	/**
+	 * Loads the multi-valued paths of the entities found in the given batch of results with one query per path. The
+	 * collections of the already managed entities are initialized by those queries.
+	 *
+	 * @param em of the main query
+	 * @param results of the main query, either entities or tuples containing them
+	 */
+	public void fetchSecondary(EntityManager em, List<?> results) {
+		Set<Object> ids = new LinkedHashSet<>();
+		for (Object result : results) {
+			if (result instanceof Object[]) {
+				for (Object value : (Object[]) result) {
+					addId(em, value, ids);
+				}
+			}
+			else {
+				addId(em, result, ids);
+			}
+		}
+		if (ids.isEmpty()) {
+			return;
+		}
+
+		String entityName = em.getMetamodel().entity(entityClass).getName();
+		String jpql = "SELECT e FROM " + entityName + " e WHERE e." + primaryKeyAttr.getName() + " IN :ids";
+		for (GraphDefinition secondaryGraph : secondaryGraphs) {
+			Query query = em.createQuery(jpql);
+			query.setParameter("ids", ids);
+			query.setHint("javax.persistence.fetchgraph", secondaryGraph.getGraph(em));
+			numSecondaryRows.addAndGet(query.getResultList().size());
+			numSecondaryQueries.incrementAndGet();
+		}
+	}
+
+	private void addId(EntityManager em, Object value, Set<Object> ids) {
+		if (entityClass.isInstance(value)) {
+			Object id = em.getEntityManagerFactory().getPersistenceUnitUtil().getIdentifier(value);
+			if (id != null) {
+				ids.add(id);
+			}
+		}
+	}
+
+	/**
+	 * @param rows read by the main query, before duplicates are removed
+	 * @param results returned by the main query
+	 */
+	public void recordExecution(long rows, long results) {
+		numExecutions.incrementAndGet();
+		numRows.addAndGet(rows);
+		numResults.addAndGet(results);
+	}
+
+	public Class<?> getEntityClass() {
+		return entityClass;
+	}
+
+	public Set<MetaAttributePath> getFetchPaths() {
+		return fetchPaths;
+	}
+
+	/**
+	 * @return paths fetched along with the main query
+	 */
+	public List<MetaAttributePath> getJoinPaths() {
+		return joinGraph.paths;
+	}
+
+	/**
+	 * @return paths fetched by secondary queries, one query per entry
+	 */
+	public List<List<MetaAttributePath>> getSecondaryPaths() {
+		List<List<MetaAttributePath>> paths = new ArrayList<>();
+		for (GraphDefinition secondaryGraph : secondaryGraphs) {
+			paths.add(secondaryGraph.paths);
+		}
+		return paths;
+	}
+
+	public long getNumExecutions() {
+		return numExecutions.get();
+	}
+
+	/**
+	 * @return rows read by the main queries, including duplicates removed afterwards
+	 */
+	public long getNumRows() {
+		return numRows.get();
+	}
+
+	/**
+	 * @return results returned by the main queries
+	 */
+	public long getNumResults() {
+		return numResults.get();
+	}
+
+	public long getNumSecondaryQueries() {
+		return numSecondaryQueries.get();
+	}
+
+	public long getNumSecondaryRows() {
+		return numSecondaryRows.get();
+	}
+
+	@Override
+	public String toString() {
+		return "FetchPlan[entity=" + entityClass.getName() + ", join=" + joinGraph.paths + ", secondary=" + getSecondaryPaths()
+				+ ", executions=" + numExecutions + ", rows=" + numRows + ", results=" + numResults + ", secondaryQueries="
+				+ numSecondaryQueries + ", secondaryRows=" + numSecondaryRows + "]";
+	}
+
+	/**
+	 * Entity graph registered under a unique name with the entity manager factory upon first use.
+	 */
+	private final class GraphDefinition {
+
+		private final String name;
+
+		private final List<MetaAttributePath> paths;
+
+		private volatile EntityManagerFactory registeredFactory;
+
+		GraphDefinition(String name, List<MetaAttributePath> paths) {
+			this.name = name;
+			this.paths = Collections.unmodifiableList(paths);
+		}
+
+		EntityGraph<?> getGraph(EntityManager em) {
+			EntityManagerFactory emf = em.getEntityManagerFactory();
+			if (registeredFactory == emf) {
+				return em.getEntityGraph(name);
+			}
+			EntityGraph<?> graph = createGraph(em);
+			emf.addNamedEntityGraph(name, graph);
+			registeredFactory = emf;
+			return graph;
+		}
+
+		private EntityGraph<?> createGraph(EntityManager em) {
+			EntityGraph<?> graph = em.createEntityGraph(entityClass);
+			Map<MetaAttributePath, Subgraph<?>> subgraphs = new LinkedHashMap<>();
+			for (MetaAttributePath path : paths) {
+				addSubgraph(graph, subgraphs, path);
+			}
+			return graph;
+		}
+
+		private Subgraph<?> addSubgraph(EntityGraph<?> graph, Map<MetaAttributePath, Subgraph<?>> subgraphs, MetaAttributePath path) {
+			Subgraph<?> subgraph = subgraphs.get(path);
+			if (subgraph == null) {
+				String attrName = path.getLast().getName();
+				if (path.length() >= 2) {
+					// ensure parent is fetched
+					Subgraph<?> parentGraph = addSubgraph(graph, subgraphs, path.subPath(0, path.length() - 1));
+					subgraph = parentGraph.addSubgraph(attrName);
+				}
+				else {
+					subgraph = graph.addSubgraph(attrName);
+				}
+				subgraphs.put(path, subgraph);
+			}
+			return subgraph;
+		}
+	}
+}
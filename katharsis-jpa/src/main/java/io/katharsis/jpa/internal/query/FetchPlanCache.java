@@ -0,0 +1,80 @@
+package io.katharsis.jpa.internal.query;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import io.katharsis.meta.model.MetaAttributePath;
+import io.katharsis.meta.model.MetaDataObject;
+
+/**
+ * Holds the {@link FetchPlan}s of a query factory, one per entity and set of fetch paths.
+ */
+public class FetchPlanCache {
+
+	private static final int MAX_SIZE = 1024;
+
+	private final Map<PlanKey, FetchPlan> plans = new ConcurrentHashMap<>();
+
+	/**
+	 * @param meta of the queried entity
+	 * @param fetchPaths of the query
+	 * @return plan for the given fetch paths
+	 */
+	public FetchPlan getPlan(MetaDataObject meta, Set<MetaAttributePath> fetchPaths) {
+		PlanKey key = new PlanKey(meta, fetchPaths);
+		FetchPlan plan = plans.get(key);
+		if (plan == null) {
+			if (plans.size() >= MAX_SIZE) {
+				// unusual amount of inclusion shapes, start over rather than growing unbounded
+				plans.clear();
+			}
+			plan = new FetchPlan(meta, fetchPaths);
+			FetchPlan existingPlan = plans.putIfAbsent(new PlanKey(meta, new HashSet<>(fetchPaths)), plan);
+			if (existingPlan != null) {
+				plan = existingPlan;
+			}
+		}
+		return plan;
+	}
+
+	/**
+	 * @return plans used so far together with their row counts
+	 */
+	public List<FetchPlan> getPlans() {
+		return new ArrayList<>(plans.values());
+	}
+
+	public void clear() {
+		plans.clear();
+	}
+
+	private static final class PlanKey {
+
+		private final MetaDataObject meta;
+
+		private final Set<MetaAttributePath> fetchPaths;
+
+		PlanKey(MetaDataObject meta, Set<MetaAttributePath> fetchPaths) {
+			this.meta = meta;
+			this.fetchPaths = fetchPaths;
+		}
+
+		@Override
+		public int hashCode() {
+			return 31 * System.identityHashCode(meta) + fetchPaths.hashCode();
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof PlanKey)) {
+				return false;
+			}
+			PlanKey other = (PlanKey) obj;
+			return meta == other.meta && fetchPaths.equals(other.fetchPaths);
+		}
+	}
+}
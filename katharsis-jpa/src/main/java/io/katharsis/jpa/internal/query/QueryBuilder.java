@@ -5,9 +5,9 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+import io.katharsis.core.internal.utils.PreconditionUtil;
 import io.katharsis.jpa.internal.query.backend.JpaQueryBackend;
 import io.katharsis.meta.model.MetaAttribute;
-import io.katharsis.meta.model.MetaAttributeFinder;
 import io.katharsis.meta.model.MetaAttributePath;
 import io.katharsis.meta.model.MetaDataObject;
 import io.katharsis.meta.model.MetaKey;
@@ -22,24 +22,9 @@ public class QueryBuilder<T, F, O, P, E> {
 
 	private AbstractJpaQueryImpl<T, ?> query;
 
-	private MetaAttributeFinder attributeFinder;
-
 	public QueryBuilder(AbstractJpaQueryImpl<T, ?> query, JpaQueryBackend<F, O, P, E> backend) {
 		this.query = query;
 		this.backend = backend;
-
-		final ComputedAttributeRegistryImpl virtualAttrs = query.getComputedAttrs();
-		this.attributeFinder = new MetaAttributeFinder() {
-
-			@Override
-			public MetaAttribute getAttribute(MetaDataObject meta, String name) {
-				MetaComputedAttribute attr = virtualAttrs.get(meta, name);
-				if (attr != null) {
-					return attr;
-				}
-				return meta.findAttribute(name, true);
-			}
-		};
 	}
 
 	/**
@@ -77,11 +62,25 @@ public class QueryBuilder<T, F, O, P, E> {
 
 		Map<String, Integer> selectionBindings = new HashMap<>();
 
+		List<IncludeFieldSpec> includedFields = query.getIncludedFields();
+		if (!query.getEntitySelection()) {
+			// projection, replace the entity selection
+			PreconditionUtil.assertFalse("projections not supported for relationship queries", query.getParentAttr() != null);
+			PreconditionUtil.assertFalse("no selection specified", includedFields.isEmpty());
+			List<E> selection = new ArrayList<>();
+			for (IncludeFieldSpec includedField : includedFields) {
+				MetaAttributePath path = query.getComputedAttrs().getPathCache().resolvePath(meta, includedField.getAttributePath());
+				selection.add(backend.getAttribute(path));
+				selectionBindings.put(path.toString(), selectionBindings.size());
+			}
+			backend.setSelection(selection);
+			return selectionBindings;
+		}
+
 		int index = 1;
 		
-		List<IncludeFieldSpec> includedFields = query.getIncludedFields();
 		for (IncludeFieldSpec includedField : includedFields) {
-			MetaAttributePath path = meta.resolvePath(includedField.getAttributePath(), attributeFinder);
+			MetaAttributePath path = query.getComputedAttrs().getPathCache().resolvePath(meta, includedField.getAttributePath());
 			E attr = backend.getAttribute(path);
 			
 			backend.addSelection(attr, path.toString());
@@ -112,7 +111,7 @@ public class QueryBuilder<T, F, O, P, E> {
 	}
 
 	protected void applyFilterSpec() {
-		QueryFilterBuilder<P, F> predicateBuilder = new QueryFilterBuilder<>(query.getComputedAttrs(), backend, attributeFinder);
+		QueryFilterBuilder<P, F> predicateBuilder = new QueryFilterBuilder<>(query.getComputedAttrs(), backend);
 
 		MetaDataObject meta = query.getMeta();
 		List<FilterSpec> filters = query.getFilterSpecs();
@@ -31,6 +31,13 @@ public interface JpaQueryBackend<F, O, P, E> {
 
 	public void addSelection(E expression, String name);
 
+	/**
+	 * Replaces the current selection, including the selected entity, with the given expressions.
+	 * 
+	 * @param expressions to select
+	 */
+	public void setSelection(List<E> expressions);
+
 	public E getExpression(O order);
 
 	public boolean containsRelation(E expression);
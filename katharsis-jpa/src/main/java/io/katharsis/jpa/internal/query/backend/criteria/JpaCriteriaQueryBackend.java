@@ -164,6 +164,11 @@ public class JpaCriteriaQueryBackend<T> implements JpaQueryBackend<From<?, ?>, O
 		criteriaQuery.multiselect(newSelection);
 	}
 
+	@Override
+	public void setSelection(List<Expression<?>> expressions) {
+		criteriaQuery.multiselect(new ArrayList<Selection<?>>(expressions));
+	}
+
 	@Override
 	public Expression<?> getExpression(Order order) {
 		return order.getExpression();
@@ -4,6 +4,8 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import javax.persistence.EntityManager;
 import javax.persistence.Tuple;
@@ -92,16 +94,24 @@ public class JpaCriteriaQueryExecutorImpl<T> extends AbstractQueryExecutorImpl<T
 
 	@Override
 	public List<Tuple> getResultTuples() {
-		List<?> results = executeQuery();
-		List<Tuple> tuples = new ArrayList<>();
-		for (Object result : results) {
+		try (Stream<Tuple> stream = toTuples(executeQueryStream(false))) {
+			return stream.collect(Collectors.toList());
+		}
+	}
+
+	@Override
+	public Stream<Tuple> getResultTupleStream() {
+		return toTuples(executeQueryStream(true));
+	}
+
+	private Stream<Tuple> toTuples(Stream<?> stream) {
+		return stream.<Tuple> map(result -> {
 			if (result instanceof Object[]) {
-				tuples.add(new CriteriaTupleImpl((Object[]) result, selectionBindings));
+				return new CriteriaTupleImpl((Object[]) result, selectionBindings);
 			}
 			else {
-				tuples.add(new ObjectArrayTupleImpl(result));
+				return new ObjectArrayTupleImpl(result);
 			}
-		}
-		return tuples;
+		});
 	}
 }
@@ -1,8 +1,9 @@
 package io.katharsis.jpa.internal.query.backend.querydsl;
 
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import javax.persistence.EntityManager;
 import javax.persistence.TypedQuery;
@@ -68,17 +69,24 @@ public class QuerydslExecutorImpl<T> extends AbstractQueryExecutorImpl<T> implem
 
 	@Override
 	public List<QuerydslTuple> getResultTuples() {
-		List<?> results = executeQuery();
+		try (Stream<QuerydslTuple> stream = toTuples(executeQueryStream(false))) {
+			return stream.collect(Collectors.toList());
+		}
+	}
+
+	@Override
+	public Stream<QuerydslTuple> getResultTupleStream() {
+		return toTuples(executeQueryStream(true));
+	}
 
-		List<QuerydslTuple> tuples = new ArrayList<>();
-		for (Object result : results) {
+	private Stream<QuerydslTuple> toTuples(Stream<?> stream) {
+		return stream.<QuerydslTuple> map(result -> {
 			if (result instanceof Tuple) {
-				tuples.add(new QuerydslTupleImpl((Tuple) result, selectionBindings));
+				return new QuerydslTupleImpl((Tuple) result, selectionBindings);
 			}
 			else {
-				tuples.add(new ObjectArrayTupleImpl(result));
+				return new ObjectArrayTupleImpl(result);
 			}
-		}
-		return tuples;
+		});
 	}
 }
@@ -192,6 +192,11 @@ public class QuerydslQueryBackend<T>
 		querydslQuery = (JPAQuery) querydslQuery.select(newSelection.toArray(new Expression[newSelection.size()]));
 	}
 
+	@Override
+	public void setSelection(List<Expression<?>> expressions) {
+		querydslQuery = (JPAQuery) querydslQuery.select(expressions.toArray(new Expression[expressions.size()]));
+	}
+
 	@Override
 	public Expression<?> getExpression(OrderSpecifier<?> order) {
 		return order.getTarget();
@@ -39,6 +39,13 @@ public interface JpaQuery<T> {
 
 	public void addParentIdSelection();
 
+	/**
+	 * @param entitySelection false to only select the attributes added with {@link #addSelection(List)} rather than the
+	 *            entity itself. Results are then only available as tuples.
+	 * @return this query
+	 */
+	public JpaQuery<T> setEntitySelection(boolean entitySelection);
+
 	/**
 	 * @return private data that can be set by the consumer to provide some context for a query, for example, when being called back by an interceptor. Does
 	 * not have any direct impact on the created query.
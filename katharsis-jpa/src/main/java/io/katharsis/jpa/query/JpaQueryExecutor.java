@@ -1,6 +1,7 @@
 package io.katharsis.jpa.query;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface JpaQueryExecutor<T> {
 
@@ -11,8 +12,23 @@ public interface JpaQueryExecutor<T> {
 
 	public T getUniqueResult(boolean nullable);
 
+	/**
+	 * @return result as obtained from <code>Query.getResultList()</code>, making use of the query cache if enabled
+	 */
 	public List<T> getResultList();
 
+	/**
+	 * Streams the result rather than loading it into memory as a whole, making use of scrollable results if supported
+	 * by the JPA provider. Cached queries are served from the result list, scrollable results bypass the query cache.
+	 * The stream must be closed to release the underlying cursor. Defaults to the result list for executors not
+	 * supporting streaming.
+	 * 
+	 * @return stream of results
+	 */
+	public default Stream<T> getResultStream() {
+		return getResultList().stream();
+	}
+
 	public JpaQueryExecutor<T> setLimit(int limit);
 
 	public JpaQueryExecutor<T> setOffset(int offset);
@@ -21,9 +37,23 @@ public interface JpaQueryExecutor<T> {
 
 	public JpaQueryExecutor<T> setCached(boolean cached);
 
+	/**
+	 * @param name of the query hint
+	 * @param value of the query hint
+	 * @return this executor
+	 */
+	public JpaQueryExecutor<T> setHint(String name, Object value);
+
 	public JpaQueryExecutor<T> fetch(List<String> attrPath);
 
 	public Class<T> getEntityClass();
 
 	public <U extends Tuple> List<U> getResultTuples();
+
+	/**
+	 * @return stream of tuples, see {@link #getResultStream()}
+	 */
+	public default <U extends Tuple> Stream<U> getResultTupleStream() {
+		return this.<U> getResultTuples().stream();
+	}
 }
@@ -0,0 +1,98 @@
+package io.katharsis.jpa.query;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.HashSet;
+
+import javax.persistence.EntityManager;
+
+import io.katharsis.queryspec.QuerySpec;
+
+/**
+ * Paged request for which a {@link TotalCountStrategy} has to determine the total number of resources.
+ */
+public class TotalCountContext {
+
+	private EntityManager entityManager;
+
+	private Class<?> entityClass;
+
+	private QuerySpec querySpec;
+
+	private String relationshipName;
+
+	private Serializable sourceId;
+
+	private Object filterKey;
+
+	private JpaQueryExecutor<?> executor;
+
+	/**
+	 * @param entityManager of the request
+	 * @param entityClass of the queried entities
+	 * @param querySpec of the request
+	 * @param relationshipName queried relationship or null
+	 * @param sourceId of the queried relationship or null
+	 * @param filterKey identifying the restrictions added by {@link io.katharsis.jpa.JpaRepositoryFilter}s or null if
+	 *        they cannot be identified
+	 * @param executor of the paged query
+	 */
+	public TotalCountContext(EntityManager entityManager, Class<?> entityClass, QuerySpec querySpec, String relationshipName,
+			Serializable sourceId, Object filterKey, JpaQueryExecutor<?> executor) {
+		this.entityManager = entityManager;
+		this.entityClass = entityClass;
+		this.querySpec = querySpec;
+		this.relationshipName = relationshipName;
+		this.sourceId = sourceId;
+		this.filterKey = filterKey;
+		this.executor = executor;
+	}
+
+	public EntityManager getEntityManager() {
+		return entityManager;
+	}
+
+	public Class<?> getEntityClass() {
+		return entityClass;
+	}
+
+	public QuerySpec getQuerySpec() {
+		return querySpec;
+	}
+
+	/**
+	 * @return name of the queried relationship or null if the entities are queried directly
+	 */
+	public String getRelationshipName() {
+		return relationshipName;
+	}
+
+	/**
+	 * @return source of the queried relationship or null if the entities are queried directly
+	 */
+	public Serializable getSourceId() {
+		return sourceId;
+	}
+
+	/**
+	 * @return exact total number of resources, computed with a count query.
+	 */
+	public long getExactCount() {
+		return executor.getTotalRowCount();
+	}
+
+	/**
+	 * Restrictions added by a {@link io.katharsis.jpa.JpaRepositoryFilter} are represented by
+	 * {@link io.katharsis.jpa.JpaRepositoryFilter#getTotalCountKey(Object, QuerySpec)}.
+	 *
+	 * @return key identifying the counted set of resources, made up of entity class, relationship, the filters
+	 *         irrespective of their order and the keys of the repository filters. Null if a repository filter does
+	 *         not provide a key.
+	 */
+	public Object getKey() {
+		if (filterKey == null) {
+			return null;
+		}
+		return Arrays.asList(entityClass, relationshipName, sourceId, new HashSet<>(querySpec.getFilters()), filterKey);
+	}
+}
@@ -0,0 +1,15 @@
+package io.katharsis.jpa.query;
+
+/**
+ * Estimates the total number of resources, typically from database statistics like <code>pg_class.reltuples</code>
+ * in PostgreSQL or <code>information_schema.tables.table_rows</code> in MySQL. Used with
+ * {@link TotalCountStrategies#estimated(TotalCountEstimator)}.
+ */
+public interface TotalCountEstimator {
+
+	/**
+	 * @param context of the paged request
+	 * @return estimated total number of resources or null to count them exactly
+	 */
+	public Long estimate(TotalCountContext context);
+}
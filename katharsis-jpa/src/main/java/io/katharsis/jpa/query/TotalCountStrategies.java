@@ -0,0 +1,162 @@
+package io.katharsis.jpa.query;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import io.katharsis.core.internal.utils.PreconditionUtil;
+
+/**
+ * Provides the available {@link TotalCountStrategy} implementations.
+ */
+public class TotalCountStrategies {
+
+	private TotalCountStrategies() {
+	}
+
+	/**
+	 * @return strategy issuing a count query for every paged request. Used by default.
+	 */
+	public static TotalCountStrategy exact() {
+		return new ExactTotalCountStrategy();
+	}
+
+	/**
+	 * @return strategy not computing any total count. No last page link is available.
+	 */
+	public static TotalCountStrategy none() {
+		return new NoTotalCountStrategy();
+	}
+
+	/**
+	 * @return strategy fetching one additional row to determine whether there is a next page rather than counting.
+	 *         No last page link is available.
+	 */
+	public static TotalCountStrategy hasNext() {
+		return new HasNextTotalCountStrategy();
+	}
+
+	/**
+	 * @param estimator to obtain the estimated count from, e.g. from database statistics
+	 * @return strategy using an estimated count, falls back to an exact count if the estimator does not provide one.
+	 */
+	public static TotalCountStrategy estimated(TotalCountEstimator estimator) {
+		PreconditionUtil.assertNotNull("estimator must not be null", estimator);
+		return new EstimatedTotalCountStrategy(estimator);
+	}
+
+	/**
+	 * @param timeToLive of a counted value
+	 * @param unit of the time to live
+	 * @return strategy caching exact counts for the given time, keyed by {@link TotalCountContext#getKey()}. Requests
+	 *         without a key are counted every time.
+	 */
+	public static TotalCountStrategy cached(long timeToLive, TimeUnit unit) {
+		return new CachedTotalCountStrategy(unit.toMillis(timeToLive));
+	}
+
+	private static class ExactTotalCountStrategy implements TotalCountStrategy {
+
+		@Override
+		public boolean isFetchNextRow() {
+			return false;
+		}
+
+		@Override
+		public Long getTotalRowCount(TotalCountContext context) {
+			return context.getExactCount();
+		}
+	}
+
+	private static class NoTotalCountStrategy implements TotalCountStrategy {
+
+		@Override
+		public boolean isFetchNextRow() {
+			return false;
+		}
+
+		@Override
+		public Long getTotalRowCount(TotalCountContext context) {
+			return null;
+		}
+	}
+
+	private static class HasNextTotalCountStrategy extends NoTotalCountStrategy {
+
+		@Override
+		public boolean isFetchNextRow() {
+			return true;
+		}
+	}
+
+	private static class EstimatedTotalCountStrategy extends ExactTotalCountStrategy {
+
+		private TotalCountEstimator estimator;
+
+		EstimatedTotalCountStrategy(TotalCountEstimator estimator) {
+			this.estimator = estimator;
+		}
+
+		@Override
+		public Long getTotalRowCount(TotalCountContext context) {
+			Long estimate = estimator.estimate(context);
+			return estimate != null ? estimate : super.getTotalRowCount(context);
+		}
+	}
+
+	private static class CachedTotalCountStrategy extends ExactTotalCountStrategy {
+
+		private static final int MAX_ENTRIES = 1024;
+
+		private final long timeToLive;
+
+		private final Map<Object, CachedCount> cache = new ConcurrentHashMap<>();
+
+		CachedTotalCountStrategy(long timeToLive) {
+			this.timeToLive = timeToLive;
+		}
+
+		@Override
+		public Long getTotalRowCount(TotalCountContext context) {
+			Object key = context.getKey();
+			if (key == null) {
+				return context.getExactCount();
+			}
+			long now = System.currentTimeMillis();
+			CachedCount cachedCount = cache.get(key);
+			if (cachedCount != null && cachedCount.expiresAt > now) {
+				return cachedCount.count;
+			}
+			long count = context.getExactCount();
+			if (cache.size() >= MAX_ENTRIES) {
+				evictExpired(now);
+			}
+			if (cache.size() < MAX_ENTRIES) {
+				cache.put(key, new CachedCount(count, now + timeToLive));
+			}
+			return count;
+		}
+
+		private void evictExpired(long now) {
+			Iterator<CachedCount> iterator = cache.values().iterator();
+			while (iterator.hasNext()) {
+				if (iterator.next().expiresAt <= now) {
+					iterator.remove();
+				}
+			}
+		}
+	}
+
+	private static class CachedCount {
+
+		private final long count;
+
+		private final long expiresAt;
+
+		CachedCount(long count, long expiresAt) {
+			this.count = count;
+			this.expiresAt = expiresAt;
+		}
+	}
+}
@@ -0,0 +1,23 @@
+package io.katharsis.jpa.query;
+
+/**
+ * Determines the total number of resources of paged requests, see
+ * {@link io.katharsis.jpa.JpaRepositoryConfig.Builder#setTotalCountStrategy(TotalCountStrategy)}. Implementations for
+ * exact, skipped, estimated, cached and "has next page" counts are available from {@link TotalCountStrategies}.
+ */
+public interface TotalCountStrategy {
+
+	/**
+	 * @return true to fetch one row in addition to the requested page to determine whether there is a next page
+	 *         without counting.
+	 */
+	public boolean isFetchNextRow();
+
+	/**
+	 * Only invoked if the total count cannot be derived from the fetched page itself, e.g. for the last page.
+	 *
+	 * @param context of the paged request
+	 * @return total number of resources or null if unknown
+	 */
+	public Long getTotalRowCount(TotalCountContext context);
+}
@@ -1,6 +1,7 @@
 package io.katharsis.jpa.query.criteria;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 import javax.persistence.Tuple;
 
@@ -15,4 +16,11 @@ public interface JpaCriteriaQueryExecutor<T> extends JpaQueryExecutor<T> {
 	@Override
 	public List<Tuple> getResultTuples();
 
+	/**
+	 * @return stream of tuples when doing a custom selection.
+	 */
+	@SuppressWarnings("unchecked")
+	@Override
+	public Stream<Tuple> getResultTupleStream();
+
 }
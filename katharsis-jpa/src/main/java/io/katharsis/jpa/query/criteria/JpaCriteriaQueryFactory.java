@@ -18,12 +18,12 @@ public class JpaCriteriaQueryFactory extends JpaQueryFactoryBase implements JpaQ
 
 	@Override
 	public <T> JpaCriteriaQuery<T> query(Class<T> entityClass) {
-		return new JpaCriteriaQueryImpl<>(metaLookup, em, entityClass, computedAttrs);
+		return setupQuery(new JpaCriteriaQueryImpl<>(metaLookup, em, entityClass, computedAttrs));
 	}
 
 	@Override
 	public <T> JpaCriteriaQuery<T> query(Class<?> entityClass, String attrName, List<?> entityIds) {
-		return new JpaCriteriaQueryImpl<>(metaLookup, em, entityClass, computedAttrs, attrName, entityIds);
+		return setupQuery(new JpaCriteriaQueryImpl<>(metaLookup, em, entityClass, computedAttrs, attrName, entityIds));
 	}
 
 	public void registerComputedAttribute(Class<?> targetClass, String attributeName, Type attributeType,
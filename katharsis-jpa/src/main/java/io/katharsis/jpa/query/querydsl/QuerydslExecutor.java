@@ -1,6 +1,7 @@
 package io.katharsis.jpa.query.querydsl;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 import com.querydsl.jpa.impl.JPAQuery;
 
@@ -11,6 +12,9 @@ public interface QuerydslExecutor<T> extends JpaQueryExecutor<T> {
 	@Override
 	public List<QuerydslTuple> getResultTuples();
 
+	@Override
+	public Stream<QuerydslTuple> getResultTupleStream();
+
 	public void setQuery(JPAQuery<T> query);
 
 	public JPAQuery<T> getQuery();
@@ -75,6 +75,9 @@ public abstract class AbstractJpaJerseyTest extends JerseyTest {
 	protected void setupModule(JpaModule module, boolean server) {
 	}
 
+	protected void setupConfig(ResourceConfig config) {
+	}
+
 	@Override
 	@After
 	public void tearDown() throws Exception {
@@ -105,6 +108,7 @@ public abstract class AbstractJpaJerseyTest extends JerseyTest {
 
 		public TestApplication() {
 			property(KatharsisProperties.RESOURCE_SEARCH_PACKAGE, "io.katharsis.client.mock");
+			setupConfig(this);
 
 			Assert.assertNull(context);
 
@@ -0,0 +1,83 @@
+package io.katharsis.jpa;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import io.katharsis.jpa.model.RelatedEntity;
+import io.katharsis.jpa.model.TestEntity;
+import io.katharsis.queryspec.QuerySpec;
+import io.katharsis.repository.RelationshipRepositoryV2;
+import io.katharsis.repository.ResourceRepositoryV2;
+
+/**
+ * Resources loaded read-only by {@link JpaCachePolicy#referenceData(String)} must still be updatable.
+ */
+public class JpaCachePolicyEndToEndTest extends AbstractJpaJerseyTest {
+
+	private ResourceRepositoryV2<TestEntity, Long> testRepo;
+
+	private ResourceRepositoryV2<RelatedEntity, Long> relatedRepo;
+
+	@Override
+	@Before
+	public void setup() {
+		super.setup();
+		testRepo = client.getQuerySpecRepository(TestEntity.class);
+		relatedRepo = client.getQuerySpecRepository(RelatedEntity.class);
+	}
+
+	@Override
+	protected void setupModule(JpaModule module, boolean server) {
+		if (server) {
+			for (Class<?> resourceClass : Arrays.asList(TestEntity.class, RelatedEntity.class)) {
+				module.removeRepository(resourceClass);
+				module.addRepository(JpaRepositoryConfig.builder(resourceClass).setCachePolicy(JpaCachePolicy.referenceData(null)).build());
+			}
+		}
+	}
+
+	@Test
+	public void testUpdate() {
+		TestEntity test = new TestEntity();
+		test.setId(2L);
+		test.setStringValue("test");
+		testRepo.create(test);
+
+		test.setLongValue(15);
+		testRepo.save(test);
+		Assert.assertEquals(15, testRepo.findOne(2L, new QuerySpec(TestEntity.class)).getLongValue());
+
+		test.setLongValue(16);
+		testRepo.save(test);
+		Assert.assertEquals(16, testRepo.findOne(2L, new QuerySpec(TestEntity.class)).getLongValue());
+	}
+
+	@Test
+	public void testAddAndSetRelations() {
+		for (long id = 1; id <= 2; id++) {
+			RelatedEntity related = new RelatedEntity();
+			related.setId(id);
+			related.setStringValue("related" + id);
+			relatedRepo.create(related);
+		}
+		TestEntity test = new TestEntity();
+		test.setId(3L);
+		test.setStringValue("test");
+		testRepo.create(test);
+
+		RelationshipRepositoryV2<TestEntity, Long, RelatedEntity, Long> relRepo = client.getQuerySpecRepository(TestEntity.class,
+				RelatedEntity.class);
+		relRepo.addRelations(test, Arrays.asList(1L, 2L), TestEntity.ATTR_manyRelatedValues);
+		List<RelatedEntity> related = relRepo.findManyTargets(3L, TestEntity.ATTR_manyRelatedValues, new QuerySpec(RelatedEntity.class));
+		Assert.assertEquals(2, related.size());
+
+		relRepo.setRelations(test, Arrays.asList(2L), TestEntity.ATTR_manyRelatedValues);
+		related = relRepo.findManyTargets(3L, TestEntity.ATTR_manyRelatedValues, new QuerySpec(RelatedEntity.class));
+		Assert.assertEquals(1, related.size());
+		Assert.assertEquals(2L, related.get(0).getId().longValue());
+	}
+}
@@ -0,0 +1,73 @@
+package io.katharsis.jpa;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.glassfish.jersey.server.ResourceConfig;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import io.katharsis.core.properties.KatharsisProperties;
+import io.katharsis.jpa.model.RelatedEntity;
+import io.katharsis.jpa.model.TestEntity;
+import io.katharsis.queryspec.QuerySpec;
+import io.katharsis.repository.ResourceRepositoryV2;
+
+/**
+ * Streamed documents and repository results must be mapped within the transaction of the request, lazy relationships
+ * are otherwise no longer accessible once the document is written.
+ */
+public class JpaStreamingEndToEndTest extends AbstractJpaJerseyTest {
+
+	private ResourceRepositoryV2<TestEntity, Long> testRepo;
+
+	private ResourceRepositoryV2<RelatedEntity, Long> relatedRepo;
+
+	@Override
+	@Before
+	public void setup() {
+		super.setup();
+		testRepo = client.getQuerySpecRepository(TestEntity.class);
+		relatedRepo = client.getQuerySpecRepository(RelatedEntity.class);
+	}
+
+	@Override
+	protected void setupModule(JpaModule module, boolean server) {
+		if (server) {
+			module.removeRepository(TestEntity.class);
+			module.addRepository(JpaRepositoryConfig.builder(TestEntity.class).setStreaming(true).build());
+		}
+	}
+
+	@Override
+	protected void setupConfig(ResourceConfig config) {
+		config.property(KatharsisProperties.SERIALIZATION_STREAMING, "true");
+	}
+
+	@Test
+	public void testIncludeLazyRelation() {
+		for (long id = 1; id <= 3; id++) {
+			RelatedEntity related = new RelatedEntity();
+			related.setId(id);
+			related.setStringValue("related" + id);
+			relatedRepo.create(related);
+
+			TestEntity test = new TestEntity();
+			test.setId(id);
+			test.setStringValue("test" + id);
+			test.setOneRelatedValue(related);
+			testRepo.create(test);
+		}
+
+		QuerySpec querySpec = new QuerySpec(TestEntity.class);
+		querySpec.includeRelation(Arrays.asList(TestEntity.ATTR_oneRelatedValue));
+		List<TestEntity> list = testRepo.findAll(querySpec);
+
+		Assert.assertEquals(3, list.size());
+		for (TestEntity test : list) {
+			Assert.assertNotNull(test.getOneRelatedValue());
+			Assert.assertEquals("related" + test.getId(), test.getOneRelatedValue().getStringValue());
+		}
+	}
+}
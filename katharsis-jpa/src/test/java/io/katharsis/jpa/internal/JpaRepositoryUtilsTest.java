@@ -0,0 +1,66 @@
+package io.katharsis.jpa.internal;
+
+import javax.persistence.EntityManager;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import io.katharsis.jpa.internal.JpaRepositoryUtils.JdbcBatchSizeScope;
+
+public class JpaRepositoryUtilsTest {
+
+	@Test
+	public void testJdbcBatchSizeRestored() {
+		BatchSession session = new BatchSession();
+		session.setJdbcBatchSize(10);
+		EntityManager em = Mockito.mock(EntityManager.class);
+		Mockito.when(em.getDelegate()).thenReturn(session);
+
+		try (JdbcBatchSizeScope scope = JpaRepositoryUtils.setJdbcBatchSize(em, 50)) {
+			Assert.assertEquals(Integer.valueOf(50), session.getJdbcBatchSize());
+			scope.flush();
+			Mockito.verify(em, Mockito.times(1)).flush();
+		}
+		Assert.assertEquals(Integer.valueOf(10), session.getJdbcBatchSize());
+	}
+
+	@Test
+	public void testJdbcBatchSizeRestoredOnFailure() {
+		BatchSession session = new BatchSession();
+		EntityManager em = Mockito.mock(EntityManager.class);
+		Mockito.when(em.getDelegate()).thenReturn(session);
+
+		try (JdbcBatchSizeScope scope = JpaRepositoryUtils.setJdbcBatchSize(em, 50)) {
+			throw new IllegalStateException();
+		}
+		catch (IllegalStateException e) {
+			Assert.assertNull(session.getJdbcBatchSize());
+		}
+		Mockito.verify(em, Mockito.never()).flush();
+	}
+
+	@Test
+	public void testJdbcBatchSizeNotSupported() {
+		EntityManager em = Mockito.mock(EntityManager.class);
+		Mockito.when(em.getDelegate()).thenReturn(new Object());
+
+		try (JdbcBatchSizeScope scope = JpaRepositoryUtils.setJdbcBatchSize(em, 50)) {
+			scope.flush();
+		}
+		Mockito.verify(em, Mockito.never()).flush();
+	}
+
+	public static class BatchSession {
+
+		private Integer jdbcBatchSize;
+
+		public Integer getJdbcBatchSize() {
+			return jdbcBatchSize;
+		}
+
+		public void setJdbcBatchSize(Integer jdbcBatchSize) {
+			this.jdbcBatchSize = jdbcBatchSize;
+		}
+	}
+}
@@ -0,0 +1,75 @@
+package io.katharsis.jpa.internal.query;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import javax.persistence.PersistenceException;
+import javax.persistence.Query;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+public class AbstractQueryExecutorImplTest {
+
+	@Test
+	public void testOpenResultStreamWithJpa22() {
+		ResultStreamQuery query = Mockito.mock(ResultStreamQuery.class);
+		Mockito.when(query.getResultStream()).thenReturn(Stream.<Object> of("a", "b"));
+		Assert.assertEquals(Arrays.asList("a", "b"), collect(query));
+		Mockito.verify(query, Mockito.never()).getResultList();
+	}
+
+	@Test
+	public void testOpenResultStreamWithHibernate52() {
+		StreamingQuery query = Mockito.mock(StreamingQuery.class);
+		Mockito.when(query.stream()).thenReturn(Stream.<Object> of("a", "b"));
+		Assert.assertEquals(Arrays.asList("a", "b"), collect(query));
+		Mockito.verify(query, Mockito.never()).getResultList();
+	}
+
+	@Test
+	public void testOpenResultStreamFallsBackToResultList() {
+		Query query = Mockito.mock(Query.class);
+		Mockito.when(query.getResultList()).thenReturn(Arrays.asList("a", "b"));
+		Assert.assertEquals(Arrays.asList("a", "b"), collect(query));
+	}
+
+	@Test
+	public void testOpenResultStreamPropagatesFailure() {
+		PersistenceException failure = new PersistenceException("test");
+		StreamingQuery query = Mockito.mock(StreamingQuery.class);
+		Mockito.when(query.stream()).thenThrow(failure);
+		try {
+			AbstractQueryExecutorImpl.openResultStream(query);
+			Assert.fail();
+		}
+		catch (IllegalStateException e) {
+			Assert.assertSame(failure, e.getCause());
+		}
+	}
+
+	private static List<?> collect(Query query) {
+		try (Stream<?> stream = AbstractQueryExecutorImpl.openResultStream(query)) {
+			return stream.collect(Collectors.toList());
+		}
+	}
+
+	/**
+	 * Query of JPA 2.2.
+	 */
+	public abstract static class ResultStreamQuery implements Query {
+
+		public abstract Stream<Object> getResultStream();
+	}
+
+	/**
+	 * Query of Hibernate 5.2.
+	 */
+	public abstract static class StreamingQuery implements Query {
+
+		public abstract Stream<Object> stream();
+	}
+}
@@ -0,0 +1,37 @@
+package io.katharsis.jpa.model;
+
+import java.sql.Timestamp;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+
+@Entity
+public class TimestampEntity {
+
+	public static final String ATTR_id = "id";
+
+	public static final String ATTR_timestampValue = "timestampValue";
+
+	@Id
+	private Long id;
+
+	@Column(nullable = false)
+	private Timestamp timestampValue;
+
+	public Long getId() {
+		return id;
+	}
+
+	public void setId(Long id) {
+		this.id = id;
+	}
+
+	public Timestamp getTimestampValue() {
+		return timestampValue;
+	}
+
+	public void setTimestampValue(Timestamp timestampValue) {
+		this.timestampValue = timestampValue;
+	}
+}
@@ -33,6 +33,7 @@ import io.katharsis.jpa.model.TestEntity;
 import io.katharsis.jpa.model.TestIdEmbeddable;
 import io.katharsis.jpa.model.TestNestedEmbeddable;
 import io.katharsis.jpa.model.TestSubclassWithSuperclassPk;
+import io.katharsis.jpa.model.TimestampEntity;
 import io.katharsis.jpa.query.criteria.JpaCriteriaQueryFactory;
 import io.katharsis.jpa.util.SpringTransactionRunner;
 import io.katharsis.jpa.util.TestConfig;
@@ -198,6 +199,7 @@ public abstract class AbstractJpaTest {
 		clear(em, factory.query(RelatedEntity.class).buildExecutor().getResultList());
 		clear(em, factory.query(TestEntity.class).buildExecutor().getResultList());
 		clear(em, factory.query(OtherRelatedEntity.class).buildExecutor().getResultList());
+		clear(em, factory.query(TimestampEntity.class).buildExecutor().getResultList());
 		em.flush();
 		em.clear();
 	}
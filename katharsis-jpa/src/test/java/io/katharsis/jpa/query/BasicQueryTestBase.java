@@ -9,6 +9,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
+import java.util.stream.Stream;
 
 import javax.persistence.criteria.JoinType;
 
@@ -17,6 +18,8 @@ import org.junit.Assert;
 import org.junit.Test;
 import org.springframework.transaction.annotation.Transactional;
 
+import io.katharsis.jpa.internal.JpaQueryFactoryBase;
+import io.katharsis.jpa.internal.query.FetchPlan;
 import io.katharsis.jpa.model.RelatedEntity;
 import io.katharsis.jpa.model.TestEntity;
 import io.katharsis.queryspec.Direction;
@@ -68,6 +71,46 @@ public abstract class BasicQueryTestBase extends AbstractJpaTest {
 		}
 	}
 
+	@Test
+	public void testProjectionQuery() {
+		JpaQuery<TestEntity> query = builder();
+		query.setEntitySelection(false);
+		query.addSortBy(Arrays.asList(TestEntity.ATTR_stringValue), Direction.ASC);
+		query.addSelection(Arrays.asList(TestEntity.ATTR_id));
+		query.addSelection(Arrays.asList(TestEntity.ATTR_stringValue));
+		List<io.katharsis.jpa.query.Tuple> resultTuples = query.buildExecutor().getResultTuples();
+		Assert.assertEquals(5, resultTuples.size());
+		for (int i = 0; i < resultTuples.size(); i++) {
+			io.katharsis.jpa.query.Tuple tuple = resultTuples.get(i);
+			Assert.assertEquals(Long.valueOf(i), tuple.get(0, Long.class));
+			Assert.assertEquals("test" + i, tuple.get(1, String.class));
+			Assert.assertEquals("test" + i, tuple.get(TestEntity.ATTR_stringValue, String.class));
+		}
+	}
+
+	@Test
+	public void testResultStream() {
+		JpaQuery<TestEntity> query = builder();
+		query.addSortBy(Arrays.asList(TestEntity.ATTR_stringValue), Direction.DESC);
+		List<String> values = new ArrayList<>();
+		try (Stream<TestEntity> stream = query.buildExecutor().getResultStream()) {
+			stream.forEach(entity -> values.add(entity.getStringValue()));
+		}
+		assertEquals(Arrays.asList("test4", "test3", "test2", "test1", "test0"), values);
+	}
+
+	@Test
+	public void testResultTupleStream() {
+		JpaQuery<TestEntity> query = builder();
+		query.addSortBy(Arrays.asList(TestEntity.ATTR_stringValue), Direction.ASC);
+		query.addSelection(Arrays.asList(TestEntity.ATTR_stringValue));
+		List<String> values = new ArrayList<>();
+		try (Stream<io.katharsis.jpa.query.Tuple> stream = query.buildExecutor().getResultTupleStream()) {
+			stream.forEach(tuple -> values.add(tuple.get(TestEntity.ATTR_stringValue, String.class)));
+		}
+		assertEquals(Arrays.asList("test0", "test1", "test2", "test3", "test4"), values);
+	}
+
 	@Test
 	public void testEqualsFilter() {
 		assertEquals((Long) 0L,
@@ -370,6 +413,39 @@ public abstract class BasicQueryTestBase extends AbstractJpaTest {
 		}
 	}
 
+	@Test
+	public void testWithGraphControlManyValued() {
+		TestEntity test = em.find(TestEntity.class, 1L);
+		for (Long relatedId : Arrays.asList(101L, 102L)) {
+			em.find(RelatedEntity.class, relatedId).setTestEntity(test);
+		}
+		em.flush();
+		em.clear();
+
+		JpaQueryExecutor<TestEntity> exec = builder().buildExecutor().fetch(Arrays.asList(TestEntity.ATTR_oneRelatedValue))
+				.fetch(Arrays.asList(TestEntity.ATTR_manyRelatedValues));
+		List<TestEntity> list = exec.getResultList();
+		assertEquals(5, list.size());
+		for (TestEntity entity : list) {
+			assertTrue(Hibernate.isInitialized(entity.getManyRelatedValues()));
+			assertEquals(entity.getId() == 1L ? 2 : 0, entity.getManyRelatedValues().size());
+		}
+
+		// collections are loaded separately rather than joined into the main query
+		FetchPlan fetchPlan = null;
+		for (FetchPlan plan : ((JpaQueryFactoryBase) queryFactory).getFetchPlans().getPlans()) {
+			if (plan.getFetchPaths().size() == 2) {
+				fetchPlan = plan;
+			}
+		}
+		Assert.assertNotNull(fetchPlan);
+		assertEquals(1, fetchPlan.getJoinPaths().size());
+		assertEquals(1, fetchPlan.getSecondaryPaths().size());
+		assertEquals(5, fetchPlan.getNumRows());
+		assertEquals(5, fetchPlan.getNumResults());
+		assertEquals(1, fetchPlan.getNumSecondaryQueries());
+	}
+
 	@Test
 	public void testWithoutGraphControl() {
 		JpaQueryExecutor<TestEntity> exec = builder().addFilter(TestEntity.ATTR_oneRelatedValue, FilterOperator.NEQ, null)
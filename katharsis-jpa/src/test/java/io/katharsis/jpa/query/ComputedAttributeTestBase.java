@@ -9,7 +9,11 @@ import org.junit.Assert;
 import org.junit.Test;
 import org.springframework.transaction.annotation.Transactional;
 
+import io.katharsis.jpa.internal.query.ComputedAttributeRegistryImpl;
+import io.katharsis.jpa.meta.MetaEntity;
 import io.katharsis.jpa.model.TestEntity;
+import io.katharsis.meta.model.MetaAttributePath;
+import io.katharsis.meta.model.MetaDataObject;
 import io.katharsis.queryspec.Direction;
 import io.katharsis.queryspec.FilterOperator;
 
@@ -43,4 +47,18 @@ public abstract class ComputedAttributeTestBase extends AbstractJpaTest {
 		}
 	}
 
+	@Test
+	public void testResolvedPathsAreCached() {
+		ComputedAttributeRegistryImpl computedAttrs = (ComputedAttributeRegistryImpl) queryFactory.getComputedAttributes();
+		MetaDataObject meta = module.getJpaMetaLookup().getMeta(TestEntity.class, MetaEntity.class);
+
+		MetaAttributePath path = computedAttrs.getPathCache().resolvePath(meta, Arrays.asList(ATTR_VIRTUAL_VALUE));
+		Assert.assertEquals(ATTR_VIRTUAL_VALUE, path.getLast().getName());
+		Assert.assertSame(path, computedAttrs.getPathCache().resolvePath(meta, Arrays.asList(ATTR_VIRTUAL_VALUE)));
+		Assert.assertSame(computedAttrs.getForType(TestEntity.class), computedAttrs.getForType(TestEntity.class));
+		Assert.assertTrue(computedAttrs.getForType(TestEntity.class).contains(ATTR_VIRTUAL_VALUE));
+
+		assertEquals((Long) 2L, builder().addFilter(ATTR_VIRTUAL_VALUE, FilterOperator.EQ, "TEST2").buildExecutor().getUniqueResult(false).getId());
+		assertEquals((Long) 3L, builder().addFilter(ATTR_VIRTUAL_VALUE, FilterOperator.EQ, "TEST3").buildExecutor().getUniqueResult(false).getId());
+	}
 }
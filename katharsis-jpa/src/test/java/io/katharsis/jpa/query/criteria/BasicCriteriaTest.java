@@ -2,12 +2,14 @@ package io.katharsis.jpa.query.criteria;
 
 import java.util.Map;
 
+import javax.persistence.CacheRetrieveMode;
 import javax.persistence.EntityManager;
 import javax.persistence.TypedQuery;
 
 import org.junit.Assert;
 import org.junit.Test;
 
+import io.katharsis.jpa.JpaCachePolicy;
 import io.katharsis.jpa.internal.query.backend.criteria.JpaCriteriaQueryExecutorImpl;
 import io.katharsis.jpa.model.TestEntity;
 import io.katharsis.jpa.query.BasicQueryTestBase;
@@ -30,4 +32,16 @@ public class BasicCriteriaTest extends BasicQueryTestBase {
 		Map<String, Object> hints = typedQuery.getHints();
 		Assert.assertTrue(hints.containsKey("org.hibernate.cacheable"));
 	}
+
+	@Test
+	public void testCachePolicy() {
+		JpaQuery<TestEntity> builder = queryFactory.query(TestEntity.class);
+		JpaCriteriaQueryExecutorImpl<TestEntity> executor = (JpaCriteriaQueryExecutorImpl<TestEntity>) builder.buildExecutor();
+		JpaCachePolicy.referenceData("reference").apply(executor);
+		Map<String, Object> hints = executor.getTypedQuery().getHints();
+		Assert.assertEquals(Boolean.TRUE, hints.get(JpaCachePolicy.HINT_CACHEABLE));
+		Assert.assertEquals("reference", hints.get(JpaCachePolicy.HINT_CACHE_REGION));
+		Assert.assertEquals(Boolean.TRUE, hints.get(JpaCachePolicy.HINT_READ_ONLY));
+		Assert.assertEquals(CacheRetrieveMode.USE, hints.get(JpaCachePolicy.HINT_RETRIEVE_MODE));
+	}
 }
@@ -1,7 +1,14 @@
 package io.katharsis.jpa.repository;
 
+import java.sql.Timestamp;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import javax.persistence.CacheRetrieveMode;
+import javax.persistence.CacheStoreMode;
 
 import org.hibernate.Hibernate;
 import org.junit.Assert;
@@ -9,18 +16,31 @@ import org.junit.Before;
 import org.junit.Test;
 import org.springframework.transaction.annotation.Transactional;
 
+import io.katharsis.errorhandling.exception.BadRequestException;
 import io.katharsis.jpa.JpaEntityRepository;
+import io.katharsis.jpa.JpaCachePolicy;
 import io.katharsis.jpa.JpaRepositoryConfig;
+import io.katharsis.jpa.JpaRepositoryFilterBase;
+import io.katharsis.jpa.JpaStreamingEntityRepository;
 import io.katharsis.jpa.model.RelatedEntity;
 import io.katharsis.jpa.model.SequenceEntity;
 import io.katharsis.jpa.model.TestEntity;
+import io.katharsis.jpa.model.TimestampEntity;
 import io.katharsis.jpa.query.AbstractJpaTest;
+import io.katharsis.jpa.query.JpaQuery;
+import io.katharsis.jpa.query.TotalCountContext;
+import io.katharsis.jpa.query.TotalCountEstimator;
+import io.katharsis.jpa.query.TotalCountStrategies;
+import io.katharsis.jpa.query.TotalCountStrategy;
+import io.katharsis.jpa.query.Tuple;
 import io.katharsis.queryspec.Direction;
 import io.katharsis.queryspec.FilterOperator;
 import io.katharsis.queryspec.FilterSpec;
 import io.katharsis.queryspec.QuerySpec;
 import io.katharsis.queryspec.SortSpec;
 import io.katharsis.resource.list.ResourceList;
+import io.katharsis.resource.meta.CursorMetaInformation;
+import io.katharsis.resource.meta.HasMoreResourcesMetaInformation;
 import io.katharsis.resource.meta.PagedMetaInformation;
 
 @Transactional
@@ -249,6 +269,348 @@ public abstract class JpaEntityRepositoryTestBase extends AbstractJpaTest {
 		Assert.assertEquals(5, metaInformation.getTotalResourceCount().longValue());
 	}
 
+	@Test
+	public void testStreaming() throws InstantiationException, IllegalAccessException {
+		JpaStreamingEntityRepository<TestEntity, Long> streamingRepo = new JpaStreamingEntityRepository<>(module,
+				JpaRepositoryConfig.builder(TestEntity.class).setStreaming(true).build());
+		QuerySpec querySpec = new QuerySpec(TestEntity.class);
+		querySpec.addSort(new SortSpec(Arrays.asList("longValue"), Direction.DESC));
+		querySpec.setOffset(1L);
+		querySpec.setLimit(3L);
+
+		List<Long> ids = new ArrayList<>();
+		try (Stream<TestEntity> stream = streamingRepo.findAllStream(querySpec)) {
+			stream.forEach(entity -> ids.add(entity.getId()));
+		}
+		Assert.assertEquals(Arrays.asList(3L, 2L, 1L), ids);
+	}
+
+	@Test
+	public void testCreateWithoutReadAfterSave() throws InstantiationException, IllegalAccessException {
+		repo = new JpaEntityRepository<>(module, JpaRepositoryConfig.builder(TestEntity.class).setReadAfterSave(false).build());
+		TestEntity entity = new TestEntity();
+		entity.setId(100L);
+		entity.setLongValue(100L);
+		TestEntity savedEntity = repo.create(entity);
+		Assert.assertSame(entity, savedEntity);
+
+		em.flush();
+		em.clear();
+		Assert.assertEquals(100L, repo.findOne(100L, new QuerySpec(TestEntity.class)).getLongValue());
+	}
+
+	@Test
+	public void testCreateWithoutReadAfterSaveAppliesResultFilters() throws InstantiationException, IllegalAccessException {
+		final List<Object> filtered = new ArrayList<>();
+		module.addFilter(new JpaRepositoryFilterBase() {
+
+			@Override
+			public List<Tuple> filterTuples(Object repository, QuerySpec querySpec, List<Tuple> tuples) {
+				filtered.addAll(tuples);
+				return tuples;
+			}
+
+			@Override
+			public <T> ResourceList<T> filterResults(Object repository, QuerySpec querySpec, ResourceList<T> resources) {
+				filtered.addAll(resources);
+				return resources;
+			}
+		});
+		repo = new JpaEntityRepository<>(module, JpaRepositoryConfig.builder(TestEntity.class).setReadAfterSave(false).build());
+		TestEntity entity = new TestEntity();
+		entity.setId(100L);
+		entity.setLongValue(100L);
+		TestEntity savedEntity = repo.create(entity);
+		Assert.assertSame(entity, savedEntity);
+		Assert.assertEquals(2, filtered.size());
+		Assert.assertSame(entity, ((Tuple) filtered.get(0)).get(0, TestEntity.class));
+		Assert.assertSame(entity, filtered.get(1));
+	}
+
+	@Test
+	public void testCachePolicy() throws InstantiationException, IllegalAccessException {
+		JpaCachePolicy cachePolicy = JpaCachePolicy.builder().setQueryCache(true).setQueryCacheRegion("test")
+				.setRetrieveMode(CacheRetrieveMode.USE).setStoreMode(CacheStoreMode.USE).build();
+		repo = new JpaEntityRepository<>(module, JpaRepositoryConfig.builder(TestEntity.class).setCachePolicy(cachePolicy).build());
+		Assert.assertEquals(5, repo.findAll(new QuerySpec(TestEntity.class)).size());
+
+		TestEntity entity = repo.findOne(1L, new QuerySpec(TestEntity.class));
+		entity.setLongValue(100L);
+		repo.save(entity);
+		repo.delete(2L);
+		em.flush();
+		em.clear();
+		Assert.assertEquals(100L, repo.findOne(1L, new QuerySpec(TestEntity.class)).getLongValue());
+		Assert.assertNull(repo.findOne(2L, new QuerySpec(TestEntity.class)));
+		Assert.assertEquals(4, repo.findAll(new QuerySpec(TestEntity.class)).size());
+	}
+
+	@Test
+	public void testPagingWithoutTotalCount() throws InstantiationException, IllegalAccessException {
+		setupTotalCountStrategy(TotalCountStrategies.none());
+		QuerySpec querySpec = new QuerySpec(TestEntity.class);
+		querySpec.setLimit(2L);
+
+		ResourceList<TestEntity> list = repo.findAll(querySpec);
+		assertIds(list, 0, 1);
+		Assert.assertNull(list.getMeta(PagedMetaInformation.class).getTotalResourceCount());
+		Assert.assertNull(list.getMeta(HasMoreResourcesMetaInformation.class).getHasMoreResources());
+	}
+
+	@Test
+	public void testPagingHasNext() throws InstantiationException, IllegalAccessException {
+		setupTotalCountStrategy(TotalCountStrategies.hasNext());
+		QuerySpec querySpec = new QuerySpec(TestEntity.class);
+		querySpec.setOffset(2L);
+		querySpec.setLimit(2L);
+
+		ResourceList<TestEntity> list = repo.findAll(querySpec);
+		assertIds(list, 2, 3);
+		Assert.assertNull(list.getMeta(PagedMetaInformation.class).getTotalResourceCount());
+		Assert.assertTrue(list.getMeta(HasMoreResourcesMetaInformation.class).getHasMoreResources());
+
+		// last page counted from the page itself
+		querySpec.setOffset(4L);
+		list = repo.findAll(querySpec);
+		assertIds(list, 4);
+		Assert.assertEquals(5L, list.getMeta(PagedMetaInformation.class).getTotalResourceCount().longValue());
+	}
+
+	@Test
+	public void testPagingEstimatedTotalCount() throws InstantiationException, IllegalAccessException {
+		setupTotalCountStrategy(TotalCountStrategies.estimated(new TotalCountEstimator() {
+
+			@Override
+			public Long estimate(TotalCountContext context) {
+				return context.getQuerySpec().getFilters().isEmpty() ? 1000L : null;
+			}
+		}));
+		QuerySpec querySpec = new QuerySpec(TestEntity.class);
+		querySpec.setLimit(2L);
+		Assert.assertEquals(1000L, repo.findAll(querySpec).getMeta(PagedMetaInformation.class).getTotalResourceCount().longValue());
+
+		querySpec.addFilter(new FilterSpec(Arrays.asList("longValue"), FilterOperator.GE, 1L));
+		Assert.assertEquals(4L, repo.findAll(querySpec).getMeta(PagedMetaInformation.class).getTotalResourceCount().longValue());
+	}
+
+	@Test
+	public void testPagingCachedTotalCount() throws InstantiationException, IllegalAccessException {
+		setupTotalCountStrategy(TotalCountStrategies.cached(1, TimeUnit.HOURS));
+		QuerySpec querySpec = new QuerySpec(TestEntity.class);
+		querySpec.addFilter(new FilterSpec(Arrays.asList("longValue"), FilterOperator.GE, 1L));
+		querySpec.setLimit(2L);
+		Assert.assertEquals(4L, repo.findAll(querySpec).getMeta(PagedMetaInformation.class).getTotalResourceCount().longValue());
+
+		TestEntity entity = new TestEntity();
+		entity.setId(100L);
+		entity.setLongValue(100L);
+		em.persist(entity);
+		em.flush();
+
+		querySpec.setOffset(2L);
+		Assert.assertEquals(4L, repo.findAll(querySpec).getMeta(PagedMetaInformation.class).getTotalResourceCount().longValue());
+
+		querySpec.addFilter(new FilterSpec(Arrays.asList("longValue"), FilterOperator.LE, 1000L));
+		Assert.assertEquals(5L, repo.findAll(querySpec).getMeta(PagedMetaInformation.class).getTotalResourceCount().longValue());
+	}
+
+	@Test
+	public void testPagingCachedTotalCountWithRepositoryFilter() throws InstantiationException, IllegalAccessException {
+		MinValueFilter filter = new MinValueFilter();
+		module.addFilter(filter);
+		setupTotalCountStrategy(TotalCountStrategies.cached(1, TimeUnit.HOURS));
+		QuerySpec querySpec = new QuerySpec(TestEntity.class);
+		querySpec.setLimit(2L);
+
+		filter.minValue = 1L;
+		Assert.assertEquals(4L, repo.findAll(querySpec).getMeta(PagedMetaInformation.class).getTotalResourceCount().longValue());
+		filter.minValue = 3L;
+		Assert.assertEquals(2L, repo.findAll(querySpec).getMeta(PagedMetaInformation.class).getTotalResourceCount().longValue());
+
+		filter.keyed = false;
+		filter.minValue = 1L;
+		Assert.assertEquals(4L, repo.findAll(querySpec).getMeta(PagedMetaInformation.class).getTotalResourceCount().longValue());
+		filter.minValue = 2L;
+		Assert.assertEquals(3L, repo.findAll(querySpec).getMeta(PagedMetaInformation.class).getTotalResourceCount().longValue());
+	}
+
+	class MinValueFilter extends JpaRepositoryFilterBase {
+
+		private long minValue;
+
+		private boolean keyed = true;
+
+		@Override
+		public <T> JpaQuery<T> filterQuery(Object repository, QuerySpec querySpec, JpaQuery<T> query) {
+			query.addFilter("longValue", FilterOperator.GE, minValue);
+			return query;
+		}
+
+		@Override
+		public Object getTotalCountKey(Object repository, QuerySpec querySpec) {
+			return keyed ? minValue : null;
+		}
+	}
+
+	private void setupTotalCountStrategy(TotalCountStrategy strategy) {
+		repo = new JpaEntityRepository<>(module, JpaRepositoryConfig.builder(TestEntity.class).setTotalCountStrategy(strategy).build());
+	}
+
+	@Test
+	public void testKeysetPaging() throws InstantiationException, IllegalAccessException {
+		repo = new JpaEntityRepository<>(module, JpaRepositoryConfig.builder(TestEntity.class).setKeysetPaging(true).build());
+		QuerySpec querySpec = new QuerySpec(TestEntity.class);
+		querySpec.addSort(new SortSpec(Arrays.asList("longValue"), Direction.DESC));
+		querySpec.setLimit(2L);
+
+		ResourceList<TestEntity> list = repo.findAll(querySpec);
+		assertIds(list, 4, 3);
+		CursorMetaInformation cursorMeta = list.getMeta(CursorMetaInformation.class);
+		Assert.assertNull(cursorMeta.getPrevCursor());
+		Assert.assertNotNull(cursorMeta.getNextCursor());
+
+		querySpec.setPageAfter(cursorMeta.getNextCursor());
+		list = repo.findAll(querySpec);
+		assertIds(list, 2, 1);
+		cursorMeta = list.getMeta(CursorMetaInformation.class);
+		Assert.assertNotNull(cursorMeta.getPrevCursor());
+		Assert.assertNotNull(cursorMeta.getNextCursor());
+
+		querySpec.setPageAfter(cursorMeta.getNextCursor());
+		list = repo.findAll(querySpec);
+		assertIds(list, 0);
+		cursorMeta = list.getMeta(CursorMetaInformation.class);
+		Assert.assertNotNull(cursorMeta.getPrevCursor());
+		Assert.assertNull(cursorMeta.getNextCursor());
+
+		querySpec.setPageAfter(null);
+		querySpec.setPageBefore(cursorMeta.getPrevCursor());
+		list = repo.findAll(querySpec);
+		assertIds(list, 2, 1);
+		cursorMeta = list.getMeta(CursorMetaInformation.class);
+		Assert.assertNotNull(cursorMeta.getPrevCursor());
+		Assert.assertNotNull(cursorMeta.getNextCursor());
+
+		querySpec.setPageBefore(cursorMeta.getPrevCursor());
+		list = repo.findAll(querySpec);
+		assertIds(list, 4, 3);
+		cursorMeta = list.getMeta(CursorMetaInformation.class);
+		Assert.assertNull(cursorMeta.getPrevCursor());
+		Assert.assertNotNull(cursorMeta.getNextCursor());
+	}
+
+	@Test
+	public void testKeysetPagingWithTimestampSortKey() throws InstantiationException, IllegalAccessException {
+		// rows differing only below a millisecond
+		Timestamp base = Timestamp.valueOf("2017-03-01 10:15:30.123");
+		for (long i = 0; i < 3; i++) {
+			Timestamp timestamp = new Timestamp(base.getTime());
+			timestamp.setNanos(base.getNanos() + (int) i * 1000);
+			TimestampEntity entity = new TimestampEntity();
+			entity.setId(i);
+			entity.setTimestampValue(timestamp);
+			em.persist(entity);
+		}
+		em.flush();
+		em.clear();
+
+		JpaEntityRepository<TimestampEntity, Long> timestampRepo = new JpaEntityRepository<>(module,
+				JpaRepositoryConfig.builder(TimestampEntity.class).setKeysetPaging(true).build());
+		QuerySpec querySpec = new QuerySpec(TimestampEntity.class);
+		querySpec.addSort(new SortSpec(Arrays.asList(TimestampEntity.ATTR_timestampValue), Direction.ASC));
+		querySpec.setLimit(1L);
+
+		List<Long> ids = new ArrayList<>();
+		ResourceList<TimestampEntity> list = timestampRepo.findAll(querySpec);
+		for (int page = 0; page < 3; page++) {
+			Assert.assertEquals(1, list.size());
+			ids.add(list.get(0).getId());
+			String nextCursor = list.getMeta(CursorMetaInformation.class).getNextCursor();
+			if (nextCursor == null) {
+				break;
+			}
+			querySpec.setPageAfter(nextCursor);
+			list = timestampRepo.findAll(querySpec);
+		}
+		Assert.assertEquals(Arrays.asList(0L, 1L, 2L), ids);
+		Assert.assertNull(list.getMeta(CursorMetaInformation.class).getNextCursor());
+
+		querySpec.setPageAfter(null);
+		querySpec.setPageBefore(list.getMeta(CursorMetaInformation.class).getPrevCursor());
+		list = timestampRepo.findAll(querySpec);
+		Assert.assertEquals(1L, list.get(0).getId().longValue());
+	}
+
+	@Test
+	public void testKeysetPagingWithSparseFieldSet() throws InstantiationException, IllegalAccessException {
+		repo = new JpaEntityRepository<>(module, JpaRepositoryConfig.builder(TestEntity.class).setKeysetPaging(true).build());
+		QuerySpec querySpec = new QuerySpec(TestEntity.class);
+		querySpec.includeField(Arrays.asList("stringValue"));
+		querySpec.addSort(new SortSpec(Arrays.asList("longValue"), Direction.ASC));
+		querySpec.setLimit(3L);
+
+		ResourceList<TestEntity> list = repo.findAll(querySpec);
+		assertIds(list, 0, 1, 2);
+		querySpec.setPageAfter(list.getMeta(CursorMetaInformation.class).getNextCursor());
+		list = repo.findAll(querySpec);
+		assertIds(list, 3, 4);
+		Assert.assertEquals("test3", list.get(0).getStringValue());
+	}
+
+	@Test
+	public void testCursorWithoutKeysetPagingEnabled() throws InstantiationException, IllegalAccessException {
+		JpaEntityRepository<TestEntity, Long> keysetRepo = new JpaEntityRepository<>(module,
+				JpaRepositoryConfig.builder(TestEntity.class).setKeysetPaging(true).build());
+		QuerySpec querySpec = new QuerySpec(TestEntity.class);
+		querySpec.setLimit(2L);
+		String nextCursor = keysetRepo.findAll(querySpec).getMeta(CursorMetaInformation.class).getNextCursor();
+
+		querySpec.setPageAfter(nextCursor);
+		assertIds(repo.findAll(querySpec), 2, 3);
+	}
+
+	@Test
+	public void testKeysetPagingFallsBackToOffsetForNullableSort() throws InstantiationException, IllegalAccessException {
+		repo = new JpaEntityRepository<>(module, JpaRepositoryConfig.builder(TestEntity.class).setKeysetPaging(true).build());
+		QuerySpec querySpec = new QuerySpec(TestEntity.class);
+		querySpec.addSort(new SortSpec(Arrays.asList("stringValue"), Direction.DESC));
+		querySpec.setLimit(2L);
+		querySpec.setOffset(1L);
+
+		ResourceList<TestEntity> list = repo.findAll(querySpec);
+		assertIds(list, 3, 2);
+		CursorMetaInformation cursorMeta = list.getMeta(CursorMetaInformation.class);
+		Assert.assertNull(cursorMeta.getPrevCursor());
+		Assert.assertNull(cursorMeta.getNextCursor());
+	}
+
+	@Test(expected = BadRequestException.class)
+	public void testCursorRejectedForNullableSort() throws InstantiationException, IllegalAccessException {
+		repo = new JpaEntityRepository<>(module, JpaRepositoryConfig.builder(TestEntity.class).setKeysetPaging(true).build());
+		QuerySpec querySpec = new QuerySpec(TestEntity.class);
+		querySpec.setLimit(2L);
+		String nextCursor = repo.findAll(querySpec).getMeta(CursorMetaInformation.class).getNextCursor();
+
+		querySpec.addSort(new SortSpec(Arrays.asList("stringValue"), Direction.ASC));
+		querySpec.setPageAfter(nextCursor);
+		repo.findAll(querySpec);
+	}
+
+	@Test(expected = BadRequestException.class)
+	public void testInvalidCursor() throws InstantiationException, IllegalAccessException {
+		QuerySpec querySpec = new QuerySpec(TestEntity.class);
+		querySpec.setLimit(2L);
+		querySpec.setPageAfter("invalid");
+		repo.findAll(querySpec);
+	}
+
+	private static void assertIds(List<TestEntity> list, long... ids) {
+		Assert.assertEquals(ids.length, list.size());
+		for (int i = 0; i < ids.length; i++) {
+			Assert.assertEquals(ids[i], list.get(i).getId().longValue());
+		}
+	}
+
 	@Test
 	public void testIncludeNoRelations() throws InstantiationException, IllegalAccessException {
 		em.clear();
@@ -269,12 +631,61 @@ public abstract class JpaEntityRepositoryTestBase extends AbstractJpaTest {
 	}
 
 	@Test(expected = Exception.class)
-	public void testSparseFieldSetNotSupported() throws InstantiationException, IllegalAccessException {
+	public void testSparseFieldSetUnknownAttr() throws InstantiationException, IllegalAccessException {
 		QuerySpec querySpec = new QuerySpec(TestEntity.class);
 		querySpec.includeField(Arrays.asList("test"));
 		repo.findAll(querySpec);
 	}
 
+	@Test
+	public void testSparseFieldSetProjection() throws InstantiationException, IllegalAccessException {
+		QuerySpec querySpec = new QuerySpec(TestEntity.class);
+		querySpec.includeField(Arrays.asList("stringValue"));
+		querySpec.addSort(new SortSpec(Arrays.asList("longValue"), Direction.DESC));
+		querySpec.setOffset(1L);
+		querySpec.setLimit(2L);
+
+		ResourceList<TestEntity> list = repo.findAll(querySpec);
+		Assert.assertEquals(2, list.size());
+		TestEntity entity = list.get(0);
+		Assert.assertEquals(3L, entity.getId().longValue());
+		Assert.assertEquals("test3", entity.getStringValue());
+		// unrequested attributes are not loaded
+		Assert.assertEquals(0L, entity.getLongValue());
+		Assert.assertNull(entity.getEmbValue());
+		Assert.assertNull(entity.getOneRelatedValue());
+		Assert.assertFalse(em.contains(entity));
+		Assert.assertEquals("test2", list.get(1).getStringValue());
+
+		PagedMetaInformation metaInformation = list.getMeta(PagedMetaInformation.class);
+		Assert.assertEquals(5, metaInformation.getTotalResourceCount().longValue());
+	}
+
+	@Test
+	public void testSparseFieldSetWithFilterOnRelation() throws InstantiationException, IllegalAccessException {
+		QuerySpec querySpec = new QuerySpec(TestEntity.class);
+		querySpec.includeField(Arrays.asList("id"));
+		querySpec.addFilter(new FilterSpec(Arrays.asList("oneRelatedValue", "stringValue"), FilterOperator.EQ, "related1"));
+
+		List<TestEntity> list = repo.findAll(querySpec);
+		Assert.assertEquals(1, list.size());
+		Assert.assertEquals(1L, list.get(0).getId().longValue());
+		Assert.assertNull(list.get(0).getStringValue());
+	}
+
+	@Test
+	public void testSparseFieldSetWithRelationLoadsEntities() throws InstantiationException, IllegalAccessException {
+		QuerySpec querySpec = new QuerySpec(TestEntity.class);
+		querySpec.includeField(Arrays.asList("stringValue"));
+		querySpec.includeField(Arrays.asList("oneRelatedValue"));
+		querySpec.addFilter(new FilterSpec(Arrays.asList("id"), FilterOperator.EQ, 2L));
+
+		List<TestEntity> list = repo.findAll(querySpec);
+		Assert.assertEquals(1, list.size());
+		Assert.assertEquals(2L, list.get(0).getLongValue());
+		Assert.assertNotNull(list.get(0).getEmbValue());
+	}
+
 	@Test(expected = Exception.class)
 	public void testSortUnknownAttr() throws InstantiationException, IllegalAccessException {
 		QuerySpec querySpec = new QuerySpec(TestEntity.class);
@@ -11,14 +11,19 @@ import org.junit.Before;
 import org.junit.Test;
 import org.springframework.transaction.annotation.Transactional;
 
+import io.katharsis.core.internal.utils.MultivaluedMap;
+import io.katharsis.jpa.JpaCachePolicy;
 import io.katharsis.jpa.JpaRelationshipRepository;
 import io.katharsis.jpa.JpaRepositoryConfig;
 import io.katharsis.jpa.model.RelatedEntity;
 import io.katharsis.jpa.model.TestEntity;
 import io.katharsis.jpa.query.AbstractJpaTest;
+import io.katharsis.jpa.query.JpaQueryExecutor;
+import io.katharsis.queryspec.Direction;
 import io.katharsis.queryspec.FilterOperator;
 import io.katharsis.queryspec.FilterSpec;
 import io.katharsis.queryspec.QuerySpec;
+import io.katharsis.queryspec.SortSpec;
 import io.katharsis.resource.list.ResourceList;
 import io.katharsis.resource.meta.PagedMetaInformation;
 
@@ -39,6 +44,29 @@ public abstract class JpaRelationshipRepositoryTestBase extends AbstractJpaTest
 				JpaRepositoryConfig.create(TestEntity.class));
 	}
 
+	@Test
+	public void testRemoveRelationsOfReadOnlyTargets() throws InstantiationException, IllegalAccessException {
+		JpaCachePolicy cachePolicy = JpaCachePolicy.referenceData(null);
+		repo = new JpaRelationshipRepository<TestEntity, Long, RelatedEntity, Long>(module, TestEntity.class,
+				JpaRepositoryConfig.builder(RelatedEntity.class).setCachePolicy(cachePolicy).build());
+		repo.addRelations(em.find(TestEntity.class, 1L), Arrays.asList(101L, 102L), TestEntity.ATTR_manyRelatedValues);
+		em.flush();
+		em.clear();
+
+		TestEntity test = em.find(TestEntity.class, 1L);
+		// loaded read-only earlier in the request
+		JpaQueryExecutor<RelatedEntity> executor = module.getQueryFactory().query(RelatedEntity.class)
+				.addFilter("id", FilterOperator.EQ, 102L).buildExecutor();
+		cachePolicy.apply(executor);
+		Assert.assertEquals(1, executor.getResultList().size());
+		repo.removeRelations(test, Arrays.asList(102L), TestEntity.ATTR_manyRelatedValues);
+		em.flush();
+		em.clear();
+		test = em.find(TestEntity.class, 1L);
+		Assert.assertEquals(1, test.getManyRelatedValues().size());
+		Assert.assertNull(em.find(RelatedEntity.class, 102L).getTestEntity());
+	}
+
 	@Test
 	public void testFindOneTarget() throws InstantiationException, IllegalAccessException {
 		RelatedEntity relatedEntity = repo.findOneTarget(1L, TestEntity.ATTR_oneRelatedValue, new QuerySpec(RelatedEntity.class));
@@ -130,6 +158,27 @@ public abstract class JpaRelationshipRepositoryTestBase extends AbstractJpaTest
 		Assert.assertEquals(101L, related.getId().longValue());
 	}
 
+	@Test
+	public void testAddRemoveManyRelations() throws InstantiationException, IllegalAccessException {
+		module.setJdbcBatchSize(50);
+		TestEntity test = em.find(TestEntity.class, 1L);
+		repo.addRelations(test, Arrays.asList(104L, 100L, 102L, 101L), TestEntity.ATTR_manyRelatedValues);
+		em.flush();
+		em.clear();
+		test = em.find(TestEntity.class, 1L);
+		Assert.assertEquals(4, test.getManyRelatedValues().size());
+		for (RelatedEntity related : test.getManyRelatedValues()) {
+			Assert.assertSame(test, related.getTestEntity());
+		}
+
+		repo.removeRelations(test, Arrays.asList(100L, 104L), TestEntity.ATTR_manyRelatedValues);
+		em.flush();
+		em.clear();
+		test = em.find(TestEntity.class, 1L);
+		Assert.assertEquals(2, test.getManyRelatedValues().size());
+		Assert.assertNull(em.find(RelatedEntity.class, 100L).getTestEntity());
+	}
+
 	@Test
 	public void testSetRelation() throws InstantiationException, IllegalAccessException {
 		RelatedEntity related = em.find(RelatedEntity.class, 101L);
@@ -185,6 +234,62 @@ public abstract class JpaRelationshipRepositoryTestBase extends AbstractJpaTest
 		Assert.assertEquals(5, metaInformation.getTotalResourceCount().longValue());
 	}
 
+	@Test
+	public void testGetManyRelationsWithBulkPaging() throws InstantiationException, IllegalAccessException {
+		setupManyRelation(Arrays.asList(100L, 101L, 102L));
+		TestEntity test2 = em.find(TestEntity.class, 2L);
+		repo.addRelations(test2, Arrays.asList(103L, 104L), TestEntity.ATTR_manyRelatedValues);
+		em.flush();
+		em.clear();
+
+		QuerySpec querySpec = new QuerySpec(RelatedEntity.class);
+		querySpec.setOffset(1L);
+		querySpec.setLimit(1L);
+		MultivaluedMap<Long, RelatedEntity> map = repo.findTargets(Arrays.asList(1L, 2L, 3L), TestEntity.ATTR_manyRelatedValues,
+				querySpec);
+		Assert.assertFalse(map.containsKey(3L));
+
+		List<RelatedEntity> list1 = map.getList(1L);
+		Assert.assertEquals(1, list1.size());
+		Assert.assertEquals(101L, list1.get(0).getId().longValue());
+		Assert.assertEquals(3L, ((ResourceList<RelatedEntity>) list1).getMeta(PagedMetaInformation.class).getTotalResourceCount()
+				.longValue());
+
+		List<RelatedEntity> list2 = map.getList(2L);
+		Assert.assertEquals(1, list2.size());
+		Assert.assertEquals(104L, list2.get(0).getId().longValue());
+		Assert.assertEquals(2L, ((ResourceList<RelatedEntity>) list2).getMeta(PagedMetaInformation.class).getTotalResourceCount()
+				.longValue());
+	}
+
+	@Test
+	public void testGetManyRelationsWithBulkPagingAndSorting() throws InstantiationException, IllegalAccessException {
+		setupManyRelation(Arrays.asList(100L, 101L, 102L));
+		TestEntity test2 = em.find(TestEntity.class, 2L);
+		repo.addRelations(test2, Arrays.asList(103L, 104L), TestEntity.ATTR_manyRelatedValues);
+		em.flush();
+		em.clear();
+
+		QuerySpec querySpec = new QuerySpec(RelatedEntity.class);
+		querySpec.addSort(new SortSpec(Arrays.asList(RelatedEntity.ATTR_id), Direction.DESC));
+		querySpec.setLimit(2L);
+		MultivaluedMap<Long, RelatedEntity> map = repo.findTargets(Arrays.asList(1L, 2L), TestEntity.ATTR_manyRelatedValues, querySpec);
+
+		List<RelatedEntity> list1 = map.getList(1L);
+		Assert.assertEquals(2, list1.size());
+		Assert.assertEquals(102L, list1.get(0).getId().longValue());
+		Assert.assertEquals(101L, list1.get(1).getId().longValue());
+		Assert.assertEquals(3L, ((ResourceList<RelatedEntity>) list1).getMeta(PagedMetaInformation.class).getTotalResourceCount()
+				.longValue());
+
+		List<RelatedEntity> list2 = map.getList(2L);
+		Assert.assertEquals(2, list2.size());
+		Assert.assertEquals(104L, list2.get(0).getId().longValue());
+		Assert.assertEquals(103L, list2.get(1).getId().longValue());
+		Assert.assertEquals(2L, ((ResourceList<RelatedEntity>) list2).getMeta(PagedMetaInformation.class).getTotalResourceCount()
+				.longValue());
+	}
+
 	private TestEntity setupManyRelation(List<Long> ids) {
 		TestEntity test = em.find(TestEntity.class, 1L);
 		Assert.assertThat(test.getManyRelatedValues().size(), Is.is(0));
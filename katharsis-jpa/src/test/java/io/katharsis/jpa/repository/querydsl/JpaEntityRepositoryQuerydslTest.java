@@ -1,8 +1,24 @@
 package io.katharsis.jpa.repository.querydsl;
 
+import java.io.Serializable;
+
 import javax.persistence.EntityManager;
 
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.querydsl.core.types.Expression;
+import com.querydsl.jpa.JPAExpressions;
+import com.querydsl.jpa.impl.JPAQuery;
+
+import io.katharsis.jpa.JpaEntityRepository;
+import io.katharsis.jpa.JpaRepositoryConfig;
+import io.katharsis.jpa.mapping.TestDTOMapper;
+import io.katharsis.jpa.model.QTestEntity;
+import io.katharsis.jpa.model.TestEntity;
+import io.katharsis.jpa.model.dto.TestDTO;
 import io.katharsis.jpa.query.JpaQueryFactory;
+import io.katharsis.jpa.query.querydsl.QuerydslExpressionFactory;
 import io.katharsis.jpa.query.querydsl.QuerydslQueryFactory;
 import io.katharsis.jpa.repository.JpaEntityRepositoryTestBase;
 
@@ -13,4 +29,36 @@ public class JpaEntityRepositoryQuerydslTest extends JpaEntityRepositoryTestBase
 		return QuerydslQueryFactory.newInstance();
 	}
 
+	@Test
+	public void testCreateDtoWithoutReadAfterSave() {
+		QuerydslQueryFactory querydslQueryFactory = (QuerydslQueryFactory) queryFactory;
+		querydslQueryFactory.registerComputedAttribute(TestEntity.class, TestDTO.ATTR_COMPUTED_UPPER_STRING_VALUE, String.class,
+				new QuerydslExpressionFactory<QTestEntity>() {
+
+					@Override
+					public Expression<String> getExpression(QTestEntity parent, JPAQuery<?> jpaQuery) {
+						return parent.stringValue.upper();
+					}
+				});
+		querydslQueryFactory.registerComputedAttribute(TestEntity.class, TestDTO.ATTR_COMPUTED_NUMBER_OF_SMALLER_IDS, Long.class,
+				new QuerydslExpressionFactory<QTestEntity>() {
+
+					@Override
+					public Expression<Long> getExpression(QTestEntity parent, JPAQuery<?> jpaQuery) {
+						QTestEntity sub = new QTestEntity("subquery");
+						return JPAExpressions.select(sub.id.count()).from(sub).where(sub.id.lt(parent.id));
+					}
+				});
+		JpaEntityRepository<TestDTO, Serializable> dtoRepo = new JpaEntityRepository<>(module,
+				JpaRepositoryConfig.builder(TestEntity.class, TestDTO.class, new TestDTOMapper(em)).setReadAfterSave(false)
+						.build());
+
+		TestDTO dto = new TestDTO();
+		dto.setId(100L);
+		dto.setStringValue("createdDto");
+		dto = dtoRepo.create(dto);
+		Assert.assertEquals("createdDto", dto.getStringValue());
+		Assert.assertEquals("CREATEDDTO", dto.getComputedUpperStringValue());
+		Assert.assertEquals(numTestEntities, dto.getComputedNumberOfSmallerIds());
+	}
 }
@@ -17,7 +17,10 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import io.katharsis.core.internal.boot.KatharsisBoot;
 import io.katharsis.core.internal.boot.PropertiesProvider;
 import io.katharsis.core.internal.dispatcher.RequestDispatcher;
+import io.katharsis.core.internal.http.ResponseEncoder;
+import io.katharsis.core.internal.jackson.RequestBodyReader;
 import io.katharsis.core.internal.repository.adapter.ResourceRepositoryAdapter;
+import io.katharsis.core.internal.resource.DocumentMapper;
 import io.katharsis.legacy.locator.JsonServiceLocator;
 import io.katharsis.legacy.queryParams.QueryParamsBuilder;
 import io.katharsis.module.Module;
@@ -107,6 +110,9 @@ public class KatharsisFeature implements Feature {
 			RequestDispatcher requestDispatcher = boot.getRequestDispatcher();
 			katharsisFilter = createKatharsisFilter(resourceRegistry, parameterProviderRegistry, webPathPrefix,
 					requestDispatcher);
+			katharsisFilter.setStreaming(DocumentMapper.isStreaming(propertiesProvider));
+			katharsisFilter.setMaxBodySize(RequestBodyReader.getMaxBodySize(propertiesProvider));
+			katharsisFilter.setResponseEncoder(ResponseEncoder.create(propertiesProvider));
 		}
 		catch (Exception e) {
 			throw new WebApplicationException(e);
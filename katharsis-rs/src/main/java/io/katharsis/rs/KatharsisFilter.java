@@ -3,14 +3,13 @@ package io.katharsis.rs;
 import static io.katharsis.rs.type.JsonApiMediaType.APPLICATION_JSON_API_TYPE;
 
 import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.HashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Scanner;
 import java.util.Set;
 
 import javax.annotation.Priority;
@@ -21,19 +20,24 @@ import javax.ws.rs.container.PreMatching;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.MultivaluedMap;
 import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
 import javax.ws.rs.core.UriInfo;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 
 import io.katharsis.core.internal.dispatcher.RequestDispatcher;
 import io.katharsis.core.internal.dispatcher.path.ActionPath;
 import io.katharsis.core.internal.dispatcher.path.JsonPath;
 import io.katharsis.core.internal.dispatcher.path.PathBuilder;
 import io.katharsis.core.internal.exception.KatharsisExceptionMapper;
-import io.katharsis.errorhandling.exception.JsonDeserializationException;
+import io.katharsis.core.internal.http.ResponseEncoder;
+import io.katharsis.core.internal.http.ResponseEncoder.EncodingOutputStream;
+import io.katharsis.core.internal.jackson.RequestBodyReader;
 import io.katharsis.errorhandling.exception.KatharsisMappableException;
 import io.katharsis.errorhandling.exception.KatharsisMatchingException;
 import io.katharsis.resource.Document;
@@ -70,6 +74,10 @@ public class KatharsisFilter implements ContainerRequestFilter {
     private RequestDispatcher requestDispatcher;
     private RequestContextParameterProviderRegistry parameterProviderRegistry;
     private String webPathPrefix;
+    private boolean streaming;
+
+    private ResponseEncoder responseEncoder = new ResponseEncoder(false, false, ResponseEncoder.DEFAULT_COMPRESSION_THRESHOLD);
+    private RequestBodyReader requestBodyReader;
 
     public KatharsisFilter(ObjectMapper objectMapper,
                            ResourceRegistry resourceRegistry, RequestDispatcher
@@ -79,6 +87,43 @@ public class KatharsisFilter implements ContainerRequestFilter {
         this.requestDispatcher = requestDispatcher;
         this.parameterProviderRegistry = parameterProviderRegistry;
         this.webPathPrefix = parsePrefix(webPathPrefix);
+        this.requestBodyReader = new RequestBodyReader(objectMapper, RequestBodyReader.UNLIMITED);
+    }
+
+    /**
+     * @param streaming true to serialize documents directly into the response entity stream rather than buffering
+     *                  them up-front, see {@link io.katharsis.core.properties.KatharsisProperties#SERIALIZATION_STREAMING}.
+     */
+    public void setStreaming(boolean streaming) {
+        this.streaming = streaming;
+    }
+
+    public boolean isStreaming() {
+        return streaming;
+    }
+
+    /**
+     * @param maxBodySize maximum size of request bodies in bytes or {@link RequestBodyReader#UNLIMITED}, see
+     *                    {@link io.katharsis.core.properties.KatharsisProperties#MAX_REQUEST_BODY_SIZE}.
+     */
+    public void setMaxBodySize(long maxBodySize) {
+        this.requestBodyReader = new RequestBodyReader(objectMapper, maxBodySize);
+    }
+
+    public long getMaxBodySize() {
+        return requestBodyReader.getMaxBodySize();
+    }
+
+    /**
+     * @param responseEncoder to produce compact and compressed responses, see
+     *                        {@link io.katharsis.core.properties.KatharsisProperties#RESPONSE_COMPRESSION}.
+     */
+    public void setResponseEncoder(ResponseEncoder responseEncoder) {
+        this.responseEncoder = responseEncoder;
+    }
+
+    public ResponseEncoder getResponseEncoder() {
+        return responseEncoder;
     }
 
     private static String parsePrefix(String webPathPrefix) {
@@ -144,6 +189,7 @@ public class KatharsisFilter implements ContainerRequestFilter {
             	// nothing further done, forward the call to JAX-RS
             	passToMethodMatcher = true;
             }else if(jsonPath != null){
+	            requestBodyReader.checkContentLength(requestContext.getLength());
 	            Document requestBody = inputStreamToBody(requestContext.getEntityStream());
 	
 	            JaxRsParameterProvider parameterProvider = new JaxRsParameterProvider(objectMapper, requestContext, parameterProviderRegistry);
@@ -190,38 +236,63 @@ public class KatharsisFilter implements ContainerRequestFilter {
         }
     }
 
+    /**
+     * Streamed documents are compressed regardless of their size since the headers have to be set up-front. Buffered
+     * documents are compressed above the threshold. Successful GET responses among them carry an ETag of the encoded
+     * body if enabled and are answered with 304 if the client holds them already.
+     */
     private void abortWithResponse(ContainerRequestContext requestContext, io.katharsis.repository.response.Response katharsisResponse)
         throws IOException {
         Response response;
         if (katharsisResponse != null) {
-            ByteArrayOutputStream os = new ByteArrayOutputStream();
-            objectMapper.writeValue(os, katharsisResponse.getDocument());
-            response = Response
+            final Document document = katharsisResponse.getDocument();
+            final ObjectWriter writer = responseEncoder.configure(objectMapper.writer().without(JsonGenerator.Feature.AUTO_CLOSE_TARGET));
+            final String contentEncoding = responseEncoder.negotiate(requestContext.getHeaderString(ResponseEncoder.HEADER_ACCEPT_ENCODING));
+            Response.ResponseBuilder builder = Response
                 .status(katharsisResponse.getHttpStatus())
-                .entity(new ByteArrayInputStream(os.toByteArray()))
-                .type(APPLICATION_JSON_API_TYPE)
-                .build();
+                .type(APPLICATION_JSON_API_TYPE);
+            if (responseEncoder.isCompression()) {
+                builder.header(ResponseEncoder.HEADER_VARY, ResponseEncoder.HEADER_ACCEPT_ENCODING);
+            }
+            if (streaming) {
+                builder.header(ResponseEncoder.HEADER_CONTENT_ENCODING, contentEncoding);
+                builder.entity(new StreamingOutput() {
+
+                    @Override
+                    public void write(OutputStream output) throws IOException {
+                        EncodingOutputStream encodedOut = responseEncoder.newOutputStream(output, contentEncoding, null, true);
+                        try {
+                            writer.writeValue(encodedOut, document);
+                            encodedOut.finish();
+                        } finally {
+                            encodedOut.release();
+                        }
+                    }
+                });
+            } else {
+                byte[] body = writer.writeValueAsBytes(document);
+                ResponseEncoder.EncodedBody encodedBody = responseEncoder.encode(body, contentEncoding);
+                builder.header(ResponseEncoder.HEADER_CONTENT_ENCODING, encodedBody.getContentEncoding());
+                boolean notModified = false;
+                if (responseEncoder.isETag(requestContext.getMethod(), katharsisResponse.getHttpStatus())) {
+                    builder.header(ResponseEncoder.HEADER_ETAG, encodedBody.getETag());
+                    notModified = ResponseEncoder.isNotModified(requestContext.getHeaderString(ResponseEncoder.HEADER_IF_NONE_MATCH),
+                        encodedBody.getETag());
+                }
+                if (notModified) {
+                    builder.status(Response.Status.NOT_MODIFIED);
+                } else {
+                    builder.entity(new ByteArrayInputStream(encodedBody.getBytes()));
+                }
+            }
+            response = builder.build();
         } else {
             response = Response.noContent().build();
         }
         requestContext.abortWith(response);
     }
 
-
-
     public Document inputStreamToBody(InputStream is) throws IOException {
-        if (is == null) {
-            return null;
-        }
-        Scanner s = new Scanner(is).useDelimiter("\\A");
-        String requestBody = s.hasNext() ? s.next() : "";
-        if (requestBody == null || requestBody.isEmpty()) {
-            return null;
-        }
-        try {
-            return objectMapper.readValue(requestBody, Document.class);
-        } catch (IOException e) {
-            throw new JsonDeserializationException(e.getMessage());
-        }
+        return requestBodyReader.read(is);
     }
 }
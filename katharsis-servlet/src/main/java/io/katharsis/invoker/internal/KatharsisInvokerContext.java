@@ -56,6 +56,16 @@ public interface KatharsisInvokerContext {
 
     void setResponseContentType(String type);
 
+    /**
+     * Sets a header of the response, by default on the response returned by {@link #getServletResponse()}.
+     */
+    default void setResponseHeader(String name, String value) {
+        HttpServletResponse response = getServletResponse();
+        if (response != null) {
+            response.setHeader(name, value);
+        }
+    }
+
     OutputStream getResponseOutputStream() throws IOException;
 
     ServletContext getServletContext();
@@ -16,18 +16,30 @@
  */
 package io.katharsis.invoker.internal;
 
-import java.io.ByteArrayOutputStream;
 import java.io.Closeable;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.util.Map;
-import java.util.Scanner;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.BooleanSupplier;
 
 import javax.servlet.http.HttpServletResponse;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonMappingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import com.google.common.net.MediaType;
 
 import io.katharsis.core.internal.boot.KatharsisBoot;
@@ -36,8 +48,12 @@ import io.katharsis.core.internal.dispatcher.RequestDispatcher;
 import io.katharsis.core.internal.dispatcher.path.JsonPath;
 import io.katharsis.core.internal.dispatcher.path.PathBuilder;
 import io.katharsis.core.internal.exception.KatharsisExceptionMapper;
-import io.katharsis.errorhandling.exception.JsonDeserializationException;
+import io.katharsis.core.internal.http.ResponseEncoder;
+import io.katharsis.core.internal.http.ResponseEncoder.EncodingOutputStream;
+import io.katharsis.core.internal.jackson.RequestBodyReader;
+import io.katharsis.core.internal.resource.DocumentMapper;
 import io.katharsis.errorhandling.exception.KatharsisMappableException;
+import io.katharsis.errorhandling.mapper.JsonApiExceptionMapper;
 import io.katharsis.errorhandling.exception.KatharsisMatchingException;
 import io.katharsis.legacy.internal.RepositoryMethodParameterProvider;
 import io.katharsis.module.Module;
@@ -47,16 +63,25 @@ import io.katharsis.resource.Document;
 import io.katharsis.resource.registry.ResourceRegistry;
 import io.katharsis.resource.registry.ServiceUrlProvider;
 import io.katharsis.servlet.internal.QueryStringUtils;
+import io.katharsis.utils.Optional;
 
 /**
  * Katharsis dispatcher invoker.
  */
 public class KatharsisInvokerV2 {
 
-	private static int BUFFER_SIZE = 4096;
+	private static final Logger LOGGER = LoggerFactory.getLogger(KatharsisInvokerV2.class);
 
 	private KatharsisBoot boot = new KatharsisBoot();
 
+	private ResponseBufferPool bufferPool = new ResponseBufferPool();
+
+	private RequestBodyReader requestBodyReader;
+
+	private ResponseEncoder responseEncoder;
+
+	private Boolean streaming;
+
 	/**
 	 * Sets a custom ServiceUrlProvider.
 	 * 
@@ -91,6 +116,17 @@ public class KatharsisInvokerV2 {
 		return boot.getQuerySpecDeserializer();
 	}
 
+	/**
+	 * Sets the pool of buffers responses are serialized into.
+	 */
+	public void setResponseBufferPool(ResponseBufferPool bufferPool) {
+		this.bufferPool = bufferPool;
+	}
+
+	public ResponseBufferPool getResponseBufferPool() {
+		return bufferPool;
+	}
+
 	public KatharsisBoot getBoot() {
 		return boot;
 	}
@@ -99,6 +135,27 @@ public class KatharsisInvokerV2 {
 		boot.boot();
 	}
 
+	private ResponseEncoder getResponseEncoder() {
+		if (responseEncoder == null) {
+			responseEncoder = ResponseEncoder.create(boot.getPropertiesProvider());
+		}
+		return responseEncoder;
+	}
+
+	private boolean isStreaming() {
+		if (streaming == null) {
+			streaming = DocumentMapper.isStreaming(boot.getPropertiesProvider());
+		}
+		return streaming;
+	}
+
+	private RequestBodyReader getRequestBodyReader() {
+		if (requestBodyReader == null) {
+			requestBodyReader = new RequestBodyReader(boot.getObjectMapper(), RequestBodyReader.getMaxBodySize(boot.getPropertiesProvider()));
+		}
+		return requestBodyReader;
+	}
+
 	public void invoke(KatharsisInvokerContext invokerContext) throws KatharsisInvokerException {
 		if (isAcceptableMediaType(invokerContext)) {
 			try {
@@ -111,61 +168,259 @@ public class KatharsisInvokerV2 {
 		}
 	}
 
-	private void dispatchRequest(KatharsisInvokerContext invokerContext) throws Exception {
-		Response katharsisResponse = null;
+	/**
+	 * @return true if {@link io.katharsis.core.properties.KatharsisProperties#DISPATCH_ASYNC} is enabled
+	 */
+	public boolean isAsync() {
+		return RequestDispatcher.isAsync(boot.getPropertiesProvider());
+	}
 
-		boolean passToMethodMatcher = false;
+	/**
+	 * @return executor requests are dispatched with by {@link #invokeAsync(KatharsisInvokerContext, Executor)}
+	 */
+	public Executor getDispatchExecutor() {
+		return boot.getRequestDispatcher().getAsyncExecutor();
+	}
 
-		InputStream in = null;
+	/**
+	 * @return timeout in milliseconds of asynchronously dispatched requests, see
+	 *         {@link io.katharsis.core.properties.KatharsisProperties#DISPATCH_TIMEOUT}, or null to use the default of
+	 *         the container
+	 */
+	public Long getDispatchTimeout() {
+		return RequestDispatcher.getAsyncTimeout(boot.getPropertiesProvider());
+	}
+
+	/**
+	 * Reads the request on the calling thread, but dispatches it and writes the response with the given executor.
+	 *
+	 * @param invokerContext of the request
+	 * @param executor to dispatch with, typically {@link #getDispatchExecutor()} binding the request to the executing
+	 *        thread
+	 * @return stage completed once the response has been written, exceptionally with a
+	 *         {@link KatharsisInvokerException} otherwise
+	 */
+	public CompletionStage<Void> invokeAsync(KatharsisInvokerContext invokerContext, Executor executor) {
+		return invokeAsync(invokerContext, executor, new BooleanSupplier() {
 
+			@Override
+			public boolean getAsBoolean() {
+				return true;
+			}
+		});
+	}
+
+	/**
+	 * Like {@link #invokeAsync(KatharsisInvokerContext, Executor)}, but asks the given guard for permission right before
+	 * anything is written to the response. The result is discarded if the guard declines, e.g. because the request has
+	 * timed out in the meantime.
+	 *
+	 * @param writeGuard returning true if the response may still be written
+	 * @return stage completed once the response has been written or discarded, exceptionally with a
+	 *         {@link KatharsisInvokerException} otherwise. Requests rejected by the executor complete with
+	 *         <tt>503 Service Unavailable</tt>.
+	 */
+	public CompletionStage<Void> invokeAsync(final KatharsisInvokerContext invokerContext, Executor executor,
+			final BooleanSupplier writeGuard) {
+		final CompletableFuture<Void> result = new CompletableFuture<>();
+		if (!isAcceptableMediaType(invokerContext)) {
+			result.completeExceptionally(new KatharsisInvokerException(HttpServletResponse.SC_UNSUPPORTED_MEDIA_TYPE, "Unsupported Media Type"));
+			return result;
+		}
+
+		CompletionStage<Response> responseStage;
 		try {
-			ResourceRegistry resourceRegistry = boot.getResourceRegistry();
-			RequestDispatcher requestDispatcher = boot.getRequestDispatcher();
-			JsonPath jsonPath = new PathBuilder(resourceRegistry).buildPath(invokerContext.getRequestPath());
+			DispatchRequest request = readRequest(invokerContext);
+			responseStage = boot.getRequestDispatcher().dispatchRequestAsync(request.jsonPath, request.method, request.parameters,
+					request.parameterProvider, request.requestBody, executor);
+		} catch (Exception e) {
+			CompletableFuture<Response> failedStage = new CompletableFuture<>();
+			failedStage.completeExceptionally(e);
+			responseStage = failedStage;
+		}
 
-			Map<String, Set<String>> parameters = getParameters(invokerContext);
+		responseStage.handle(new BiFunction<Response, Throwable, Void>() {
 
-			in = invokerContext.getRequestEntityStream();
-			Document requestBody = inputStreamToBody(in);
+			@Override
+			public Void apply(Response katharsisResponse, Throwable error) {
+				if (!writeGuard.getAsBoolean()) {
+					LOGGER.debug("discarding result of {}, response no longer available", invokerContext.getRequestPath());
+					result.complete(null);
+					return null;
+				}
+				if (error instanceof RejectedExecutionException) {
+					result.completeExceptionally(new KatharsisInvokerException(HttpServletResponse.SC_SERVICE_UNAVAILABLE, error));
+					return null;
+				}
+				try {
+					completeResponse(invokerContext, katharsisResponse, error);
+					result.complete(null);
+				} catch (Exception e) {
+					result.completeExceptionally(new KatharsisInvokerException(HttpServletResponse.SC_INTERNAL_SERVER_ERROR, e));
+				}
+				return null;
+			}
+		});
+		return result;
+	}
 
-			String method = invokerContext.getRequestMethod();
-			RepositoryMethodParameterProvider parameterProvider = invokerContext.getParameterProvider();
-			katharsisResponse = requestDispatcher.dispatchRequest(jsonPath, method, parameters, parameterProvider, requestBody);
+	private void completeResponse(KatharsisInvokerContext invokerContext, Response katharsisResponse, Throwable error) throws Exception {
+		Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+		boolean passToMethodMatcher = false;
+		Response response = katharsisResponse;
+		if (cause instanceof KatharsisMappableException) {
+			response = new KatharsisExceptionMapper().toErrorResponse((KatharsisMappableException) cause).toResponse();
+		} else if (cause instanceof KatharsisMatchingException) {
+			passToMethodMatcher = true;
+		} else if (cause instanceof Exception) {
+			throw (Exception) cause;
+		} else if (cause != null) {
+			throw new IllegalStateException(cause);
+		}
+		writeDispatchResult(invokerContext, response, passToMethodMatcher);
+	}
+
+	private void dispatchRequest(KatharsisInvokerContext invokerContext) throws Exception {
+		Response katharsisResponse = null;
+
+		boolean passToMethodMatcher = false;
+
+		try {
+			DispatchRequest request = readRequest(invokerContext);
+			katharsisResponse = boot.getRequestDispatcher().dispatchRequest(request.jsonPath, request.method, request.parameters,
+					request.parameterProvider, request.requestBody);
 		} catch (KatharsisMappableException e) {
 			// log error in KatharsisMappableException mapper.
 			katharsisResponse = new KatharsisExceptionMapper().toErrorResponse(e).toResponse();
 		} catch (KatharsisMatchingException e) {
 			passToMethodMatcher = true;
+		} finally {
+			writeDispatchResult(invokerContext, katharsisResponse, passToMethodMatcher);
+		}
+	}
+
+	private DispatchRequest readRequest(KatharsisInvokerContext invokerContext) throws IOException {
+		InputStream in = null;
+		try {
+			ResourceRegistry resourceRegistry = boot.getResourceRegistry();
+			DispatchRequest request = new DispatchRequest();
+			request.jsonPath = new PathBuilder(resourceRegistry).buildPath(invokerContext.getRequestPath());
+			request.parameters = getParameters(invokerContext);
+
+			RequestBodyReader bodyReader = getRequestBodyReader();
+			bodyReader.checkContentLength(getContentLength(invokerContext));
+			in = invokerContext.getRequestEntityStream();
+			request.requestBody = bodyReader.read(in);
+
+			request.method = invokerContext.getRequestMethod();
+			request.parameterProvider = invokerContext.getParameterProvider();
+			return request;
 		} finally {
 			closeQuietly(in);
+		}
+	}
 
-			if (katharsisResponse != null) {
-				invokerContext.setResponseStatus(katharsisResponse.getHttpStatus());
-				invokerContext.setResponseContentType(JsonApiMediaType.APPLICATION_JSON_API);
+	private static class DispatchRequest {
 
-				ByteArrayOutputStream baos = null;
-				OutputStream out = null;
+		private JsonPath jsonPath;
 
-				try {
-					// first write to a buffer first because objectMapper may
-					// fail while writing.
-					baos = new ByteArrayOutputStream(BUFFER_SIZE);
-					ObjectMapper objectMapper = boot.getObjectMapper();
-					objectMapper.writeValue(baos, katharsisResponse.getDocument());
-
-					out = invokerContext.getResponseOutputStream();
-					out.write(baos.toByteArray());
-					out.flush();
-				} finally {
-					closeQuietly(baos);
-					closeQuietly(out);
+		private String method;
+
+		private Map<String, Set<String>> parameters;
+
+		private RepositoryMethodParameterProvider parameterProvider;
+
+		private Document requestBody;
+	}
+
+	private void writeDispatchResult(KatharsisInvokerContext invokerContext, Response katharsisResponse, boolean passToMethodMatcher) throws IOException {
+		if (katharsisResponse != null) {
+			invokerContext.setResponseStatus(katharsisResponse.getHttpStatus());
+			invokerContext.setResponseContentType(JsonApiMediaType.APPLICATION_JSON_API);
+
+			writeResponse(invokerContext, katharsisResponse);
+		} else if (passToMethodMatcher) {
+			invokerContext.setResponseStatus(HttpServletResponse.SC_NOT_FOUND);
+		} else {
+			invokerContext.setResponseStatus(HttpServletResponse.SC_NO_CONTENT);
+		}
+	}
+
+	/**
+	 * Serializes the response document into pooled buffers. Unless streaming
+	 * is enabled, the document is buffered entirely before it is written to
+	 * the response. Otherwise only the first buffer is held back and the
+	 * remainder is written straight through. As long as nothing has been
+	 * written, serialization errors are still turned into an error document.
+	 * The document is encoded as negotiated by the {@link ResponseEncoder}.
+	 * Successful GET responses held back entirely get an ETag of the encoded
+	 * body if enabled and are answered with 304 if the client holds them
+	 * already.
+	 */
+	private void writeResponse(final KatharsisInvokerContext invokerContext, Response katharsisResponse) throws IOException {
+		ResponseEncoder encoder = getResponseEncoder();
+		ObjectWriter writer = encoder.configure(boot.getObjectMapper().writer().without(JsonGenerator.Feature.AUTO_CLOSE_TARGET));
+		long spillThreshold = isStreaming() ? bufferPool.getBufferSize() : Long.MAX_VALUE;
+		String contentEncoding = encoder.negotiate(invokerContext.getRequestHeader(ResponseEncoder.HEADER_ACCEPT_ENCODING));
+		if (encoder.isCompression()) {
+			invokerContext.setResponseHeader(ResponseEncoder.HEADER_VARY, ResponseEncoder.HEADER_ACCEPT_ENCODING);
+		}
+		BiConsumer<String, String> headers = new BiConsumer<String, String>() {
+
+			@Override
+			public void accept(String name, String value) {
+				invokerContext.setResponseHeader(name, value);
+			}
+		};
+
+		OutputStream out = invokerContext.getResponseOutputStream();
+		PooledBufferOutputStream bufferedOut = new PooledBufferOutputStream(bufferPool, out, spillThreshold);
+		EncodingOutputStream encodedOut = encoder.newOutputStream(bufferedOut, contentEncoding, headers, false);
+		try {
+			int status = katharsisResponse.getHttpStatus();
+			try {
+				writer.writeValue(encodedOut, katharsisResponse.getDocument());
+				encodedOut.finish();
+			} catch (IOException | RuntimeException e) {
+				Response errorResponse = bufferedOut.isCommitted() ? null : toErrorResponse(e);
+				if (errorResponse == null) {
+					throw e;
 				}
-			} else if (passToMethodMatcher) {
-				invokerContext.setResponseStatus(HttpServletResponse.SC_NOT_FOUND);
-			} else {
-				invokerContext.setResponseStatus(HttpServletResponse.SC_NO_CONTENT);
+				bufferedOut.reset();
+				status = errorResponse.getHttpStatus();
+				invokerContext.setResponseStatus(status);
+				// the encoding header may have been set already
+				boolean encoding = encodedOut.isEncoding();
+				encodedOut.release();
+				encodedOut = encoder.newOutputStream(bufferedOut, contentEncoding, headers, encoding);
+				writer.writeValue(encodedOut, errorResponse.getDocument());
+				encodedOut.finish();
 			}
+			if (!bufferedOut.isCommitted() && encoder.isETag(invokerContext.getRequestMethod(), status)) {
+				String etag = encodedOut.getETag();
+				invokerContext.setResponseHeader(ResponseEncoder.HEADER_ETAG, etag);
+				if (ResponseEncoder.isNotModified(invokerContext.getRequestHeader(ResponseEncoder.HEADER_IF_NONE_MATCH), etag)) {
+					bufferedOut.reset();
+					invokerContext.setResponseStatus(HttpServletResponse.SC_NOT_MODIFIED);
+				}
+			}
+			bufferedOut.finish();
+		} finally {
+			encodedOut.release();
+			bufferedOut.release();
+			closeQuietly(out);
+		}
+	}
+
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private Response toErrorResponse(Exception e) {
+		Throwable cause = e instanceof JsonMappingException && e.getCause() != null ? e.getCause() : e;
+		Optional<JsonApiExceptionMapper> exceptionMapper = boot.getExceptionMapperRegistry().findMapperFor(cause.getClass());
+		if (!exceptionMapper.isPresent()) {
+			return null;
 		}
+		LOGGER.error("failed to serialize response, returning error document instead", cause);
+		return exceptionMapper.get().toErrorResponse(cause).toResponse();
 	}
 
 	private boolean isAcceptableMediaType(KatharsisInvokerContext invokerContext) {
@@ -191,23 +446,15 @@ public class KatharsisInvokerV2 {
 		return QueryStringUtils.parseQueryStringAsSingleValueMap(invokerContext);
 	}
 
-	private Document inputStreamToBody(InputStream is) throws IOException {
-		if (is == null) {
-			return null;
-		}
-
-		Scanner s = new Scanner(is, "UTF-8").useDelimiter("\\A");
-		String requestBody = s.hasNext() ? s.next() : "";
-
-		if (requestBody == null || requestBody.isEmpty()) {
-			return null;
+	private long getContentLength(KatharsisInvokerContext invokerContext) {
+		String contentLength = invokerContext.getRequestHeader("Content-Length");
+		if (contentLength == null) {
+			return -1;
 		}
-
 		try {
-			ObjectMapper objectMapper = boot.getObjectMapper();
-			return objectMapper.readValue(requestBody, Document.class);
-		} catch (IOException e) {
-			throw new JsonDeserializationException(e.getMessage());
+			return Long.parseLong(contentLength.trim());
+		} catch (NumberFormatException e) { // NOSONAR ignore invalid header, the limit applies while reading
+			return -1;
 		}
 	}
 
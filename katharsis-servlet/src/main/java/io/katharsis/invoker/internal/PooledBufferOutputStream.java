@@ -0,0 +1,181 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.katharsis.invoker.internal;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Buffers written data in buffers of a {@link ResponseBufferPool} until the
+ * spill threshold is exceeded. Up to that point nothing has been written to the
+ * target and the content can be discarded with {@link #reset()}, e.g. to write
+ * an error document instead. Beyond it the buffered content is handed to the
+ * target and all further writes go straight through. Buffers are returned to
+ * the pool with {@link #release()}.
+ */
+public class PooledBufferOutputStream extends OutputStream {
+
+	private final ResponseBufferPool pool;
+
+	private final OutputStream target;
+
+	private final long spillThreshold;
+
+	private final List<byte[]> buffers = new ArrayList<>();
+
+	private byte[] current;
+
+	private int position;
+
+	private long size;
+
+	private boolean committed;
+
+	/**
+	 * @param spillThreshold number of bytes to buffer at most before writing
+	 *            through to the target, {@link Long#MAX_VALUE} to buffer
+	 *            everything until {@link #finish()}.
+	 */
+	public PooledBufferOutputStream(ResponseBufferPool pool, OutputStream target, long spillThreshold) {
+		this.pool = pool;
+		this.target = target;
+		this.spillThreshold = spillThreshold;
+	}
+
+	/**
+	 * @return true if data has already been handed to the target.
+	 */
+	public boolean isCommitted() {
+		return committed;
+	}
+
+	@Override
+	public void write(int b) throws IOException {
+		if (committed) {
+			target.write(b);
+			return;
+		}
+		if (current == null || position == current.length) {
+			nextBuffer();
+		}
+		current[position++] = (byte) b;
+		size++;
+		spillIfNecessary();
+	}
+
+	@Override
+	public void write(byte[] b, int off, int len) throws IOException {
+		if (committed) {
+			target.write(b, off, len);
+			return;
+		}
+		int remaining = len;
+		int offset = off;
+		while (remaining > 0) {
+			if (current == null || position == current.length) {
+				nextBuffer();
+			}
+			int n = Math.min(remaining, current.length - position);
+			System.arraycopy(b, offset, current, position, n);
+			position += n;
+			offset += n;
+			remaining -= n;
+		}
+		size += len;
+		spillIfNecessary();
+	}
+
+	/**
+	 * Only passed on to the target once committed, buffered data is kept until
+	 * {@link #finish()}.
+	 */
+	@Override
+	public void flush() throws IOException {
+		if (committed) {
+			target.flush();
+		}
+	}
+
+	/**
+	 * Discards all buffered data.
+	 *
+	 * @throws IllegalStateException if data has already been written to the
+	 *             target
+	 */
+	public void reset() {
+		if (committed) {
+			throw new IllegalStateException("response already committed");
+		}
+		releaseBuffers();
+		size = 0;
+	}
+
+	/**
+	 * Writes the buffered data to the target and flushes it.
+	 */
+	public void finish() throws IOException {
+		if (!committed) {
+			writeBuffers();
+			committed = true;
+		}
+		target.flush();
+	}
+
+	/**
+	 * Returns all buffers to the pool. Does not close the target.
+	 */
+	public void release() {
+		releaseBuffers();
+	}
+
+	@Override
+	public void close() {
+		release();
+	}
+
+	private void spillIfNecessary() throws IOException {
+		if (size > spillThreshold) {
+			writeBuffers();
+			releaseBuffers();
+			committed = true;
+		}
+	}
+
+	private void writeBuffers() throws IOException {
+		for (byte[] buffer : buffers) {
+			int length = buffer == current ? position : buffer.length;
+			target.write(buffer, 0, length);
+		}
+	}
+
+	private void nextBuffer() {
+		current = pool.acquire();
+		position = 0;
+		buffers.add(current);
+	}
+
+	private void releaseBuffers() {
+		for (byte[] buffer : buffers) {
+			pool.release(buffer);
+		}
+		buffers.clear();
+		current = null;
+		position = 0;
+	}
+}
@@ -0,0 +1,70 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.katharsis.invoker.internal;
+
+import java.util.concurrent.ArrayBlockingQueue;
+
+import io.katharsis.core.internal.utils.PreconditionUtil;
+
+/**
+ * Recycles the fixed-size byte buffers responses are serialized into. At most
+ * maxPooledBuffers are kept, further buffers are left to the garbage collector
+ * once released.
+ */
+public class ResponseBufferPool {
+
+	public static final int DEFAULT_BUFFER_SIZE = 8192;
+
+	public static final int DEFAULT_MAX_POOLED_BUFFERS = 64;
+
+	private final int bufferSize;
+
+	private final ArrayBlockingQueue<byte[]> buffers;
+
+	public ResponseBufferPool() {
+		this(DEFAULT_BUFFER_SIZE, DEFAULT_MAX_POOLED_BUFFERS);
+	}
+
+	public ResponseBufferPool(int bufferSize, int maxPooledBuffers) {
+		PreconditionUtil.assertTrue("bufferSize must be positive", bufferSize > 0);
+		PreconditionUtil.assertTrue("maxPooledBuffers must be positive", maxPooledBuffers > 0);
+		this.bufferSize = bufferSize;
+		this.buffers = new ArrayBlockingQueue<>(maxPooledBuffers);
+	}
+
+	public int getBufferSize() {
+		return bufferSize;
+	}
+
+	/**
+	 * @return number of buffers currently available for reuse
+	 */
+	public int getPooledBuffers() {
+		return buffers.size();
+	}
+
+	public byte[] acquire() {
+		byte[] buffer = buffers.poll();
+		return buffer != null ? buffer : new byte[bufferSize];
+	}
+
+	public void release(byte[] buffer) {
+		if (buffer.length == bufferSize) {
+			buffers.offer(buffer);
+		}
+	}
+}
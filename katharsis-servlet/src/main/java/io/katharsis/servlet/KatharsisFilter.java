@@ -43,6 +43,7 @@ import io.katharsis.module.Module;
 import io.katharsis.queryspec.QuerySpecDeserializer;
 import io.katharsis.resource.registry.ResourceRegistry;
 import io.katharsis.servlet.internal.FilterPropertiesProvider;
+import io.katharsis.servlet.internal.ServletAsyncDispatcher;
 import io.katharsis.servlet.internal.ServletKatharsisInvokerContext;
 import io.katharsis.servlet.internal.ServletModule;
 import io.katharsis.servlet.internal.ServletUrlProvider;
@@ -70,6 +71,8 @@ public class KatharsisFilter implements Filter {
 
 	private ThreadLocal<HttpServletRequest> requestThreadLocal = new ThreadLocal<>();
 
+	private ServletAsyncDispatcher asyncDispatcher = new ServletAsyncDispatcher(requestThreadLocal);
+
 	private ServletContext servletContext;
 
 	private KatharsisInvokerV2 katharsisInvoker;
@@ -99,9 +102,15 @@ public class KatharsisFilter implements Filter {
 
 			KatharsisInvokerContext invokerContext = createKatharsisInvokerContext(request, response);
 
+			KatharsisInvokerV2 invoker = getKatharsisInvoker();
+			if (asyncDispatcher.isApplicable(invoker, request)) {
+				asyncDispatcher.dispatch(invoker, request, response, invokerContext);
+				return;
+			}
+
 			requestThreadLocal.set(request);
 			try {
-				getKatharsisInvoker().invoke(invokerContext);
+				invoker.invoke(invokerContext);
 			} catch (KatharsisInvokerException e) {
 				log.warn("Katharsis Invoker exception.", e);
 				response.setStatus(e.getStatusCode());
@@ -35,6 +35,7 @@ import io.katharsis.invoker.internal.KatharsisInvokerV2;
 import io.katharsis.module.Module;
 import io.katharsis.queryspec.QuerySpecDeserializer;
 import io.katharsis.resource.registry.ResourceRegistry;
+import io.katharsis.servlet.internal.ServletAsyncDispatcher;
 import io.katharsis.servlet.internal.ServletKatharsisInvokerContext;
 import io.katharsis.servlet.internal.ServletModule;
 import io.katharsis.servlet.internal.ServletPropertiesProvider;
@@ -53,6 +54,8 @@ public class KatharsisServlet extends HttpServlet {
 
 	private ThreadLocal<HttpServletRequest> requestThreadLocal = new ThreadLocal<>();
 
+	private ServletAsyncDispatcher asyncDispatcher = new ServletAsyncDispatcher(requestThreadLocal);
+
 	private KatharsisInvokerV2 katharsisInvoker;
 
 	private ServletUrlProvider servletUrlProvider;
@@ -63,9 +66,15 @@ public class KatharsisServlet extends HttpServlet {
 
 		KatharsisInvokerContext invokerContext = createKatharsisInvokerContext(request, response);
 
+		KatharsisInvokerV2 invoker = getKatharsisInvoker();
+		if (asyncDispatcher.isApplicable(invoker, request)) {
+			asyncDispatcher.dispatch(invoker, request, response, invokerContext);
+			return;
+		}
+
 		try {
 			requestThreadLocal.set(request);
-			getKatharsisInvoker().invoke(invokerContext);
+			invoker.invoke(invokerContext);
 		} catch (KatharsisInvokerException e) {
 			log.warn("Katharsis Invoker exception.", e);
 			response.setStatus(e.getStatusCode());
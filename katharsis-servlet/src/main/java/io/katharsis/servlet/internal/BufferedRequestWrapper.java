@@ -1,52 +1,220 @@
 package io.katharsis.servlet.internal;
 
-import java.io.ByteArrayInputStream;
+import java.io.File;
 import java.io.IOException;
-import java.util.Scanner;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
 
+import javax.servlet.ServletContext;
 import javax.servlet.ServletInputStream;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletRequestWrapper;
 
 /**
- * A class which provides a buffered payload. Inspired by
+ * A request whose payload can be read more than once. Nothing is read up-front, the bytes are recorded as they are
+ * consumed from a stream obtained by {@link #getInputStream()}. Every further stream replays the recorded bytes before it
+ * continues with the remainder of the original stream. Recorded bytes are held in memory up to the spill threshold and
+ * moved to a temporary file beyond, {@link #release()} discards them once no more replay is needed. The file is only
+ * accessible by its owner and created in the temporary directory of the servlet context if available. Inspired by
  * <a href="http://massimilianosciacco.com/implementing-hmac-authentication-rest-api-spring-security">Implementing HMAC
  * authentication for REST API with Spring Security</a>
  */
 public class BufferedRequestWrapper extends HttpServletRequestWrapper {
 
-    private String bufferedRequest;
-
-    public BufferedRequestWrapper(HttpServletRequest request) throws IOException {
-        super(request);
-        this.bufferedRequest = getInputString(request);
-    }
-
-    private String getInputString(HttpServletRequest request) throws IOException {
-        if (request.getInputStream() == null) {
-            return null;
-        }
-
-        Scanner s = new Scanner(request.getInputStream(), "UTF-8").useDelimiter("\\A");
-        String requestBody = s.hasNext() ? s.next() : "";
-
-        if (requestBody == null || requestBody.isEmpty()) {
-            return "";
-        }
-        return requestBody;
-    }
-
-    @Override
-    public ServletInputStream getInputStream() throws IOException {
-        if (bufferedRequest == null) {
-            return null;
-        }
-        final ByteArrayInputStream byteArrayInputStream = new ByteArrayInputStream(bufferedRequest.getBytes());
-        return new ServletInputStream() {
-            @Override
-			public int read () throws IOException {
-                return byteArrayInputStream.read();
-            }
-        };
-    }
+	public static final long DEFAULT_SPILL_THRESHOLD = 1024 * 1024;
+
+	private final long spillThreshold;
+
+	private ServletInputStream original;
+
+	private ReplayBuffer buffer;
+
+	private boolean released;
+
+	public BufferedRequestWrapper(HttpServletRequest request) {
+		this(request, DEFAULT_SPILL_THRESHOLD);
+	}
+
+	/**
+	 * @param request to wrap
+	 * @param spillThreshold number of bytes held in memory before the payload is moved to a temporary file
+	 */
+	public BufferedRequestWrapper(HttpServletRequest request, long spillThreshold) {
+		super(request);
+		this.spillThreshold = spillThreshold;
+	}
+
+	@Override
+	public ServletInputStream getInputStream() throws IOException {
+		if (released) {
+			return super.getInputStream();
+		}
+		if (buffer == null) {
+			original = super.getInputStream();
+			if (original == null) {
+				return null;
+			}
+			buffer = new ReplayBuffer(spillThreshold, getTempDir());
+		}
+		return new ReplayInputStream();
+	}
+
+	/**
+	 * @return temporary directory of the servlet context or null to use the default one of the platform
+	 */
+	private File getTempDir() {
+		ServletContext servletContext = getServletContext();
+		Object tempDir = servletContext != null ? servletContext.getAttribute(ServletContext.TEMPDIR) : null;
+		return tempDir instanceof File ? (File) tempDir : null;
+	}
+
+	/**
+	 * @return true once the payload is recorded for replay
+	 */
+	public boolean isBuffering() {
+		return buffer != null && !released;
+	}
+
+	/**
+	 * Discards the recorded payload. Streams obtained afterwards continue with the remainder of the original stream.
+	 */
+	public void release() {
+		if (buffer != null) {
+			buffer.release();
+		}
+		released = true;
+	}
+
+	private class ReplayInputStream extends ServletInputStream {
+
+		private final byte[] single = new byte[1];
+
+		private long position;
+
+		@Override
+		public int read() throws IOException {
+			int n = read(single, 0, 1);
+			return n == 1 ? single[0] & 0xff : -1;
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			if (len == 0) {
+				return 0;
+			}
+			if (released) {
+				throw new IOException("request payload already released");
+			}
+			if (position < buffer.length()) {
+				int n = buffer.read(position, b, off, (int) Math.min(len, buffer.length() - position));
+				position += n;
+				return n;
+			}
+			int n = original.read(b, off, len);
+			if (n > 0) {
+				buffer.append(b, off, n);
+				position += n;
+			}
+			return n;
+		}
+
+		@Override
+		public int available() throws IOException {
+			if (!released && position < buffer.length()) {
+				return (int) Math.min(Integer.MAX_VALUE, buffer.length() - position);
+			}
+			return original.available();
+		}
+
+		@Override
+		public void close() {
+			// the original stream is left open for replay
+		}
+	}
+
+	/**
+	 * Bytes read so far, in memory up to the spill threshold and in a temporary file beyond.
+	 */
+	private static final class ReplayBuffer {
+
+		private static final int INITIAL_CAPACITY = 1024;
+
+		private final long spillThreshold;
+
+		private final File tempDir;
+
+		private byte[] memory;
+
+		private long length;
+
+		private Path file;
+
+		private RandomAccessFile fileAccess;
+
+		ReplayBuffer(long spillThreshold, File tempDir) {
+			this.tempDir = tempDir;
+			this.spillThreshold = Math.min(spillThreshold, Integer.MAX_VALUE - 8);
+			this.memory = new byte[(int) Math.min(INITIAL_CAPACITY, Math.max(this.spillThreshold, 0))];
+		}
+
+		long length() {
+			return length;
+		}
+
+		void append(byte[] b, int off, int len) throws IOException {
+			if (fileAccess == null && length + len > spillThreshold) {
+				spill();
+			}
+			if (fileAccess != null) {
+				fileAccess.seek(length);
+				fileAccess.write(b, off, len);
+			} else {
+				int required = (int) length + len;
+				if (required > memory.length) {
+					memory = Arrays.copyOf(memory, (int) Math.min(Math.max(required, memory.length * 2L), spillThreshold));
+				}
+				System.arraycopy(b, off, memory, (int) length, len);
+			}
+			length += len;
+		}
+
+		int read(long position, byte[] b, int off, int len) throws IOException {
+			if (fileAccess != null) {
+				fileAccess.seek(position);
+				return fileAccess.read(b, off, len);
+			}
+			System.arraycopy(memory, (int) position, b, off, len);
+			return len;
+		}
+
+		private void spill() throws IOException {
+			// readable and writable by the owner only on POSIX file systems
+			file = tempDir != null ? Files.createTempFile(tempDir.toPath(), "katharsis-request", ".tmp")
+					: Files.createTempFile("katharsis-request", ".tmp");
+			fileAccess = new RandomAccessFile(file.toFile(), "rw");
+			fileAccess.write(memory, 0, (int) length);
+			memory = null;
+		}
+
+		void release() {
+			memory = null;
+			if (fileAccess != null) {
+				try {
+					fileAccess.close();
+				} catch (IOException ignore) { // NOSONAR
+				}
+				fileAccess = null;
+			}
+			if (file != null) {
+				try {
+					Files.deleteIfExists(file);
+				} catch (IOException e) { // NOSONAR
+					file.toFile().deleteOnExit();
+				}
+			}
+			file = null;
+		}
+	}
 }
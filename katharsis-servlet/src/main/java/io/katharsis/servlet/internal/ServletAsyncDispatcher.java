@@ -0,0 +1,177 @@
+package io.katharsis.servlet.internal;
+
+import java.io.IOException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiConsumer;
+import java.util.function.BooleanSupplier;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.katharsis.invoker.internal.KatharsisInvokerContext;
+import io.katharsis.invoker.internal.KatharsisInvokerException;
+import io.katharsis.invoker.internal.KatharsisInvokerV2;
+
+/**
+ * Puts requests into asynchronous mode and dispatches them with the dispatch executor of the invoker, see
+ * {@link io.katharsis.core.properties.KatharsisProperties#DISPATCH_ASYNC}. The request is bound to the dispatching
+ * thread to let the url, security and parameter providers access it.
+ * <p>
+ * Requests timing out or failing in the container are answered with <tt>503 Service Unavailable</tt> and
+ * <tt>500 Internal Server Error</tt> respectively, late results of their dispatch are discarded. The timeout is set by
+ * {@link io.katharsis.core.properties.KatharsisProperties#DISPATCH_TIMEOUT}.
+ * </p>
+ */
+public class ServletAsyncDispatcher {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(ServletAsyncDispatcher.class);
+
+	private ThreadLocal<HttpServletRequest> requestThreadLocal;
+
+	public ServletAsyncDispatcher(ThreadLocal<HttpServletRequest> requestThreadLocal) {
+		this.requestThreadLocal = requestThreadLocal;
+	}
+
+	/**
+	 * @return true if the request is to be and can be dispatched asynchronously
+	 */
+	public boolean isApplicable(KatharsisInvokerV2 invoker, HttpServletRequest request) {
+		return invoker.isAsync() && request.isAsyncSupported();
+	}
+
+	public void dispatch(KatharsisInvokerV2 invoker, final HttpServletRequest request, final HttpServletResponse response,
+			KatharsisInvokerContext invokerContext) {
+		final AsyncContext asyncContext = request.startAsync(request, response);
+		Long timeout = invoker.getDispatchTimeout();
+		if (timeout != null) {
+			asyncContext.setTimeout(timeout);
+		}
+
+		// the response belongs to whoever claims it first, the dispatch or the container through the listener
+		final AtomicBoolean done = new AtomicBoolean();
+		final AtomicBoolean written = new AtomicBoolean();
+		asyncContext.addListener(new CompletionListener(done, asyncContext, response));
+		BooleanSupplier writeGuard = new BooleanSupplier() {
+
+			@Override
+			public boolean getAsBoolean() {
+				boolean claimed = done.compareAndSet(false, true);
+				written.set(claimed);
+				return claimed;
+			}
+		};
+
+		Executor executor = bindRequest(invoker.getDispatchExecutor(), request);
+		requestThreadLocal.set(request);
+		try {
+			invoker.invokeAsync(invokerContext, executor, writeGuard).whenComplete(new BiConsumer<Void, Throwable>() {
+
+				@Override
+				public void accept(Void result, Throwable error) {
+					if (written.get() || done.compareAndSet(false, true)) {
+						if (error != null) {
+							handleError(response, error);
+						}
+						complete(asyncContext);
+					} else if (error != null) {
+						LOGGER.debug("discarding late failure of asynchronous request", error);
+					}
+				}
+			});
+		} finally {
+			requestThreadLocal.remove();
+		}
+	}
+
+	private static void complete(AsyncContext asyncContext) {
+		try {
+			asyncContext.complete();
+		} catch (IllegalStateException e) {
+			LOGGER.debug("asynchronous request already completed by the container", e);
+		}
+	}
+
+	private void handleError(HttpServletResponse response, Throwable error) {
+		if (error instanceof KatharsisInvokerException) {
+			LOGGER.warn("Katharsis Invoker exception.", error);
+			response.setStatus(((KatharsisInvokerException) error).getStatusCode());
+		} else {
+			LOGGER.error("Katharsis invocation failed.", error);
+			response.setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+		}
+	}
+
+	private Executor bindRequest(final Executor executor, final HttpServletRequest request) {
+		return new Executor() {
+
+			@Override
+			public void execute(final Runnable command) {
+				executor.execute(new Runnable() {
+
+					@Override
+					public void run() {
+						requestThreadLocal.set(request);
+						try {
+							command.run();
+						} finally {
+							requestThreadLocal.remove();
+						}
+					}
+				});
+			}
+		};
+	}
+
+	/**
+	 * Answers requests the container times out or fails unless the dispatch has claimed the response already.
+	 */
+	private static class CompletionListener implements AsyncListener {
+
+		private final AtomicBoolean done;
+
+		private final AsyncContext asyncContext;
+
+		private final HttpServletResponse response;
+
+		CompletionListener(AtomicBoolean done, AsyncContext asyncContext, HttpServletResponse response) {
+			this.done = done;
+			this.asyncContext = asyncContext;
+			this.response = response;
+		}
+
+		@Override
+		public void onComplete(AsyncEvent event) throws IOException {
+			done.set(true);
+		}
+
+		@Override
+		public void onTimeout(AsyncEvent event) throws IOException {
+			if (done.compareAndSet(false, true)) {
+				LOGGER.warn("asynchronous request timed out");
+				response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+				complete(asyncContext);
+			}
+		}
+
+		@Override
+		public void onError(AsyncEvent event) throws IOException {
+			if (done.compareAndSet(false, true)) {
+				LOGGER.error("asynchronous request failed", event.getThrowable());
+				response.setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+				complete(asyncContext);
+			}
+		}
+
+		@Override
+		public void onStartAsync(AsyncEvent event) throws IOException {
+			// not restarted
+		}
+	}
+}
@@ -95,6 +95,11 @@ public class ServletKatharsisInvokerContext implements KatharsisInvokerContext {
         response.setContentType(type);
     }
 
+    @Override
+	public void setResponseHeader(String name, String value) {
+        response.setHeader(name, value);
+    }
+
     @Override
 	public OutputStream getResponseOutputStream() throws IOException {
         return response.getOutputStream();
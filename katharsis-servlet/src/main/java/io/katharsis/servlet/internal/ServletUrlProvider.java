@@ -6,6 +6,8 @@ import io.katharsis.resource.registry.ServiceUrlProvider;
 
 public class ServletUrlProvider implements ServiceUrlProvider {
 
+	private static final String URL_ATTRIBUTE = ServletUrlProvider.class.getName() + ".url";
+
 	private ThreadLocal<HttpServletRequest> requestThreadLocal;
 
 	public ServletUrlProvider(ThreadLocal<HttpServletRequest> requestThreadLocal) {
@@ -19,15 +21,21 @@ public class ServletUrlProvider implements ServiceUrlProvider {
 			throw new IllegalStateException("uriInfo not available, make sure to call onRequestStarted in advance");
 		}
 
+		// computed once per request rather than for every link
+		Object cachedUrl = request.getAttribute(URL_ATTRIBUTE);
+		if (cachedUrl instanceof String) {
+			return (String) cachedUrl;
+		}
+
 		String requestUrl = request.getRequestURL().toString();
 		String servletPath = request.getServletPath();
 
 		int sep = requestUrl.indexOf(servletPath);
 		String url = requestUrl.substring(0, sep + servletPath.length());
 		if (url.endsWith("/")) {
-			return url.substring(0, url.length() - 1);
-		} else {
-			return url;
+			url = url.substring(0, url.length() - 1);
 		}
+		request.setAttribute(URL_ATTRIBUTE, url);
+		return url;
 	}
 }
@@ -0,0 +1,112 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.katharsis.invoker;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+
+import org.junit.Test;
+
+import io.katharsis.invoker.internal.PooledBufferOutputStream;
+import io.katharsis.invoker.internal.ResponseBufferPool;
+
+public class PooledBufferOutputStreamTest {
+
+    private ResponseBufferPool pool = new ResponseBufferPool(4, 2);
+
+    @Test
+    public void testBufferedUntilFinish() throws Exception {
+        ByteArrayOutputStream target = new ByteArrayOutputStream();
+        PooledBufferOutputStream out = new PooledBufferOutputStream(pool, target, Long.MAX_VALUE);
+        out.write(data(10));
+        out.write(10);
+        out.flush();
+        assertFalse(out.isCommitted());
+        assertEquals(0, target.size());
+
+        out.finish();
+        assertTrue(out.isCommitted());
+        byte[] expected = new byte[11];
+        System.arraycopy(data(10), 0, expected, 0, 10);
+        expected[10] = 10;
+        assertArrayEquals(expected, target.toByteArray());
+
+        out.release();
+        assertEquals(2, pool.getPooledBuffers());
+    }
+
+    @Test
+    public void testSpillsBeyondThreshold() throws Exception {
+        ByteArrayOutputStream target = new ByteArrayOutputStream();
+        PooledBufferOutputStream out = new PooledBufferOutputStream(pool, target, 4);
+        out.write(data(4));
+        assertFalse(out.isCommitted());
+        assertEquals(0, target.size());
+
+        out.write(4);
+        assertTrue(out.isCommitted());
+        assertEquals(5, target.size());
+        assertEquals(2, pool.getPooledBuffers());
+
+        out.write(data(3));
+        out.finish();
+        assertEquals(8, target.size());
+    }
+
+    @Test
+    public void testReset() throws Exception {
+        ByteArrayOutputStream target = new ByteArrayOutputStream();
+        PooledBufferOutputStream out = new PooledBufferOutputStream(pool, target, 8);
+        out.write(data(6));
+        out.reset();
+        out.write(data(2));
+        out.finish();
+        out.release();
+        assertArrayEquals(data(2), target.toByteArray());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testResetAfterCommitFails() throws Exception {
+        PooledBufferOutputStream out = new PooledBufferOutputStream(pool, new ByteArrayOutputStream(), 2);
+        out.write(data(3));
+        out.reset();
+    }
+
+    @Test
+    public void testPoolRecyclesBuffers() {
+        byte[] buffer = pool.acquire();
+        assertEquals(4, buffer.length);
+        pool.release(buffer);
+        pool.release(new byte[4]);
+        pool.release(new byte[4]);
+        pool.release(new byte[5]);
+        assertEquals(2, pool.getPooledBuffers());
+        assertTrue(buffer == pool.acquire());
+    }
+
+    private static byte[] data(int length) {
+        byte[] data = new byte[length];
+        for (int i = 0; i < length; i++) {
+            data[i] = (byte) i;
+        }
+        return data;
+    }
+}
@@ -0,0 +1,331 @@
+package io.katharsis.servlet;
+
+import static net.javacrumbs.jsonunit.JsonAssert.assertJsonPartEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.ServletContext;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletRequestWrapper;
+import javax.servlet.http.HttpServletResponse;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockServletConfig;
+import org.springframework.mock.web.MockServletContext;
+
+import io.katharsis.core.properties.KatharsisProperties;
+import io.katharsis.invoker.internal.JsonApiMediaType;
+
+/**
+ * Test for {@link KatharsisServlet} with {@link KatharsisProperties#DISPATCH_ASYNC} enabled.
+ */
+public class KatharsisServletAsyncTest {
+
+	private static final String RESOURCE_SEARCH_PACKAGE = "io.katharsis.servlet.resource";
+
+	private static final String RESOURCE_DEFAULT_DOMAIN = "http://localhost:8080/api";
+
+	private ServletContext servletContext;
+
+	private KatharsisServlet katharsisServlet;
+
+	@Before
+	public void before() throws Exception {
+		katharsisServlet = new KatharsisServlet();
+
+		servletContext = new MockServletContext();
+		((MockServletContext) servletContext).setContextPath("");
+		MockServletConfig servletConfig = new MockServletConfig(servletContext);
+		servletConfig.addInitParameter(KatharsisProperties.RESOURCE_SEARCH_PACKAGE, RESOURCE_SEARCH_PACKAGE);
+		servletConfig.addInitParameter(KatharsisProperties.RESOURCE_DEFAULT_DOMAIN, RESOURCE_DEFAULT_DOMAIN);
+		servletConfig.addInitParameter(KatharsisProperties.DISPATCH_ASYNC, "true");
+		servletConfig.addInitParameter(KatharsisProperties.DISPATCH_TIMEOUT, "5000");
+
+		katharsisServlet.init(servletConfig);
+	}
+
+	@After
+	public void after() throws Exception {
+		katharsisServlet.destroy();
+	}
+
+	@Test
+	public void testAsyncDispatch() throws Exception {
+		AsyncRequest request = new AsyncRequest(createRequest("*/*"));
+		MockHttpServletResponse response = new MockHttpServletResponse();
+
+		katharsisServlet.service(request, response);
+
+		assertTrue(request.asyncContext.completed.await(10, TimeUnit.SECONDS));
+		assertEquals(HttpServletResponse.SC_OK, response.getStatus());
+		String responseContent = response.getContentAsString();
+		assertJsonPartEquals("tasks", responseContent, "data.type");
+		assertJsonPartEquals("\"1\"", responseContent, "data.id");
+	}
+
+	@Test
+	public void testAsyncUnacceptableRequestContentType() throws Exception {
+		AsyncRequest request = new AsyncRequest(createRequest("application/xml"));
+		MockHttpServletResponse response = new MockHttpServletResponse();
+
+		katharsisServlet.service(request, response);
+
+		assertTrue(request.asyncContext.completed.await(10, TimeUnit.SECONDS));
+		assertEquals(HttpServletResponse.SC_UNSUPPORTED_MEDIA_TYPE, response.getStatus());
+	}
+
+	@Test
+	public void testAsyncTimeoutDiscardsLateResult() throws Exception {
+		List<Runnable> pending = new ArrayList<>();
+		setDispatchExecutor(pending);
+		AsyncRequest request = new AsyncRequest(createRequest("*/*"));
+		MockHttpServletResponse response = new MockHttpServletResponse();
+
+		katharsisServlet.service(request, response);
+		assertEquals(5000L, request.asyncContext.getTimeout());
+		request.asyncContext.fireTimeout();
+
+		assertTrue(request.asyncContext.completed.await(10, TimeUnit.SECONDS));
+		assertEquals(HttpServletResponse.SC_SERVICE_UNAVAILABLE, response.getStatus());
+
+		// late result
+		assertEquals(1, pending.size());
+		pending.get(0).run();
+		assertEquals(HttpServletResponse.SC_SERVICE_UNAVAILABLE, response.getStatus());
+		assertEquals("", response.getContentAsString());
+		assertEquals(1, request.asyncContext.completeCount);
+	}
+
+	@Test
+	public void testAsyncErrorDiscardsLateResult() throws Exception {
+		List<Runnable> pending = new ArrayList<>();
+		setDispatchExecutor(pending);
+		AsyncRequest request = new AsyncRequest(createRequest("*/*"));
+		MockHttpServletResponse response = new MockHttpServletResponse();
+
+		katharsisServlet.service(request, response);
+		request.asyncContext.fireError(new IOException("connection reset"));
+		assertEquals(HttpServletResponse.SC_INTERNAL_SERVER_ERROR, response.getStatus());
+
+		pending.get(0).run();
+		assertEquals(HttpServletResponse.SC_INTERNAL_SERVER_ERROR, response.getStatus());
+		assertEquals("", response.getContentAsString());
+		assertEquals(1, request.asyncContext.completeCount);
+	}
+
+	@Test
+	public void testAsyncTimeoutAfterResultIsIgnored() throws Exception {
+		List<Runnable> pending = new ArrayList<>();
+		setDispatchExecutor(pending);
+		AsyncRequest request = new AsyncRequest(createRequest("*/*"));
+		MockHttpServletResponse response = new MockHttpServletResponse();
+
+		katharsisServlet.service(request, response);
+		assertFalse(request.asyncContext.completed.await(0, TimeUnit.SECONDS));
+		pending.get(0).run();
+		request.asyncContext.fireTimeout();
+
+		assertEquals(HttpServletResponse.SC_OK, response.getStatus());
+		assertJsonPartEquals("tasks", response.getContentAsString(), "data.type");
+		assertEquals(1, request.asyncContext.completeCount);
+	}
+
+	@Test
+	public void testAsyncRejectedRequest() throws Exception {
+		katharsisServlet.getKatharsisInvoker().getBoot().getRequestDispatcher().setAsyncExecutor(new Executor() {
+
+			@Override
+			public void execute(Runnable command) {
+				throw new RejectedExecutionException();
+			}
+		});
+		AsyncRequest request = new AsyncRequest(createRequest("*/*"));
+		MockHttpServletResponse response = new MockHttpServletResponse();
+
+		katharsisServlet.service(request, response);
+
+		assertTrue(request.asyncContext.completed.await(10, TimeUnit.SECONDS));
+		assertEquals(HttpServletResponse.SC_SERVICE_UNAVAILABLE, response.getStatus());
+	}
+
+	private void setDispatchExecutor(final List<Runnable> pending) {
+		katharsisServlet.getKatharsisInvoker().getBoot().getRequestDispatcher().setAsyncExecutor(new Executor() {
+
+			@Override
+			public void execute(Runnable command) {
+				pending.add(command);
+			}
+		});
+	}
+
+	private MockHttpServletRequest createRequest(String accept) {
+		MockHttpServletRequest request = new MockHttpServletRequest(servletContext);
+		request.setMethod("GET");
+		request.setContextPath("");
+		request.setServletPath("/api");
+		request.setPathInfo("/tasks/1");
+		request.setRequestURI("/api/tasks/1");
+		request.setContentType(JsonApiMediaType.APPLICATION_JSON_API);
+		request.addHeader("Accept", accept);
+		return request;
+	}
+
+	/**
+	 * The mock request of Spring 3.2 does not implement the asynchronous methods of Servlet 3.0.
+	 */
+	private static class AsyncRequest extends HttpServletRequestWrapper {
+
+		private TestAsyncContext asyncContext;
+
+		AsyncRequest(HttpServletRequest request) {
+			super(request);
+		}
+
+		@Override
+		public boolean isAsyncSupported() {
+			return true;
+		}
+
+		@Override
+		public boolean isAsyncStarted() {
+			return asyncContext != null;
+		}
+
+		@Override
+		public AsyncContext startAsync(ServletRequest request, ServletResponse response) {
+			asyncContext = new TestAsyncContext(request, response);
+			return asyncContext;
+		}
+
+		@Override
+		public AsyncContext getAsyncContext() {
+			return asyncContext;
+		}
+	}
+
+	private static class TestAsyncContext implements AsyncContext {
+
+		private final ServletRequest request;
+
+		private final ServletResponse response;
+
+		private final CountDownLatch completed = new CountDownLatch(1);
+
+		private final List<AsyncListener> listeners = new ArrayList<>();
+
+		private int completeCount;
+
+		private long timeout;
+
+		TestAsyncContext(ServletRequest request, ServletResponse response) {
+			this.request = request;
+			this.response = response;
+		}
+
+		@Override
+		public ServletRequest getRequest() {
+			return request;
+		}
+
+		@Override
+		public ServletResponse getResponse() {
+			return response;
+		}
+
+		@Override
+		public boolean hasOriginalRequestAndResponse() {
+			return true;
+		}
+
+		@Override
+		public void dispatch() {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public void dispatch(String path) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public void dispatch(ServletContext context, String path) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public void complete() {
+			if (completeCount > 0) {
+				throw new IllegalStateException("already completed");
+			}
+			completeCount++;
+			completed.countDown();
+			for (AsyncListener listener : listeners) {
+				try {
+					listener.onComplete(new AsyncEvent(this));
+				} catch (IOException e) {
+					throw new IllegalStateException(e);
+				}
+			}
+		}
+
+		void fireTimeout() throws IOException {
+			for (AsyncListener listener : listeners) {
+				listener.onTimeout(new AsyncEvent(this));
+			}
+		}
+
+		void fireError(Throwable error) throws IOException {
+			for (AsyncListener listener : listeners) {
+				listener.onError(new AsyncEvent(this, error));
+			}
+		}
+
+		@Override
+		public void start(Runnable run) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public void addListener(AsyncListener listener) {
+			listeners.add(listener);
+		}
+
+		@Override
+		public void addListener(AsyncListener listener, ServletRequest servletRequest, ServletResponse servletResponse) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public <T extends AsyncListener> T createListener(Class<T> clazz) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public void setTimeout(long timeout) {
+			this.timeout = timeout;
+		}
+
+		@Override
+		public long getTimeout() {
+			return timeout;
+		}
+	}
+}
@@ -20,8 +20,10 @@ import static net.javacrumbs.jsonunit.JsonAssert.assertJsonNodePresent;
 import static net.javacrumbs.jsonunit.JsonAssert.assertJsonPartEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
+import java.io.ByteArrayInputStream;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
@@ -29,6 +31,8 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.LinkedHashSet;
 import java.util.Map;
+import java.util.Scanner;
+import java.util.zip.GZIPInputStream;
 
 import javax.servlet.ServletConfig;
 import javax.servlet.ServletContext;
@@ -128,6 +132,79 @@ public class KatharsisServletTest {
 		assertJsonPartEquals(PROJECT1_RELATIONSHIP_LINKS, responseContent, "data[0].relationships.project.links");
 	}
 
+	@Test
+	public void onAcceptedGzipEncodingShouldReturnCompressedResponse() throws Exception {
+		katharsisServlet.destroy();
+		katharsisServlet = new KatharsisServlet();
+		((MockServletConfig) servletConfig).addInitParameter(KatharsisProperties.SERIALIZATION_COMPACT, "true");
+		((MockServletConfig) servletConfig).addInitParameter(KatharsisProperties.RESPONSE_COMPRESSION, "true");
+		((MockServletConfig) servletConfig).addInitParameter(KatharsisProperties.RESPONSE_COMPRESSION_THRESHOLD, "0");
+		katharsisServlet.init(servletConfig);
+
+		MockHttpServletRequest request = new MockHttpServletRequest(servletContext);
+		request.setMethod("GET");
+		request.setContextPath("");
+		request.setServletPath("/api");
+		request.setPathInfo("/tasks/");
+		request.setRequestURI("/api/tasks/");
+		request.setContentType(JsonApiMediaType.APPLICATION_JSON_API);
+		request.addHeader("Accept", "*/*");
+		request.addHeader("Accept-Encoding", "gzip, deflate");
+
+		MockHttpServletResponse response = new MockHttpServletResponse();
+
+		katharsisServlet.service(request, response);
+
+		assertEquals("gzip", response.getHeader("Content-Encoding"));
+		assertEquals("Accept-Encoding", response.getHeader("Vary"));
+		assertNull(response.getHeader("ETag"));
+
+		GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(response.getContentAsByteArray()));
+		String responseContent = new Scanner(in, "UTF-8").useDelimiter("\\A").next();
+		assertTrue(responseContent, responseContent.startsWith("{\"data\":[{"));
+		assertJsonPartEquals(FIRST_TASK_ATTRIBUTES, responseContent, "data[0].attributes");
+	}
+
+	@Test
+	public void onMatchingETagShouldReturnNotModified() throws Exception {
+		katharsisServlet.destroy();
+		katharsisServlet = new KatharsisServlet();
+		((MockServletConfig) servletConfig).addInitParameter(KatharsisProperties.RESPONSE_ETAG, "true");
+		katharsisServlet.init(servletConfig);
+
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		katharsisServlet.service(createTaskRequest(null), response);
+		assertEquals(HttpServletResponse.SC_OK, response.getStatus());
+		String etag = response.getHeader("ETag");
+		assertNotNull(etag);
+
+		MockHttpServletResponse notModifiedResponse = new MockHttpServletResponse();
+		katharsisServlet.service(createTaskRequest(etag), notModifiedResponse);
+		assertEquals(HttpServletResponse.SC_NOT_MODIFIED, notModifiedResponse.getStatus());
+		assertEquals(etag, notModifiedResponse.getHeader("ETag"));
+		assertEquals(0, notModifiedResponse.getContentAsByteArray().length);
+
+		MockHttpServletResponse modifiedResponse = new MockHttpServletResponse();
+		katharsisServlet.service(createTaskRequest("\"other\""), modifiedResponse);
+		assertEquals(HttpServletResponse.SC_OK, modifiedResponse.getStatus());
+		assertJsonPartEquals("tasks", modifiedResponse.getContentAsString(), "data.type");
+	}
+
+	private MockHttpServletRequest createTaskRequest(String ifNoneMatch) {
+		MockHttpServletRequest request = new MockHttpServletRequest(servletContext);
+		request.setMethod("GET");
+		request.setContextPath("");
+		request.setServletPath("/api");
+		request.setPathInfo("/tasks/1");
+		request.setRequestURI("/api/tasks/1");
+		request.setContentType(JsonApiMediaType.APPLICATION_JSON_API);
+		request.addHeader("Accept", "*/*");
+		if (ifNoneMatch != null) {
+			request.addHeader("If-None-Match", ifNoneMatch);
+		}
+		return request;
+	}
+
 	@Test
 	public void onSimpleResourceGetShouldReturnOneResource() throws Exception {
 		MockHttpServletRequest request = new MockHttpServletRequest(servletContext);
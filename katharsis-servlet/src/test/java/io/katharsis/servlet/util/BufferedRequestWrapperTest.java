@@ -1,15 +1,26 @@
 package io.katharsis.servlet.util;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.io.ByteArrayInputStream;
+import java.io.File;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.Random;
 
+import javax.servlet.ServletContext;
 import javax.servlet.ServletInputStream;
 import javax.servlet.http.HttpServletRequest;
 
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.junit.runner.RunWith;
 import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
@@ -22,6 +33,12 @@ public class BufferedRequestWrapperTest {
     @Mock
     HttpServletRequest request;
 
+    @Mock
+    ServletContext servletContext;
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
     @Test
     public void onDataInRequestShouldReturnThisData() throws Exception {
         // GIVEN
@@ -53,4 +70,92 @@ public class BufferedRequestWrapperTest {
         // THEN
         assertThat(inputStream).isNull();
     }
+
+    @Test
+    public void onSecondStreamShouldReplayData() throws Exception {
+        // GIVEN
+        mockInputStream("hello world".getBytes(StandardCharsets.UTF_8));
+        BufferedRequestWrapper sut = new BufferedRequestWrapper(request);
+
+        // WHEN
+        byte[] head = new byte[5];
+        assertThat(sut.getInputStream().read(head, 0, 5)).isEqualTo(5);
+
+        // THEN
+        assertThat(head).isEqualTo("hello".getBytes(StandardCharsets.UTF_8));
+        assertThat(sut.isBuffering()).isTrue();
+        assertThat(sut.getInputStream()).hasSameContentAs(new ByteArrayInputStream("hello world".getBytes(StandardCharsets.UTF_8)));
+        assertThat(sut.getInputStream()).hasSameContentAs(new ByteArrayInputStream("hello world".getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    public void onDataExceedingThresholdShouldSpillAndReplay() throws Exception {
+        // GIVEN
+        byte[] data = new byte[10000];
+        new Random(1).nextBytes(data);
+        mockInputStream(data);
+        BufferedRequestWrapper sut = new BufferedRequestWrapper(request, 100);
+
+        // WHEN
+        ServletInputStream first = sut.getInputStream();
+
+        // THEN
+        assertThat(first).hasSameContentAs(new ByteArrayInputStream(data));
+        assertThat(sut.getInputStream()).hasSameContentAs(new ByteArrayInputStream(data));
+        sut.release();
+        assertThat(sut.isBuffering()).isFalse();
+    }
+
+    @Test
+    public void onSpillShouldUseOwnerOnlyFileInContainerTempDir() throws Exception {
+        // GIVEN
+        File tempDir = tempFolder.newFolder();
+        when(request.getServletContext()).thenReturn(servletContext);
+        when(servletContext.getAttribute(ServletContext.TEMPDIR)).thenReturn(tempDir);
+        byte[] data = new byte[1000];
+        new Random(2).nextBytes(data);
+        mockInputStream(data);
+        BufferedRequestWrapper sut = new BufferedRequestWrapper(request, 100);
+
+        // WHEN
+        assertThat(sut.getInputStream()).hasSameContentAs(new ByteArrayInputStream(data));
+
+        // THEN
+        File[] files = tempDir.listFiles();
+        assertThat(files).hasSize(1);
+        if (FileSystems.getDefault().supportedFileAttributeViews().contains("posix")) {
+            assertThat(Files.getPosixFilePermissions(files[0].toPath()))
+                    .isEqualTo(PosixFilePermissions.fromString("rw-------"));
+        }
+        sut.release();
+        assertThat(tempDir.listFiles()).isEmpty();
+    }
+
+    @Test
+    public void onUnreadDataShouldNotBuffer() throws Exception {
+        // GIVEN
+        mockInputStream("hello".getBytes(StandardCharsets.UTF_8));
+
+        // WHEN
+        BufferedRequestWrapper sut = new BufferedRequestWrapper(request);
+
+        // THEN
+        assertThat(sut.isBuffering()).isFalse();
+        verify(request, never()).getInputStream();
+    }
+
+    private void mockInputStream(byte[] data) throws IOException {
+        final ByteArrayInputStream byteArrayInputStream = new ByteArrayInputStream(data);
+        when(request.getInputStream()).thenReturn(new ServletInputStream() {
+            @Override
+            public int read() throws IOException {
+                return byteArrayInputStream.read();
+            }
+
+            @Override
+            public int read(byte[] b, int off, int len) throws IOException {
+                return byteArrayInputStream.read(b, off, len);
+            }
+        });
+    }
 }
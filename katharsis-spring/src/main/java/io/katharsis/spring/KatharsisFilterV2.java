@@ -9,7 +9,6 @@ import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
-import java.util.Scanner;
 import java.util.Set;
 
 import javax.annotation.Priority;
@@ -35,7 +34,8 @@ import io.katharsis.core.internal.dispatcher.RequestDispatcher;
 import io.katharsis.core.internal.dispatcher.path.JsonPath;
 import io.katharsis.core.internal.dispatcher.path.PathBuilder;
 import io.katharsis.core.internal.exception.KatharsisExceptionMapper;
-import io.katharsis.errorhandling.exception.JsonDeserializationException;
+import io.katharsis.core.internal.http.ResponseEncoder;
+import io.katharsis.core.internal.jackson.RequestBodyReader;
 import io.katharsis.errorhandling.exception.KatharsisMappableException;
 import io.katharsis.errorhandling.exception.KatharsisMatchingException;
 import io.katharsis.invoker.internal.JsonApiMediaType;
@@ -58,6 +58,12 @@ public class KatharsisFilterV2 implements Filter, BeanFactoryAware {
 
     private ConfigurableBeanFactory beanFactory;
 
+    private RequestBodyReader requestBodyReader;
+
+    private long requestSpillThreshold = BufferedRequestWrapper.DEFAULT_SPILL_THRESHOLD;
+
+    private ResponseEncoder responseEncoder = new ResponseEncoder(false, false, ResponseEncoder.DEFAULT_COMPRESSION_THRESHOLD);
+
 
     public KatharsisFilterV2(ObjectMapper objectMapper,
                              ResourceRegistry resourceRegistry,
@@ -66,6 +72,43 @@ public class KatharsisFilterV2 implements Filter, BeanFactoryAware {
         this.resourceRegistry = resourceRegistry;
         this.requestDispatcher = requestDispatcher;
         this.webPathPrefix = webPathPrefix != null ? webPathPrefix : "";
+        this.requestBodyReader = new RequestBodyReader(objectMapper, RequestBodyReader.UNLIMITED);
+    }
+
+    /**
+     * @param maxRequestBodySize maximum size in bytes of request bodies, see
+     *                           {@link io.katharsis.core.properties.KatharsisProperties#MAX_REQUEST_BODY_SIZE}.
+     */
+    public void setMaxRequestBodySize(long maxRequestBodySize) {
+        this.requestBodyReader = new RequestBodyReader(objectMapper, maxRequestBodySize);
+    }
+
+    public long getMaxRequestBodySize() {
+        return requestBodyReader.getMaxBodySize();
+    }
+
+    /**
+     * @param requestSpillThreshold number of bytes of a request payload held in memory for replay before the payload is
+     *                              moved to a temporary file
+     */
+    public void setRequestSpillThreshold(long requestSpillThreshold) {
+        this.requestSpillThreshold = requestSpillThreshold;
+    }
+
+    public long getRequestSpillThreshold() {
+        return requestSpillThreshold;
+    }
+
+    /**
+     * @param responseEncoder to produce compact and compressed responses, see
+     *                        {@link io.katharsis.core.properties.KatharsisProperties#RESPONSE_COMPRESSION}.
+     */
+    public void setResponseEncoder(ResponseEncoder responseEncoder) {
+        this.responseEncoder = responseEncoder;
+    }
+
+    public ResponseEncoder getResponseEncoder() {
+        return responseEncoder;
     }
 
     @Override
@@ -83,13 +126,18 @@ public class KatharsisFilterV2 implements Filter, BeanFactoryAware {
     @Override
     public void doFilter(ServletRequest req, ServletResponse res, FilterChain chain) throws IOException, ServletException {
         if (req instanceof HttpServletRequest && res instanceof HttpServletResponse && isAcceptablePath((HttpServletRequest)req)) {
-            HttpServletRequest request = new BufferedRequestWrapper((HttpServletRequest) req);
+            BufferedRequestWrapper request = new BufferedRequestWrapper((HttpServletRequest) req, requestSpillThreshold);
             HttpServletResponse response = (HttpServletResponse) res;
             req.setCharacterEncoding("UTF-8");
 
-            boolean passToFilters = invoke(request, response);
-            if (passToFilters) {
-                chain.doFilter(request, res);
+            try {
+                boolean passToFilters = invoke(request, response);
+                if (passToFilters) {
+                    // replay the payload only if it has been read already
+                    chain.doFilter(request.isBuffering() ? request : req, res);
+                }
+            } finally {
+                request.release();
             }
         } else {
             chain.doFilter(req, res);
@@ -123,6 +171,7 @@ public class KatharsisFilterV2 implements Filter, BeanFactoryAware {
 
             Map<String, Set<String>> parameters = getParameters(request);
 
+            requestBodyReader.checkContentLength(request.getContentLength());
             in = request.getInputStream();
             Document requestBody = inputStreamToBody(in);
 
@@ -138,32 +187,51 @@ public class KatharsisFilterV2 implements Filter, BeanFactoryAware {
         } finally {
             if (!passToFilters) {
                 closeQuietly(in);
+                writeResponse(request, response, katharsisResponse);
+            }
+        }
+        return passToFilters;
+    }
 
-                if (katharsisResponse != null) {
-                    response.setStatus(katharsisResponse.getHttpStatus());
-                    response.setContentType(JsonApiMediaType.APPLICATION_JSON_API);
-
-                    ByteArrayOutputStream baos = null;
-                    OutputStream out = null;
+    private void writeResponse(HttpServletRequest request, HttpServletResponse response, Response katharsisResponse) throws IOException {
+        if (katharsisResponse != null) {
+            response.setStatus(katharsisResponse.getHttpStatus());
+            response.setContentType(JsonApiMediaType.APPLICATION_JSON_API);
 
-                    try {
-                        // first write to a buffer first because objectMapper may fail while writing.
-                        baos = new ByteArrayOutputStream(BUFFER_SIZE);
-                        objectMapper.writeValue(baos, katharsisResponse.getDocument());
+            ByteArrayOutputStream baos = null;
+            OutputStream out = null;
 
-                        out = response.getOutputStream();
-                        out.write(baos.toByteArray());
-                        out.flush();
-                    } finally {
-                        closeQuietly(baos);
-                        closeQuietly(out);
+            try {
+                // first write to a buffer first because objectMapper may fail while writing.
+                baos = new ByteArrayOutputStream(BUFFER_SIZE);
+                responseEncoder.configure(objectMapper.writer()).writeValue(baos, katharsisResponse.getDocument());
+
+                String contentEncoding = responseEncoder.negotiate(request.getHeader(ResponseEncoder.HEADER_ACCEPT_ENCODING));
+                ResponseEncoder.EncodedBody encodedBody = responseEncoder.encode(baos.toByteArray(), contentEncoding);
+                if (responseEncoder.isCompression()) {
+                    response.setHeader(ResponseEncoder.HEADER_VARY, ResponseEncoder.HEADER_ACCEPT_ENCODING);
+                }
+                if (encodedBody.getContentEncoding() != null) {
+                    response.setHeader(ResponseEncoder.HEADER_CONTENT_ENCODING, encodedBody.getContentEncoding());
+                }
+                if (responseEncoder.isETag(request.getMethod(), katharsisResponse.getHttpStatus())) {
+                    response.setHeader(ResponseEncoder.HEADER_ETAG, encodedBody.getETag());
+                    if (ResponseEncoder.isNotModified(request.getHeader(ResponseEncoder.HEADER_IF_NONE_MATCH), encodedBody.getETag())) {
+                        response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+                        return;
                     }
-                } else {
-                    response.setStatus(HttpServletResponse.SC_NO_CONTENT);
                 }
+
+                out = response.getOutputStream();
+                out.write(encodedBody.getBytes());
+                out.flush();
+            } finally {
+                closeQuietly(baos);
+                closeQuietly(out);
             }
+        } else {
+            response.setStatus(HttpServletResponse.SC_NO_CONTENT);
         }
-        return passToFilters;
     }
 
     private boolean isAcceptablePath(HttpServletRequest request) {
@@ -228,22 +296,7 @@ public class KatharsisFilterV2 implements Filter, BeanFactoryAware {
     }
 
     private Document inputStreamToBody(InputStream is) {
-        if (is == null) {
-            return null;
-        }
-
-        Scanner s = new Scanner(is).useDelimiter("\\A");
-        String requestBody = s.hasNext() ? s.next() : "";
-
-        if (requestBody == null || requestBody.isEmpty()) {
-            return null;
-        }
-
-        try {
-            return objectMapper.readValue(requestBody, Document.class);
-        } catch (IOException e) {
-            throw new JsonDeserializationException(e.getMessage());
-        }
+        return requestBodyReader.read(is);
     }
 
     private void closeQuietly(Closeable closeable) {
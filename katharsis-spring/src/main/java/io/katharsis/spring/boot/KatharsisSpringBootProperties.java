@@ -31,6 +31,12 @@ public class KatharsisSpringBootProperties {
      */
     private Long maxPageLimit;
 
+    /**
+     * Number of bytes of a request payload held in memory for replay by subsequent filters before the payload is
+     * moved to a temporary file.
+     */
+    private Long requestSpillThreshold;
+
     public String getResourcePackage() {
         return resourcePackage;
     }
@@ -70,4 +76,12 @@ public class KatharsisSpringBootProperties {
     public void setMaxPageLimit(Long maxPageLimit) {
         this.maxPageLimit = maxPageLimit;
     }
+
+    public Long getRequestSpillThreshold() {
+        return requestSpillThreshold;
+    }
+
+    public void setRequestSpillThreshold(Long requestSpillThreshold) {
+        this.requestSpillThreshold = requestSpillThreshold;
+    }
 }
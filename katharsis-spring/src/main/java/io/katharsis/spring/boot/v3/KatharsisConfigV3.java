@@ -12,6 +12,8 @@ import com.fasterxml.jackson.databind.module.SimpleModule;
 
 import io.katharsis.core.internal.boot.KatharsisBoot;
 import io.katharsis.core.internal.dispatcher.RequestDispatcher;
+import io.katharsis.core.internal.http.ResponseEncoder;
+import io.katharsis.core.internal.jackson.RequestBodyReader;
 import io.katharsis.core.internal.jackson.JsonApiModuleBuilder;
 import io.katharsis.module.ModuleRegistry;
 import io.katharsis.resource.registry.ConstantServiceUrlProvider;
@@ -61,7 +63,13 @@ public class KatharsisConfigV3 {
 		objectMapper.registerModule(parameterNamesModule);
 		ResourceRegistry resourceRegistry = boot.getResourceRegistry();
 		RequestDispatcher requestDispatcher = boot.getRequestDispatcher();
-		return new KatharsisFilterV2(objectMapper, resourceRegistry, requestDispatcher, properties.getPathPrefix());
+		KatharsisFilterV2 filter = new KatharsisFilterV2(objectMapper, resourceRegistry, requestDispatcher, properties.getPathPrefix());
+		filter.setResponseEncoder(ResponseEncoder.create(boot.getPropertiesProvider()));
+		filter.setMaxRequestBodySize(RequestBodyReader.getMaxBodySize(boot.getPropertiesProvider()));
+		if (properties.getRequestSpillThreshold() != null) {
+			filter.setRequestSpillThreshold(properties.getRequestSpillThreshold());
+		}
+		return filter;
 	}
 
 	@Bean